@@ -4,9 +4,54 @@ import org.gk.model.GKInstance;
 import org.gk.model.InstanceDisplayNameGenerator;
 import org.gk.model.ReactomeJavaConstants;
 import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.chains.ChainDiff;
+import org.reactome.release.chains.EwasChainChangeReporter;
+import org.reactome.release.collections.LongHashSet;
+import org.reactome.release.collections.StringDictionary;
+import org.reactome.release.db.AttributeDiffer;
+import org.reactome.release.db.DatabaseWatermark;
+import org.reactome.release.db.DeletionExecutor;
+import org.reactome.release.db.DirtyAttributes;
+import org.reactome.release.db.DisplayNameUpdater;
+import org.reactome.release.db.DuplicateIsoformDetector;
+import org.reactome.release.db.InstancePrefetcher;
+import org.reactome.release.db.LookupTableLoader;
+import org.reactome.release.db.MismatchedIsoformReparenter;
+import org.reactome.release.db.ReadReplica;
+import org.reactome.release.db.ReferenceDNASequenceManager;
+import org.reactome.release.db.StartupSnapshot;
+import org.reactome.release.db.TransactionBatcher;
+import org.reactome.release.index.SwissProtEntryIndex;
+import org.reactome.release.logging.UpdateLog;
+import org.reactome.release.metrics.MetricsServer;
+import org.reactome.release.metrics.UpdateProgress;
+import org.reactome.release.obsolete.ObsoleteAccession;
+import org.reactome.release.obsolete.ObsoleteClassification;
+import org.reactome.release.obsolete.ObsoleteClassifier;
+import org.reactome.release.obsolete.ObsoleteInstance;
+import org.reactome.release.obsolete.ObsoleteLabel;
+import org.reactome.release.parsing.ChainFeatureScanner;
+import org.reactome.release.parsing.DescriptionNormalizer;
+import org.reactome.release.parsing.EntryFramer;
+import org.reactome.release.parsing.EntrySlice;
+import org.reactome.release.parsing.FieldExtractors;
+import org.reactome.release.parsing.LookaheadEntryReader;
+import org.reactome.release.parsing.TaxonPrefilter;
+import org.reactome.release.profiling.DatabaseCallEvent;
+import org.reactome.release.profiling.EntryApplyEvent;
+import org.reactome.release.profiling.EntryParseEvent;
+import org.reactome.release.profiling.FlightRecording;
+import org.reactome.release.profiling.RemoteLookupEvent;
+import org.reactome.release.reports.BatchedReportWriter;
 import org.reactome.release.reports.DuplicateAccessionReport;
+import org.reactome.release.reports.DuplicateIsoformReport;
+import org.reactome.release.reports.EntryLatencyReport;
 import org.reactome.release.reports.Reportable;
 import org.reactome.release.reports.TrEMBLAccessionReport;
+import org.reactome.release.sharding.ShardCoordinator;
+import org.reactome.release.sharding.ShardProgress;
+import org.reactome.release.sharding.ShardRange;
+import org.reactome.release.sharding.ShardResult;
 import org.reactome.util.general.DBUtils;
 
 import java.io.*;
@@ -16,7 +61,6 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -24,8 +68,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static org.reactome.release.Utils.emptyListIfNull;
-import static org.reactome.release.Utils.isTrEMBLId;
 import static org.reactome.util.general.DBUtils.getCuratorDbAdaptor;
 
 /**
@@ -33,566 +75,698 @@ import static org.reactome.util.general.DBUtils.getCuratorDbAdaptor;
  *         Created 7/31/2023
  */
 public class Main {
+    private static final String UNIPROT_REFERENCE_DATABASE_NAME = "UniProt";
+    private static final String ENSEMBL_REFERENCE_DATABASE_NAME = "ENSEMBL";
+    private static final String SEQUENCE_REPORT_FILE_NAME = "sequence_uniprot_report.txt";
+    private static final String REFERENCE_DNA_SEQUENCE_REPORT_FILE_NAME = "reference_DNA_sequence_report.txt";
+    private static final String EWAS_COORDINATES_REPORT_FILE_NAME = "ewasCoordinatesReport.txt";
+    private static final String CHANGE_LOG_FILE_NAME = "uniprot_update_changes.log";
+    private static final Pattern GENE_NAME_SEPARATOR_PATTERN = Pattern.compile("\\s{2,}");
+    private static final Pattern NAME_END_TAG_PATTERN = Pattern.compile("</name>");
+    private static final Pattern NAME_START_TAG_PATTERN = Pattern.compile("<name.*?>");
+    private static final Pattern DOUBLE_SPACE_PATTERN = Pattern.compile(" {2}");
+    private static final Pattern COMMENT_PATTERN = Pattern.compile(
+        "<comment type=\"([A-Za-z ]*?)\".*?\\s+<text.*?>(.*?)</text>", Pattern.MULTILINE);
+    private static final Pattern SEQ_REGION_PATTERN = Pattern.compile("\"seq_region_name\":(\".*?\")");
+
     private Path uniprotUpdateDirectoryPath;
 
+    private MySQLAdaptor dba;
+    private ReadReplica readReplica;
+    private GKInstance uniProtReferenceDatabase;
+    private GKInstance instanceEdit;
+    private Map<Integer, String> taxonIdToSpeciesName;
+    private Map<String, GKInstance> speciesNameToInstance = new HashMap<>();
+
+    private Map<String, Long> rgpAccessionToDbId;
+    private Map<String, Long> isoformAccessionToDbId;
+    private ReferenceDNASequenceManager referenceDNASequenceManager;
+    // Set in shard workers, whose ReferenceDNASequences were already brought up to date by the coordinator
+    private boolean referenceDNASequencesSettled;
+    private InstancePrefetcher instancePrefetcher;
+    private int prefetchLookahead;
+
+    private Map<Long, String> duplicateDbIdToReferenceGeneProductAccession = new HashMap<>();
+    private Map<String, List<String>> secondaryAccessionToPrimaryAccessionList = new HashMap<>();
+    private Map<String, String> misMatchedIsoformAccessionToRGPAccession = new HashMap<>();
+
+    private AttributeDiffer attributeDiffer;
+    // Shared instances of the keywords and comment types repeated across entries (gene names are nearly all unique,
+    // so they aren't interned)
+    private final StringDictionary valueDictionary = new StringDictionary();
+    private final ChainFeatureScanner chainFeatureScanner = new ChainFeatureScanner();
+    private final Map<String, String> commentTypeToLabel = new HashMap<>();
+    private DisplayNameUpdater displayNameUpdater;
+
+    private BatchedReportWriter sequenceReportWriter;
+    private BatchedReportWriter referenceDNASequenceReportWriter;
+    private EwasChainChangeReporter ewasChainChangeReporter;
+    private UpdateLog updateLog;
+    private EntryLatencyReport entryLatencyReport;
+    private UpdateLog.Level consoleLogLevel;
+    private int consoleWarningsPerMinute;
+    private int numberOfSlowestEntriesReported;
+
+    private int numberOfInstancesInSwissProtFile;
+    private int numberOfNewSwissProtInstances;
+
+    // Reverts the changes to the lookup tables made since the last commit, most recent first
+    private final Deque<Runnable> uncommittedChangeUndoActions = new ArrayDeque<>();
+    // Existing ReferenceGeneProducts and ReferenceIsoforms changed in memory since the last commit, by DB_ID
+    private final Map<Long, GKInstance> uncommittedUpdatedInstances = new LinkedHashMap<>();
+    private TransactionBatcher transactionBatcher;
+
+    // Read by the monitoring threads of the UpdateProgress
+    private volatile String phase = "starting";
+    private volatile long phaseStartMillis = System.currentTimeMillis();
+    // Set while the workers of a sharded update run, whose progress is then reported instead of this process's
+    private volatile ShardCoordinator runningShardCoordinator;
+
     public static void main(String[] args) throws Exception {
         Main main = new Main();
 
         String configFilePathAsString = args.length > 0 ? args[0] : getDefaultConfigFilePath().toString();
         Properties configProperties = getConfigProperties(configFilePathAsString);
 
-        main.run(configProperties);
+        if (args.length > 1 && args[1].equals(ShardCoordinator.WORKER_MODE)) {
+            main.runShardWorker(configProperties,
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]));
+            return;
+        }
+
+        main.run(configProperties, configFilePathAsString);
     }
 
-    @SuppressWarnings("unchecked")
-    private void run(Properties configProperties) throws Exception {
-        MySQLAdaptor dba = getCuratorDbAdaptor(configProperties);
+    private void run(Properties configProperties, String configFilePathAsString) throws Exception {
+        initialize(configProperties);
+        UpdateProgress updateProgress = new UpdateProgress(new UpdateProgressSource());
+        updateProgress.register();
+        try (MetricsServer metricsServer = MetricsServer.fromConfig(configProperties, updateProgress);
+             FlightRecording flightRecording =
+                 FlightRecording.fromConfig(configProperties, getUniprotUpdateDirectoryPath());
+             ReadReplica readReplica = ReadReplica.fromConfig(configProperties, dba)) {
+            this.readReplica = readReplica;
+            setPhase("loading start-up data");
+            run(configProperties, configFilePathAsString, getStartupSnapshot(configProperties));
+            setPhase("refreshing start-up snapshot");
+            refreshStartupSnapshot(configProperties);
+        } finally {
+            updateProgress.unregister();
+        }
+    }
+
+    private void run(Properties configProperties, String configFilePathAsString, StartupSnapshot startupSnapshot)
+        throws Exception {
 
         List<String> skipList = getSkipList();
 
-        this.uniprotUpdateDirectoryPath = Paths.get(configProperties.getProperty("uniprotUpdateDirectory"));
+        prepareUpdate(startupSnapshot, getInstanceEdit(dba, "UniProt Update on " + getTodaysDate()));
 
-        GKInstance uniProtReferenceDatabase = getUniProtReferenceDatabase(dba);
-        GKInstance instanceEdit = getInstanceEdit(dba, "UniProt Update on " + getTodaysDate());
+        // Counters
+        int totalNumberOfDbInstances = rgpAccessionToDbId.size();
 
-        Map<Integer, String> taxonIdToSpeciesName = getTaxonIdToSpeciesName();
+        boolean rebuildAllDisplayNames =
+            Boolean.parseBoolean(configProperties.getProperty("rebuildAllDisplayNames", "false"));
 
-        // Counters
-        int totalNumberOfDbInstances;
-        int numberOfInstancesInSwissProtFile = 0;
-        int numberOfObsoleteInstancesWithNoEWAS = 0;
-        int numberOfNewSwissProtInstances = 0;
+        SwissProtFileProcessor swissProtFileProcessor = new SwissProtFileProcessor(getUniprotUpdateDirectoryPath());
+
+        String targetedAccessionsFile = configProperties.getProperty("targetedAccessionsFile", "").trim();
+        if (!targetedAccessionsFile.isEmpty()) {
+            setPhase("targeted update");
+            openReportWriters(getUniprotUpdateDirectoryPath());
+            runTargetedUpdate(swissProtFileProcessor, Paths.get(targetedAccessionsFile));
+            return;
+        }
 
-        Map<Long,String> duplicateDbIdToReferenceGeneProductAccession = new HashMap<>();
+        int shardCount = Integer.parseInt(configProperties.getProperty("shardCount", "1"));
+        if (shardCount > 1) {
+            setPhase("creating shared instances");
+            runShards(configProperties, configFilePathAsString, startupSnapshot, shardCount);
+        } else {
+            setPhase("processing entries");
+            openReportWriters(getUniprotUpdateDirectoryPath());
+            int recordCounter;
+            try (EntryFramer entryFramer = swissProtFileProcessor.getEntryFramer()) {
+                recordCounter = processEntries(entryFramer);
+            }
+            closeReportWriters();
+
+            System.out.println(recordCounter + " records processed and committed");
+        }
+        System.out.println("All records in " + swissProtFileProcessor.getSwissProtFilePath() + " processed");
+
+        runCleanup(configProperties, skipList, totalNumberOfDbInstances, rebuildAllDisplayNames);
+    }
 
-        System.out.println("Populating rgp accession to db id...");
-        Map<String, Long> rgpAccessionToDbId = getRGPAccessionToDbIdMap(dba);
-        totalNumberOfDbInstances = rgpAccessionToDbId.size();
-        System.out.println("Populating isoform accession to db id...");
-        Map<String, Long> isoformAccessionToDbId = getIsoformAccessionToDbIdMap(dba);
-        System.out.println("Populating rds identifier to db id...");
-        Map<String, Long> rdsIdentifierToDbId = getRDSIdentifierToDbIdMap(dba);
+    /**
+     * Processes the entries of one shard of the SwissProt file as a worker process of a sharded update (see
+     * {@link ShardCoordinator}).  The worker uses the start-up snapshot and the InstanceEdit of the coordinator,
+     * commits its changes and writes its reports and {@link ShardResult} to the directory of its shard.  The
+     * clean-up tasks are left to the coordinator.  Its {@link UpdateProgress} is registered for JMX and, while it
+     * processes entries, written to the directory of its shard as a {@link ShardProgress}.
+     *
+     * @param configProperties Configuration properties (the same as the coordinator)
+     * @param shardIndex Index of the shard to process
+     * @param shardCount Number of shards the file is split into
+     * @param instanceEditDbId DB_ID of the InstanceEdit created by the coordinator
+     * @throws Exception Thrown if the shard can't be processed or its result can't be written
+     */
+    private void runShardWorker(Properties configProperties, int shardIndex, int shardCount, long instanceEditDbId)
+        throws Exception {
 
-        Map<String, List<String>> secondaryAccessionToPrimaryAccessionList = new HashMap<>();
-        Map<String, String> misMatchedIsoformAccessionToRGPAccession = new HashMap<>();
+        initialize(configProperties);
+        // The workers don't serve metrics (they would all use the port of the coordinator); the coordinator reports
+        // their combined progress from the progress files they write
+        UpdateProgressSource updateProgressSource = new UpdateProgressSource();
+        UpdateProgress updateProgress = new UpdateProgress(updateProgressSource);
+        updateProgress.register();
+        try {
+            runShardWorker(configProperties, shardIndex, shardCount, instanceEditDbId, updateProgressSource);
+        } finally {
+            updateProgress.unregister();
+        }
+    }
 
-        BufferedWriter sequenceReportWriter = Files.newBufferedWriter(
-            getUniprotUpdateDirectoryPath().resolve("sequence_uniprot_report.txt"));
-        BufferedWriter referenceDNASequenceReportWriter = Files.newBufferedWriter(
-            getUniprotUpdateDirectoryPath().resolve("reference_DNA_sequence_report.txt"));
+    private void runShardWorker(Properties configProperties, int shardIndex, int shardCount, long instanceEditDbId,
+                                UpdateProgress.Source updateProgressSource) throws Exception {
+        setPhase("loading start-up data");
+        Path shardDirectoryPath = ShardCoordinator.getShardDirectoryPath(getUniprotUpdateDirectoryPath(), shardIndex);
+        StartupSnapshot startupSnapshot =
+            StartupSnapshot.read(ShardCoordinator.getSnapshotFilePath(getUniprotUpdateDirectoryPath()));
+        prepareUpdate(startupSnapshot, dba.fetchInstance(ReactomeJavaConstants.InstanceEdit, instanceEditDbId));
+        this.referenceDNASequencesSettled = true;
+
+        Set<String> processedRGPAccessions = new LinkedHashSet<>(rgpAccessionToDbId.keySet());
+        Set<String> processedIsoformAccessions = new LinkedHashSet<>(isoformAccessionToDbId.keySet());
+
+        Path swissProtFilePath =
+            new SwissProtFileProcessor(getUniprotUpdateDirectoryPath()).getUncompressedSwissProtFilePath();
+        ShardRange shardRange = ShardRange.split(Files.size(swissProtFilePath), shardCount).get(shardIndex);
+        System.out.println("Processing " + shardRange + " of " + swissProtFilePath);
+
+        setPhase("processing entries of shard " + shardIndex + " of " + shardCount);
+        openReportWriters(shardDirectoryPath);
+        int recordCounter;
+        try (FlightRecording flightRecording = FlightRecording.fromConfig(configProperties, shardDirectoryPath);
+             ShardProgress.Writer shardProgressWriter = new ShardProgress.Writer(shardDirectoryPath, updateProgressSource);
+             EntryFramer entryFramer =
+                 new EntryFramer(swissProtFilePath, shardRange.getStartOffset(), shardRange.getEndOffset())) {
+            recordCounter = processEntries(entryFramer);
+        }
+        closeReportWriters();
+        entryLatencyReport.writeData();
+
+        setPhase("writing shard result");
+        if (!Boolean.parseBoolean(configProperties.getProperty("rebuildAllDisplayNames", "false"))) {
+            System.out.println("Updating display names of " + displayNameUpdater.getNumberOfTouchedInstances() +
+                " created or modified instances...");
+            displayNameUpdater.updateTouchedDisplayNames();
+        }
+        dba.commit();
+        System.out.println(recordCounter + " records processed and committed");
 
-        String line;
-        StringBuilder entryBuilder = new StringBuilder();
+        processedRGPAccessions.removeAll(rgpAccessionToDbId.keySet());
+        processedIsoformAccessions.removeAll(isoformAccessionToDbId.keySet());
+        new ShardResult(shardIndex, recordCounter, numberOfInstancesInSwissProtFile, numberOfNewSwissProtInstances,
+            processedRGPAccessions, processedIsoformAccessions, secondaryAccessionToPrimaryAccessionList,
+            misMatchedIsoformAccessionToRGPAccession, duplicateDbIdToReferenceGeneProductAccession
+        ).write(shardDirectoryPath);
+        System.out.println("Result of " + shardRange + " written to " + shardDirectoryPath);
+    }
+
+    /**
+     * Processes the SwissProt file as shards in separate worker processes (launched locally unless the
+     * "shardWorkers" configuration property is "external") and merges their results and reports as if the file had
+     * been processed by this process.
+     *
+     * @param configProperties Configuration properties
+     * @param configFilePathAsString Path of the configuration file, passed on to the workers
+     * @param startupSnapshot Start-up data to share with the workers
+     * @param shardCount Number of shards
+     * @throws Exception Thrown if a shard fails or the results can't be merged
+     */
+    private void runShards(Properties configProperties, String configFilePathAsString,
+                           StartupSnapshot startupSnapshot, int shardCount) throws Exception {
+        ShardCoordinator shardCoordinator = new ShardCoordinator(getUniprotUpdateDirectoryPath(), shardCount,
+            Paths.get(configFilePathAsString).toAbsolutePath().toString(), instanceEdit.getDBID());
+        shardCoordinator.prepare(createSharedInstances(startupSnapshot));
+
+        List<ShardResult> shardResults;
+        setPhase("processing entries in " + shardCount + " shards");
+        this.runningShardCoordinator = shardCoordinator;
+        try {
+            if (configProperties.getProperty("shardWorkers", "local").trim().equals("external")) {
+                shardResults = shardCoordinator.awaitExternalWorkers(
+                    Long.parseLong(configProperties.getProperty("shardWaitMinutes", "1440")) * 60_000L);
+            } else {
+                String shardWorkerJvmOptions = configProperties.getProperty("shardWorkerJvmOptions", "").trim();
+                shardResults = shardCoordinator.runLocalWorkers(!shardWorkerJvmOptions.isEmpty() ?
+                    Arrays.asList(shardWorkerJvmOptions.split("\\s+")) :
+                    new ArrayList<>());
+            }
+        } finally {
+            this.runningShardCoordinator = null;
+        }
+        setPhase("merging shard results");
 
         int recordCounter = 0;
+        for (ShardResult shardResult : shardResults) {
+            recordCounter += shardResult.getNumberOfRecords();
+            numberOfInstancesInSwissProtFile += shardResult.getNumberOfInstancesInSwissProtFile();
+            numberOfNewSwissProtInstances += shardResult.getNumberOfNewSwissProtInstances();
+
+            rgpAccessionToDbId.keySet().removeAll(shardResult.getProcessedRGPAccessions());
+            isoformAccessionToDbId.keySet().removeAll(shardResult.getProcessedIsoformAccessions());
+            for (Map.Entry<String, List<String>> secondaryAccessionAndPrimaryAccessions :
+                shardResult.getSecondaryAccessionToPrimaryAccessions().entrySet()) {
+                secondaryAccessionToPrimaryAccessionList.computeIfAbsent(
+                    secondaryAccessionAndPrimaryAccessions.getKey(), k -> new ArrayList<>()
+                ).addAll(secondaryAccessionAndPrimaryAccessions.getValue());
+            }
+            misMatchedIsoformAccessionToRGPAccession.putAll(shardResult.getMisMatchedIsoformAccessionToRGPAccession());
+            duplicateDbIdToReferenceGeneProductAccession.putAll(
+                shardResult.getDuplicateDbIdToReferenceGeneProductAccession());
+        }
 
-        SwissProtFileProcessor swissProtFileProcessor = new SwissProtFileProcessor(getUniprotUpdateDirectoryPath());
-        BufferedReader swissProtFileReader = swissProtFileProcessor.getFileReader();
-        while ((line = swissProtFileReader.readLine()) != null) {
-            entryBuilder.append(line);
-
-            if (line.contains("</entry>")) {
-                String entry = entryBuilder.toString();
-                entryBuilder = new StringBuilder();
-
-                if (recordCounter % 1000 == 0) {
-                    if (recordCounter != 0) {
-                        dba.commit();
-                        System.out.println(String.format("%d records processed and committed", recordCounter));
-                    }
-                    dba.startTransaction();
-                }
-                recordCounter += 1;
+        for (String reportFileName : Arrays.asList(
+            SEQUENCE_REPORT_FILE_NAME, REFERENCE_DNA_SEQUENCE_REPORT_FILE_NAME, EWAS_COORDINATES_REPORT_FILE_NAME,
+            CHANGE_LOG_FILE_NAME)) {
+            shardCoordinator.mergeReport(reportFileName);
+        }
+        EntryLatencyReport mergedEntryLatencyReport =
+            new EntryLatencyReport(getUniprotUpdateDirectoryPath(), numberOfSlowestEntriesReported);
+        for (ShardResult shardResult : shardResults) {
+            mergedEntryLatencyReport.mergeData(
+                ShardCoordinator.getShardDirectoryPath(getUniprotUpdateDirectoryPath(), shardResult.getShardIndex()));
+        }
+        mergedEntryLatencyReport.writeReport();
+        System.out.println(recordCounter + " records processed and committed by " + shardCount + " shards");
+    }
+
+    /**
+     * Creates and updates the Species and EnsEMBL gene ReferenceDNASequences needed by the entries of the SwissProt
+     * file before the file is split into shards.  Workers processing different shards would otherwise each fail to
+     * find and then create the same instance, duplicating it, and would update a gene shared by entries of several
+     * shards concurrently, leaving the values of whichever worker committed last.  As when the file is processed by
+     * a single process, the instances are created with the values of the first entry needing them and then updated
+     * with the values of every later entry, in file order, and committed; the workers leave them as they are.  The
+     * lines of the reference DNA sequence report and change log for them are written to the coordinator directory
+     * (see {@link ShardCoordinator#getCoordinatorDirectoryPath(Path)}).
+     *
+     * @param startupSnapshot Start-up data of the coordinator
+     * @return Start-up data for the workers, including the created instances
+     * @throws Exception Thrown if the SwissProt file can't be read or the instances can't be created or updated
+     */
+    private StartupSnapshot createSharedInstances(StartupSnapshot startupSnapshot) throws Exception {
+        Path coordinatorDirectoryPath = ShardCoordinator.getCoordinatorDirectoryPath(getUniprotUpdateDirectoryPath());
+        Files.createDirectories(coordinatorDirectoryPath);
+        this.referenceDNASequenceReportWriter =
+            new BatchedReportWriter(coordinatorDirectoryPath.resolve(REFERENCE_DNA_SEQUENCE_REPORT_FILE_NAME));
+        this.updateLog = new UpdateLog(coordinatorDirectoryPath.resolve(CHANGE_LOG_FILE_NAME), System.out,
+            consoleLogLevel, consoleWarningsPerMinute);
+
+        Map<String, Long> referenceDNASequenceIdentifierToDbId =
+            new HashMap<>(startupSnapshot.getReferenceDNASequenceIdentifierToDbId());
+        int numberOfCreatedReferenceDNASequences = 0;
+        Set<Long> updatedReferenceDNASequenceDbIds = new HashSet<>();
 
-                List<String> accessions = matchMultipleValues(entry, "<accession>(.*?)</accession>");
-                String primaryAccession = accessions.remove(0);
-                for (String secondaryAccession : accessions) {
-                    secondaryAccessionToPrimaryAccessionList.computeIfAbsent(
-                        secondaryAccession, k -> new ArrayList<>()).add(primaryAccession);
+        dba.startTransaction();
+        TaxonPrefilter taxonPrefilter = new TaxonPrefilter(taxonIdToSpeciesName, Collections.emptySet());
+        try (EntryFramer entryFramer = new SwissProtFileProcessor(getUniprotUpdateDirectoryPath()).getEntryFramer()) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                if (!taxonPrefilter.accept(entrySlice)) {
+                    continue;
                 }
+                String entry = entrySlice.decode();
 
-                String organismName = matchSingleValue(entry, "<name type=\"scientific\">(.*?)</name>");
+                String organismName = FieldExtractors.SCIENTIFIC_NAME.extractFirst(entry);
                 String taxon = "";
-                Map<String, GKInstance> speciesNameToInstanceCache = new HashMap<>();
                 GKInstance speciesInstance = null;
                 for (String speciesName : taxonIdToSpeciesName.values()) {
                     if (organismName.contains(speciesName)) {
                         taxon = speciesName;
-                        speciesInstance = getSpeciesInstance(dba, taxon, speciesNameToInstanceCache);
+                        speciesInstance = getSpeciesInstance(dba, taxon, speciesNameToInstance);
                     }
                 }
-
-                if (taxon.length() < 2 && !rgpAccessionToDbId.containsKey(primaryAccession)) {
+                if (!taxon.contains("Homo sapiens")) {
                     continue;
                 }
 
-                numberOfInstancesInSwissProtFile += 1;
+                Set<String> uniqueEnsEMBLGeneIds = getUniqueEnsEMBLGeneIds(entry);
+                List<String> geneNames = getGeneNames(entry);
+                for (String ensEMBLGeneId : uniqueEnsEMBLGeneIds) {
+                    GKInstance referenceDNASequence = referenceDNASequenceManager.get(ensEMBLGeneId);
+                    if (referenceDNASequence != null) {
+                        if (referenceDNASequenceManager.update(
+                            referenceDNASequence, ensEMBLGeneId, geneNames, speciesInstance)) {
+                            updatedReferenceDNASequenceDbIds.add(referenceDNASequence.getDBID());
+                            referenceDNASequenceReportWriter.write(
+                                "Updating existing reference DNA sequence for " + ensEMBLGeneId + " with db_id " +
+                                referenceDNASequence.getDBID() + "\n"
+                            );
+                        }
+                        continue;
+                    }
+                    if (uniqueEnsEMBLGeneIds.size() > 1 && !onEnsEMBLPrimaryAssembly(ensEMBLGeneId)) {
+                        continue;
+                    }
 
-                String id = matchSingleValue(entry, "<name>([A-Za-z0-9_]*)</name>");
+                    referenceDNASequence =
+                        referenceDNASequenceManager.create(ensEMBLGeneId, geneNames, speciesInstance);
+                    referenceDNASequenceIdentifierToDbId.put(ensEMBLGeneId, referenceDNASequence.getDBID());
+                    numberOfCreatedReferenceDNASequences += 1;
+                    referenceDNASequenceReportWriter.write("Reference DNA sequence with db_id " +
+                        referenceDNASequence.getDBID() + " created for " + ensEMBLGeneId + "\n");
+                }
+            }
+        }
+        referenceDNASequenceManager.flush();
+        dba.commit();
+        referenceDNASequenceManager.markCommitted();
+        referenceDNASequenceReportWriter.commitBatch();
+        uncommittedChangeUndoActions.clear();
 
-                accessions.add(0, id);
-                String description = matchSingleValue(entry, "<protein(.*)</protein>");
+        referenceDNASequenceReportWriter.close();
+        updateLog.close();
+        System.out.println(numberOfCreatedReferenceDNASequences + " reference DNA sequences created and " +
+            updatedReferenceDNASequenceDbIds.size() + " updated before sharding");
 
-                String fullName = matchSingleValue(description, "<recommendedName>\\s+<fullName>(.*?)</fullName>");
-                if (fullName.isEmpty()) {
-                    fullName = matchSingleValue(description,
-                        "<recommendedName ref=\"\\d+\">\\s+<fullName>(.*)</fullName>");
-                }
-                String recommendedName = !fullName.isEmpty() ? fullName : "No name";
-
-                description =
-                    description
-                    .replaceAll("</fullName>","")
-                    .replaceAll("<fullName>","")
-                    .replaceAll("</recommendedName>","")
-                    .replaceAll("<recommendedName>"," recommendedName: ")
-                    .replaceAll("</alternativeName>","")
-                    .replaceAll("</shortName>","")
-                    .replaceAll("<alternativeName>"," alternativeName: ")
-                    .replaceAll("<shortName>"," shortName: ")
-                    .replaceAll("<recommendedName ref=\"\\d+\"","")
-                    .replaceAll("<ecNumber>", " ecNumber: ")
-                    .replaceAll("</ecNumber>", "")
-                    .replaceAll(" +"," ")
-                    .replaceAll("\\n","\t")
-                    .replaceAll("\\t"," ")
-                    .replaceAll(">","")
-                    .replaceAll("<","")
-                    .replaceAll("type=\"fragments?\"","")
-                    .replaceAll("^\\s+","")
-                    .replaceAll("\\s+$","");
-
-                Integer sequenceLength = Integer.parseInt(
-                    matchSingleValue(entry, "<sequence.*length=\"(\\d+)\""));
-
-                String checksum = matchSingleValue(entry, "<sequence.*checksum=\"([0-9A-F]+)\"");
-
-                List<String> geneNames = matchMultipleValues(entry, "<gene>(.*?)</gene>").stream().flatMap(
-                    names -> Arrays.stream(names.trim().split("\\s{2,}")).map(geneName ->
-                        geneName
-                        .replaceAll("</name>","")
-                        .replaceAll("<name.*?>","")
-                        .replaceAll(" {2}", "")
-                    )
-                ).distinct().collect(Collectors.toList());
-
-
-                String name = !geneNames.isEmpty() &&!geneNames.get(0).isEmpty() ?
-                    geneNames.get(0) :
-                    recommendedName;
-
-                List<GKInstance> referenceDNASequences = new ArrayList<>();
-                if (taxon.contains("Homo sapiens")) {
-                    String typeValueRegex = "<property type=\"gene ID\" value=\"(ENSG.*?)\"";
-                    Set<String> uniqueEnsEMBLGeneIds = new HashSet<>();
-                    uniqueEnsEMBLGeneIds.addAll(matchMultipleValues(entry, typeValueRegex));
-                    uniqueEnsEMBLGeneIds = uniqueEnsEMBLGeneIds
-                        .stream()
-                        .distinct()
-                        .map(this::removeVersionNumber)
-                        .collect(Collectors.toSet());
-
-                    if (uniqueEnsEMBLGeneIds.size() > 1) {
-                        referenceDNASequenceReportWriter.write("Multiple gene ids -- " +
-                            String.join("\t", primaryAccession, name, uniqueEnsEMBLGeneIds.toString()) + "\n");
-                    }
-                    GKInstance humanEnsEMBLGeneReferenceDatabase = getHumanEnsEMBLGeneReferenceDatabase(dba);
-
-                    for (String ensEMBLGeneId : uniqueEnsEMBLGeneIds) {
-                        GKInstance referenceDNASequence;
-
-                        if (rdsIdentifierToDbId.containsKey(ensEMBLGeneId)) {
-                            referenceDNASequenceReportWriter.write("Checking existing reference DNA sequence for " +
-                                ensEMBLGeneId + " with db_id " + rdsIdentifierToDbId.get(ensEMBLGeneId) + "\n");
-
-                            long rdsDbId = rdsIdentifierToDbId.get(ensEMBLGeneId);
-                            referenceDNASequence = fetchReferenceDNASequenceByDbId(dba, rdsDbId);
-                            dba.loadInstanceAttributeValues(referenceDNASequence);
-
-                            GKInstance existingRDSReferenceDatabase = (GKInstance)
-                                referenceDNASequence.getAttributeValue(ReactomeJavaConstants.referenceDatabase);
-                            boolean isUpdateToReferenceDNASequence = false;
-                            if (existingRDSReferenceDatabase == null ||
-                                !sameDbId(existingRDSReferenceDatabase, humanEnsEMBLGeneReferenceDatabase)) {
-                                referenceDNASequence.addAttributeValue(
-                                    ReactomeJavaConstants.referenceDatabase, humanEnsEMBLGeneReferenceDatabase);
-                                isUpdateToReferenceDNASequence = true;
-                            }
+        Map<String, Long> speciesNameToDbId = new LinkedHashMap<>(startupSnapshot.getSpeciesNameToDbId());
+        for (Map.Entry<String, GKInstance> speciesNameAndInstance : speciesNameToInstance.entrySet()) {
+            speciesNameToDbId.put(speciesNameAndInstance.getKey(), speciesNameAndInstance.getValue().getDBID());
+        }
+        return new StartupSnapshot(startupSnapshot.getDatabaseWatermark(), startupSnapshot.getRGPAccessionToDbId(),
+            startupSnapshot.getIsoformAccessionToDbId(), referenceDNASequenceIdentifierToDbId, speciesNameToDbId,
+            startupSnapshot.getReferenceDatabaseNameToDbId());
+    }
 
-                            List<String> existingGeneNames = (List<String>)
-                                referenceDNASequence.getAttributeValuesList(ReactomeJavaConstants.geneName);
-                            if (existingGeneNames == null || areDifferentLists(existingGeneNames, geneNames)) {
-                                referenceDNASequence.setAttributeValue(ReactomeJavaConstants.geneName, geneNames);
-                                isUpdateToReferenceDNASequence = true;
-                            }
-                            GKInstance existingSpeciesInstance = (GKInstance)
-                                referenceDNASequence.getAttributeValue(ReactomeJavaConstants.species);
-                            if (existingSpeciesInstance == null ||
-                                (speciesInstance != null &&
-                                !existingSpeciesInstance.getDBID().equals(speciesInstance.getDBID()))) {
-
-                                referenceDNASequence.addAttributeValue(ReactomeJavaConstants.species, speciesInstance);
-                                isUpdateToReferenceDNASequence = true;
-                            }
+    private void initialize(Properties configProperties) throws Exception {
+        this.dba = getCuratorDbAdaptor(configProperties);
+        this.uniprotUpdateDirectoryPath = Paths.get(configProperties.getProperty("uniprotUpdateDirectory"));
+        this.taxonIdToSpeciesName = getTaxonIdToSpeciesName(configProperties);
+        this.prefetchLookahead = Integer.parseInt(configProperties.getProperty(
+            "prefetchLookahead", String.valueOf(InstancePrefetcher.DEFAULT_LOOKAHEAD)));
+        this.transactionBatcher = getTransactionBatcher(configProperties);
+        this.consoleLogLevel = UpdateLog.Level.valueOf(
+            configProperties.getProperty("consoleLogLevel", UpdateLog.Level.INFO.name()).trim().toUpperCase());
+        this.consoleWarningsPerMinute = Integer.parseInt(configProperties.getProperty(
+            "consoleWarningsPerMinute", String.valueOf(UpdateLog.DEFAULT_CONSOLE_WARNINGS_PER_MINUTE)));
+        this.numberOfSlowestEntriesReported = Integer.parseInt(configProperties.getProperty(
+            "slowestEntriesReported", String.valueOf(EntryLatencyReport.DEFAULT_NUMBER_OF_SLOWEST_ENTRIES)));
+    }
 
-                            String existingIdentifier = (String)
-                                referenceDNASequence.getAttributeValue(ReactomeJavaConstants.identifier);
-                            if (existingIdentifier == null || !existingIdentifier.equals(ensEMBLGeneId)) {
-                                referenceDNASequence.setAttributeValue(
-                                    ReactomeJavaConstants.identifier, ensEMBLGeneId);
-                                isUpdateToReferenceDNASequence = true;
-                            }
+    private TransactionBatcher getTransactionBatcher(Properties configProperties) {
+        return new TransactionBatcher(dba,
+            Integer.parseInt(configProperties.getProperty("transactionBatchMinSize",
+                String.valueOf(TransactionBatcher.DEFAULT_MIN_BATCH_SIZE))),
+            Integer.parseInt(configProperties.getProperty("transactionBatchMaxSize",
+                String.valueOf(TransactionBatcher.DEFAULT_MAX_BATCH_SIZE))),
+            Integer.parseInt(configProperties.getProperty("transactionBatchInitialSize",
+                String.valueOf(TransactionBatcher.DEFAULT_INITIAL_BATCH_SIZE))),
+            Long.parseLong(configProperties.getProperty("transactionTargetCommitMillis",
+                String.valueOf(TransactionBatcher.DEFAULT_TARGET_COMMIT_MILLIS))),
+            Integer.parseInt(configProperties.getProperty("transactionMaxRetries",
+                String.valueOf(TransactionBatcher.DEFAULT_MAX_RETRIES)))
+        );
+    }
 
-                            if (isUpdateToReferenceDNASequence) {
-                                referenceDNASequenceReportWriter.write(
-                                    "Updating existing reference DNA sequence for " + ensEMBLGeneId + " with db_id " +
-                                    rdsIdentifierToDbId.get(ensEMBLGeneId) + "\n"
-                                );
-                                InstanceDisplayNameGenerator.setDisplayName(referenceDNASequence);
-                                referenceDNASequence.addAttributeValue(ReactomeJavaConstants.modified, instanceEdit);
-                                dba.updateInstance(referenceDNASequence);
-                            }
-                        } else {
-                            if (uniqueEnsEMBLGeneIds.size() > 1 && !onEnsEMBLPrimaryAssembly(ensEMBLGeneId)) {
-                                // Reference DNA Sequences to be created only for primary gene ids for a UniProt entry
-                                // When there is only one gene id for a UniProt entry, it is assumed to be the primary
-                                // id
-                                referenceDNASequenceReportWriter.write(ensEMBLGeneId + " is not a primary/canonical " +
-                                    "gene -- skipping creation of ReferenceDNASequence\n"
-                                );
-                                continue;
-                            }
+    private void prepareUpdate(StartupSnapshot startupSnapshot, GKInstance instanceEdit) throws Exception {
+        Map<String, Long> referenceDatabaseNameToDbId = startupSnapshot.getReferenceDatabaseNameToDbId();
+        this.uniProtReferenceDatabase = dba.fetchInstance(
+            ReactomeJavaConstants.ReferenceDatabase, referenceDatabaseNameToDbId.get(UNIPROT_REFERENCE_DATABASE_NAME));
+        this.instanceEdit = instanceEdit;
+        this.speciesNameToInstance = getSpeciesNameToInstance(startupSnapshot.getSpeciesNameToDbId());
+
+        this.rgpAccessionToDbId = startupSnapshot.getRGPAccessionToDbId();
+        this.isoformAccessionToDbId = startupSnapshot.getIsoformAccessionToDbId();
+        System.out.println("Preloading reference DNA sequences...");
+        this.referenceDNASequenceManager = new ReferenceDNASequenceManager(dba, dba.fetchInstance(
+            ReactomeJavaConstants.ReferenceDatabase, referenceDatabaseNameToDbId.get(ENSEMBL_REFERENCE_DATABASE_NAME)),
+            instanceEdit);
+        referenceDNASequenceManager.preload(startupSnapshot.getReferenceDNASequenceIdentifierToDbId());
+        System.out.println(referenceDNASequenceManager.size() + " reference DNA sequences preloaded");
+
+        this.displayNameUpdater = new DisplayNameUpdater(dba);
+        this.instancePrefetcher = new InstancePrefetcher(dba);
+    }
 
-                            referenceDNASequence = new GKInstance(
-                                dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceDNASequence));
-                            referenceDNASequence.setDbAdaptor(dba);
-                            referenceDNASequence.setAttributeValue(
-                                ReactomeJavaConstants.referenceDatabase, humanEnsEMBLGeneReferenceDatabase);
-                            referenceDNASequence.setAttributeValue(
-                                ReactomeJavaConstants.identifier, ensEMBLGeneId
-                            );
-                            referenceDNASequence.setAttributeValue(
-                                ReactomeJavaConstants.created, instanceEdit
-                            );
-                            referenceDNASequence.setAttributeValue(
-                                ReactomeJavaConstants.geneName, geneNames
-                            );
-                            referenceDNASequence.setAttributeValue(
-                                ReactomeJavaConstants.species, speciesInstance
-                            );
-                            InstanceDisplayNameGenerator.setDisplayName(referenceDNASequence);
+    private void setPhase(String phase) {
+        this.phase = phase;
+        this.phaseStartMillis = System.currentTimeMillis();
+    }
 
-                            long referenceDNASequenceDbId = dba.storeInstance(referenceDNASequence);
-                            referenceDNASequenceReportWriter.write("Reference DNA sequence with db_id " +
-                                referenceDNASequenceDbId + " created for " + ensEMBLGeneId + "\n");
-                            rdsIdentifierToDbId.put(ensEMBLGeneId, referenceDNASequenceDbId);
-                        }
-                        referenceDNASequences.add(referenceDNASequence);
-                    }
-                }
-                List<String> keywords = matchMultipleValues(entry, "<keyword id=\".*?\">(.*?)</keyword>");
-
-                String comments = parseComments(entry);
-
-                List<String> isoformIds = matchMultipleValues(entry, "<isoform>\\s*<id>([A-Z0-9-]*)");
-
-                List<String> chains = parseChains(entry);
-
-                Map<String,List<?>> values = new HashMap<>();
-                values.put(ReactomeJavaConstants.secondaryIdentifier, accessions);
-                values.put(ReactomeJavaConstants.description, Collections.singletonList(description));
-                values.put(ReactomeJavaConstants.sequenceLength, Collections.singletonList(sequenceLength));
-                values.put(ReactomeJavaConstants.species, Collections.singletonList(speciesInstance));
-                values.put(ReactomeJavaConstants.checksum, Collections.singletonList(checksum));
-                values.put(ReactomeJavaConstants.name, Collections.singletonList(name));
-                values.put(ReactomeJavaConstants.geneName, geneNames);
-                values.put(ReactomeJavaConstants.comment, Collections.singletonList(comments));
-                values.put(ReactomeJavaConstants.keyword, keywords);
-                values.put(ReactomeJavaConstants.chain, chains);
-                if (taxon.contains("Homo sapiens")) {
-                    values.put(ReactomeJavaConstants.referenceGene, referenceDNASequences);
-                }
-                if (!rgpAccessionToDbId.containsKey(primaryAccession)) {
-                    numberOfNewSwissProtInstances += 1;
-
-                    GKInstance newReferenceGeneProductInstance =
-                        new GKInstance(dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceGeneProduct));
-                    newReferenceGeneProductInstance.setDbAdaptor(dba);
-                    newReferenceGeneProductInstance.setAttributeValue(
-                        ReactomeJavaConstants.referenceDatabase, uniProtReferenceDatabase);
-                    newReferenceGeneProductInstance.setAttributeValue(
-                        ReactomeJavaConstants.identifier, primaryAccession);
-                    newReferenceGeneProductInstance.setAttributeValue(ReactomeJavaConstants.created, instanceEdit);
-                    long newRGPDbId = dba.storeInstance(newReferenceGeneProductInstance);
-
-                    System.out.println(String.format("New UniProt:%s\t%d", primaryAccession, newRGPDbId));
-                    updateInstance(newReferenceGeneProductInstance, values, sequenceReportWriter);
-                    for (String isoformId : isoformIds) {
-                        if (!isoformId.contains(primaryAccession)) {
-                            misMatchedIsoformAccessionToRGPAccession.put(isoformId, primaryAccession);
-                        }
+    private void openReportWriters(Path reportDirectoryPath) throws IOException {
+        this.sequenceReportWriter = new BatchedReportWriter(reportDirectoryPath.resolve(SEQUENCE_REPORT_FILE_NAME));
+        this.referenceDNASequenceReportWriter =
+            new BatchedReportWriter(reportDirectoryPath.resolve(REFERENCE_DNA_SEQUENCE_REPORT_FILE_NAME));
+        this.ewasChainChangeReporter =
+            new EwasChainChangeReporter(dba, reportDirectoryPath.resolve(EWAS_COORDINATES_REPORT_FILE_NAME));
+        this.updateLog = new UpdateLog(
+            reportDirectoryPath.resolve(CHANGE_LOG_FILE_NAME), System.out, consoleLogLevel, consoleWarningsPerMinute);
+        this.attributeDiffer = new AttributeDiffer(updateLog);
+        this.entryLatencyReport = new EntryLatencyReport(reportDirectoryPath, numberOfSlowestEntriesReported);
+    }
 
-                        GKInstance newIsoformInstance = new GKInstance(
-                            dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceIsoform));
-                        newIsoformInstance.setDbAdaptor(dba);
-                        newIsoformInstance.setAttributeValue(
-                            ReactomeJavaConstants.referenceDatabase, uniProtReferenceDatabase);
-                        newIsoformInstance.setAttributeValue(ReactomeJavaConstants.identifier, primaryAccession);
-                        newIsoformInstance.setAttributeValue(
-                            ReactomeJavaConstants.isoformParent, newReferenceGeneProductInstance);
-                        newIsoformInstance.setAttributeValue(ReactomeJavaConstants.created, instanceEdit);
-                        newIsoformInstance.setAttributeValue(ReactomeJavaConstants.variantIdentifier, isoformId);
-
-                        updateInstance(newIsoformInstance, values, sequenceReportWriter);
+    private void closeReportWriters() throws IOException {
+        referenceDNASequenceReportWriter.close();
+        sequenceReportWriter.close();
+        updateLog.close();
+        entryLatencyReport.writeReport();
+    }
+
+    /**
+     * Processes the entries of the framer in transactions of an adaptive number of entries (see
+     * {@link TransactionBatcher}), including a commit of the last entries.  A batch which fails with a transient error
+     * is rolled back and its entries processed again, after reverting the lookup tables, counters, reports,
+     * reference DNA sequences and existing ReferenceGeneProducts and ReferenceIsoforms the batch changed.  Entries
+     * are read "prefetchLookahead" entries ahead so the existing instances of the entries can be prefetched on a
+     * second connection while earlier entries are processed (a lookahead of 0 disables prefetching).
+     *
+     * @param entryFramer Framer of the entries to process
+     * @return Number of entries processed
+     * @throws Exception Thrown if an entry can't be processed
+     */
+    private int processEntries(EntryFramer entryFramer) throws Exception {
+        int recordCounter;
+
+        try (InstancePrefetcher prefetcher = prefetchLookahead > 0 ?
+            new InstancePrefetcher(dba, new MySQLAdaptor(dba.getDBHost(), dba.getDBName(), dba.getDBUser(),
+                dba.getDBPwd(), dba.getDBPort()), prefetchLookahead) :
+            new InstancePrefetcher(dba)) {
+
+            this.instancePrefetcher = prefetcher;
+
+            // Only existing ReferenceGeneProducts and their isoforms are fetched while processing an entry
+            LookaheadEntryReader lookaheadEntryReader = new LookaheadEntryReader(entryFramer,
+                new TaxonPrefilter(taxonIdToSpeciesName, rgpAccessionToDbId.keySet()), prefetchLookahead,
+                (primaryAccession, entry) -> {
+                    if (rgpAccessionToDbId.containsKey(primaryAccession)) {
+                        prefetcher.prefetch(primaryAccession, FieldExtractors.ISOFORM_ID.extractAll(entry));
                     }
-                } else {
-                    Collection<GKInstance> existingReferenceGeneProductInstances = dba.fetchInstanceByAttribute(
-                        ReactomeJavaConstants.ReferenceGeneProduct,
-                        ReactomeJavaConstants.identifier,
-                        "=",
-                        primaryAccession
-                    );
-                    boolean duplicateFlag = false;
-                    for (GKInstance existingReferenceGeneProductInstance : existingReferenceGeneProductInstances) {
-                        if (isAReferenceIsoform(existingReferenceGeneProductInstance)) {
-                            continue;
-                        }
+                });
 
-                        if (duplicateFlag) {
-                            duplicateDbIdToReferenceGeneProductAccession.put(
-                                existingReferenceGeneProductInstance.getDBID(), primaryAccession);
-                            continue;
-                        }
+            uncommittedChangeUndoActions.clear();
+            uncommittedUpdatedInstances.clear();
+            recordCounter = transactionBatcher.run(lookaheadEntryReader::next, new EntryBatchProcessor());
 
-                        System.out.println(String.format("Updating master sequence...%d\t%s",
-                            existingReferenceGeneProductInstance.getDBID(), primaryAccession));
+            updateLog.info("{}", prefetcher);
+            updateLog.info("Transactions: {}", transactionBatcher);
+            updateLog.info("Value dictionary: {}", valueDictionary);
+        } finally {
+            this.instancePrefetcher = new InstancePrefetcher(dba);
+        }
 
-                        dba.loadInstanceAttributeValues(existingReferenceGeneProductInstance);
-                        existingReferenceGeneProductInstance.addAttributeValue(
-                            ReactomeJavaConstants.modified, instanceEdit);
+        return recordCounter;
+    }
 
-                        updateInstance(existingReferenceGeneProductInstance, values, sequenceReportWriter);
+    /**
+     * Processes the entries of a transaction batch and keeps the in-memory state of the update in step with the
+     * transaction.
+     */
+    private class EntryBatchProcessor
+        implements TransactionBatcher.BatchProcessor<LookaheadEntryReader.LookaheadEntry> {
+        private int committedNumberOfInstancesInSwissProtFile = numberOfInstancesInSwissProtFile;
+        private int committedNumberOfNewSwissProtInstances = numberOfNewSwissProtInstances;
+
+        @Override
+        public void process(LookaheadEntryReader.LookaheadEntry lookaheadEntry) throws Exception {
+            // Entries for untracked species with unknown accessions are only needed for their secondary
+            // accessions, so they are not decoded
+            if (!lookaheadEntry.isAccepted()) {
+                List<String> accessions = lookaheadEntry.getAccessions();
+                addSecondaryAccessions(accessions.get(0), accessions.subList(1, accessions.size()));
+                return;
+            }
 
-                        duplicateFlag = true;
+            processEntry(lookaheadEntry.getEntry());
+        }
 
-                        if (values.get(ReactomeJavaConstants.species).isEmpty()) {
-                            values.put(ReactomeJavaConstants.species, Collections.singletonList((GKInstance)
-                                existingReferenceGeneProductInstance.getAttributeValue(ReactomeJavaConstants.species))
-                            );
-                        }
-                        for (String isoformId : isoformIds) {
-                            if (isoformId.contains(primaryAccession)) {
-                                Collection<GKInstance> isoformInstances = dba.fetchInstanceByAttribute(
-                                    ReactomeJavaConstants.ReferenceIsoform,
-                                    ReactomeJavaConstants.variantIdentifier,
-                                    "=",
-                                    isoformId
-                                );
-                                if (!isoformInstances.isEmpty()) {
-                                    for (GKInstance isoformInstance : isoformInstances) {
-                                        String isoformAccession = (String) isoformInstance.getAttributeValue(
-                                            ReactomeJavaConstants.variantIdentifier);
-                                        if (!isoformAccession.contains(primaryAccession)) {
-                                            continue;
-                                        }
-                                        System.out.println(String.format("Existing isoform update: %s\tMaster: %d",
-                                            isoformAccession, existingReferenceGeneProductInstance.getDBID()));
-
-                                        dba.loadInstanceAttributeValues(isoformInstance);
-                                        isoformInstance.setAttributeValue(ReactomeJavaConstants.isoformParent,
-                                            existingReferenceGeneProductInstance);
-                                        isoformInstance.addAttributeValue(ReactomeJavaConstants.modified,
-                                            instanceEdit);
-
-                                        updateInstance(isoformInstance, values, sequenceReportWriter);
-
-                                        isoformAccessionToDbId.remove(isoformId);
-                                    }
-                                } else {
-                                    GKInstance isoformInstance = new GKInstance(
-                                        dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceIsoform)
-                                    );
-                                    isoformInstance.setDbAdaptor(dba);
-                                    isoformInstance.setAttributeValue(ReactomeJavaConstants.identifier,
-                                        primaryAccession);
-                                    isoformInstance.setAttributeValue(ReactomeJavaConstants.isoformParent,
-                                        existingReferenceGeneProductInstance);
-                                    isoformInstance.setAttributeValue(ReactomeJavaConstants.created,
-                                        instanceEdit);
-                                    isoformInstance.setAttributeValue(ReactomeJavaConstants.variantIdentifier,
-                                        isoformId);
-                                    long isoformDbId = dba.storeInstance(isoformInstance);
-
-                                    System.out.println(String.format("New isoform: %s\t%d\tMaster: %d",
-                                        isoformId, isoformDbId, existingReferenceGeneProductInstance.getDBID()));
-
-                                    updateInstance(isoformInstance, values, sequenceReportWriter);
-                                }
-                            } else {
-                                misMatchedIsoformAccessionToRGPAccession.put(isoformId, primaryAccession);
-                            }
-                        }
-                        rgpAccessionToDbId.remove(primaryAccession);
-                    }
-                }
+        @Override
+        public void beforeCommit() throws Exception {
+            referenceDNASequenceManager.flush();
+            ewasChainChangeReporter.flush();
+        }
+
+        @Override
+        public void afterCommit() throws Exception {
+            sequenceReportWriter.commitBatch();
+            referenceDNASequenceReportWriter.commitBatch();
+            ewasChainChangeReporter.commitBatch();
+            entryLatencyReport.commitBatch();
+            referenceDNASequenceManager.markCommitted();
+            uncommittedChangeUndoActions.clear();
+            uncommittedUpdatedInstances.clear();
+            this.committedNumberOfInstancesInSwissProtFile = numberOfInstancesInSwissProtFile;
+            this.committedNumberOfNewSwissProtInstances = numberOfNewSwissProtInstances;
+        }
+
+        @Override
+        public void afterRollback() throws Exception {
+            while (!uncommittedChangeUndoActions.isEmpty()) {
+                uncommittedChangeUndoActions.pop().run();
+            }
+            numberOfInstancesInSwissProtFile = this.committedNumberOfInstancesInSwissProtFile;
+            numberOfNewSwissProtInstances = this.committedNumberOfNewSwissProtInstances;
+            sequenceReportWriter.discardBatch();
+            referenceDNASequenceReportWriter.discardBatch();
+            referenceDNASequenceManager.rollback();
+            // The adaptor caches the instances, so the retried batch would otherwise get them back as changed
+            for (GKInstance updatedInstance : uncommittedUpdatedInstances.values()) {
+                dba.loadInstanceAttributeValues(updatedInstance);
             }
+            uncommittedUpdatedInstances.clear();
+            ewasChainChangeReporter.discardPending();
+            entryLatencyReport.discardBatch();
         }
+    }
 
-        referenceDNASequenceReportWriter.close();
-        sequenceReportWriter.close();
+    /**
+     * Values of the running update for its {@link UpdateProgress}.  Components which haven't been created yet in the
+     * current phase report zero.  While the workers of a sharded update run, the entries processed and the last
+     * progress are those of all workers, read from their progress files, as the coordinator commits no entries.
+     */
+    private class UpdateProgressSource implements UpdateProgress.Source {
+        @Override
+        public String getPhase() {
+            return phase;
+        }
 
-        System.out.println(recordCounter + " records processed and committed");
-        System.out.println("All records in " + swissProtFileProcessor.getSwissProtFilePath() + " processed");
+        @Override
+        public long getRecordsProcessed() {
+            ShardCoordinator shardCoordinator = runningShardCoordinator;
+            return shardCoordinator != null ?
+                getShardProgress(shardCoordinator).getRecordsProcessed() :
+                transactionBatcher.getNumberOfCommittedItems();
+        }
 
-        System.out.println("Starting clean-up tasks after processing UniProt XML");
-        dba.startTransaction();
+        @Override
+        public long getLastProgressMillis() {
+            ShardCoordinator shardCoordinator = runningShardCoordinator;
+            return Math.max(phaseStartMillis, shardCoordinator != null ?
+                getShardProgress(shardCoordinator).getLastProgressMillis() :
+                transactionBatcher.getLastCommitMillis());
+        }
 
-        System.out.println("Updating mis-matched isoforms");
+        @Override
+        public int getPrefetchQueueDepth() {
+            InstancePrefetcher prefetcher = instancePrefetcher;
+            return prefetcher != null ? prefetcher.getQueueDepth() : 0;
+        }
 
-        for (String misMatchedIsoformAccession : misMatchedIsoformAccessionToRGPAccession.keySet()) {
-            List<GKInstance> isoformParents = new ArrayList<>();
+        @Override
+        public int getLogQueueDepth() {
+            UpdateLog log = updateLog;
+            return log != null ? log.getQueueDepth() : 0;
+        }
 
-            Iterator<GKInstance> isoformInstanceIterator = (dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReferenceIsoform,
-                ReactomeJavaConstants.variantIdentifier,
-                "=",
-                misMatchedIsoformAccession
-            )).iterator();
-
-            GKInstance isoformInstance = isoformInstanceIterator.hasNext() ? isoformInstanceIterator.next() : null;
-            if (isoformInstance != null) {
-                GKInstance isoformParent =
-                    (GKInstance) isoformInstance.getAttributeValue(ReactomeJavaConstants.isoformParent);
-                if (isoformParent == null) {
-                    continue;
-                }
-                isoformParents.add(isoformParent);
-            }
+        @Override
+        public int getPendingBatchEntries() {
+            return transactionBatcher.getPendingBatchSize();
+        }
 
-            Iterator<GKInstance> mismatchedParentIterator = (dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReferenceGeneProduct,
-                ReactomeJavaConstants.identifier,
-                "=",
-                misMatchedIsoformAccessionToRGPAccession.get(misMatchedIsoformAccession)
-            )).iterator();
-
-            GKInstance mismatchedParent = mismatchedParentIterator.hasNext() ? mismatchedParentIterator.next() : null;
-            if (mismatchedParent != null && isoformInstance != null) {
-                isoformParents.add(mismatchedParent);
-                long isoformInstanceDbId = isoformInstance.getDBID();
-                System.out.println(String.format("Mismatched parent: %s(%d)\t%s\n",
-                    misMatchedIsoformAccession,
-                    isoformInstanceDbId,
-                    misMatchedIsoformAccessionToRGPAccession.get(misMatchedIsoformAccession))
-                );
-
-                isoformInstance.setAttributeValue(ReactomeJavaConstants.isoformParent, isoformParents);
-                dba.updateInstance(isoformInstance);
-            }
+        @Override
+        public int getBatchSize() {
+            return transactionBatcher.getBatchSize();
         }
 
-        System.out.println("Mis-matched isoform updates complete");
+        @Override
+        public int getPendingReferenceDNASequenceUpdates() {
+            ReferenceDNASequenceManager manager = referenceDNASequenceManager;
+            return manager != null ? manager.getNumberOfPendingUpdates() : 0;
+        }
 
-        System.out.println("Updating display names...");
+        @Override
+        public double getPrefetchHitRate() {
+            InstancePrefetcher prefetcher = instancePrefetcher;
+            return prefetcher != null ? prefetcher.getHitRate() : 0.0;
+        }
 
-        updateDisplayNames(dba, ReactomeJavaConstants.ReferenceGeneProduct);
-        updateDisplayNames(dba, ReactomeJavaConstants.ReferenceIsoform);
+        @Override
+        public double getValueDictionaryHitRate() {
+            return valueDictionary.getHitRate();
+        }
 
-        System.out.println("Done");
+        private ShardProgress getShardProgress(ShardCoordinator shardCoordinator) {
+            try {
+                return shardCoordinator.getProgress();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the progress of the shards", e);
+            }
+        }
+    }
 
-        System.out.println("Remaining instances:" + rgpAccessionToDbId.keySet().size());
+    private void runCleanup(Properties configProperties, List<String> skipList, int totalNumberOfDbInstances,
+                            boolean rebuildAllDisplayNames) throws Exception {
+        int numberOfObsoleteInstancesWithNoEWAS = 0;
 
-        System.out.println("Deleting obsolete instances with no referrers...");
+        setPhase("clean-up");
+        System.out.println("Starting clean-up tasks after processing UniProt XML");
+        dba.startTransaction();
 
-        Iterator<String> rgpAccessionsIterator = rgpAccessionToDbId.keySet().iterator();
-        List<String> tremblAccessions = new ArrayList<>();
-        while (rgpAccessionsIterator.hasNext()) {
-            String rgpAccession = rgpAccessionsIterator.next();
+        System.out.println("Updating mis-matched isoforms");
 
-            if (isTrEMBLId(rgpAccession)) {
-                tremblAccessions.add(rgpAccession);
-                rgpAccessionsIterator.remove();
-            } else {
-                Collection<GKInstance> obsoleteReferenceGeneProductInstances = dba.fetchInstanceByAttribute(
-                    ReactomeJavaConstants.ReferenceGeneProduct,
-                    ReactomeJavaConstants.identifier,
-                    "=",
-                    rgpAccession
-                );
-
-                boolean isObsoleteRGPDeleted = false;
-                for (GKInstance obsoleteReferenceGeneProductInstance : obsoleteReferenceGeneProductInstances) {
-                    String variantIdentifier = null;
-                    if (isAReferenceIsoform(obsoleteReferenceGeneProductInstance)) {
-                        variantIdentifier = (String) obsoleteReferenceGeneProductInstance.getAttributeValue(
-                            ReactomeJavaConstants.variantIdentifier);
-                    }
+        int numberOfMisMatchedIsoformsUpdated =
+            new MismatchedIsoformReparenter(dba).reparent(misMatchedIsoformAccessionToRGPAccession);
+        System.out.println(numberOfMisMatchedIsoformsUpdated + " mis-matched isoforms updated");
 
-                    if (variantIdentifier != null) {
-                        continue;
-                    }
+        System.out.println("Mis-matched isoform updates complete");
 
-                    long obsoleteRGPDbId = obsoleteReferenceGeneProductInstance.getDBID();
-                    Collection<GKInstance> referrers = getRGPReferrers(obsoleteReferenceGeneProductInstance);
-                    if (referrers == null || referrers.isEmpty()) {
-                        System.out.println("Deleting " + obsoleteRGPDbId + "...");
-                        dba.deleteByDBID(obsoleteRGPDbId);
-                        numberOfObsoleteInstancesWithNoEWAS += 1;
-                        isObsoleteRGPDeleted = true;
-                    }
-                }
-                if (isObsoleteRGPDeleted) {
-                    rgpAccessionsIterator.remove();
-                }
-            }
+        if (!rebuildAllDisplayNames) {
+            System.out.println("Updating display names of " + displayNameUpdater.getNumberOfTouchedInstances() +
+                " created or modified instances...");
+            int numberOfDisplayNamesUpdated = displayNameUpdater.updateTouchedDisplayNames();
+            System.out.println("Done - " + numberOfDisplayNamesUpdated + " display names changed");
         }
-        Reportable trEMBLAccessionReport = new TrEMBLAccessionReport(getUniprotUpdateDirectoryPath(), tremblAccessions);
-        trEMBLAccessionReport.writeReport();
+        // The classification may read from the read replica, which only sees committed changes
+        dba.commit();
+        dba.startTransaction();
 
-        List<Long> dbIdsToSkip = new ArrayList<>();
-        Iterator<String> isoformAccessionIterator = isoformAccessionToDbId.keySet().iterator();
-        while (isoformAccessionIterator.hasNext()) {
-            String isoformAccession = isoformAccessionIterator.next();
-            Iterator<GKInstance> isoformInstanceIterator = (dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReferenceIsoform,
-                ReactomeJavaConstants.variantIdentifier,
-                "=",
-                isoformAccession
-            )).iterator();
+        System.out.println("Remaining instances:" + rgpAccessionToDbId.keySet().size());
 
-            GKInstance isoformInstance = isoformInstanceIterator.hasNext() ? isoformInstanceIterator.next() : null;
-            if (isoformInstance == null) {
-                System.out.println(isoformAccession + " is not a variant identifier for any ReferenceIsoform");
-                continue;
-            }
+        System.out.println("Classifying obsolete instances...");
+        ObsoleteClassification obsoleteClassification = new ObsoleteClassifier(
+            readReplica.getReadAdaptor("Obsolete classification"), secondaryAccessionToPrimaryAccessionList, skipList
+        ).classify(rgpAccessionToDbId.keySet(), isoformAccessionToDbId.keySet());
 
-            long obsoleteIsoformDbId = isoformInstance.getDBID();
-            GKInstance isoformParent =
-                (GKInstance) isoformInstance.getAttributeValue(ReactomeJavaConstants.isoformParent);
-            if (isoformParent == null) {
-                System.out.println(isoformInstance.getDBID());
-                dbIdsToSkip.add(obsoleteIsoformDbId);
-                continue;
-            }
+        System.out.println("Deleting obsolete instances with no referrers...");
+        DeletionExecutor deletionExecutor = new DeletionExecutor(dba, Integer.parseInt(configProperties.getProperty(
+            "deletionChunkSize", String.valueOf(DeletionExecutor.DEFAULT_CHUNK_SIZE))));
+        List<Long> deletableDbIds = new ArrayList<>();
+        for (ObsoleteInstance deletableInstance : obsoleteClassification.getDeletableInstances()) {
+            deletableDbIds.add(deletableInstance.getDbId());
+        }
+        numberOfObsoleteInstancesWithNoEWAS += deletionExecutor.delete(deletableDbIds, new LongHashSet());
 
-            String isoformParentIdentifier = (String)
-                isoformParent.getAttributeValue(ReactomeJavaConstants.identifier);
-            if (isoformParentIdentifier == null || isoformParentIdentifier.isEmpty()) {
-                continue;
-            }
+        Reportable trEMBLAccessionReport = new TrEMBLAccessionReport(
+            getUniprotUpdateDirectoryPath(), obsoleteClassification.getTrEMBLAccessions());
+        trEMBLAccessionReport.writeReport();
 
-            Collection<GKInstance> referrers = getRGPReferrers(isoformInstance);
-            if (referrers == null || referrers.isEmpty()) {
-                System.out.println("Deleting " + obsoleteIsoformDbId + "...");
-                dba.deleteByDBID(obsoleteIsoformDbId);
-                numberOfObsoleteInstancesWithNoEWAS += 1;
-                isoformAccessionIterator.remove();
-            }
-        }
         System.out.println("Done.");
 
+        setPhase("reports");
         System.out.println("Preparing reports...");
-        Set<Long> noReferrerDbIds = new HashSet<>();
+        List<Long> noReferrerDbIds = new ArrayList<>();
 
         Reportable duplicateAccessionReport = new DuplicateAccessionReport(
             getUniprotUpdateDirectoryPath(), duplicateDbIdToReferenceGeneProductAccession);
@@ -618,95 +792,22 @@ public class Main {
             "|-\n"
         );
 
-        rgpAccessionsIterator = rgpAccessionToDbId.keySet().iterator();
-        while (rgpAccessionsIterator.hasNext()) {
-            String rgpAccession = rgpAccessionsIterator.next();
+        for (ObsoleteAccession obsoleteAccession :
+            obsoleteClassification.getObsoleteAccessions(ObsoleteLabel.HAS_REPLACEMENT, false)) {
 
-            boolean isSecondaryAccession = false;
-
-            if (secondaryAccessionToPrimaryAccessionList.containsKey(rgpAccession)) {
-                List<String> alternateAccessions = secondaryAccessionToPrimaryAccessionList.get(rgpAccession);
-                if (alternateAccessions == null) {
-                    System.err.println("Zero alternate accessions for " + rgpAccession + ": " +
-                        alternateAccessions);
+            for (ObsoleteInstance obsoleteInstance : obsoleteAccession.getInstances()) {
+                if (obsoleteInstance.getEwasReferrerDbIds().isEmpty()) {
+                    noReferrerDbIds.add(obsoleteInstance.getDbId());
                     continue;
                 }
-                isSecondaryAccession = true;
-
-                long obsoleteDbId;
-                List<Long> referrerDbIds = new ArrayList<>();
-                String speciesName;
-
-                Collection<GKInstance> obsoleteRGPInstances = dba.fetchInstanceByAttribute(
-                    ReactomeJavaConstants.ReferenceGeneProduct,
-                    ReactomeJavaConstants.identifier,
-                    "=",
-                    rgpAccession
-                );
-                for (GKInstance obsoleteRGPInstance : obsoleteRGPInstances) {
-                    String variantIdentifier = null;
-                    if (isAReferenceIsoform(obsoleteRGPInstance)) {
-                        variantIdentifier = (String) obsoleteRGPInstance.getAttributeValue(
-                            ReactomeJavaConstants.variantIdentifier);
-                    }
 
-                    if (variantIdentifier != null) {
-                        continue;
-                    }
-                    obsoleteDbId = obsoleteRGPInstance.getDBID();
-                    speciesName = getSpeciesName(obsoleteRGPInstance);
-
-                    List<GKInstance> referrers = emptyListIfNull((List<GKInstance>) obsoleteRGPInstance.getReferers(
-                        ReactomeJavaConstants.referenceEntity));
-                    for (GKInstance referrer : referrers) {
-                        if (referrer.getSchemClass().isa(ReactomeJavaConstants.EntityWithAccessionedSequence)) {
-                            referrerDbIds.add(referrer.getDBID());
-                        }
-                    }
-
-                    if (!referrerDbIds.isEmpty()) {
-                        StringBuilder reportLineBuilder = new StringBuilder();
-                        reportLineBuilder.append("||");
-                        reportLineBuilder.append(String.join("|",
-                            alternateAccessions
-                                .stream()
-                                .map(
-                                    alternateAccession ->
-                                    String.format("[https://www.uniprot.org/uniprot/%s %s]",
-                                        alternateAccession, alternateAccession))
-                                .collect(Collectors.toList())
-                          ));
-                        reportLineBuilder.append("\n");
-                        for (String alternateAccession : alternateAccessions) {
-                            System.out.println(String.format("%s\t%s\t%s",
-                                rgpAccession, alternateAccession, obsoleteDbId));
-                        }
-                        reportLineBuilder.append(String.format("|%s\n", rgpAccession));
-                        reportLineBuilder.append(String.format(
-                            "|[https://curator.reactome.org/cgi-bin/instancebrowser?DB=%s&ID=%d& %d]\n",
-                            dba.getDBName(), obsoleteDbId, obsoleteDbId
-                            ));
-                        reportLineBuilder.append(String.format("||%s\n", String.join(
-                            "|", referrerDbIds.stream().map(Object::toString).collect(Collectors.toList())
-                        )));
-                        reportLineBuilder.append("|" + speciesName + "\n");
-                        reportLineBuilder.append("|-\n");
-
-                        String reportLine = reportLineBuilder.toString();
-                        if (skipList.stream().anyMatch(accession -> accession.equals(rgpAccession))) {
-                            skipReplaceableReportLines.add(reportLine);
-                        } else if (isPlantReportLine(reportLine)) {
-                            plantReplaceableReportLines.add(reportLine);
-                        } else {
-                            wikiWriter.write(reportLine);
-                        }
-                    } else {
-                        noReferrerDbIds.add(obsoleteDbId);
-                    }
+                for (String alternateAccession : obsoleteAccession.getReplacementAccessions()) {
+                    System.out.println(String.format("%s\t%s\t%s",
+                        obsoleteAccession.getAccession(), alternateAccession, obsoleteInstance.getDbId()));
                 }
-            }
-            if (isSecondaryAccession) {
-                rgpAccessionsIterator.remove();
+                writeReportLine(wikiWriter, getReplacementReportLine(obsoleteAccession, obsoleteInstance),
+                    obsoleteAccession, obsoleteInstance.isPlantSpecies(), skipReplaceableReportLines,
+                    plantReplaceableReportLines);
             }
         }
 
@@ -723,129 +824,44 @@ public class Main {
                 "|-\n"
         );
 
-        for (String rgpAccession : rgpAccessionToDbId.keySet()) {
-            long obsoleteDbId = -1L;
-            List<String> referrerIds = new ArrayList<>();
-            String speciesName = "";
-
-            Collection<GKInstance> obsoleteRGPInstances = emptyListIfNull(dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReferenceGeneProduct,
-                ReactomeJavaConstants.identifier,
-                "=",
-                rgpAccession
-            ));
-
-            for (GKInstance obsoleteRGPInstance : obsoleteRGPInstances) {
-                String variantIdentifier = null;
-                if (isAReferenceIsoform(obsoleteRGPInstance)) {
-                    variantIdentifier = (String) obsoleteRGPInstance.getAttributeValue(
-                        ReactomeJavaConstants.variantIdentifier);
-                }
+        for (ObsoleteAccession obsoleteAccession :
+            obsoleteClassification.getObsoleteAccessions(ObsoleteLabel.NO_REPLACEMENT, false)) {
 
-                if (variantIdentifier != null) {
-                    continue;
-                }
-                obsoleteDbId = obsoleteRGPInstance.getDBID();
-                speciesName = getSpeciesName(obsoleteRGPInstance);
-
-                List<GKInstance> referrers = emptyListIfNull(
-                    (List<GKInstance>) obsoleteRGPInstance.getReferers(ReactomeJavaConstants.referenceEntity));
-                for (GKInstance referrer : referrers) {
-                    if (referrer.getSchemClass().isa(ReactomeJavaConstants.EntityWithAccessionedSequence)) {
-                        GKInstance referrerStableIdInstance =
-                            (GKInstance) referrer.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
-                        if (referrerStableIdInstance != null) {
-                            String referrerStableId =
-                                (String) referrerStableIdInstance.getAttributeValue(ReactomeJavaConstants.identifier);
-                            referrerIds.add(referrerStableId);
-                        } else {
-                            referrerIds.add(referrer.getDBID().toString());
-                        }
-                    }
-                }
+            // Reported as one line per accession: the referrers of all its instances with the last instance
+            List<ObsoleteInstance> obsoleteInstances = obsoleteAccession.getInstances();
+            List<String> referrerIds = new ArrayList<>();
+            for (ObsoleteInstance obsoleteInstance : obsoleteInstances) {
+                referrerIds.addAll(obsoleteInstance.getEwasReferrerIds());
             }
 
-            System.out.println(rgpAccession);
-            if (!referrerIds.isEmpty()) {
-                StringBuilder reportLineBuilder = new StringBuilder();
-                //reportLineBuilder.append("|\n");
-                reportLineBuilder.append(String.format("||%s\n", rgpAccession));
-                reportLineBuilder.append(String.format(
-                    "|[https://curator.reactome.org/cgi-bin/instancebrowser?DB=%s&ID=%d& %d]\n",
-                    dba.getDBName(), obsoleteDbId, obsoleteDbId
-                ));
-                reportLineBuilder.append(String.format("||%s\n", String.join(
-                    "|", referrerIds.stream().map(Object::toString).collect(Collectors.toList())
-                )));
-                reportLineBuilder.append(String.format("|%s\n", speciesName));
-                reportLineBuilder.append("|-\n");
-
-                String reportLine = reportLineBuilder.toString();
-                if (skipList.stream().anyMatch(accession -> accession.equals(rgpAccession))) {
-                    skipNoReplacementReportLines.add(reportLine);
-                } else if (isPlantReportLine(reportLine)) {
-                    plantNoReplacementReportLines.add(reportLine);
-                } else {
-                    wikiWriter.write(reportLine);
-                }
+            System.out.println(obsoleteAccession.getAccession());
+            if (obsoleteInstances.isEmpty()) {
+                continue;
+            }
+            ObsoleteInstance lastObsoleteInstance = obsoleteInstances.get(obsoleteInstances.size() - 1);
+            if (referrerIds.isEmpty()) {
+                noReferrerDbIds.add(lastObsoleteInstance.getDbId());
             } else {
-                noReferrerDbIds.add(obsoleteDbId);
+                String reportLine = getNoReplacementReportLine(obsoleteAccession.getAccession(),
+                    lastObsoleteInstance.getDbId(), referrerIds, lastObsoleteInstance.getSpeciesName());
+                writeReportLine(wikiWriter, reportLine, obsoleteAccession,
+                    obsoleteAccession.hasLabel(ObsoleteLabel.PLANT), skipNoReplacementReportLines,
+                    plantNoReplacementReportLines);
             }
         }
 
-        for (String isoformAccession : isoformAccessionToDbId.keySet()) {
-            Collection<GKInstance> isoformInstances = emptyListIfNull(dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReferenceIsoform,
-                ReactomeJavaConstants.variantIdentifier,
-                "=",
-                isoformAccession
-            ));
-            String speciesName;
-            for (GKInstance isoformInstance : isoformInstances) {
-                List<String> referrerIds = new ArrayList<>();
-                long isoformInstanceDbId = isoformInstance.getDBID();
-                speciesName = getSpeciesName(isoformInstance);
-
-                List<GKInstance> referrers = emptyListIfNull(
-                    (List<GKInstance>) isoformInstance.getReferers(ReactomeJavaConstants.referenceEntity));
-                for (GKInstance referrer : referrers) {
-                    if (referrer.getSchemClass().isa(ReactomeJavaConstants.EntityWithAccessionedSequence)) {
-                        GKInstance referrerStableIdInstance =
-                            (GKInstance) referrer.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
-                        if (referrerStableIdInstance != null) {
-                            String referrerStableId =
-                                (String) referrerStableIdInstance.getAttributeValue(ReactomeJavaConstants.identifier);
-                            referrerIds.add(referrerStableId);
-                        } else {
-                            referrerIds.add(referrer.getDBID().toString());
-                        }
-                    }
-                }
+        for (ObsoleteAccession obsoleteAccession :
+            obsoleteClassification.getObsoleteAccessions(ObsoleteLabel.NO_REPLACEMENT, true)) {
 
-                if (!referrerIds.isEmpty()) {
-                    StringBuilder reportLineBuilder = new StringBuilder();
-                    //reportLineBuilder.append("|\n");
-                    reportLineBuilder.append(String.format("||%s\n", isoformAccession));
-                    reportLineBuilder.append(String.format(
-                        "|[https://curator.reactome.org/cgi-bin/instancebrowser?DB=%s&ID=%d& %d]\n",
-                        dba.getDBName(), isoformInstanceDbId, isoformInstanceDbId
-                    ));
-                    reportLineBuilder.append(String.format("||%s\n", String.join(
-                        "|", referrerIds.stream().map(Object::toString).collect(Collectors.toList())
-                    )));
-                    reportLineBuilder.append(String.format("|%s\n", speciesName));
-                    reportLineBuilder.append("|-\n");
-
-                    String reportLine = reportLineBuilder.toString();
-                    if (skipList.stream().anyMatch(accession -> accession.equals(isoformAccession))) {
-                        skipNoReplacementReportLines.add(reportLine);
-                    } else if (isPlantReportLine(reportLine)) {
-                        plantNoReplacementReportLines.add(reportLine);
-                    } else {
-                        wikiWriter.write(reportLine);
-                    }
+            for (ObsoleteInstance obsoleteInstance : obsoleteAccession.getInstances()) {
+                if (obsoleteInstance.getEwasReferrerIds().isEmpty()) {
+                    noReferrerDbIds.add(obsoleteInstance.getDbId());
                 } else {
-                    noReferrerDbIds.add(isoformInstanceDbId);
+                    String reportLine = getNoReplacementReportLine(obsoleteAccession.getAccession(),
+                        obsoleteInstance.getDbId(), obsoleteInstance.getEwasReferrerIds(),
+                        obsoleteInstance.getSpeciesName());
+                    writeReportLine(wikiWriter, reportLine, obsoleteAccession, obsoleteInstance.isPlantSpecies(),
+                        skipNoReplacementReportLines, plantNoReplacementReportLines);
                 }
             }
         }
@@ -926,51 +942,421 @@ public class Main {
 
         System.out.println("\nDeleting DBID with obsolete UniProt and no referrers (2nd round during wiki report)...");
 
-        NEXT:for (long noReferrerDbId : noReferrerDbIds) {
-            for (long dbIdToSkip : dbIdsToSkip) {
-                if (noReferrerDbId == dbIdToSkip) {
-                    continue NEXT;
+        deletionExecutor.delete(noReferrerDbIds, obsoleteClassification.getDbIdsToSkip());
+
+        dba.commit();
+
+        System.out.println("Checking for duplicate isoform instances...");
+
+        DuplicateIsoformDetector duplicateIsoformDetector = new DuplicateIsoformDetector(
+            readReplica.getReadAdaptor("Duplicate isoform scan").getConnection());
+        for (long isoformDbId : duplicateIsoformDetector.findIsoformsWithoutVariantIdentifier()) {
+            System.out.println(String.format("ReferenceIsoform %s has no variant identifier", isoformDbId));
+        }
+
+        Map<String, List<Long>> variantIdentifierToDbIds = duplicateIsoformDetector.findDuplicateIsoforms();
+        for (Map.Entry<String, List<Long>> variantIdentifierAndDbIds : variantIdentifierToDbIds.entrySet()) {
+            System.out.println(String.format("Multiple instance for %s:\t%s",
+                variantIdentifierAndDbIds.getKey(), variantIdentifierAndDbIds.getValue()));
+        }
+        Reportable duplicateIsoformReport =
+            new DuplicateIsoformReport(getUniprotUpdateDirectoryPath(), variantIdentifierToDbIds);
+        duplicateIsoformReport.writeReport();
+
+        if (rebuildAllDisplayNames) {
+            // ReferenceIsoform is a subclass of ReferenceGeneProduct, so this includes all isoforms
+            System.out.println("Rebuilding display names of all ReferenceGeneProducts...");
+            int numberOfDisplayNamesUpdated = displayNameUpdater.rebuildAllDisplayNames(
+                ReactomeJavaConstants.ReferenceGeneProduct,
+                Integer.parseInt(configProperties.getProperty("displayNameRebuildThreads", "4")));
+            System.out.println("Done - " + numberOfDisplayNamesUpdated + " display names changed");
+        }
+
+        setPhase("completed");
+        System.out.println("UniProt Update has completed");
+        System.out.println("Total db instances: " + totalNumberOfDbInstances);
+        System.out.println("Total SwissProt instances in file: " + numberOfInstancesInSwissProtFile);
+        System.out.println("Obsolete instances with no referrers: " + numberOfObsoleteInstancesWithNoEWAS);
+        System.out.println("Number of new SwissProt instances: " + numberOfNewSwissProtInstances);
+    }
+
+    /**
+     * Re-applies the SwissProt entries for the accessions listed (one per line) in the provided file.  Entries are
+     * located through the accession offset index of the SwissProt file, which is built on first use, so only the
+     * requested entries are read and processed.  The clean-up tasks of a full update (obsolete instances,
+     * mis-matched isoforms and reports) are not run since they require the whole file to have been processed.
+     *
+     * @param swissProtFileProcessor Processor for the SwissProt file in the update directory
+     * @param targetedAccessionsFilePath Path to the file listing the UniProt accessions to re-apply
+     * @throws Exception Thrown if the index can't be built or read or if there is a problem updating the database
+     */
+    private void runTargetedUpdate(SwissProtFileProcessor swissProtFileProcessor, Path targetedAccessionsFilePath)
+        throws Exception {
+
+        List<String> targetedAccessions = Files.readAllLines(targetedAccessionsFilePath)
+            .stream()
+            .map(String::trim)
+            .filter(accession -> !accession.isEmpty())
+            .distinct()
+            .collect(Collectors.toList());
+        System.out.println("Targeted update of " + targetedAccessions.size() + " accessions from " +
+            targetedAccessionsFilePath);
+
+        Path swissProtFilePath = swissProtFileProcessor.getUncompressedSwissProtFilePath();
+        try (SwissProtEntryIndex swissProtEntryIndex = SwissProtEntryIndex.openOrBuild(swissProtFilePath)) {
+            Set<Long> processedEntryOffsets = new HashSet<>();
+
+            dba.startTransaction();
+            for (String targetedAccession : targetedAccessions) {
+                SwissProtEntryIndex.EntryLocation entryLocation = swissProtEntryIndex.find(targetedAccession);
+                if (entryLocation == null) {
+                    updateLog.warn("{} is not an accession in {}", targetedAccession, swissProtFilePath);
+                    continue;
+                }
+                if (!processedEntryOffsets.add(entryLocation.getOffset())) {
+                    continue;
                 }
 
-                dba.deleteByDBID(noReferrerDbId);
-                System.out.println("Deleting DBID: " + noReferrerDbId);
+                String entry = swissProtEntryIndex.readEntry(entryLocation);
+                updateLog.info("Re-applying entry for {} (offset {}, {} bytes)",
+                    targetedAccession, entryLocation.getOffset(), entryLocation.getLength());
+                processEntry(entry);
             }
         }
+        referenceDNASequenceManager.flush();
+        ewasChainChangeReporter.flush();
 
-        System.out.println("Checking for duplicate isoform instances...");
+        closeReportWriters();
 
-        List<GKInstance> referenceIsoformUniProtInstances = emptyListIfNull((List<GKInstance>) (
-            dba.fetchInstancesByClass(ReactomeJavaConstants.ReferenceIsoform))
-            .stream()
-            .filter(isoform -> hasUniProtReferenceDatabase((GKInstance) isoform))
-            .collect(Collectors.toList()));
+        System.out.println("Updating display names for re-applied accessions...");
+        displayNameUpdater.updateTouchedDisplayNames();
 
-        Map<String,List<Long>> variantIdentifierToDbId = new HashMap<>();
-        for (GKInstance referenceIsoformUniProtInstance : referenceIsoformUniProtInstances) {
-            String variantIdentifier =
-                (String) referenceIsoformUniProtInstance.getAttributeValue(ReactomeJavaConstants.variantIdentifier);
-            long isoformDbId = referenceIsoformUniProtInstance.getDBID();
+        dba.commit();
+        ewasChainChangeReporter.commitBatch();
+        System.out.println("Targeted UniProt Update has completed");
+        System.out.println("Total SwissProt instances re-applied: " + numberOfInstancesInSwissProtFile);
+        System.out.println("Number of new SwissProt instances: " + numberOfNewSwissProtInstances);
+    }
 
-            if (variantIdentifier == null || variantIdentifier.isEmpty()) {
-                System.out.println(String.format("ReferenceIsoform %s has no variant identifier", isoformDbId));
-                continue;
+    @SuppressWarnings("unchecked")
+    private void processEntry(String entry) throws Exception {
+        long entryStartNanos = System.nanoTime();
+        EntryParseEvent entryParseEvent = new EntryParseEvent();
+        entryParseEvent.begin();
+
+        List<String> accessions = FieldExtractors.ACCESSION.extractAll(entry);
+        String primaryAccession = accessions.remove(0);
+        addSecondaryAccessions(primaryAccession, accessions);
+
+        String organismName = FieldExtractors.SCIENTIFIC_NAME.extractFirst(entry);
+        String taxon = "";
+        GKInstance speciesInstance = null;
+        for (String speciesName : taxonIdToSpeciesName.values()) {
+            if (organismName.contains(speciesName)) {
+                taxon = speciesName;
+                speciesInstance = getSpeciesInstance(dba, taxon, speciesNameToInstance);
             }
+        }
 
-            if (variantIdentifierToDbId.containsKey(variantIdentifier)) {
-                variantIdentifierToDbId.get(variantIdentifier).add(isoformDbId);
-                System.out.println(String.format("Multiple instance for %s:\t%s",
-                    variantIdentifier, variantIdentifierToDbId.get(variantIdentifier)));
-            } else {
-                variantIdentifierToDbId.computeIfAbsent(variantIdentifier, k -> new ArrayList<>()).add(isoformDbId);
+        if (taxon.length() < 2 && !rgpAccessionToDbId.containsKey(primaryAccession)) {
+            return;
+        }
+        entryParseEvent.accession = primaryAccession;
+        entryParseEvent.entryLength = entry.length();
+
+        numberOfInstancesInSwissProtFile += 1;
+
+        String id = FieldExtractors.ENTRY_NAME.extractFirst(entry);
+
+        accessions.add(0, id);
+        String description = FieldExtractors.PROTEIN.extractFirst(entry);
+
+        String fullName = FieldExtractors.RECOMMENDED_FULL_NAME.extractFirst(description);
+        if (fullName.isEmpty()) {
+            fullName = FieldExtractors.REFERENCED_RECOMMENDED_FULL_NAME.extractFirst(description);
+        }
+        String recommendedName = !fullName.isEmpty() ? fullName : "No name";
+
+        description = DescriptionNormalizer.normalize(description);
+
+        Integer sequenceLength = Integer.parseInt(FieldExtractors.SEQUENCE_LENGTH.extractFirst(entry));
+
+        String checksum = FieldExtractors.SEQUENCE_CHECKSUM.extractFirst(entry);
+
+        List<String> geneNames = getGeneNames(entry);
+
+
+        String name = !geneNames.isEmpty() &&!geneNames.get(0).isEmpty() ?
+            geneNames.get(0) :
+            recommendedName;
+
+        List<String> keywords = FieldExtractors.KEYWORD.extractAll(entry, new ArrayList<>(), valueDictionary);
+
+        String comments = parseComments(entry);
+
+        List<String> isoformIds = FieldExtractors.ISOFORM_ID.extractAll(entry);
+
+        List<String> chains = chainFeatureScanner.scan(entry);
+        entryParseEvent.commit();
+        long parseEndNanos = System.nanoTime();
+
+        EntryApplyEvent entryApplyEvent = new EntryApplyEvent();
+        entryApplyEvent.begin();
+        entryApplyEvent.accession = primaryAccession;
+        entryApplyEvent.species = taxon;
+
+        List<GKInstance> referenceDNASequences = new ArrayList<>();
+        if (taxon.contains("Homo sapiens")) {
+            Set<String> uniqueEnsEMBLGeneIds = getUniqueEnsEMBLGeneIds(entry);
+
+            if (uniqueEnsEMBLGeneIds.size() > 1) {
+                referenceDNASequenceReportWriter.write("Multiple gene ids -- " +
+                    String.join("\t", primaryAccession, name, uniqueEnsEMBLGeneIds.toString()) + "\n");
             }
+            for (String ensEMBLGeneId : uniqueEnsEMBLGeneIds) {
+                GKInstance referenceDNASequence = referenceDNASequenceManager.get(ensEMBLGeneId);
+
+                if (referenceDNASequence != null) {
+                    referenceDNASequenceReportWriter.write("Checking existing reference DNA sequence for " +
+                        ensEMBLGeneId + " with db_id " + referenceDNASequence.getDBID() + "\n");
+
+                    if (!referenceDNASequencesSettled && referenceDNASequenceManager.update(
+                        referenceDNASequence, ensEMBLGeneId, geneNames, speciesInstance)) {
+                        referenceDNASequenceReportWriter.write(
+                            "Updating existing reference DNA sequence for " + ensEMBLGeneId + " with db_id " +
+                            referenceDNASequence.getDBID() + "\n"
+                        );
+                    }
+                } else {
+                    if (uniqueEnsEMBLGeneIds.size() > 1 && !onEnsEMBLPrimaryAssembly(ensEMBLGeneId)) {
+                        // Reference DNA Sequences to be created only for primary gene ids for a UniProt entry
+                        // When there is only one gene id for a UniProt entry, it is assumed to be the primary
+                        // id
+                        referenceDNASequenceReportWriter.write(ensEMBLGeneId + " is not a primary/canonical " +
+                            "gene -- skipping creation of ReferenceDNASequence\n"
+                        );
+                        continue;
+                    }
+
+                    referenceDNASequence =
+                        referenceDNASequenceManager.create(ensEMBLGeneId, geneNames, speciesInstance);
+                    entryApplyEvent.instancesCreated += 1;
+                    referenceDNASequenceReportWriter.write("Reference DNA sequence with db_id " +
+                        referenceDNASequence.getDBID() + " created for " + ensEMBLGeneId + "\n");
+                }
+                referenceDNASequences.add(referenceDNASequence);
+            }
+        }
+        long referenceDNASequencesEndNanos = System.nanoTime();
+
+        Map<String,List<?>> values = new HashMap<>();
+        values.put(ReactomeJavaConstants.secondaryIdentifier, accessions);
+        values.put(ReactomeJavaConstants.description, Collections.singletonList(description));
+        values.put(ReactomeJavaConstants.sequenceLength, Collections.singletonList(sequenceLength));
+        values.put(ReactomeJavaConstants.species, Collections.singletonList(speciesInstance));
+        values.put(ReactomeJavaConstants.checksum, Collections.singletonList(checksum));
+        values.put(ReactomeJavaConstants.name, Collections.singletonList(name));
+        values.put(ReactomeJavaConstants.geneName, geneNames);
+        values.put(ReactomeJavaConstants.comment, Collections.singletonList(comments));
+        values.put(ReactomeJavaConstants.keyword, keywords);
+        values.put(ReactomeJavaConstants.chain, chains);
+        if (taxon.contains("Homo sapiens")) {
+            values.put(ReactomeJavaConstants.referenceGene, referenceDNASequences);
         }
+        if (!rgpAccessionToDbId.containsKey(primaryAccession)) {
+            numberOfNewSwissProtInstances += 1;
+
+            GKInstance newReferenceGeneProductInstance =
+                new GKInstance(dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceGeneProduct));
+            newReferenceGeneProductInstance.setDbAdaptor(dba);
+            newReferenceGeneProductInstance.setAttributeValue(
+                ReactomeJavaConstants.referenceDatabase, uniProtReferenceDatabase);
+            newReferenceGeneProductInstance.setAttributeValue(
+                ReactomeJavaConstants.identifier, primaryAccession);
+            newReferenceGeneProductInstance.setAttributeValue(ReactomeJavaConstants.created, instanceEdit);
+            long newRGPDbId = storeInstance(newReferenceGeneProductInstance);
+            entryApplyEvent.instancesCreated += 1;
+
+            updateLog.debug("New UniProt:{}\t{}", primaryAccession, newRGPDbId);
+            entryApplyEvent.attributesChanged +=
+                updateInstance(newReferenceGeneProductInstance, values, sequenceReportWriter);
+            for (String isoformId : isoformIds) {
+                if (!isoformId.contains(primaryAccession)) {
+                    putUncommitted(misMatchedIsoformAccessionToRGPAccession, isoformId, primaryAccession);
+                }
 
-        dba.commit();
-        System.out.println("UniProt Update has completed");
-        System.out.println("Total db instances: " + totalNumberOfDbInstances);
-        System.out.println("Total SwissProt instances in file: " + numberOfInstancesInSwissProtFile);
-        System.out.println("Obsolete instances with no referrers: " + numberOfObsoleteInstancesWithNoEWAS);
-        System.out.println("Number of new SwissProt instances: " + numberOfNewSwissProtInstances);
+                GKInstance newIsoformInstance = new GKInstance(
+                    dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceIsoform));
+                newIsoformInstance.setDbAdaptor(dba);
+                newIsoformInstance.setAttributeValue(
+                    ReactomeJavaConstants.referenceDatabase, uniProtReferenceDatabase);
+                newIsoformInstance.setAttributeValue(ReactomeJavaConstants.identifier, primaryAccession);
+                newIsoformInstance.setAttributeValue(
+                    ReactomeJavaConstants.isoformParent, newReferenceGeneProductInstance);
+                newIsoformInstance.setAttributeValue(ReactomeJavaConstants.created, instanceEdit);
+                newIsoformInstance.setAttributeValue(ReactomeJavaConstants.variantIdentifier, isoformId);
+
+                entryApplyEvent.attributesChanged += updateInstance(newIsoformInstance, values, sequenceReportWriter);
+                entryApplyEvent.instancesCreated += 1;
+            }
+        } else {
+            InstancePrefetcher.PrefetchedInstances prefetchedInstances = instancePrefetcher.take(primaryAccession);
+            Collection<GKInstance> existingReferenceGeneProductInstances =
+                prefetchedInstances.getReferenceGeneProducts();
+            boolean duplicateFlag = false;
+            for (GKInstance existingReferenceGeneProductInstance : existingReferenceGeneProductInstances) {
+                if (isAReferenceIsoform(existingReferenceGeneProductInstance)) {
+                    continue;
+                }
+
+                if (duplicateFlag) {
+                    putUncommitted(duplicateDbIdToReferenceGeneProductAccession,
+                        existingReferenceGeneProductInstance.getDBID(), primaryAccession);
+                    continue;
+                }
+
+                updateLog.debug("Updating master sequence...{}\t{}",
+                    existingReferenceGeneProductInstance.getDBID(), primaryAccession);
+
+                uncommittedUpdatedInstances.put(
+                    existingReferenceGeneProductInstance.getDBID(), existingReferenceGeneProductInstance);
+                existingReferenceGeneProductInstance.addAttributeValue(
+                    ReactomeJavaConstants.modified, instanceEdit);
+
+                countUpdate(entryApplyEvent, updateInstance(existingReferenceGeneProductInstance, values,
+                    sequenceReportWriter, ReactomeJavaConstants.modified));
+
+                duplicateFlag = true;
+
+                if (values.get(ReactomeJavaConstants.species).isEmpty()) {
+                    values.put(ReactomeJavaConstants.species, Collections.singletonList((GKInstance)
+                        existingReferenceGeneProductInstance.getAttributeValue(ReactomeJavaConstants.species))
+                    );
+                }
+                for (String isoformId : isoformIds) {
+                    if (isoformId.contains(primaryAccession)) {
+                        Collection<GKInstance> isoformInstances = prefetchedInstances.getReferenceIsoforms(isoformId);
+                        if (!isoformInstances.isEmpty()) {
+                            for (GKInstance isoformInstance : isoformInstances) {
+                                String isoformAccession = (String) isoformInstance.getAttributeValue(
+                                    ReactomeJavaConstants.variantIdentifier);
+                                if (!isoformAccession.contains(primaryAccession)) {
+                                    continue;
+                                }
+                                updateLog.debug("Existing isoform update: {}\tMaster: {}",
+                                    isoformAccession, existingReferenceGeneProductInstance.getDBID());
+
+                                uncommittedUpdatedInstances.put(isoformInstance.getDBID(), isoformInstance);
+                                isoformInstance.setAttributeValue(ReactomeJavaConstants.isoformParent,
+                                    existingReferenceGeneProductInstance);
+                                isoformInstance.addAttributeValue(ReactomeJavaConstants.modified,
+                                    instanceEdit);
+
+                                countUpdate(entryApplyEvent, updateInstance(isoformInstance, values,
+                                    sequenceReportWriter, ReactomeJavaConstants.isoformParent,
+                                    ReactomeJavaConstants.modified));
+
+                                removeUncommitted(isoformAccessionToDbId, isoformId);
+                            }
+                        } else {
+                            GKInstance isoformInstance = new GKInstance(
+                                dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceIsoform)
+                            );
+                            isoformInstance.setDbAdaptor(dba);
+                            isoformInstance.setAttributeValue(ReactomeJavaConstants.identifier,
+                                primaryAccession);
+                            isoformInstance.setAttributeValue(ReactomeJavaConstants.isoformParent,
+                                existingReferenceGeneProductInstance);
+                            isoformInstance.setAttributeValue(ReactomeJavaConstants.created,
+                                instanceEdit);
+                            isoformInstance.setAttributeValue(ReactomeJavaConstants.variantIdentifier,
+                                isoformId);
+                            long isoformDbId = storeInstance(isoformInstance);
+                            entryApplyEvent.instancesCreated += 1;
+
+                            updateLog.debug("New isoform: {}\t{}\tMaster: {}",
+                                isoformId, isoformDbId, existingReferenceGeneProductInstance.getDBID());
+
+                            entryApplyEvent.attributesChanged +=
+                                updateInstance(isoformInstance, values, sequenceReportWriter);
+                        }
+                    } else {
+                        putUncommitted(misMatchedIsoformAccessionToRGPAccession, isoformId, primaryAccession);
+                    }
+                }
+                removeUncommitted(rgpAccessionToDbId, primaryAccession);
+            }
+        }
+        entryApplyEvent.commit();
+        entryLatencyReport.record(primaryAccession, entry.length(),
+            parseEndNanos - entryStartNanos,
+            referenceDNASequencesEndNanos - parseEndNanos,
+            System.nanoTime() - referenceDNASequencesEndNanos);
+    }
+
+    private List<String> getGeneNames(String entry) {
+        return FieldExtractors.GENE.extractAll(entry).stream().flatMap(
+            names -> Arrays.stream(GENE_NAME_SEPARATOR_PATTERN.split(names.trim())).map(geneName -> {
+                String strippedGeneName = NAME_END_TAG_PATTERN.matcher(geneName).replaceAll("");
+                strippedGeneName = NAME_START_TAG_PATTERN.matcher(strippedGeneName).replaceAll("");
+                return DOUBLE_SPACE_PATTERN.matcher(strippedGeneName).replaceAll("");
+            })
+        ).distinct().collect(Collectors.toList());
+    }
+
+    private Set<String> getUniqueEnsEMBLGeneIds(String entry) {
+        return FieldExtractors.ENSEMBL_GENE_ID.extractAll(entry, new HashSet<>())
+            .stream()
+            .distinct()
+            .map(this::removeVersionNumber)
+            .collect(Collectors.toSet());
+    }
+
+    private static void countUpdate(EntryApplyEvent entryApplyEvent, int numberOfAttributesChanged) {
+        entryApplyEvent.attributesChanged += numberOfAttributesChanged;
+        if (numberOfAttributesChanged > 0) {
+            entryApplyEvent.instancesUpdated += 1;
+        }
+    }
+
+    private long storeInstance(GKInstance instance) throws Exception {
+        DatabaseCallEvent databaseCallEvent =
+            DatabaseCallEvent.start("storeInstance", instance.getSchemClass().getName());
+        long dbId = dba.storeInstance(instance);
+        databaseCallEvent.end(1);
+        return dbId;
+    }
+
+    private void addSecondaryAccessions(String primaryAccession, List<String> secondaryAccessions) {
+        for (String secondaryAccession : secondaryAccessions) {
+            List<String> primaryAccessions =
+                secondaryAccessionToPrimaryAccessionList.computeIfAbsent(secondaryAccession, k -> new ArrayList<>());
+            primaryAccessions.add(primaryAccession);
+            uncommittedChangeUndoActions.push(() -> {
+                primaryAccessions.remove(primaryAccessions.size() - 1);
+                if (primaryAccessions.isEmpty()) {
+                    secondaryAccessionToPrimaryAccessionList.remove(secondaryAccession);
+                }
+            });
+        }
+    }
+
+    private <K, V> void putUncommitted(Map<K, V> map, K key, V value) {
+        V previousValue = map.put(key, value);
+        uncommittedChangeUndoActions.push(() -> {
+            if (previousValue != null) {
+                map.put(key, previousValue);
+            } else {
+                map.remove(key);
+            }
+        });
+    }
+
+    private <K, V> void removeUncommitted(Map<K, V> map, K key) {
+        V previousValue = map.remove(key);
+        if (previousValue != null) {
+            uncommittedChangeUndoActions.push(() -> map.put(key, previousValue));
+        }
     }
 
     private static Path getDefaultConfigFilePath() throws URISyntaxException {
@@ -987,10 +1373,119 @@ public class Main {
         return this.uniprotUpdateDirectoryPath;
     }
 
+    /**
+     * Gets the lookup tables and reference data needed at start-up from the snapshot file if it was taken from the
+     * database as it is now, or otherwise loads them from the database and saves a new snapshot.  The snapshot file
+     * is set by the "startupSnapshotFile" configuration property (by default, startup_snapshot.bin in the update
+     * directory) and snapshots are not used if the property is empty.
+     *
+     * @param configProperties Configuration properties
+     * @return Start-up data
+     * @throws Exception Thrown if the data can't be loaded from the database
+     */
+    private StartupSnapshot getStartupSnapshot(Properties configProperties) throws Exception {
+        Path startupSnapshotFilePath = getStartupSnapshotFilePath(configProperties);
+
+        DatabaseWatermark databaseWatermark = DatabaseWatermark.read(dba);
+        if (startupSnapshotFilePath != null) {
+            StartupSnapshot startupSnapshot = StartupSnapshot.readIfCurrent(startupSnapshotFilePath, databaseWatermark);
+            if (startupSnapshot != null) {
+                System.out.println("Start-up data loaded from snapshot " + startupSnapshotFilePath);
+                return startupSnapshot;
+            }
+        }
+
+        StartupSnapshot startupSnapshot = loadStartupSnapshot(
+            configProperties, databaseWatermark, readReplica.getReadAdaptor("Start-up loading"));
+        if (startupSnapshotFilePath != null) {
+            startupSnapshot.write(startupSnapshotFilePath);
+            System.out.println("Start-up snapshot written to " + startupSnapshotFilePath);
+        }
+        return startupSnapshot;
+    }
+
+    /**
+     * Replaces the start-up snapshot at the end of a successful run with one taken from the database as the run left
+     * it, so the next run can reuse it unless the database is changed in between.  The lookup tables of the run
+     * can't be saved instead as they are consumed while the entries are processed, so they are loaded again.  The
+     * snapshot is left as it is if the run created or deleted none of the instances it holds.
+     *
+     * @param configProperties Configuration properties
+     * @throws Exception Thrown if the data can't be loaded from the database or the snapshot can't be written
+     */
+    private void refreshStartupSnapshot(Properties configProperties) throws Exception {
+        Path startupSnapshotFilePath = getStartupSnapshotFilePath(configProperties);
+        if (startupSnapshotFilePath == null) {
+            return;
+        }
+
+        DatabaseWatermark databaseWatermark = DatabaseWatermark.read(dba);
+        if (StartupSnapshot.readIfCurrent(startupSnapshotFilePath, databaseWatermark) != null) {
+            return;
+        }
+        loadStartupSnapshot(configProperties, databaseWatermark, readReplica.getReadAdaptor("Start-up snapshot refresh"))
+            .write(startupSnapshotFilePath);
+        System.out.println("Start-up snapshot refreshed in " + startupSnapshotFilePath);
+    }
+
+    private Path getStartupSnapshotFilePath(Properties configProperties) {
+        String startupSnapshotFile = configProperties.getProperty(
+            "startupSnapshotFile", getUniprotUpdateDirectoryPath().resolve("startup_snapshot.bin").toString()).trim();
+        return !startupSnapshotFile.isEmpty() ? Paths.get(startupSnapshotFile) : null;
+    }
+
+    private StartupSnapshot loadStartupSnapshot(Properties configProperties, DatabaseWatermark databaseWatermark,
+                                                MySQLAdaptor readDba) throws Exception {
+        Map<String, Long> referenceDatabaseNameToDbId = new LinkedHashMap<>();
+        referenceDatabaseNameToDbId.put(
+            UNIPROT_REFERENCE_DATABASE_NAME, getUniProtReferenceDatabase(readDba).getDBID());
+        referenceDatabaseNameToDbId.put(
+            ENSEMBL_REFERENCE_DATABASE_NAME, getHumanEnsEMBLGeneReferenceDatabase(readDba).getDBID());
+
+        Map<String, Long> speciesNameToDbId = new LinkedHashMap<>();
+        for (String speciesName : new LinkedHashSet<>(taxonIdToSpeciesName.values())) {
+            GKInstance speciesInstance = getExistingSpeciesInstance(readDba, speciesName);
+            if (speciesInstance != null) {
+                speciesNameToDbId.put(speciesName, speciesInstance.getDBID());
+            }
+        }
+
+        System.out.println("Populating rgp accession, isoform accession and reference DNA sequence to db id...");
+        LookupTableLoader.LookupTables lookupTables = new LookupTableLoader(readDba, Integer.parseInt(
+            configProperties.getProperty("startupLoaderConnections",
+                String.valueOf(LookupTableLoader.DEFAULT_NUMBER_OF_CONNECTIONS)))
+        ).load(referenceDatabaseNameToDbId.get(UNIPROT_REFERENCE_DATABASE_NAME));
+
+        return new StartupSnapshot(databaseWatermark,
+            lookupTables.getRGPAccessionToDbId(), lookupTables.getIsoformAccessionToDbId(),
+            lookupTables.getReferenceDNASequenceIdentifierToDbId(), speciesNameToDbId, referenceDatabaseNameToDbId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, GKInstance> getSpeciesNameToInstance(Map<String, Long> speciesNameToDbId) throws Exception {
+        Map<Long, GKInstance> dbIdToSpeciesInstance = new HashMap<>();
+        if (!speciesNameToDbId.isEmpty()) {
+            Collection<GKInstance> speciesInstances = dba.fetchInstances(
+                ReactomeJavaConstants.Species, new ArrayList<>(speciesNameToDbId.values()));
+            for (GKInstance speciesInstance : speciesInstances) {
+                dbIdToSpeciesInstance.put(speciesInstance.getDBID(), speciesInstance);
+            }
+        }
+
+        Map<String, GKInstance> speciesNameToInstance = new HashMap<>();
+        for (Map.Entry<String, Long> speciesNameAndDbId : speciesNameToDbId.entrySet()) {
+            GKInstance speciesInstance = dbIdToSpeciesInstance.get(speciesNameAndDbId.getValue());
+            if (speciesInstance != null) {
+                speciesNameToInstance.put(speciesNameAndDbId.getKey(), speciesInstance);
+            }
+        }
+        return speciesNameToInstance;
+    }
+
     @SuppressWarnings("unchecked")
     private GKInstance getUniProtReferenceDatabase(MySQLAdaptor dba) throws Exception {
         Collection<GKInstance> uniProtReferenceDatabaseInstances = dba.fetchInstanceByAttribute(
-            ReactomeJavaConstants.ReferenceDatabase, ReactomeJavaConstants.name, "=", "UniProt");
+            ReactomeJavaConstants.ReferenceDatabase, ReactomeJavaConstants.name, "=", UNIPROT_REFERENCE_DATABASE_NAME);
 
         if (uniProtReferenceDatabaseInstances == null || uniProtReferenceDatabaseInstances.isEmpty()) {
             throw new RuntimeException("Could not find UniProt Reference Database in " + dba);
@@ -1051,7 +1546,31 @@ public class Main {
         return ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
     }
 
-    private Map<Integer, String> getTaxonIdToSpeciesName() {
+    /**
+     * Returns the tracked species from the "trackedTaxa" configuration property, a comma separated list of
+     * NCBI taxonomy id and species name pairs (e.g. "9606:Homo sapiens,10090:Mus musculus").  The default species
+     * are returned if the property is not set.
+     */
+    private Map<Integer, String> getTaxonIdToSpeciesName(Properties configProperties) {
+        String trackedTaxa = configProperties.getProperty("trackedTaxa", "").trim();
+        if (trackedTaxa.isEmpty()) {
+            return getDefaultTaxonIdToSpeciesName();
+        }
+
+        Map<Integer, String> taxonIdToSpeciesName = new HashMap<>();
+        for (String trackedTaxon : trackedTaxa.split(",")) {
+            String[] taxonIdAndSpeciesName = trackedTaxon.split(":", 2);
+            if (taxonIdAndSpeciesName.length != 2 || !taxonIdAndSpeciesName[0].trim().matches("\\d+")) {
+                throw new RuntimeException("Tracked taxon '" + trackedTaxon + "' is not of the form " +
+                    "taxonId:Species name");
+            }
+            taxonIdToSpeciesName.put(
+                Integer.parseInt(taxonIdAndSpeciesName[0].trim()), taxonIdAndSpeciesName[1].trim());
+        }
+        return taxonIdToSpeciesName;
+    }
+
+    private Map<Integer, String> getDefaultTaxonIdToSpeciesName() {
         Map<Integer, String> taxonIdToSpeciesName = new HashMap<>();
         taxonIdToSpeciesName.put(9606, "Homo sapiens");
         taxonIdToSpeciesName.put(10090, "Mus musculus");
@@ -1068,53 +1587,6 @@ public class Main {
         return taxonIdToSpeciesName;
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Long> getRGPAccessionToDbIdMap(MySQLAdaptor dba) throws Exception {
-        Collection<GKInstance> instances = dba.fetchInstanceByAttribute(
-            ReactomeJavaConstants.ReferenceGeneProduct,
-            ReactomeJavaConstants.referenceDatabase,
-            "=",
-            getUniProtReferenceDatabase(dba)
-        );
-
-        Map<String, Long> identifierToDbId = new HashMap<>();
-        for (GKInstance instance : instances) {
-            String identifier = (String) instance.getAttributeValue(ReactomeJavaConstants.identifier);
-
-            if (identifier != null && !identifier.isEmpty()) {
-                identifierToDbId.put(identifier, instance.getDBID());
-            }
-        }
-        return identifierToDbId;
-    }
-
-    private Map<String, Long> getIsoformAccessionToDbIdMap(MySQLAdaptor dba) throws Exception {
-        return getIdentifierToDbIdMap(
-            dba, ReactomeJavaConstants.ReferenceIsoform, ReactomeJavaConstants.variantIdentifier
-        );
-    }
-
-    private Map<String, Long> getRDSIdentifierToDbIdMap(MySQLAdaptor dba) throws Exception {
-        return getIdentifierToDbIdMap(
-            dba, ReactomeJavaConstants.ReferenceDNASequence, ReactomeJavaConstants.identifier
-        );
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Long> getIdentifierToDbIdMap(MySQLAdaptor dba, String className, String identifierAttribute) throws Exception {
-        Collection<GKInstance> instances = dba.fetchInstancesByClass(className);
-
-        Map<String, Long> identifierToDbId = new HashMap<>();
-        for (GKInstance instance : instances) {
-            String identifier = (String) instance.getAttributeValue(identifierAttribute);
-
-            if (identifier != null && !identifier.isEmpty()) {
-                identifierToDbId.put(identifier, instance.getDBID());
-            }
-        }
-        return identifierToDbId;
-    }
-
     private List<String> getSkipList() throws IOException, URISyntaxException {
         final BufferedReader skipListWithNoReplacement = getSkipListFileBufferedReader("skiplist_no_replacement.txt");
         final BufferedReader skipListWithReplacement = getSkipListFileBufferedReader("skiplist_with_replacement.txt");
@@ -1148,13 +1620,14 @@ public class Main {
         }
 
         GKInstance speciesInstance = getExistingSpeciesInstance(dba, speciesName);
-        if (speciesInstance != null) {
-            return speciesInstance;
-        } else {
+        if (speciesInstance == null) {
             speciesInstance = createNewSpeciesInstance(dba, speciesName);
             dba.storeInstance(speciesInstance);
-            return speciesInstance;
         }
+        if (speciesCache != null) {
+            putUncommitted(speciesCache, speciesName, speciesInstance);
+        }
+        return speciesInstance;
     }
 
     @SuppressWarnings("unchecked")
@@ -1164,7 +1637,7 @@ public class Main {
                 ReactomeJavaConstants.ReferenceDatabase,
                 ReactomeJavaConstants.name,
                 "=",
-                "ENSEMBL"
+                ENSEMBL_REFERENCE_DATABASE_NAME
             );
 
         if (ensEMBLHumanReferenceDatabaseInstances == null || ensEMBLHumanReferenceDatabaseInstances.isEmpty()) {
@@ -1174,24 +1647,6 @@ public class Main {
         return ensEMBLHumanReferenceDatabaseInstances.iterator().next();
     }
 
-    private GKInstance fetchReferenceDNASequenceByDbId(MySQLAdaptor dba, long referenceDNASequenceDbId) throws Exception {
-        return dba.fetchInstance(referenceDNASequenceDbId);
-    }
-
-    private boolean sameDbId(GKInstance instance1, GKInstance instance2) {
-        return instance1.getDBID().equals(instance2.getDBID());
-    }
-
-    private boolean areDifferentLists(List<?> list1, List<?> list2) {
-        if (list1 == list2) {
-            return false;
-        } else if (list1 == null || list2 == null) {
-            return true;
-        }
-
-        return !list1.equals(list2);
-    }
-
     private boolean onEnsEMBLPrimaryAssembly(String ensEMBLGeneId) throws InterruptedException {
         final List<String> primaryAssemblyRegions = Arrays.asList(
             "1","2","3","4","5","6","7","8","9","10",
@@ -1207,13 +1662,12 @@ public class Main {
                 queryAttempts += 1;
                 ensEMBLIdData = queryEnsEMBLRESTAPI(ensEMBLGeneId);
             } catch (IOException e) {
-                System.out.println("IOException when querying  " + ensEMBLGeneId + ": " + e.getMessage());
+                updateLog.warn("IOException when querying {}: {}", ensEMBLGeneId, e.getMessage());
                 // Sleep progressively longer for each query attempt to allow the server more time to respond
                 Thread.sleep(queryAttempts * 500);
             }
         }
-        Pattern seqRegionPattern = Pattern.compile("\"seq_region_name\":(\".*?\")");
-        Matcher seqRegionMatcher = seqRegionPattern.matcher(ensEMBLIdData);
+        Matcher seqRegionMatcher = SEQ_REGION_PATTERN.matcher(ensEMBLIdData);
 
         if (seqRegionMatcher.find()) {
             String seqRegion = seqRegionMatcher.group(1);
@@ -1227,12 +1681,19 @@ public class Main {
             "https://rest.ensembl.org/lookup/id/" + ensEMBLGeneId + "?content-type=application/json"
         );
 
+        RemoteLookupEvent remoteLookupEvent = new RemoteLookupEvent();
+        remoteLookupEvent.begin();
+        remoteLookupEvent.service = RemoteLookupEvent.ENSEMBL;
+        remoteLookupEvent.identifier = ensEMBLGeneId;
+
         HttpURLConnection httpURLConnection = (HttpURLConnection) ensemblLookupURL.openConnection();
-        if (httpURLConnection.getResponseCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
+        remoteLookupEvent.responseCode = httpURLConnection.getResponseCode();
+        if (remoteLookupEvent.responseCode == HttpURLConnection.HTTP_BAD_REQUEST) {
+            remoteLookupEvent.commit();
             if (getError(httpURLConnection).contains("not found")) {
                 return "";
             } else {
-                System.out.println(String.format("Bad request for %s:  Sleeping for 5 seconds and retrying", ensemblLookupURL));
+                updateLog.warn("Bad request for {}: Sleeping for 5 seconds and retrying", ensemblLookupURL);
                 Thread.sleep(5000);
             }
 
@@ -1247,6 +1708,8 @@ public class Main {
         }
         ensEMBLInputReader.close();
         httpURLConnection.disconnect();
+        remoteLookupEvent.responseSize = content.length();
+        remoteLookupEvent.commit();
 
         return content.toString();
     }
@@ -1263,16 +1726,27 @@ public class Main {
         return content.toString();
     }
 
-    private void updateInstance(
-        GKInstance instance, Map<String, List<?>> values, BufferedWriter sequenceReportWriter) throws Exception {
-
-        boolean isInstanceChanged = false;
+    /**
+     * Updates the instance with the values that differ from its current values and writes only the changed
+     * attributes to the database (or stores the instance if it is new).
+     *
+     * @param instance Instance to update
+     * @param values Attribute names to new values
+     * @param sequenceReportWriter Writer for the chain changes of the instance
+     * @param attributesSetByCaller Attributes already set on the instance by the caller (e.g. modified) which are
+     * written along with any changed attributes
+     * @return Number of attributes changed (not counting those set by the caller)
+     * @throws Exception Thrown if the instance can't be compared or written
+     */
+    private int updateInstance(GKInstance instance, Map<String, List<?>> values,
+                                Writer sequenceReportWriter, String... attributesSetByCaller) throws Exception {
+
+        DirtyAttributes dirtyAttributes = new DirtyAttributes(instance);
         for (String attributeName : values.keySet()) {
-            List<?> newValuesForAttribute =
-                values.get(attributeName).stream().filter(Objects::nonNull).collect(Collectors.toList());
+            List<?> newValuesForAttribute = withoutNullValues(values.get(attributeName));
             if (newValuesForAttribute.size() == 0) {
-                System.out.println("WARNING: No new values for " + attributeName + " on " + instance.getDBID() +
-                    " skipping attribute update");
+                updateLog.warn("No new values for {} on {} skipping attribute update",
+                    attributeName, instance.getDBID());
                 continue;
             }
 
@@ -1285,71 +1759,52 @@ public class Main {
 
                 if (oldSequenceChangedValue == null || !oldSequenceChangedValue.equals(newSequenceChangedValue)) {
                     instance.setAttributeValue("isSequenceChanged", newSequenceChangedValue);
-                    System.out.println(String.format("%s (%d) has a new is_sequence_changed value",
-                        instance.getDisplayName(), instance.getDBID()));
-                    isInstanceChanged = true;
+                    updateLog.debug("{} ({}) has a new is_sequence_changed value",
+                        instance.getDisplayName(), instance.getDBID());
+                    dirtyAttributes.mark("isSequenceChanged");
                 }
             }
 
             if (attributeName.toLowerCase().equals(ReactomeJavaConstants.chain)) {
                 boolean chainChangeLogUpdated =
                     updateChainLog(instance, (List<String>) newValuesForAttribute, sequenceReportWriter);
+                if (chainChangeLogUpdated) {
+                    dirtyAttributes.mark("_chainChangeLog");
+                }
                 if (hasChains(instance) && chainChangeLogUpdated) {
-                    List<GKInstance> ewasInstances = getAllEwasInstances(instance);
-
-                    for (GKInstance ewasInstance : ewasInstances) {
-                        reportChangedChainForEWASInstance(instance, ewasInstance);
-                    }
-                    /*
-                    Collection<GKInstance> allEwasInstances = new ArrayList<>();
-                    Collection<GKInstance> referenceEntityEwasInstances =
-                        instance.getReferers(ReactomeJavaConstants.referenceEntity);
-                    if (referenceEntityEwasInstances != null) {
-                        allEwasInstances.addAll(referenceEntityEwasInstances);
-                    }
-                    Collection<GKInstance> hasModifiedResidueInstances = new ArrayList<>();
-                    Collection<GKInstance> referenceSequenceModifiedResidues =
-                        instance.getReferers(ReactomeJavaConstants.referenceSequence);
-                    if (referenceSequenceModifiedResidues != null) {
-                        hasModifiedResidueInstances.addAll(referenceSequenceModifiedResidues);
-                    }
-
-                    Collection<GKInstance> secondReferenceSequenceModifiedResidues =
-                        instance.getReferers(ReactomeJavaConstants.secondReferenceSequence);
-                    if (secondReferenceSequenceModifiedResidues != null) {
-                        hasModifiedResidueInstances.addAll(secondReferenceSequenceModifiedResidues);
-                    }
-
-                    for (GKInstance hasModifiedResidueInstance : hasModifiedResidueInstances) {
-                        Collection<GKInstance> hasModifiedEwasInstances =
-                            hasModifiedResidueInstance.getReferers(ReactomeJavaConstants.hasModifiedResidue);
-                        if (hasModifiedEwasInstances != null) {
-                            allEwasInstances.addAll(hasModifiedEwasInstances);
-                        }
-                    }
-*/
+                    ewasChainChangeReporter.add(instance);
                 }
             }
 
-            if (valuesChanged(instance, attributeName, newValuesForAttribute)) {
+            if (attributeDiffer.isChanged(instance, attributeName, newValuesForAttribute)) {
                 if (isSingleAttribute(attributeName)) {
                     instance.setAttributeValue(attributeName, newValuesForAttribute.get(0));
                 } else {
                     instance.setAttributeValue(attributeName, newValuesForAttribute);
                 }
 
-                isInstanceChanged = true;
+                dirtyAttributes.mark(attributeName);
             }
         }
 
-        if (isInstanceChanged) {
-            MySQLAdaptor dba = (MySQLAdaptor) instance.getDbAdaptor();
-            if (instance.getDBID() == null) {
-                dba.storeInstance(instance);
-            } else {
-                dba.updateInstance(instance);
+        int numberOfAttributesChanged = dirtyAttributes.getAttributeNames().size();
+        if (!dirtyAttributes.isEmpty()) {
+            for (String attributeSetByCaller : attributesSetByCaller) {
+                dirtyAttributes.mark(attributeSetByCaller);
+            }
+            dirtyAttributes.write((MySQLAdaptor) instance.getDbAdaptor());
+            displayNameUpdater.touch(instance);
+        }
+        return numberOfAttributesChanged;
+    }
+
+    private static List<?> withoutNullValues(List<?> values) {
+        for (Object value : values) {
+            if (value == null) {
+                return values.stream().filter(Objects::nonNull).collect(Collectors.toList());
             }
         }
+        return values;
     }
 
     private Boolean getNewIsSequenceChangedAttributeValue(GKInstance instance, List<?> newValues) throws Exception {
@@ -1364,50 +1819,36 @@ public class Main {
     }
 
     @SuppressWarnings("unchecked")
-    private boolean updateChainLog(GKInstance instance, List<String> newChainValues, BufferedWriter sequenceReportWriter)
+    private boolean updateChainLog(GKInstance instance, List<String> newChainValues, Writer sequenceReportWriter)
         throws Exception {
-        boolean chainLogChanged = false;
 
         List<String> oldChainValues = instance.getAttributeValuesList(ReactomeJavaConstants.chain);
-        String date = getCurrentDate();
+        ChainDiff chainDiff = ChainDiff.compute(oldChainValues, newChainValues);
+        if (chainDiff.isEmpty()) {
+            return false;
+        }
 
+        String date = getCurrentDate();
         String referenceGeneProductDescription = getReferenceGeneProductDescription(instance);
 
-        for (String oldChainValue : oldChainValues) {
-            if (!newChainValues.contains(oldChainValue)) {
-                String logEntry = String.format("%s for %d removed on %s", oldChainValue, instance.getDBID(), date);
-                sequenceReportWriter.write(logEntry + " for " + referenceGeneProductDescription + "\n");
-
-                String existingLog = (String) instance.getAttributeValue("_chainChangeLog");
-                String fullLog =
-                    existingLog != null ?
-                    existingLog + ";" + logEntry :
-                    logEntry;
-
-                instance.addAttributeValue("_chainChangeLog", fullLog);
-                System.out.println("old chain removed for " + instance.getDBID());
-                chainLogChanged = true;
-            }
+        StringJoiner chainChangeLog = new StringJoiner(";");
+        for (String oldChainValue : chainDiff.getRemovedChains()) {
+            String logEntry = String.format("%s for %d removed on %s", oldChainValue, instance.getDBID(), date);
+            sequenceReportWriter.write(logEntry + " for " + referenceGeneProductDescription + "\n");
+            chainChangeLog.add(logEntry);
+            updateLog.debug("old chain removed for {}", instance.getDBID());
         }
-
-        for (String newChainValue : newChainValues) {
-            if (!oldChainValues.contains(newChainValue)) {
-                String logEntry = String.format("%s for %d added on %s", newChainValue, instance.getDBID(), date);
-                sequenceReportWriter.write(logEntry + " for " + referenceGeneProductDescription + "\n");
-
-
-                String existingLog = (String) instance.getAttributeValue("_chainChangeLog");
-                String fullLog =
-                    existingLog != null ?
-                        existingLog + ";" + logEntry :
-                        logEntry;
-
-                instance.addAttributeValue("_chainChangeLog", fullLog);
-                System.out.println("new chain added for " + instance.getDBID());
-                chainLogChanged = true;
-            }
+        for (String newChainValue : chainDiff.getAddedChains()) {
+            String logEntry = String.format("%s for %d added on %s", newChainValue, instance.getDBID(), date);
+            sequenceReportWriter.write(logEntry + " for " + referenceGeneProductDescription + "\n");
+            chainChangeLog.add(logEntry);
+            updateLog.debug("new chain added for {}", instance.getDBID());
         }
-        return chainLogChanged;
+
+        String existingLog = (String) instance.getAttributeValue("_chainChangeLog");
+        instance.setAttributeValue("_chainChangeLog",
+            existingLog != null ? existingLog + ";" + chainChangeLog : chainChangeLog.toString());
+        return true;
     }
 
     private boolean hasChains(GKInstance instance) throws Exception {
@@ -1431,35 +1872,6 @@ public class Main {
         return referenceGeneProductDescription;
     }
 
-    private boolean valuesChanged(GKInstance instance, String attributeName, List<?> newValues) throws Exception {
-        List<?> currentValuesToCompare;
-        List<?> newValuesToCompare;
-
-        List<?> currentValues = instance.getAttributeValuesList(attributeName);
-
-        if (instance.getSchemClass().getAttribute(attributeName).isInstanceTypeAttribute()) {
-            currentValuesToCompare = currentValues.stream()
-                .map(inst -> ((GKInstance) inst).getDBID()).collect(Collectors.toList());
-            newValuesToCompare = newValues.stream()
-                .map(inst -> ((GKInstance) inst).getDBID()).collect(Collectors.toList());
-        } else {
-            currentValuesToCompare = currentValues.stream().map(Object::toString).collect(Collectors.toList());
-            newValuesToCompare = newValues.stream().map(Object::toString).collect(Collectors.toList());
-        }
-
-        if (!areDifferentLists(currentValuesToCompare, newValuesToCompare)) {
-            return false;
-        }
-
-        System.out.println(String.format("%s changed for instance %d", attributeName, instance.getDBID()));
-        System.out.println(String.format("old attribute values - %s",
-            currentValuesToCompare.stream().map(Object::toString).collect(Collectors.joining(","))));
-        System.out.println(String.format("new attribute values - %s",
-            newValuesToCompare.stream().map(Object::toString).collect(Collectors.joining(","))));
-
-        return true;
-    }
-
     private boolean isSingleAttribute(String attributeName) {
         return Arrays.asList(
             ReactomeJavaConstants.species,
@@ -1469,25 +1881,6 @@ public class Main {
         ).contains(attributeName);
     }
 
-    private String getSpeciesName(GKInstance instance) throws Exception {
-        GKInstance species = (GKInstance) instance.getAttributeValue(ReactomeJavaConstants.species);
-        if (species != null) {
-            return species.getDisplayName();
-        }
-        return "";
-    }
-
-    private boolean hasUniProtReferenceDatabase(GKInstance instance) {
-        GKInstance referenceDatabase;
-        try {
-            referenceDatabase = (GKInstance) instance.getAttributeValue(ReactomeJavaConstants.referenceDatabase);
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to fetch reference databases from " + instance);
-        }
-
-        return referenceDatabase != null && referenceDatabase.getDisplayName().toLowerCase().contains("uniprot");
-    }
-
     @SuppressWarnings("unchecked")
     private GKInstance getExistingSpeciesInstance(MySQLAdaptor dba, String speciesName) throws Exception {
         Collection<GKInstance> speciesInstances = dba.fetchInstanceByAttribute(
@@ -1497,7 +1890,7 @@ public class Main {
             speciesName
         );
 
-        if (speciesInstances == null) {
+        if (speciesInstances == null || speciesInstances.isEmpty()) {
             return null;
         }
         return speciesInstances.iterator().next();
@@ -1511,65 +1904,17 @@ public class Main {
         return speciesInstance;
     }
 
-    @SuppressWarnings("unchecked")
-    private Collection<GKInstance> getRGPReferrers(GKInstance rgpInstance) throws Exception {
-        Collection<GKInstance> referrers = new ArrayList<>();
-
-        final List<String> reverseAttributes = Arrays.asList(
-            ReactomeJavaConstants.referenceEntity,
-            ReactomeJavaConstants.referenceSequence,
-            ReactomeJavaConstants.secondReferenceSequence,
-            ReactomeJavaConstants.isoformParent
-        );
-
-        for (String reverseAttribute : reverseAttributes) {
-            Collection<GKInstance> reverseAttributeReferrers = rgpInstance.getReferers(reverseAttribute);
-            if (reverseAttributeReferrers != null) {
-                referrers.addAll(reverseAttributeReferrers);
-            }
-        }
-        return referrers;
-    }
-
-
-    private String matchSingleValue(String entry, String patternString) {
-        List<String> values = matchMultipleValues(entry, patternString);
-        return !values.isEmpty() ? values.get(0) : "";
-    }
-
-    private List<String> matchMultipleValues(String entry, String patternString) {
-        Pattern pattern = Pattern.compile(patternString, Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(entry);
-
-        List<String> multipleValues = new ArrayList<>();
-        while (matcher.find()) {
-            multipleValues.add(matcher.group(1));
-        }
-        return multipleValues;
-    }
-
     private String removeVersionNumber(String identifier) {
-        Pattern identifierWithVersionNumberPattern = Pattern.compile("(.*)\\.\\d+$");
-        Matcher identifierWithVersionNumberMatcher = identifierWithVersionNumberPattern.matcher(identifier);
-
-        String identifierWithoutVersionNumber;
-
-        if (identifierWithVersionNumberMatcher.find()) {
-            identifierWithoutVersionNumber = identifierWithVersionNumberMatcher.group(1);
-        } else {
-            identifierWithoutVersionNumber = identifier;
-        }
-        return identifierWithoutVersionNumber;
+        return FieldExtractors.UNVERSIONED_IDENTIFIER.extractFirst(identifier, identifier);
     }
 
     private String parseComments(String entry) {
-        Pattern commentsPattern = Pattern.compile(
-            "<comment type=\"([A-Za-z ]*?)\".*?\\s+<text.*?>(.*?)</text>", Pattern.MULTILINE);
-        Matcher commentsMatcher = commentsPattern.matcher(entry);
+        Matcher commentsMatcher = COMMENT_PATTERN.matcher(entry);
 
         StringBuilder comments = new StringBuilder();
         while (commentsMatcher.find()) {
-            String commentType = commentsMatcher.group(1).toUpperCase();
+            String commentType = commentTypeToLabel.computeIfAbsent(
+                valueDictionary.intern(entry, commentsMatcher.start(1), commentsMatcher.end(1)), String::toUpperCase);
             String commentText = commentsMatcher.group(2);
 
             comments.append(commentType).append(" ").append(commentText);
@@ -1577,134 +1922,61 @@ public class Main {
         return comments.toString();
     }
 
-    private List<String> parseChains(String entry) {
-        List<String> featuresTypes = Arrays.asList(
-            "initiator methionine",
-            "chain",
-            "peptide",
-            "propeptide",
-            "signal peptide",
-            "transit peptide"
-        );
-        Pattern chainsPattern =
-            Pattern.compile( "<feature.*?type=\"(" + String.join("|", featuresTypes) + ")\"(.*?)</feature>");
-        Matcher chainsMatcher = chainsPattern.matcher(entry);
-
-        List<String> chains = new ArrayList<>();
-        while (chainsMatcher.find()) {
-            String featureType = chainsMatcher.group(1);
-            String featureContent = chainsMatcher.group(2);
-
-            if (featureType.equals("initiator methionine")) {
-                chains.add(parseInitiatorMethionineChain(featureContent));
-            } else {
-                chains.add(parseGenericChain(featureType, featureContent));
-            }
-        }
-        return chains;
-    }
-
-    private String parseInitiatorMethionineChain(String featureContent) {
-        String position = matchSingleValue(featureContent, "<location.*?>\\s+<position position=\"(\\d+)\"");
-        return "initiator methionine:" + position;
-    }
-
-    private String parseGenericChain(String featureType, String featureContent) {
-        String chainStart = matchSingleValue(featureContent, "<begin position=\"(\\d+)\"");
-        String chainEnd = matchSingleValue(featureContent, "<end position=\"(\\d+)");
-
-        return featureType + ":" + chainStart + "-" + chainEnd;
-    }
-
-    @SuppressWarnings("unchecked")
-    private void updateDisplayNames(MySQLAdaptor dba, String className) throws Exception {
-        Collection<GKInstance> instances = dba.fetchInstancesByClass(className);
-        for (GKInstance instance : instances) {
-            InstanceDisplayNameGenerator.setDisplayName(instance);
-            dba.updateInstanceAttribute(instance, ReactomeJavaConstants._displayName);
-        }
-    }
-
-    private List<GKInstance> getAllEwasInstances(GKInstance referenceGeneProduct) throws Exception {
-        List<GKInstance> allEwasInstances = new ArrayList<>();
-
-        Collection<GKInstance> referenceEntityEwasInstances =
-            referenceGeneProduct.getReferers(ReactomeJavaConstants.referenceEntity);
-        if (referenceEntityEwasInstances != null) {
-            allEwasInstances.addAll(referenceEntityEwasInstances);
-        }
-        Collection<GKInstance> hasModifiedResidueInstances = new ArrayList<>();
-        Collection<GKInstance> referenceSequenceModifiedResidues =
-            referenceGeneProduct.getReferers(ReactomeJavaConstants.referenceSequence);
-        if (referenceSequenceModifiedResidues != null) {
-            hasModifiedResidueInstances.addAll(referenceSequenceModifiedResidues);
-        }
-
-        Collection<GKInstance> secondReferenceSequenceModifiedResidues =
-            referenceGeneProduct.getReferers(ReactomeJavaConstants.secondReferenceSequence);
-        if (secondReferenceSequenceModifiedResidues != null) {
-            hasModifiedResidueInstances.addAll(secondReferenceSequenceModifiedResidues);
-        }
-
-        for (GKInstance hasModifiedResidueInstance : hasModifiedResidueInstances) {
-            Collection<GKInstance> hasModifiedEwasInstances =
-                hasModifiedResidueInstance.getReferers(ReactomeJavaConstants.hasModifiedResidue);
-            if (hasModifiedEwasInstances != null) {
-                allEwasInstances.addAll(hasModifiedEwasInstances);
-            }
-        }
-
-        return allEwasInstances;
-    }
-
-    private void reportChangedChainForEWASInstance(GKInstance referenceGeneProduct, GKInstance ewas)
-        throws Exception {
-        //"RGP db id\tRGP Accession\tEWAS db id\tEWAS name\tEWAS author (created or last modified)\t"
-        String reportLine = String.join("\t",
-            referenceGeneProduct.getDBID().toString(),
-            (String) referenceGeneProduct.getAttributeValue(ReactomeJavaConstants.identifier),
-            ewas.getDBID().toString(),
-            ewas.getDisplayName(),
-            getAuthor(ewas)
-        ).concat(System.lineSeparator());
-
-        Files.write(
-            getUniprotUpdateDirectoryPath().resolve("ewasCoordinatesReport.txt"),
-            reportLine.getBytes(),
-            StandardOpenOption.CREATE, StandardOpenOption.APPEND
-        );
-    }
-
-    private String getAuthor(GKInstance ewas) throws Exception {
-        GKInstance ewasCreatedInstanceEdit = (GKInstance) ewas.getAttributeValue(ReactomeJavaConstants.created);
-        if (ewasCreatedInstanceEdit != null) {
-            return getAuthorFromInstanceEdit(ewasCreatedInstanceEdit);
-        } else {
-            return getLastModifiedAuthor(ewas);
-        }
+    private String getReplacementReportLine(ObsoleteAccession obsoleteAccession, ObsoleteInstance obsoleteInstance) {
+        StringBuilder reportLineBuilder = new StringBuilder();
+        reportLineBuilder.append("||");
+        reportLineBuilder.append(String.join("|",
+            obsoleteAccession.getReplacementAccessions()
+                .stream()
+                .map(
+                    alternateAccession ->
+                    String.format("[https://www.uniprot.org/uniprot/%s %s]", alternateAccession, alternateAccession))
+                .collect(Collectors.toList())
+        ));
+        reportLineBuilder.append("\n");
+        reportLineBuilder.append(String.format("|%s\n", obsoleteAccession.getAccession()));
+        reportLineBuilder.append(String.format(
+            "|[https://curator.reactome.org/cgi-bin/instancebrowser?DB=%s&ID=%d& %d]\n",
+            dba.getDBName(), obsoleteInstance.getDbId(), obsoleteInstance.getDbId()
+        ));
+        reportLineBuilder.append(String.format("||%s\n", String.join(
+            "|", obsoleteInstance.getEwasReferrerDbIds().stream().map(Object::toString).collect(Collectors.toList())
+        )));
+        reportLineBuilder.append("|" + obsoleteInstance.getSpeciesName() + "\n");
+        reportLineBuilder.append("|-\n");
+        return reportLineBuilder.toString();
     }
 
-    private String getLastModifiedAuthor(GKInstance ewas) throws Exception {
-        List<GKInstance> ewasModifiedInstanceEdits = ewas.getAttributeValuesList(ReactomeJavaConstants.modified);
-        if (ewasModifiedInstanceEdits != null && !ewasModifiedInstanceEdits.isEmpty()) {
-            GKInstance ewasMostRecentModifiedInstanceEdit = ewasModifiedInstanceEdits.get(0);
-            return getAuthorFromInstanceEdit(ewasMostRecentModifiedInstanceEdit);
-        } else {
-            return "Unknown author";
-        }
+    private String getNoReplacementReportLine(String accession, long obsoleteDbId, List<String> referrerIds,
+                                              String speciesName) {
+        StringBuilder reportLineBuilder = new StringBuilder();
+        reportLineBuilder.append(String.format("||%s\n", accession));
+        reportLineBuilder.append(String.format(
+            "|[https://curator.reactome.org/cgi-bin/instancebrowser?DB=%s&ID=%d& %d]\n",
+            dba.getDBName(), obsoleteDbId, obsoleteDbId
+        ));
+        reportLineBuilder.append(String.format("||%s\n", String.join("|", referrerIds)));
+        reportLineBuilder.append(String.format("|%s\n", speciesName));
+        reportLineBuilder.append("|-\n");
+        return reportLineBuilder.toString();
     }
 
-    private String getAuthorFromInstanceEdit(GKInstance instanceEdit) throws Exception {
-        GKInstance instanceEditAuthor = (GKInstance) instanceEdit.getAttributeValue(ReactomeJavaConstants.author);
-        if (instanceEditAuthor != null) {
-            return instanceEditAuthor.getDisplayName();
+    /**
+     * Writes a wiki report line for an obsolete accession, or holds it back for the skip list section if the
+     * accession is on a skip list or for the plant section if the line is for a plant species.  Whether a line is for
+     * a plant species is decided by the caller from the instance the line reports (or from the PLANT label of the
+     * accession for a line summarizing all its instances).
+     */
+    private void writeReportLine(BufferedWriter wikiWriter, String reportLine, ObsoleteAccession obsoleteAccession,
+                                 boolean plantSpecies, List<String> skipListReportLines, List<String> plantReportLines)
+        throws IOException {
+
+        if (obsoleteAccession.hasLabel(ObsoleteLabel.SKIP_LIST)) {
+            skipListReportLines.add(reportLine);
+        } else if (plantSpecies) {
+            plantReportLines.add(reportLine);
         } else {
-            return "Unknown author";
+            wikiWriter.write(reportLine);
         }
     }
-
-    private boolean isPlantReportLine(String reportLine) {
-        final List<String> plantSpeciesNames = Arrays.asList("Arabidopsis thaliana", "Oryza sativa");
-        return plantSpeciesNames.stream().anyMatch(reportLine::contains);
-    }
 }
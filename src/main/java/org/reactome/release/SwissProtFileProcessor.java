@@ -1,6 +1,7 @@
 package org.reactome.release;
 
-import java.io.BufferedReader;
+import org.reactome.release.parsing.EntryFramer;
+
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -31,9 +32,17 @@ public class SwissProtFileProcessor {
         return this.swissProtFilePath;
     }
 
-    public BufferedReader getFileReader() throws IOException {
+    public EntryFramer getEntryFramer() throws IOException {
+        return new EntryFramer(getUncompressedSwissProtFilePath());
+    }
+
+    /**
+     * Returns the path to the SwissProt XML file, gunzipping it first if it is gzipped.
+     * @return Path to the uncompressed SwissProt XML file
+     */
+    public Path getUncompressedSwissProtFilePath() throws IOException {
         gunzipSwissProtFileIfZipped();
-        return Files.newBufferedReader(getSwissProtFilePath());
+        return getSwissProtFilePath();
     }
 
     /**
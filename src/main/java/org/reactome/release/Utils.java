@@ -1,5 +1,7 @@
 package org.reactome.release;
 
+import org.reactome.release.profiling.RemoteLookupEvent;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -25,6 +27,11 @@ public class Utils {
     public static boolean isTrEMBLId(String potentialTrEMBLId) {
         final String uniProtAccessionURLAsString = "https://rest.uniprot.org/uniprotkb/" + potentialTrEMBLId + ".txt";
 
+        RemoteLookupEvent remoteLookupEvent = new RemoteLookupEvent();
+        remoteLookupEvent.begin();
+        remoteLookupEvent.service = RemoteLookupEvent.UNIPROT;
+        remoteLookupEvent.identifier = potentialTrEMBLId;
+
         HttpURLConnection uniProtAccessionHttpURLConnection = null;
         try {
             URL uniProtAccessionURL = new URL(uniProtAccessionURLAsString);
@@ -32,6 +39,8 @@ public class Utils {
             uniProtAccessionHttpURLConnection.setRequestMethod("GET");
             BufferedReader uniProtAccessionReader = new BufferedReader(
                 new InputStreamReader(uniProtAccessionHttpURLConnection.getInputStream()));
+            remoteLookupEvent.responseCode = uniProtAccessionHttpURLConnection.getResponseCode();
+            remoteLookupEvent.responseSize = uniProtAccessionHttpURLConnection.getContentLengthLong();
 
             return uniProtAccessionReader.lines().anyMatch(
                 line -> line.matches("^.*(Unreviewed|TrEMBL).*$")
@@ -43,6 +52,8 @@ public class Utils {
                 System.err.println("Unable to get content from " + uniProtAccessionURLAsString + ": " + e);
                 return false;
             }
+        } finally {
+            remoteLookupEvent.commit();
         }
     }
 
@@ -0,0 +1,60 @@
+package org.reactome.release.chains;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chains (e.g. "chain:1-393") removed from and added to a ReferenceGeneProduct by an update, found by hashed set
+ * difference of the old and new chain values.  Removed chains are in the order of the old values and added chains
+ * in the order of the new values.
+ */
+public class ChainDiff {
+    private final List<String> removedChains;
+    private final List<String> addedChains;
+
+    private ChainDiff(List<String> removedChains, List<String> addedChains) {
+        this.removedChains = removedChains;
+        this.addedChains = addedChains;
+    }
+
+    /**
+     * Compares old and new chain values.
+     *
+     * @param oldChains Chain values currently on the ReferenceGeneProduct
+     * @param newChains Chain values from the SwissProt entry
+     * @return Difference of the chain values
+     */
+    public static ChainDiff compute(List<String> oldChains, List<String> newChains) {
+        return new ChainDiff(difference(oldChains, newChains), difference(newChains, oldChains));
+    }
+
+    public List<String> getRemovedChains() {
+        return this.removedChains;
+    }
+
+    public List<String> getAddedChains() {
+        return this.addedChains;
+    }
+
+    public boolean isEmpty() {
+        return this.removedChains.isEmpty() && this.addedChains.isEmpty();
+    }
+
+    private static List<String> difference(List<String> chains, List<String> otherChains) {
+        if (chains.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> otherChainSet = new HashSet<>(otherChains);
+        List<String> difference = new ArrayList<>();
+        for (String chain : chains) {
+            if (!otherChainSet.contains(chain)) {
+                difference.add(chain);
+            }
+        }
+        return difference;
+    }
+}
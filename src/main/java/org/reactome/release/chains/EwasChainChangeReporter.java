@@ -0,0 +1,222 @@
+package org.reactome.release.chains;
+
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.reactome.release.db.BulkQueries.fetchInstancesByAttributeValues;
+import static org.reactome.release.db.BulkQueries.loadAttributeValues;
+
+/**
+ * Reports the EWAS instances which may have coordinates affected by a chain change of their ReferenceGeneProduct
+ * to the EWAS coordinates report ("RGP db id\tRGP Accession\tEWAS db id\tEWAS name\tEWAS author").
+ *
+ * An EWAS is affected if it refers to the ReferenceGeneProduct as its reference entity or through one of its
+ * modified residues (as the residue's reference sequence or second reference sequence).  ReferenceGeneProducts
+ * with chain changes are collected as they are updated and the EWAS instances for all of them are resolved together
+ * with bulk referrer queries when {@link #flush()} is called (e.g. before each commit), rather than with a referrer
+ * query per ReferenceGeneProduct and modified residue.  The rows resolved are held until {@link #commitBatch()} is
+ * called once the transaction has been committed, or dropped by {@link #discardPending()} if it is rolled back (and
+ * retried), so the report doesn't repeat or describe changes which weren't made.
+ */
+public class EwasChainChangeReporter {
+    private static final String UNKNOWN_AUTHOR = "Unknown author";
+
+    private final MySQLAdaptor dba;
+    private final Path reportFilePath;
+    private final Map<Long, GKInstance> pendingReferenceGeneProducts = new LinkedHashMap<>();
+    private final StringBuilder pendingReportRows = new StringBuilder();
+
+    /**
+     * @param dba MySQLAdaptor for the database with the EWAS instances
+     * @param reportFilePath Path of the EWAS coordinates report, to which rows are appended
+     */
+    public EwasChainChangeReporter(MySQLAdaptor dba, Path reportFilePath) {
+        this.dba = dba;
+        this.reportFilePath = reportFilePath;
+    }
+
+    /**
+     * Records a ReferenceGeneProduct with changed chains whose EWAS instances are reported on the next flush.
+     *
+     * @param referenceGeneProduct ReferenceGeneProduct (already in the database) with changed chains
+     */
+    public void add(GKInstance referenceGeneProduct) {
+        this.pendingReferenceGeneProducts.put(referenceGeneProduct.getDBID(), referenceGeneProduct);
+    }
+
+    /**
+     * Forgets the ReferenceGeneProducts added and the rows resolved since the last commit (e.g. when their
+     * transaction is rolled back).
+     */
+    public void discardPending() {
+        this.pendingReferenceGeneProducts.clear();
+        this.pendingReportRows.setLength(0);
+    }
+
+    /**
+     * Appends the rows resolved since the last commit to the report in a single write.
+     *
+     * @throws IOException Thrown if the report can't be written
+     */
+    public void commitBatch() throws IOException {
+        if (this.pendingReportRows.length() > 0) {
+            Files.write(this.reportFilePath, this.pendingReportRows.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.pendingReportRows.setLength(0);
+        }
+    }
+
+    /**
+     * Resolves the EWAS instances of the ReferenceGeneProducts added since the last flush into report rows, which
+     * are written by the next {@link #commitBatch()}.
+     *
+     * @throws Exception Thrown if the EWAS instances can't be retrieved
+     */
+    public void flush() throws Exception {
+        if (this.pendingReferenceGeneProducts.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<GKInstance>> rgpDbIdToEwasInstances = getReferenceGeneProductDbIdToEwasInstances();
+        List<GKInstance> allEwasInstances = getAllEwasInstances(rgpDbIdToEwasInstances);
+        loadAttributeValues(this.dba, allEwasInstances, ReactomeJavaConstants.created, ReactomeJavaConstants.modified);
+        loadAuthors(allEwasInstances);
+
+        for (GKInstance referenceGeneProduct : this.pendingReferenceGeneProducts.values()) {
+            for (GKInstance ewas : rgpDbIdToEwasInstances.getOrDefault(referenceGeneProduct.getDBID(), Set.of())) {
+                this.pendingReportRows.append(String.join("\t",
+                    referenceGeneProduct.getDBID().toString(),
+                    (String) referenceGeneProduct.getAttributeValue(ReactomeJavaConstants.identifier),
+                    ewas.getDBID().toString(),
+                    ewas.getDisplayName(),
+                    getAuthor(ewas)
+                )).append(System.lineSeparator());
+            }
+        }
+        this.pendingReferenceGeneProducts.clear();
+    }
+
+    private Map<Long, Set<GKInstance>> getReferenceGeneProductDbIdToEwasInstances() throws Exception {
+        Set<Long> rgpDbIds = this.pendingReferenceGeneProducts.keySet();
+        Map<Long, Set<GKInstance>> rgpDbIdToEwasInstances = new HashMap<>();
+
+        List<GKInstance> referenceEntityEwasInstances = fetchInstancesByAttributeValues(this.dba,
+            ReactomeJavaConstants.EntityWithAccessionedSequence, ReactomeJavaConstants.referenceEntity, rgpDbIds);
+        loadAttributeValues(this.dba, referenceEntityEwasInstances, ReactomeJavaConstants.referenceEntity);
+        for (GKInstance ewas : referenceEntityEwasInstances) {
+            for (Object referenceEntity : ewas.getAttributeValuesList(ReactomeJavaConstants.referenceEntity)) {
+                Long rgpDbId = ((GKInstance) referenceEntity).getDBID();
+                if (this.pendingReferenceGeneProducts.containsKey(rgpDbId)) {
+                    rgpDbIdToEwasInstances.computeIfAbsent(rgpDbId, k -> new LinkedHashSet<>()).add(ewas);
+                }
+            }
+        }
+
+        // Modified residue DB_ID to the ReferenceGeneProducts it refers to
+        Map<Long, Set<Long>> residueDbIdToRGPDbIds = new HashMap<>();
+        addModifiedResidues(residueDbIdToRGPDbIds,
+            ReactomeJavaConstants.AbstractModifiedResidue, ReactomeJavaConstants.referenceSequence);
+        addModifiedResidues(residueDbIdToRGPDbIds,
+            ReactomeJavaConstants.InterChainCrosslinkedResidue, ReactomeJavaConstants.secondReferenceSequence);
+        if (residueDbIdToRGPDbIds.isEmpty()) {
+            return rgpDbIdToEwasInstances;
+        }
+
+        List<GKInstance> modifiedResidueEwasInstances = fetchInstancesByAttributeValues(this.dba,
+            ReactomeJavaConstants.EntityWithAccessionedSequence, ReactomeJavaConstants.hasModifiedResidue,
+            residueDbIdToRGPDbIds.keySet());
+        loadAttributeValues(this.dba, modifiedResidueEwasInstances, ReactomeJavaConstants.hasModifiedResidue);
+        for (GKInstance ewas : modifiedResidueEwasInstances) {
+            for (Object modifiedResidue : ewas.getAttributeValuesList(ReactomeJavaConstants.hasModifiedResidue)) {
+                Set<Long> rgpDbIdsForResidue = residueDbIdToRGPDbIds.get(((GKInstance) modifiedResidue).getDBID());
+                if (rgpDbIdsForResidue == null) {
+                    continue;
+                }
+                for (Long rgpDbId : rgpDbIdsForResidue) {
+                    rgpDbIdToEwasInstances.computeIfAbsent(rgpDbId, k -> new LinkedHashSet<>()).add(ewas);
+                }
+            }
+        }
+        return rgpDbIdToEwasInstances;
+    }
+
+    private void addModifiedResidues(Map<Long, Set<Long>> residueDbIdToRGPDbIds, String residueClassName,
+                                     String referenceSequenceAttributeName) throws Exception {
+        List<GKInstance> modifiedResidues = fetchInstancesByAttributeValues(this.dba,
+            residueClassName, referenceSequenceAttributeName, this.pendingReferenceGeneProducts.keySet());
+        loadAttributeValues(this.dba, modifiedResidues, referenceSequenceAttributeName);
+        for (GKInstance modifiedResidue : modifiedResidues) {
+            for (Object referenceSequence : modifiedResidue.getAttributeValuesList(referenceSequenceAttributeName)) {
+                Long rgpDbId = ((GKInstance) referenceSequence).getDBID();
+                if (this.pendingReferenceGeneProducts.containsKey(rgpDbId)) {
+                    residueDbIdToRGPDbIds.computeIfAbsent(modifiedResidue.getDBID(), k -> new LinkedHashSet<>())
+                        .add(rgpDbId);
+                }
+            }
+        }
+    }
+
+    private List<GKInstance> getAllEwasInstances(Map<Long, Set<GKInstance>> rgpDbIdToEwasInstances) {
+        Map<Long, GKInstance> dbIdToEwasInstance = new LinkedHashMap<>();
+        for (Set<GKInstance> ewasInstances : rgpDbIdToEwasInstances.values()) {
+            for (GKInstance ewas : ewasInstances) {
+                dbIdToEwasInstance.putIfAbsent(ewas.getDBID(), ewas);
+            }
+        }
+        return new ArrayList<>(dbIdToEwasInstance.values());
+    }
+
+    private void loadAuthors(Collection<GKInstance> ewasInstances) throws Exception {
+        Map<Long, GKInstance> dbIdToInstanceEdit = new LinkedHashMap<>();
+        for (GKInstance ewas : ewasInstances) {
+            GKInstance authorInstanceEdit = getAuthorInstanceEdit(ewas);
+            if (authorInstanceEdit != null) {
+                dbIdToInstanceEdit.putIfAbsent(authorInstanceEdit.getDBID(), authorInstanceEdit);
+            }
+        }
+        loadAttributeValues(this.dba, dbIdToInstanceEdit.values(), ReactomeJavaConstants.author);
+    }
+
+    private String getAuthor(GKInstance ewas) throws Exception {
+        GKInstance authorInstanceEdit = getAuthorInstanceEdit(ewas);
+        if (authorInstanceEdit == null) {
+            return UNKNOWN_AUTHOR;
+        }
+
+        GKInstance instanceEditAuthor =
+            (GKInstance) authorInstanceEdit.getAttributeValue(ReactomeJavaConstants.author);
+        return instanceEditAuthor != null ? instanceEditAuthor.getDisplayName() : UNKNOWN_AUTHOR;
+    }
+
+    /**
+     * @return The created instance edit of the EWAS or, if there is none, its first modified instance edit (or null
+     * if it has neither)
+     */
+    private GKInstance getAuthorInstanceEdit(GKInstance ewas) throws Exception {
+        GKInstance createdInstanceEdit = (GKInstance) ewas.getAttributeValue(ReactomeJavaConstants.created);
+        if (createdInstanceEdit != null) {
+            return createdInstanceEdit;
+        }
+
+        List<?> modifiedInstanceEdits = ewas.getAttributeValuesList(ReactomeJavaConstants.modified);
+        if (modifiedInstanceEdits != null && !modifiedInstanceEdits.isEmpty()) {
+            return (GKInstance) modifiedInstanceEdits.get(0);
+        }
+        return null;
+    }
+}
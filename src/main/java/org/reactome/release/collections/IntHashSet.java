@@ -0,0 +1,107 @@
+package org.reactome.release.collections;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive int values using open addressing with linear probing, to avoid boxing values which are looked
+ * up once per SwissProt entry.
+ */
+public class IntHashSet {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] slots;
+    private int size;
+    private boolean containsFreeValue;
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    public IntHashSet(int expectedSize) {
+        this.slots = newSlots(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds the value to the set.
+     *
+     * @param value Value to add
+     * @return <code>true</code> if the value was added;<code>false</code> if it was already in the set
+     */
+    public boolean add(int value) {
+        if (value == FREE) {
+            boolean added = !this.containsFreeValue;
+            this.containsFreeValue = true;
+            this.size += added ? 1 : 0;
+            return added;
+        }
+
+        int mask = this.slots.length - 1;
+        int slot = mix(value) & mask;
+        while (this.slots[slot] != FREE) {
+            if (this.slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.slots[slot] = value;
+        this.size += 1;
+        if (this.size * 2 > this.slots.length) {
+            rehash(this.slots.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == FREE) {
+            return this.containsFreeValue;
+        }
+
+        int mask = this.slots.length - 1;
+        int slot = mix(value) & mask;
+        while (this.slots[slot] != FREE) {
+            if (this.slots[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldSlots = this.slots;
+        this.slots = newSlots(newCapacity);
+        int mask = newCapacity - 1;
+        for (int value : oldSlots) {
+            if (value != FREE) {
+                int slot = mix(value) & mask;
+                while (this.slots[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                this.slots[slot] = value;
+            }
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
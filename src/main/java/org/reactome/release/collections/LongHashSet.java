@@ -0,0 +1,97 @@
+package org.reactome.release.collections;
+
+import java.util.Collection;
+
+/**
+ * Set of primitive longs using open addressing with linear probing, to avoid boxing when checking many DB_IDs.
+ */
+public class LongHashSet {
+    private long[] values;
+    private boolean[] occupied;
+    private int size;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.values = new long[capacity];
+        this.occupied = new boolean[capacity];
+    }
+
+    public static LongHashSet of(Collection<Long> values) {
+        LongHashSet longHashSet = new LongHashSet(values.size());
+        for (long value : values) {
+            longHashSet.add(value);
+        }
+        return longHashSet;
+    }
+
+    /**
+     * @param value Value to add
+     * @return <code>true</code> if the value was added;<code>false</code> if it was already in the set
+     */
+    public boolean add(long value) {
+        int slot = findSlot(this.values, this.occupied, value);
+        if (this.occupied[slot]) {
+            return false;
+        }
+
+        this.values[slot] = value;
+        this.occupied[slot] = true;
+        this.size += 1;
+        if (this.size * 2 > this.values.length) {
+            rehash(this.values.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return this.occupied[findSlot(this.values, this.occupied, value)];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldValues = this.values;
+        boolean[] oldOccupied = this.occupied;
+        this.values = new long[newCapacity];
+        this.occupied = new boolean[newCapacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = findSlot(this.values, this.occupied, oldValues[i]);
+                this.values[slot] = oldValues[i];
+                this.occupied[slot] = true;
+            }
+        }
+    }
+
+    private static int findSlot(long[] values, boolean[] occupied, long value) {
+        int mask = values.length - 1;
+        int slot = mix(value) & mask;
+        while (occupied[slot] && values[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,138 @@
+package org.reactome.release.collections;
+
+/**
+ * Map from primitive long keys to values using open addressing with linear probing, to avoid boxing keys and
+ * allocating an entry object per mapping when holding many mappings.
+ *
+ * @param <V> Type of the values
+ */
+public class LongObjectHashMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param key Key to map
+     * @param value Value for the key (not null)
+     * @return Previous value for the key or null if it had none
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported (key " + key + ")");
+        }
+
+        int slot = findSlot(this.keys, this.values, key);
+        V previousValue = valueAt(slot);
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (previousValue == null) {
+            this.size += 1;
+            if (this.size * 2 > this.keys.length) {
+                rehash(this.keys.length * 2);
+            }
+        }
+        return previousValue;
+    }
+
+    /**
+     * @param key Key to look up
+     * @return Value for the key or null if it has none
+     */
+    public V get(long key) {
+        return valueAt(findSlot(this.keys, this.values, key));
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param key Key to remove
+     * @return Value for the key or null if it had none
+     */
+    public V remove(long key) {
+        int slot = findSlot(this.keys, this.values, key);
+        V previousValue = valueAt(slot);
+        if (previousValue == null) {
+            return null;
+        }
+
+        // Moves back the following entries of the probe sequence which could no longer be found past the emptied slot
+        int mask = this.keys.length - 1;
+        int emptySlot = slot;
+        this.values[emptySlot] = null;
+        int nextSlot = (emptySlot + 1) & mask;
+        while (this.values[nextSlot] != null) {
+            int homeSlot = mix(this.keys[nextSlot]) & mask;
+            if (((nextSlot - homeSlot) & mask) >= ((nextSlot - emptySlot) & mask)) {
+                this.keys[emptySlot] = this.keys[nextSlot];
+                this.values[emptySlot] = this.values[nextSlot];
+                this.values[nextSlot] = null;
+                emptySlot = nextSlot;
+            }
+            nextSlot = (nextSlot + 1) & mask;
+        }
+        this.size -= 1;
+        return previousValue;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) this.values[slot];
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new long[newCapacity];
+        this.values = new Object[newCapacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = findSlot(this.keys, this.values, oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Slots are free when they have no value, so any long can be a key
+    private static int findSlot(long[] keys, Object[] values, long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
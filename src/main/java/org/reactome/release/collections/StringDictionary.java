@@ -0,0 +1,150 @@
+package org.reactome.release.collections;
+
+/**
+ * Canonicalizing dictionary of strings, handing out a single shared String instance for each distinct value so the
+ * values repeated across SwissProt entries (keywords, comment and feature types) are held once for the whole run
+ * rather than once per entry.  It is meant for small vocabularies: values which are mostly unique (e.g. gene names)
+ * would only fill it with strings kept alive for the whole run.  Values can be looked up by a range of characters of a larger text (e.g. a
+ * regular expression group of the entry text) without creating a substring, which is only created the first time a
+ * value is seen.
+ *
+ * The dictionary is an open addressing table with linear probing over parallel arrays of hash codes and values.  It
+ * stops adding values once it holds the maximum number given, after which unseen values are returned as new strings.
+ * The dictionary is not thread-safe.
+ */
+public class StringDictionary {
+    public static final int DEFAULT_MAXIMUM_SIZE = 1 << 16;
+
+    private final int maximumSize;
+
+    private int[] hashes;
+    private String[] values;
+    private int size;
+
+    private long numberOfLookups;
+    private long numberOfHits;
+
+    public StringDictionary() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize Maximum number of distinct values held
+     */
+    public StringDictionary(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.hashes = new int[1024];
+        this.values = new String[1024];
+    }
+
+    /**
+     * @param value Value to canonicalize
+     * @return Shared instance equal to the value (the value itself if it wasn't in the dictionary)
+     */
+    public String intern(String value) {
+        this.numberOfLookups += 1;
+        int hash = value.hashCode();
+        int mask = this.values.length - 1;
+        for (int slot = mix(hash) & mask; this.values[slot] != null; slot = (slot + 1) & mask) {
+            if (this.hashes[slot] == hash && this.values[slot].equals(value)) {
+                this.numberOfHits += 1;
+                return this.values[slot];
+            }
+        }
+        return add(hash, value);
+    }
+
+    /**
+     * @param text Text holding the value
+     * @param start Index of the first character of the value (inclusive)
+     * @param end Index of the last character of the value (exclusive)
+     * @return Shared instance equal to the range of the text
+     */
+    public String intern(CharSequence text, int start, int end) {
+        this.numberOfLookups += 1;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+
+        int mask = this.values.length - 1;
+        for (int slot = mix(hash) & mask; this.values[slot] != null; slot = (slot + 1) & mask) {
+            if (this.hashes[slot] == hash && sameCharacters(this.values[slot], text, start, end)) {
+                this.numberOfHits += 1;
+                return this.values[slot];
+            }
+        }
+        return add(hash, text.subSequence(start, end).toString());
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return Fraction of lookups which returned a value already in the dictionary
+     */
+    public double getHitRate() {
+        return this.numberOfLookups > 0 ? (double) this.numberOfHits / this.numberOfLookups : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d distinct values, %d lookups (%.1f%% shared)",
+            this.size, this.numberOfLookups, getHitRate() * 100);
+    }
+
+    private String add(int hash, String value) {
+        if (this.size >= this.maximumSize) {
+            return value;
+        }
+
+        int mask = this.values.length - 1;
+        int slot = mix(hash) & mask;
+        while (this.values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        this.hashes[slot] = hash;
+        this.values[slot] = value;
+        this.size += 1;
+        if (this.size * 2 > this.values.length) {
+            rehash(this.values.length * 2);
+        }
+        return value;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldHashes = this.hashes;
+        String[] oldValues = this.values;
+        this.hashes = new int[newCapacity];
+        this.values = new String[newCapacity];
+        int mask = newCapacity - 1;
+        for (int oldSlot = 0; oldSlot < oldValues.length; oldSlot++) {
+            if (oldValues[oldSlot] != null) {
+                int slot = mix(oldHashes[oldSlot]) & mask;
+                while (this.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.hashes[slot] = oldHashes[oldSlot];
+                this.values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    private static boolean sameCharacters(String value, CharSequence text, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        int mixedHash = hash * 0x9E3779B9;
+        return mixedHash ^ (mixedHash >>> 16);
+    }
+}
@@ -0,0 +1,136 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.schema.SchemaAttribute;
+import org.reactome.release.logging.UpdateLog;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compares the current values of an instance attribute against new values in place, without copying either list.
+ * Values of instance-typed attributes are compared by DB_ID and all other values by value.  Multi-valued attributes
+ * are compared in order unless the order of their values carries no meaning (e.g. keywords), in which case they are
+ * compared as multisets so a re-ordering of the same values is not reported as a change.  Changed attributes are
+ * recorded in the change log at DEBUG level.
+ */
+public class AttributeDiffer {
+    private static final Set<String> UNORDERED_ATTRIBUTES = new HashSet<>(Arrays.asList(
+        ReactomeJavaConstants.keyword,
+        ReactomeJavaConstants.referenceGene
+    ));
+
+    static final ValueComparator INSTANCE_COMPARATOR = AttributeDiffer::sameDbId;
+    static final ValueComparator SCALAR_COMPARATOR = AttributeDiffer::sameScalarValue;
+
+    private final UpdateLog updateLog;
+
+    /**
+     * @param updateLog Log to which changed attributes are recorded
+     */
+    public AttributeDiffer(UpdateLog updateLog) {
+        this.updateLog = updateLog;
+    }
+
+    /**
+     * Checks if the new values differ from the current values of the attribute on the instance.  Old and new values
+     * of a changed attribute are logged.
+     *
+     * @param instance Instance to compare
+     * @param attributeName Name of the attribute to compare
+     * @param newValues New values for the attribute (not containing null)
+     * @return <code>true</code> if the values differ;<code>false</code> otherwise
+     * @throws Exception Thrown if the attribute is not valid for the instance or its values can't be retrieved
+     */
+    public boolean isChanged(GKInstance instance, String attributeName, List<?> newValues) throws Exception {
+        List<?> currentValues = instance.getAttributeValuesList(attributeName);
+        if (currentValues == null) {
+            currentValues = Collections.emptyList();
+        }
+
+        SchemaAttribute attribute = instance.getSchemClass().getAttribute(attributeName);
+        ValueComparator valueComparator =
+            attribute.isInstanceTypeAttribute() ? INSTANCE_COMPARATOR : SCALAR_COMPARATOR;
+
+        boolean sameValues = UNORDERED_ATTRIBUTES.contains(attributeName) ?
+            sameUnorderedValues(currentValues, newValues, valueComparator) :
+            sameOrderedValues(currentValues, newValues, valueComparator);
+        if (sameValues) {
+            return false;
+        }
+
+        // The values are described now since the instance's value list may change before the log is written
+        this.updateLog.debug("{} changed for instance {}\told attribute values - {}\tnew attribute values - {}",
+            attributeName, instance.getDBID(), describe(currentValues), describe(newValues));
+        return true;
+    }
+
+    static boolean sameOrderedValues(List<?> currentValues, List<?> newValues, ValueComparator valueComparator) {
+        if (currentValues.size() != newValues.size()) {
+            return false;
+        }
+        for (int i = 0; i < currentValues.size(); i++) {
+            if (!valueComparator.sameValue(currentValues.get(i), newValues.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean sameUnorderedValues(List<?> currentValues, List<?> newValues, ValueComparator valueComparator) {
+        if (currentValues.size() != newValues.size()) {
+            return false;
+        }
+        if (sameOrderedValues(currentValues, newValues, valueComparator)) {
+            return true;
+        }
+
+        // Multi-valued attributes hold few values, so counting occurrences is cheaper than building sets
+        for (Object value : currentValues) {
+            if (count(value, currentValues, valueComparator) != count(value, newValues, valueComparator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameDbId(Object currentValue, Object newValue) {
+        return Objects.equals(((GKInstance) currentValue).getDBID(), ((GKInstance) newValue).getDBID());
+    }
+
+    // Values were previously compared by their string forms, so e.g. a Long and an Integer of the same value match
+    private static boolean sameScalarValue(Object currentValue, Object newValue) {
+        return currentValue.equals(newValue) || currentValue.toString().equals(newValue.toString());
+    }
+
+    private static int count(Object value, List<?> values, ValueComparator valueComparator) {
+        int count = 0;
+        for (Object otherValue : values) {
+            if (valueComparator.sameValue(value, otherValue)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    private static String describe(List<?> values) {
+        StringBuilder description = new StringBuilder();
+        for (Object value : values) {
+            if (description.length() > 0) {
+                description.append(",");
+            }
+            description.append(value instanceof GKInstance ? ((GKInstance) value).getDBID() : value);
+        }
+        return description.toString();
+    }
+
+    @FunctionalInterface
+    interface ValueComparator {
+        boolean sameValue(Object currentValue, Object newValue);
+    }
+}
@@ -0,0 +1,73 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.persistence.MySQLAdaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries for many instances at once, to replace a query per instance.  Attribute value lists are split into chunks
+ * so the generated IN clauses stay a reasonable size.
+ */
+public class BulkQueries {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Fetches the instances of the class whose attribute has any of the values.
+     *
+     * @param dba MySQLAdaptor for the database to query
+     * @param className Name of the class of the instances (instances of its subclasses are included)
+     * @param attributeName Name of the attribute to match
+     * @param values Values to match - for instance-typed attributes, DB_IDs or instances
+     * @return Instances with a matching attribute value (empty if there are no values)
+     * @throws Exception Thrown if the database can't be queried
+     */
+    @SuppressWarnings("unchecked")
+    public static List<GKInstance> fetchInstancesByAttributeValues(
+        MySQLAdaptor dba, String className, String attributeName, Collection<?> values) throws Exception {
+
+        List<GKInstance> instances = new ArrayList<>();
+        for (List<?> chunk : chunk(values, DEFAULT_CHUNK_SIZE)) {
+            Collection<GKInstance> chunkInstances = dba.fetchInstanceByAttribute(className, attributeName, "=", chunk);
+            if (chunkInstances != null) {
+                instances.addAll(chunkInstances);
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * Loads the values of the attributes for all the instances with one query per attribute and chunk, rather than
+     * the query per instance that lazily loading the values would take.
+     *
+     * @param dba MySQLAdaptor for the database to query
+     * @param instances Instances whose attribute values should be loaded
+     * @param attributeNames Names of the attributes to load (must be valid for all the instances)
+     * @throws Exception Thrown if the database can't be queried
+     */
+    public static void loadAttributeValues(
+        MySQLAdaptor dba, Collection<GKInstance> instances, String... attributeNames) throws Exception {
+
+        for (List<GKInstance> chunk : chunk(instances, DEFAULT_CHUNK_SIZE)) {
+            dba.loadInstanceAttributeValues(chunk, attributeNames);
+        }
+    }
+
+    static <T> List<List<T>> chunk(Collection<T> values, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> currentChunk = new ArrayList<>(Math.min(chunkSize, values.size()));
+        for (T value : values) {
+            if (currentChunk.size() == chunkSize) {
+                chunks.add(currentChunk);
+                currentChunk = new ArrayList<>(chunkSize);
+            }
+            currentChunk.add(value);
+        }
+        if (!currentChunk.isEmpty()) {
+            chunks.add(currentChunk);
+        }
+        return chunks;
+    }
+}
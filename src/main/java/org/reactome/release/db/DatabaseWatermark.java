@@ -0,0 +1,120 @@
+package org.reactome.release.db;
+
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Highest DB_ID and number of instances of each class whose instances are cached at start-up.  Creating or deleting
+ * an instance of any of those classes changes the watermark, so a cache tagged with the watermark of the database it
+ * was built from can be reused as long as the watermarks match.  Changes to the attributes of existing instances are
+ * not detected; the update only adds and deletes the instances whose identifiers are cached.
+ */
+public class DatabaseWatermark {
+    static final List<String> WATERMARK_CLASS_NAMES = Arrays.asList(
+        ReactomeJavaConstants.ReferenceGeneProduct,
+        ReactomeJavaConstants.ReferenceIsoform,
+        ReactomeJavaConstants.ReferenceDNASequence,
+        ReactomeJavaConstants.Species,
+        ReactomeJavaConstants.ReferenceDatabase
+    );
+
+    private final Map<String, ClassWatermark> classNameToWatermark;
+
+    public DatabaseWatermark(Map<String, ClassWatermark> classNameToWatermark) {
+        this.classNameToWatermark = Collections.unmodifiableMap(new LinkedHashMap<>(classNameToWatermark));
+    }
+
+    /**
+     * @param dba MySQLAdaptor for the database
+     * @return Current watermark of the database
+     * @throws SQLException Thrown if the database can't be queried
+     */
+    public static DatabaseWatermark read(MySQLAdaptor dba) throws SQLException {
+        Map<String, ClassWatermark> classNameToWatermark = new LinkedHashMap<>();
+        try (Statement statement = dba.getConnection().createStatement()) {
+            for (String className : WATERMARK_CLASS_NAMES) {
+                // Instances of subclasses also have a row in the table of each of their superclasses
+                try (ResultSet resultSet = statement.executeQuery("SELECT MAX(DB_ID), COUNT(*) FROM " + className)) {
+                    resultSet.next();
+                    classNameToWatermark.put(className, new ClassWatermark(resultSet.getLong(1), resultSet.getLong(2)));
+                }
+            }
+        }
+        return new DatabaseWatermark(classNameToWatermark);
+    }
+
+    public Map<String, ClassWatermark> getClassNameToWatermark() {
+        return this.classNameToWatermark;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DatabaseWatermark)) {
+            return false;
+        }
+        return this.classNameToWatermark.equals(((DatabaseWatermark) o).classNameToWatermark);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.classNameToWatermark.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.classNameToWatermark.toString();
+    }
+
+    public static class ClassWatermark {
+        private final long maxDbId;
+        private final long count;
+
+        public ClassWatermark(long maxDbId, long count) {
+            this.maxDbId = maxDbId;
+            this.count = count;
+        }
+
+        public long getMaxDbId() {
+            return this.maxDbId;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClassWatermark)) {
+                return false;
+            }
+            ClassWatermark that = (ClassWatermark) o;
+            return this.maxDbId == that.maxDbId && this.count == that.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.maxDbId, this.count);
+        }
+
+        @Override
+        public String toString() {
+            return "max DB_ID " + this.maxDbId + ", count " + this.count;
+        }
+    }
+}
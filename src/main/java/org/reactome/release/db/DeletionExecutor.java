@@ -0,0 +1,96 @@
+package org.reactome.release.db;
+
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.collections.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.reactome.release.db.BulkQueries.chunk;
+
+/**
+ * Deletes obsolete instances by DB_ID in chunks, each in its own transaction.  Candidate DB_IDs in the skip set, DB_IDs
+ * repeated among the candidates and DB_IDs already deleted by this executor are dropped before deleting.
+ *
+ * Each chunk commits the transaction open when it starts (so any earlier changes of the caller are committed with
+ * the first chunk) and a new transaction is started after the last chunk, so the caller is left in a transaction as
+ * before.  If a deletion fails, the transaction of its chunk is rolled back.
+ */
+public class DeletionExecutor {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final MySQLAdaptor dba;
+    private final int chunkSize;
+    private final LongHashSet deletedDbIds = new LongHashSet();
+
+    public DeletionExecutor(MySQLAdaptor dba) {
+        this(dba, DEFAULT_CHUNK_SIZE);
+    }
+
+    public DeletionExecutor(MySQLAdaptor dba, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Deletion chunk size must be positive: " + chunkSize);
+        }
+        this.dba = dba;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Deletes the candidate instances which are not in the skip set.
+     *
+     * @param candidateDbIds DB_IDs of the instances to delete
+     * @param dbIdsToSkip DB_IDs which must not be deleted
+     * @return Number of instances deleted
+     * @throws Exception Thrown if an instance can't be deleted or a transaction can't be committed
+     */
+    public int delete(Collection<Long> candidateDbIds, LongHashSet dbIdsToSkip) throws Exception {
+        List<Long> dbIdsToDelete = getDbIdsToDelete(candidateDbIds, dbIdsToSkip, this.deletedDbIds);
+        if (dbIdsToDelete.isEmpty()) {
+            return 0;
+        }
+
+        long startTime = System.currentTimeMillis();
+        int numberOfDeletedInstances = 0;
+        for (List<Long> dbIdChunk : chunk(dbIdsToDelete, this.chunkSize)) {
+            this.dba.startTransaction();
+            try {
+                for (long dbId : dbIdChunk) {
+                    System.out.println("Deleting DBID: " + dbId);
+                    this.dba.deleteByDBID(dbId);
+                    this.deletedDbIds.add(dbId);
+                }
+                this.dba.commit();
+            } catch (Exception e) {
+                this.dba.rollback();
+                throw e;
+            }
+
+            numberOfDeletedInstances += dbIdChunk.size();
+            System.out.println(String.format("%d of %d instances deleted", numberOfDeletedInstances,
+                dbIdsToDelete.size()));
+        }
+        this.dba.startTransaction();
+
+        long elapsedMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+        System.out.println(String.format("Deleted %d instances in %.1f seconds (%.1f instances/second)",
+            numberOfDeletedInstances, elapsedMillis / 1000.0, numberOfDeletedInstances * 1000.0 / elapsedMillis));
+        return numberOfDeletedInstances;
+    }
+
+    /**
+     * @return Candidate DB_IDs, in order and without repeats, which are neither to be skipped nor already deleted
+     */
+    static List<Long> getDbIdsToDelete(Collection<Long> candidateDbIds, LongHashSet dbIdsToSkip,
+                                       LongHashSet deletedDbIds) {
+        List<Long> dbIdsToDelete = new ArrayList<>();
+        LongHashSet seenDbIds = new LongHashSet(candidateDbIds.size());
+        for (long candidateDbId : candidateDbIds) {
+            if (!dbIdsToSkip.contains(candidateDbId) && !deletedDbIds.contains(candidateDbId) &&
+                seenDbIds.add(candidateDbId)) {
+                dbIdsToDelete.add(candidateDbId);
+            }
+        }
+        return dbIdsToDelete;
+    }
+}
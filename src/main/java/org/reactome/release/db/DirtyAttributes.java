@@ -0,0 +1,58 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.profiling.DatabaseCallEvent;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Names of the attributes of an instance which have been changed in memory and need to be written to the database.
+ * An instance already in the database has only its dirty attributes written; a new instance is stored in full.
+ */
+public class DirtyAttributes {
+    private final GKInstance instance;
+    private final Set<String> attributeNames = new LinkedHashSet<>();
+
+    public DirtyAttributes(GKInstance instance) {
+        this.instance = instance;
+    }
+
+    public void mark(String attributeName) {
+        this.attributeNames.add(attributeName);
+    }
+
+    public boolean isEmpty() {
+        return this.attributeNames.isEmpty();
+    }
+
+    public Set<String> getAttributeNames() {
+        return Collections.unmodifiableSet(this.attributeNames);
+    }
+
+    /**
+     * Writes the dirty attributes of the instance to the database and clears them.  If the instance has not been
+     * stored yet, it is stored with all its attributes.
+     *
+     * @param dba MySQLAdaptor for the database to which to write
+     * @throws Exception Thrown if the instance or any of its attributes can't be written
+     */
+    public void write(MySQLAdaptor dba) throws Exception {
+        String schemaClassName = this.instance.getSchemClass().getName();
+        if (this.instance.getDBID() == null) {
+            DatabaseCallEvent databaseCallEvent = DatabaseCallEvent.start("storeInstance", schemaClassName);
+            dba.storeInstance(this.instance);
+            databaseCallEvent.end(1);
+        } else {
+            for (String attributeName : this.attributeNames) {
+                DatabaseCallEvent databaseCallEvent =
+                    DatabaseCallEvent.start("updateInstanceAttribute", schemaClassName);
+                dba.updateInstanceAttribute(this.instance, attributeName);
+                databaseCallEvent.end(1);
+            }
+        }
+        this.attributeNames.clear();
+    }
+}
@@ -0,0 +1,205 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.model.InstanceDisplayNameGenerator;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.profiling.DatabaseCallEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.reactome.release.db.BulkQueries.chunk;
+import static org.reactome.release.db.BulkQueries.loadAttributeValues;
+
+/**
+ * Regenerates the display names of the ReferenceGeneProduct and ReferenceIsoform instances created or modified by
+ * the update.  Instances are recorded with {@link #touch(GKInstance)} as they are written and
+ * {@link #updateTouchedDisplayNames()} recomputes only their display names, writing those which changed as JDBC
+ * batches of <code>_displayName</code> updates on the connection (and so in the transaction) of the update.
+ *
+ * {@link #rebuildAllDisplayNames(String, int)} instead regenerates the display names of every instance of a class.
+ * It streams the DB_IDs of the class from its table and hands them out in chunks processed in parallel, each on its
+ * own database connection, so only the instances of the chunks being processed are held in memory.
+ */
+public class DisplayNameUpdater {
+    private static final String UPDATE_DISPLAY_NAME_SQL = "UPDATE DatabaseObject SET _displayName = ? WHERE DB_ID = ?";
+    // Instances per chunk of a rebuild; each chunk opens its own connection, so chunks are larger than query chunks
+    private static final int REBUILD_CHUNK_SIZE = 10 * BulkQueries.DEFAULT_CHUNK_SIZE;
+    private static final String[] DISPLAY_NAME_ATTRIBUTES = {
+        ReactomeJavaConstants.referenceDatabase,
+        ReactomeJavaConstants.identifier,
+        ReactomeJavaConstants.geneName
+    };
+
+    private final MySQLAdaptor dba;
+    private final Map<Long, GKInstance> touchedInstances = new LinkedHashMap<>();
+
+    public DisplayNameUpdater(MySQLAdaptor dba) {
+        this.dba = dba;
+    }
+
+    /**
+     * Records an instance (already stored) whose display name may need to be regenerated.
+     *
+     * @param instance Created or modified ReferenceGeneProduct or ReferenceIsoform
+     */
+    public void touch(GKInstance instance) {
+        this.touchedInstances.put(instance.getDBID(), instance);
+    }
+
+    public int getNumberOfTouchedInstances() {
+        return this.touchedInstances.size();
+    }
+
+    /**
+     * Regenerates the display names of the touched instances and writes those which changed.
+     *
+     * @return Number of display names written
+     * @throws Exception Thrown if a display name can't be generated or the display names can't be written
+     */
+    public int updateTouchedDisplayNames() throws Exception {
+        List<GKInstance> changedInstances = regenerateDisplayNames(this.touchedInstances.values());
+        DatabaseCallEvent databaseCallEvent = DatabaseCallEvent.start("updateDisplayNames", "DatabaseObject");
+        writeDisplayNames(this.dba.getConnection(), changedInstances);
+        databaseCallEvent.end(changedInstances.size());
+        this.touchedInstances.clear();
+        return changedInstances.size();
+    }
+
+    /**
+     * Regenerates and writes the display names of all instances of the class (including instances of its
+     * subclasses, which also have a row in the table of the class) in parallel chunks.  The DB_IDs are read from the
+     * table of the class, without fetching the instances, and each chunk is submitted as soon as its DB_IDs are read.
+     * Each chunk is fetched, regenerated and written on a separate connection and
+     * committed on its own, so this should be run after the changes of the update are committed.  Attribute values
+     * not loaded in bulk are loaded lazily through the connection of the chunk, so chunks share no adaptor state.
+     *
+     * @param className Name of the class whose instances to update
+     * @param numberOfThreads Number of chunks to process at once
+     * @return Number of display names written
+     * @throws Exception Thrown if any chunk can't be processed
+     */
+    public int rebuildAllDisplayNames(String className, int numberOfThreads) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(numberOfThreads, 1));
+        try {
+            List<Future<Integer>> chunkResults = new ArrayList<>();
+            DatabaseCallEvent databaseCallEvent = DatabaseCallEvent.start("queryDbIds", className);
+            int numberOfDbIds = 0;
+            try (Statement statement = this.dba.getConnection().createStatement(
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                // Makes the MySQL driver stream the rows rather than read them all into memory first
+                statement.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet resultSet = statement.executeQuery("SELECT DB_ID FROM " + className)) {
+                    List<Long> dbIdChunk = new ArrayList<>(REBUILD_CHUNK_SIZE);
+                    while (resultSet.next()) {
+                        dbIdChunk.add(resultSet.getLong(1));
+                        numberOfDbIds += 1;
+                        if (dbIdChunk.size() == REBUILD_CHUNK_SIZE) {
+                            chunkResults.add(submitRebuild(executorService, className, dbIdChunk));
+                            dbIdChunk = new ArrayList<>(REBUILD_CHUNK_SIZE);
+                        }
+                    }
+                    if (!dbIdChunk.isEmpty()) {
+                        chunkResults.add(submitRebuild(executorService, className, dbIdChunk));
+                    }
+                }
+            }
+            databaseCallEvent.end(numberOfDbIds);
+
+            int numberOfDisplayNamesWritten = 0;
+            for (Future<Integer> chunkResult : chunkResults) {
+                numberOfDisplayNamesWritten += chunkResult.get();
+            }
+            return numberOfDisplayNamesWritten;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Future<Integer> submitRebuild(ExecutorService executorService, String className, List<Long> dbIds) {
+        return executorService.submit(() -> rebuildDisplayNames(className, dbIds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int rebuildDisplayNames(String className, List<Long> dbIds) throws Exception {
+        MySQLAdaptor chunkDba = new MySQLAdaptor(this.dba.getDBHost(), this.dba.getDBName(),
+            this.dba.getDBUser(), this.dba.getDBPwd(), this.dba.getDBPort());
+        try {
+            Collection<GKInstance> instances = chunkDba.fetchInstances(className, dbIds);
+            List<GKInstance> changedInstances = new ArrayList<>();
+            for (List<GKInstance> instanceChunk : chunk(instances, BulkQueries.DEFAULT_CHUNK_SIZE)) {
+                loadAttributeValues(chunkDba, instanceChunk, DISPLAY_NAME_ATTRIBUTES);
+                loadAttributeValues(chunkDba, getReferenceIsoforms(instanceChunk),
+                    ReactomeJavaConstants.variantIdentifier);
+                changedInstances.addAll(regenerateDisplayNames(instanceChunk));
+            }
+
+            chunkDba.startTransaction();
+            writeDisplayNames(chunkDba.getConnection(), changedInstances);
+            chunkDba.commit();
+            return changedInstances.size();
+        } finally {
+            chunkDba.cleanUp();
+        }
+    }
+
+    private static List<GKInstance> getReferenceIsoforms(List<GKInstance> instances) {
+        List<GKInstance> referenceIsoforms = new ArrayList<>();
+        for (GKInstance instance : instances) {
+            if (instance.getSchemClass().isa(ReactomeJavaConstants.ReferenceIsoform)) {
+                referenceIsoforms.add(instance);
+            }
+        }
+        return referenceIsoforms;
+    }
+
+    private static List<GKInstance> regenerateDisplayNames(Collection<GKInstance> instances) throws Exception {
+        List<GKInstance> changedInstances = new ArrayList<>();
+        for (GKInstance instance : instances) {
+            String oldDisplayName = instance.getDisplayName();
+            InstanceDisplayNameGenerator.setDisplayName(instance);
+            if (!Objects.equals(oldDisplayName, instance.getDisplayName())) {
+                changedInstances.add(instance);
+            }
+        }
+        return changedInstances;
+    }
+
+    private static void writeDisplayNames(Connection connection, List<GKInstance> instances) throws SQLException {
+        if (instances.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement updateStatement = connection.prepareStatement(UPDATE_DISPLAY_NAME_SQL)) {
+            int batchSize = 0;
+            for (GKInstance instance : instances) {
+                updateStatement.setString(1, instance.getDisplayName());
+                updateStatement.setLong(2, instance.getDBID());
+                updateStatement.addBatch();
+                batchSize += 1;
+
+                if (batchSize == BulkQueries.DEFAULT_CHUNK_SIZE) {
+                    updateStatement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                updateStatement.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.reactome.release.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds UniProt ReferenceIsoforms sharing a variant identifier with SQL queries, so only the duplicated isoforms are
+ * read instead of every ReferenceIsoform instance.  A ReferenceIsoform is considered to be from UniProt when the
+ * display name of its reference database contains "uniprot" (ignoring case).
+ */
+public class DuplicateIsoformDetector {
+    private static final String UNIPROT_REFERENCE_ISOFORMS =
+        "FROM ReferenceIsoform ri " +
+        "JOIN ReferenceEntity re ON re.DB_ID = ri.DB_ID " +
+        "JOIN DatabaseObject rd ON rd.DB_ID = re.referenceDatabase " +
+        "WHERE LOWER(rd._displayName) LIKE '%uniprot%' ";
+
+    private static final String DUPLICATE_ISOFORMS_SQL =
+        "SELECT ri.variantIdentifier, ri.DB_ID " +
+        UNIPROT_REFERENCE_ISOFORMS +
+        "AND ri.variantIdentifier IN (" +
+            "SELECT ri.variantIdentifier " +
+            UNIPROT_REFERENCE_ISOFORMS +
+            "AND ri.variantIdentifier <> '' " +
+            "GROUP BY ri.variantIdentifier HAVING COUNT(*) > 1" +
+        ") " +
+        "ORDER BY ri.variantIdentifier, ri.DB_ID";
+
+    private static final String ISOFORMS_WITHOUT_VARIANT_IDENTIFIER_SQL =
+        "SELECT ri.DB_ID " +
+        UNIPROT_REFERENCE_ISOFORMS +
+        "AND (ri.variantIdentifier IS NULL OR ri.variantIdentifier = '') " +
+        "ORDER BY ri.DB_ID";
+
+    private final Connection connection;
+
+    public DuplicateIsoformDetector(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return Variant identifiers shared by more than one UniProt ReferenceIsoform, in order, to the DB_IDs of those
+     * ReferenceIsoforms
+     * @throws SQLException Thrown if the query fails
+     */
+    public Map<String, List<Long>> findDuplicateIsoforms() throws SQLException {
+        Map<String, List<Long>> variantIdentifierToDbIds = new LinkedHashMap<>();
+        try (PreparedStatement statement = this.connection.prepareStatement(DUPLICATE_ISOFORMS_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                variantIdentifierToDbIds.computeIfAbsent(resultSet.getString(1), k -> new ArrayList<>())
+                    .add(resultSet.getLong(2));
+            }
+        }
+        return variantIdentifierToDbIds;
+    }
+
+    /**
+     * @return DB_IDs of UniProt ReferenceIsoforms with no variant identifier
+     * @throws SQLException Thrown if the query fails
+     */
+    public List<Long> findIsoformsWithoutVariantIdentifier() throws SQLException {
+        List<Long> dbIds = new ArrayList<>();
+        try (PreparedStatement statement = this.connection.prepareStatement(ISOFORMS_WITHOUT_VARIANT_IDENTIFIER_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                dbIds.add(resultSet.getLong(1));
+            }
+        }
+        return dbIds;
+    }
+}
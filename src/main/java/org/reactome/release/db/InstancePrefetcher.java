@@ -0,0 +1,358 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaAttribute;
+import org.reactome.release.profiling.DatabaseCallEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads the existing ReferenceGeneProducts and ReferenceIsoforms of SwissProt entries before the entries are
+ * processed.  As entries are read ahead, {@link #prefetch(String, Collection)} queues the primary accession and
+ * isoform ids of each entry; queued entries are fetched in batches, with all their attribute values, on a separate
+ * read connection by a background thread.  When the entry is processed, {@link #take(String)} hands its instances
+ * over, bound to the adaptor of the update, usually without waiting on the database.
+ *
+ * The instances of an entry are only written while processing that entry, so reading them ahead on another
+ * connection doesn't miss changes made by the update.  Entries which weren't prefetched (or whose prefetch failed)
+ * are fetched synchronously through the adaptor of the update.
+ */
+public class InstancePrefetcher implements AutoCloseable {
+    public static final int DEFAULT_LOOKAHEAD = 200;
+
+    private final MySQLAdaptor dba;
+    private final MySQLAdaptor readDba;
+    private final ExecutorService executorService;
+    private final int batchSize;
+    private final int capacity;
+
+    private final Map<String, CompletableFuture<PrefetchedInstances>> identifierToPrefetchedInstances;
+    private final Map<String, Collection<String>> pendingIdentifierToVariantIdentifiers = new LinkedHashMap<>();
+
+    private long numberOfHits;
+    private long numberOfMisses;
+    private long numberOfStalls;
+    private long stallNanos;
+
+    /**
+     * Creates a prefetcher which doesn't prefetch: all instances are fetched when they are taken.
+     *
+     * @param dba MySQLAdaptor of the update
+     */
+    public InstancePrefetcher(MySQLAdaptor dba) {
+        this(dba, null, 0);
+    }
+
+    /**
+     * @param dba MySQLAdaptor of the update
+     * @param readDba MySQLAdaptor used only by the prefetcher (closed with the prefetcher)
+     * @param lookahead Number of entries read ahead of the entry being processed
+     */
+    public InstancePrefetcher(MySQLAdaptor dba, MySQLAdaptor readDba, int lookahead) {
+        this.dba = dba;
+        this.readDba = readDba;
+        if (readDba != null) {
+            // Instances are handed over to the update, so each prefetch must create its own
+            readDba.setUseCache(false);
+        }
+        this.executorService = readDba != null ? Executors.newSingleThreadExecutor() : null;
+        this.batchSize = Math.max(1, lookahead / 4);
+        this.capacity = lookahead * 2 + this.batchSize;
+        this.identifierToPrefetchedInstances =
+            new LinkedHashMap<String, CompletableFuture<PrefetchedInstances>>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<PrefetchedInstances>> eldest) {
+                    return size() > InstancePrefetcher.this.capacity;
+                }
+            };
+    }
+
+    /**
+     * Queues the instances of an entry to be fetched in the background.
+     *
+     * @param identifier Primary accession of the entry (identifier of its ReferenceGeneProducts)
+     * @param variantIdentifiers Isoform ids of the entry
+     */
+    public void prefetch(String identifier, Collection<String> variantIdentifiers) {
+        if (this.executorService == null || this.identifierToPrefetchedInstances.containsKey(identifier)) {
+            return;
+        }
+
+        this.identifierToPrefetchedInstances.put(identifier, new CompletableFuture<>());
+        this.pendingIdentifierToVariantIdentifiers.put(identifier, variantIdentifiers);
+        if (this.pendingIdentifierToVariantIdentifiers.size() >= this.batchSize) {
+            submitPendingBatch();
+        }
+    }
+
+    /**
+     * Returns the instances of an entry, waiting for them if they are still being prefetched or fetching them if
+     * they weren't prefetched.
+     *
+     * @param identifier Primary accession of the entry
+     * @return Instances of the entry (loaded and bound to the adaptor of the update)
+     * @throws Exception Thrown if the instances can't be fetched
+     */
+    public PrefetchedInstances take(String identifier) throws Exception {
+        if (this.pendingIdentifierToVariantIdentifiers.containsKey(identifier)) {
+            submitPendingBatch();
+        }
+        CompletableFuture<PrefetchedInstances> prefetchedInstancesFuture =
+            this.identifierToPrefetchedInstances.remove(identifier);
+        if (prefetchedInstancesFuture == null) {
+            this.numberOfMisses += 1;
+            return fetch(this.dba, identifier);
+        }
+
+        if (!prefetchedInstancesFuture.isDone()) {
+            this.numberOfStalls += 1;
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            PrefetchedInstances prefetchedInstances = prefetchedInstancesFuture.get();
+            this.stallNanos += System.nanoTime() - waitStart;
+            this.numberOfHits += 1;
+            prefetchedInstances.bindTo(this.dba);
+            return prefetchedInstances;
+        } catch (ExecutionException e) {
+            System.out.println("Prefetch failed for " + identifier + " - fetching directly: " + e.getCause());
+            this.numberOfMisses += 1;
+            return fetch(this.dba, identifier);
+        }
+    }
+
+    /**
+     * @return Fraction of taken entries which had been prefetched
+     */
+    public double getHitRate() {
+        long numberOfTakes = this.numberOfHits + this.numberOfMisses;
+        return numberOfTakes > 0 ? (double) this.numberOfHits / numberOfTakes : 0.0;
+    }
+
+    /**
+     * @return Number of entries prefetched or being prefetched which haven't been taken (approximate when read from
+     * another thread)
+     */
+    public int getQueueDepth() {
+        return this.identifierToPrefetchedInstances.size();
+    }
+
+    /**
+     * @return Number of taken entries whose prefetch had not completed
+     */
+    public long getNumberOfStalls() {
+        return this.numberOfStalls;
+    }
+
+    /**
+     * @return Total time spent waiting for prefetches to complete, in milliseconds
+     */
+    public long getStallMillis() {
+        return this.stallNanos / 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Prefetch hit rate %.1f%% (%d hits, %d misses), %d stalls, %d ms stalled",
+            getHitRate() * 100, this.numberOfHits, this.numberOfMisses, this.numberOfStalls, getStallMillis());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+            this.readDba.cleanUp();
+        }
+    }
+
+    private void submitPendingBatch() {
+        Map<String, Collection<String>> identifierToVariantIdentifiers =
+            new LinkedHashMap<>(this.pendingIdentifierToVariantIdentifiers);
+        Map<String, CompletableFuture<PrefetchedInstances>> identifierToFuture = new HashMap<>();
+        for (String identifier : identifierToVariantIdentifiers.keySet()) {
+            CompletableFuture<PrefetchedInstances> future = this.identifierToPrefetchedInstances.get(identifier);
+            if (future != null) {
+                identifierToFuture.put(identifier, future);
+            }
+        }
+        this.pendingIdentifierToVariantIdentifiers.clear();
+
+        this.executorService.submit(() -> {
+            try {
+                Map<String, PrefetchedInstances> identifierToInstances = fetchBatch(identifierToVariantIdentifiers);
+                for (Map.Entry<String, CompletableFuture<PrefetchedInstances>> identifierAndFuture :
+                    identifierToFuture.entrySet()) {
+                    identifierAndFuture.getValue().complete(identifierToInstances.get(identifierAndFuture.getKey()));
+                }
+            } catch (Throwable t) {
+                for (CompletableFuture<PrefetchedInstances> future : identifierToFuture.values()) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+    }
+
+    private Map<String, PrefetchedInstances> fetchBatch(Map<String, Collection<String>> identifierToVariantIdentifiers)
+        throws Exception {
+
+        List<String> variantIdentifiers = new ArrayList<>();
+        for (Collection<String> entryVariantIdentifiers : identifierToVariantIdentifiers.values()) {
+            variantIdentifiers.addAll(entryVariantIdentifiers);
+        }
+
+        DatabaseCallEvent databaseCallEvent =
+            DatabaseCallEvent.start("fetchInstancesByAttributeValues", ReactomeJavaConstants.ReferenceGeneProduct);
+        List<GKInstance> referenceGeneProducts = BulkQueries.fetchInstancesByAttributeValues(this.readDba,
+            ReactomeJavaConstants.ReferenceGeneProduct, ReactomeJavaConstants.identifier,
+            identifierToVariantIdentifiers.keySet());
+        databaseCallEvent.end(referenceGeneProducts.size());
+
+        databaseCallEvent =
+            DatabaseCallEvent.start("fetchInstancesByAttributeValues", ReactomeJavaConstants.ReferenceIsoform);
+        List<GKInstance> referenceIsoforms = BulkQueries.fetchInstancesByAttributeValues(this.readDba,
+            ReactomeJavaConstants.ReferenceIsoform, ReactomeJavaConstants.variantIdentifier, variantIdentifiers);
+        databaseCallEvent.end(referenceIsoforms.size());
+        List<GKInstance> allInstances = new ArrayList<>(referenceGeneProducts);
+        allInstances.addAll(referenceIsoforms);
+        loadAllAttributeValues(this.readDba, allInstances);
+
+        Map<String, PrefetchedInstances> identifierToInstances = new HashMap<>();
+        for (String identifier : identifierToVariantIdentifiers.keySet()) {
+            identifierToInstances.put(identifier, new PrefetchedInstances(this.dba));
+        }
+        for (GKInstance referenceGeneProduct : referenceGeneProducts) {
+            String identifier = (String) referenceGeneProduct.getAttributeValue(ReactomeJavaConstants.identifier);
+            PrefetchedInstances prefetchedInstances = identifierToInstances.get(identifier);
+            if (prefetchedInstances != null) {
+                prefetchedInstances.referenceGeneProducts.add(referenceGeneProduct);
+            }
+        }
+        Map<String, List<GKInstance>> variantIdentifierToReferenceIsoforms = new HashMap<>();
+        for (GKInstance referenceIsoform : referenceIsoforms) {
+            variantIdentifierToReferenceIsoforms.computeIfAbsent(
+                (String) referenceIsoform.getAttributeValue(ReactomeJavaConstants.variantIdentifier),
+                k -> new ArrayList<>()
+            ).add(referenceIsoform);
+        }
+        for (Map.Entry<String, Collection<String>> identifierAndVariantIdentifiers :
+            identifierToVariantIdentifiers.entrySet()) {
+            PrefetchedInstances prefetchedInstances = identifierToInstances.get(identifierAndVariantIdentifiers.getKey());
+            for (String variantIdentifier : identifierAndVariantIdentifiers.getValue()) {
+                prefetchedInstances.variantIdentifierToReferenceIsoforms.put(variantIdentifier,
+                    variantIdentifierToReferenceIsoforms.getOrDefault(variantIdentifier, new ArrayList<>()));
+            }
+        }
+        return identifierToInstances;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PrefetchedInstances fetch(MySQLAdaptor dba, String identifier) throws Exception {
+
+        PrefetchedInstances prefetchedInstances = new PrefetchedInstances(dba);
+        DatabaseCallEvent databaseCallEvent =
+            DatabaseCallEvent.start("fetchInstanceByAttribute", ReactomeJavaConstants.ReferenceGeneProduct);
+        Collection<GKInstance> referenceGeneProducts = dba.fetchInstanceByAttribute(
+            ReactomeJavaConstants.ReferenceGeneProduct, ReactomeJavaConstants.identifier, "=", identifier);
+        databaseCallEvent.end(referenceGeneProducts != null ? referenceGeneProducts.size() : 0);
+        if (referenceGeneProducts != null) {
+            loadAllAttributeValues(dba, referenceGeneProducts);
+            prefetchedInstances.referenceGeneProducts.addAll(referenceGeneProducts);
+        }
+        return prefetchedInstances;
+    }
+
+    private static void loadAllAttributeValues(MySQLAdaptor dba, Collection<GKInstance> instances) throws Exception {
+        for (List<GKInstance> chunk : BulkQueries.chunk(instances, BulkQueries.DEFAULT_CHUNK_SIZE)) {
+            DatabaseCallEvent databaseCallEvent = DatabaseCallEvent.start(
+                "loadInstanceAttributeValues", chunk.get(0).getSchemClass().getName());
+            dba.loadInstanceAttributeValues(chunk);
+            databaseCallEvent.end(chunk.size());
+        }
+    }
+
+    /**
+     * Existing ReferenceGeneProducts (including ReferenceIsoforms with the identifier) and ReferenceIsoforms of an
+     * entry.
+     */
+    public static class PrefetchedInstances {
+        private final MySQLAdaptor dba;
+        private final List<GKInstance> referenceGeneProducts = new ArrayList<>();
+        private final Map<String, List<GKInstance>> variantIdentifierToReferenceIsoforms = new HashMap<>();
+
+        PrefetchedInstances(MySQLAdaptor dba) {
+            this.dba = dba;
+        }
+
+        /**
+         * @return Instances of ReferenceGeneProduct (and its subclasses) with the primary accession as identifier
+         */
+        public List<GKInstance> getReferenceGeneProducts() {
+            return this.referenceGeneProducts;
+        }
+
+        /**
+         * @param variantIdentifier Isoform id
+         * @return ReferenceIsoforms with the variant identifier (fetched now if they were not prefetched)
+         * @throws Exception Thrown if the isoforms can't be fetched
+         */
+        @SuppressWarnings("unchecked")
+        public List<GKInstance> getReferenceIsoforms(String variantIdentifier) throws Exception {
+            List<GKInstance> referenceIsoforms = this.variantIdentifierToReferenceIsoforms.get(variantIdentifier);
+            if (referenceIsoforms == null) {
+                referenceIsoforms = new ArrayList<>();
+                DatabaseCallEvent databaseCallEvent =
+                    DatabaseCallEvent.start("fetchInstanceByAttribute", ReactomeJavaConstants.ReferenceIsoform);
+                Collection<GKInstance> fetchedReferenceIsoforms = this.dba.fetchInstanceByAttribute(
+                    ReactomeJavaConstants.ReferenceIsoform, ReactomeJavaConstants.variantIdentifier, "=",
+                    variantIdentifier);
+                databaseCallEvent.end(fetchedReferenceIsoforms != null ? fetchedReferenceIsoforms.size() : 0);
+                if (fetchedReferenceIsoforms != null) {
+                    loadAllAttributeValues(this.dba, fetchedReferenceIsoforms);
+                    referenceIsoforms.addAll(fetchedReferenceIsoforms);
+                }
+                this.variantIdentifierToReferenceIsoforms.put(variantIdentifier, referenceIsoforms);
+            }
+            return referenceIsoforms;
+        }
+
+        // Instances loaded by the prefetcher (and the instances they refer to) would otherwise lazily load
+        // attribute values through the read connection, which is used by the prefetching thread
+        @SuppressWarnings("unchecked")
+        private void bindTo(MySQLAdaptor dba) {
+            List<GKInstance> instances = new ArrayList<>(this.referenceGeneProducts);
+            for (List<GKInstance> referenceIsoforms : this.variantIdentifierToReferenceIsoforms.values()) {
+                instances.addAll(referenceIsoforms);
+            }
+
+            for (GKInstance instance : instances) {
+                instance.setDbAdaptor(dba);
+                for (SchemaAttribute attribute : (Collection<SchemaAttribute>) instance.getSchemClass().getAttributes()) {
+                    if (!attribute.isInstanceTypeAttribute()) {
+                        continue;
+                    }
+                    List<?> values = instance.getAttributeValuesListNoCheck(attribute.getName());
+                    if (values == null) {
+                        continue;
+                    }
+                    for (Object value : values) {
+                        if (value instanceof GKInstance) {
+                            ((GKInstance) value).setDbAdaptor(dba);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
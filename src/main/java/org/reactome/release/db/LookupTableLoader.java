@@ -0,0 +1,143 @@
+package org.reactome.release.db;
+
+import org.gk.persistence.MySQLAdaptor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the identifier to DB_ID lookup tables needed at the start of the update with queries selecting only the
+ * DB_ID and identifier columns, rather than fetching every instance to read one attribute.  The queries run
+ * concurrently, each on its own database connection, and their rows are streamed into the tables.
+ *
+ * If an identifier is shared by more than one instance, the instance with the highest DB_ID is kept.
+ */
+public class LookupTableLoader {
+    public static final int DEFAULT_NUMBER_OF_CONNECTIONS = 3;
+
+    // ReferenceIsoforms also have a row in the ReferenceGeneProduct table
+    private static final String RGP_ACCESSIONS_SQL =
+        "SELECT re.DB_ID, re.identifier FROM ReferenceEntity re " +
+        "JOIN ReferenceGeneProduct rgp ON rgp.DB_ID = re.DB_ID " +
+        "WHERE re.referenceDatabase = ? AND re.identifier IS NOT NULL AND re.identifier <> '' " +
+        "ORDER BY re.DB_ID";
+
+    private static final String ISOFORM_ACCESSIONS_SQL =
+        "SELECT ri.DB_ID, ri.variantIdentifier FROM ReferenceIsoform ri " +
+        "WHERE ri.variantIdentifier IS NOT NULL AND ri.variantIdentifier <> '' " +
+        "ORDER BY ri.DB_ID";
+
+    private static final String REFERENCE_DNA_SEQUENCE_IDENTIFIERS_SQL =
+        "SELECT re.DB_ID, re.identifier FROM ReferenceEntity re " +
+        "JOIN ReferenceDNASequence rds ON rds.DB_ID = re.DB_ID " +
+        "WHERE re.identifier IS NOT NULL AND re.identifier <> '' " +
+        "ORDER BY re.DB_ID";
+
+    private final MySQLAdaptor dba;
+    private final int numberOfConnections;
+
+    public LookupTableLoader(MySQLAdaptor dba) {
+        this(dba, DEFAULT_NUMBER_OF_CONNECTIONS);
+    }
+
+    /**
+     * @param dba MySQLAdaptor whose connection details are used to open the connections for the queries
+     * @param numberOfConnections Maximum number of queries to run at once
+     */
+    public LookupTableLoader(MySQLAdaptor dba, int numberOfConnections) {
+        this.dba = dba;
+        this.numberOfConnections = Math.max(numberOfConnections, 1);
+    }
+
+    /**
+     * Loads the lookup tables.
+     *
+     * @param uniProtReferenceDatabaseDbId DB_ID of the UniProt ReferenceDatabase
+     * @return Lookup tables
+     * @throws Exception Thrown if any of the queries fail
+     */
+    public LookupTables load(long uniProtReferenceDatabaseDbId) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(this.numberOfConnections);
+        try {
+            Future<Map<String, Long>> rgpAccessionToDbId = executorService.submit(
+                () -> queryIdentifierToDbId("ReferenceGeneProduct", RGP_ACCESSIONS_SQL, uniProtReferenceDatabaseDbId));
+            Future<Map<String, Long>> isoformAccessionToDbId = executorService.submit(
+                () -> queryIdentifierToDbId("ReferenceIsoform", ISOFORM_ACCESSIONS_SQL));
+            Future<Map<String, Long>> referenceDNASequenceIdentifierToDbId = executorService.submit(
+                () -> queryIdentifierToDbId("ReferenceDNASequence", REFERENCE_DNA_SEQUENCE_IDENTIFIERS_SQL));
+
+            return new LookupTables(
+                rgpAccessionToDbId.get(), isoformAccessionToDbId.get(), referenceDNASequenceIdentifierToDbId.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Map<String, Long> queryIdentifierToDbId(String tableName, String sql, Object... parameters)
+        throws Exception {
+
+        long startTime = System.currentTimeMillis();
+        MySQLAdaptor connectionDba = new MySQLAdaptor(this.dba.getDBHost(), this.dba.getDBName(),
+            this.dba.getDBUser(), this.dba.getDBPwd(), this.dba.getDBPort());
+        try (PreparedStatement statement = connectionDba.getConnection().prepareStatement(
+            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Makes the MySQL driver stream the rows rather than read them all into memory first
+            statement.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            Map<String, Long> identifierToDbId = new HashMap<>(1 << 17);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    identifierToDbId.put(resultSet.getString(2), resultSet.getLong(1));
+                }
+            }
+            System.out.println(String.format("%d %s identifiers loaded in %d ms",
+                identifierToDbId.size(), tableName, System.currentTimeMillis() - startTime));
+            return identifierToDbId;
+        } finally {
+            connectionDba.cleanUp();
+        }
+    }
+
+    public static class LookupTables {
+        private final Map<String, Long> rgpAccessionToDbId;
+        private final Map<String, Long> isoformAccessionToDbId;
+        private final Map<String, Long> referenceDNASequenceIdentifierToDbId;
+
+        public LookupTables(Map<String, Long> rgpAccessionToDbId, Map<String, Long> isoformAccessionToDbId,
+                            Map<String, Long> referenceDNASequenceIdentifierToDbId) {
+            this.rgpAccessionToDbId = rgpAccessionToDbId;
+            this.isoformAccessionToDbId = isoformAccessionToDbId;
+            this.referenceDNASequenceIdentifierToDbId = referenceDNASequenceIdentifierToDbId;
+        }
+
+        /**
+         * @return UniProt accessions of ReferenceGeneProducts (including ReferenceIsoforms) to their DB_IDs
+         */
+        public Map<String, Long> getRGPAccessionToDbId() {
+            return this.rgpAccessionToDbId;
+        }
+
+        /**
+         * @return Variant identifiers of ReferenceIsoforms to their DB_IDs
+         */
+        public Map<String, Long> getIsoformAccessionToDbId() {
+            return this.isoformAccessionToDbId;
+        }
+
+        /**
+         * @return Identifiers of ReferenceDNASequences to their DB_IDs
+         */
+        public Map<String, Long> getReferenceDNASequenceIdentifierToDbId() {
+            return this.referenceDNASequenceIdentifierToDbId;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.profiling.DatabaseCallEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.reactome.release.db.BulkQueries.chunk;
+import static org.reactome.release.db.BulkQueries.fetchInstancesByAttributeValues;
+import static org.reactome.release.db.BulkQueries.loadAttributeValues;
+
+/**
+ * Adds the ReferenceGeneProduct of the SwissProt entry listing an isoform as a parent of the ReferenceIsoform when
+ * that ReferenceIsoform has a different parent.  All the mis-matched ReferenceIsoforms and all their candidate parents
+ * are fetched with one bulk lookup each and the new isoform parents are computed in memory.  Only the isoformParent
+ * rows of the changed ReferenceIsoforms are rewritten, a chunk at a time: the rows of the chunk are deleted and
+ * inserted again as two JDBC batches in one transaction.  As with the {@link DeletionExecutor}, each chunk commits the
+ * transaction open when it starts and a new transaction is started after the last chunk.
+ *
+ * As before, the isoform parents of a ReferenceIsoform become its first existing parent followed by the new parent,
+ * and ReferenceIsoforms without a parent are left alone.  When more than one instance has the variant identifier or
+ * accession, the one with the lowest DB_ID is used.
+ */
+public class MismatchedIsoformReparenter {
+    private static final String DELETE_ISOFORM_PARENTS_SQL =
+        "DELETE FROM ReferenceIsoform_2_isoformParent WHERE DB_ID = ?";
+    private static final String INSERT_ISOFORM_PARENT_SQL = "INSERT INTO ReferenceIsoform_2_isoformParent " +
+        "(DB_ID, isoformParent_rank, isoformParent, isoformParent_class) VALUES (?, ?, ?, ?)";
+
+    private final MySQLAdaptor dba;
+
+    public MismatchedIsoformReparenter(MySQLAdaptor dba) {
+        this.dba = dba;
+    }
+
+    /**
+     * @param misMatchedIsoformAccessionToRGPAccession Variant identifiers of ReferenceIsoforms with a different
+     * parent in the database to the UniProt accessions of the SwissProt entries listing them
+     * @return Number of ReferenceIsoforms updated
+     * @throws Exception Thrown if the instances can't be fetched or updated
+     */
+    public int reparent(Map<String, String> misMatchedIsoformAccessionToRGPAccession) throws Exception {
+        if (misMatchedIsoformAccessionToRGPAccession.isEmpty()) {
+            return 0;
+        }
+
+        List<GKInstance> isoforms = fetchInstancesByAttributeValues(this.dba, ReactomeJavaConstants.ReferenceIsoform,
+            ReactomeJavaConstants.variantIdentifier, misMatchedIsoformAccessionToRGPAccession.keySet());
+        loadAttributeValues(this.dba, isoforms,
+            ReactomeJavaConstants.variantIdentifier, ReactomeJavaConstants.isoformParent);
+        Map<String, GKInstance> variantIdentifierToIsoform =
+            getFirstInstanceByAttributeValue(isoforms, ReactomeJavaConstants.variantIdentifier);
+
+        List<GKInstance> candidateParents = fetchInstancesByAttributeValues(this.dba,
+            ReactomeJavaConstants.ReferenceGeneProduct, ReactomeJavaConstants.identifier,
+            new HashSet<>(misMatchedIsoformAccessionToRGPAccession.values()));
+        loadAttributeValues(this.dba, candidateParents, ReactomeJavaConstants.identifier);
+        Map<String, GKInstance> accessionToParent =
+            getFirstInstanceByAttributeValue(candidateParents, ReactomeJavaConstants.identifier);
+
+        List<GKInstance> updatedIsoforms = new ArrayList<>();
+        for (Map.Entry<String, String> isoformAndRGPAccession : misMatchedIsoformAccessionToRGPAccession.entrySet()) {
+            GKInstance isoform = variantIdentifierToIsoform.get(isoformAndRGPAccession.getKey());
+            GKInstance mismatchedParent = accessionToParent.get(isoformAndRGPAccession.getValue());
+            if (isoform == null || mismatchedParent == null) {
+                continue;
+            }
+
+            GKInstance isoformParent = (GKInstance) isoform.getAttributeValue(ReactomeJavaConstants.isoformParent);
+            if (isoformParent == null) {
+                continue;
+            }
+
+            System.out.println(String.format("Mismatched parent: %s(%d)\t%s\n",
+                isoformAndRGPAccession.getKey(), isoform.getDBID(), isoformAndRGPAccession.getValue()));
+            isoform.setAttributeValue(ReactomeJavaConstants.isoformParent,
+                new ArrayList<>(Arrays.asList(isoformParent, mismatchedParent)));
+            updatedIsoforms.add(isoform);
+        }
+
+        if (updatedIsoforms.isEmpty()) {
+            return 0;
+        }
+
+        int numberOfWrittenIsoforms = 0;
+        for (List<GKInstance> isoformChunk : chunk(updatedIsoforms, BulkQueries.DEFAULT_CHUNK_SIZE)) {
+            this.dba.startTransaction();
+            try {
+                writeIsoformParents(this.dba.getConnection(), isoformChunk);
+                this.dba.commit();
+            } catch (Exception e) {
+                this.dba.rollback();
+                throw e;
+            }
+
+            numberOfWrittenIsoforms += isoformChunk.size();
+            System.out.println(String.format("%d of %d mis-matched isoforms written", numberOfWrittenIsoforms,
+                updatedIsoforms.size()));
+        }
+        this.dba.startTransaction();
+        return updatedIsoforms.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeIsoformParents(Connection connection, List<GKInstance> isoforms) throws Exception {
+        DatabaseCallEvent databaseCallEvent =
+            DatabaseCallEvent.start("writeIsoformParents", ReactomeJavaConstants.ReferenceIsoform);
+        try (PreparedStatement deleteStatement = connection.prepareStatement(DELETE_ISOFORM_PARENTS_SQL);
+             PreparedStatement insertStatement = connection.prepareStatement(INSERT_ISOFORM_PARENT_SQL)) {
+
+            for (GKInstance isoform : isoforms) {
+                deleteStatement.setLong(1, isoform.getDBID());
+                deleteStatement.addBatch();
+
+                List<GKInstance> isoformParents =
+                    isoform.getAttributeValuesList(ReactomeJavaConstants.isoformParent);
+                for (int rank = 0; rank < isoformParents.size(); rank++) {
+                    GKInstance isoformParent = isoformParents.get(rank);
+                    insertStatement.setLong(1, isoform.getDBID());
+                    insertStatement.setInt(2, rank);
+                    insertStatement.setLong(3, isoformParent.getDBID());
+                    insertStatement.setString(4, isoformParent.getSchemClass().getName());
+                    insertStatement.addBatch();
+                }
+            }
+            deleteStatement.executeBatch();
+            insertStatement.executeBatch();
+        }
+        databaseCallEvent.end(isoforms.size());
+    }
+
+    private static Map<String, GKInstance> getFirstInstanceByAttributeValue(
+        Collection<GKInstance> instances, String attributeName) throws Exception {
+
+        Map<String, GKInstance> attributeValueToInstance = new HashMap<>();
+        for (GKInstance instance : instances) {
+            String attributeValue = (String) instance.getAttributeValue(attributeName);
+            if (attributeValue == null) {
+                continue;
+            }
+            attributeValueToInstance.merge(attributeValue, instance,
+                (instance1, instance2) -> instance1.getDBID() <= instance2.getDBID() ? instance1 : instance2);
+        }
+        return attributeValueToInstance;
+    }
+}
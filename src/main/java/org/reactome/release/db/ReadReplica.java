@@ -0,0 +1,101 @@
+package org.reactome.release.db;
+
+import org.gk.persistence.MySQLAdaptor;
+
+import java.util.Properties;
+
+/**
+ * Optional read-only replica of the curator database for the read-only phases of the update (loading the start-up
+ * lookup tables, classifying obsolete instances for the reports and scanning for duplicate isoforms), so the
+ * curator database only serves the writes of the update and the reads which go with them.
+ *
+ * The replica is configured with the "replica.database.host", "replica.database.name",
+ * "replica.database.username", "replica.database.password" and "replica.database.port" properties; all but the host
+ * default to the values of the curator database.  Without a host, the curator database is used for everything.
+ *
+ * The phases read data written earlier by the update, so the replica is only used once it has caught up with the
+ * curator database, i.e. both have the same {@link DatabaseWatermark}.  If it doesn't catch up within
+ * "replica.database.catchUpTimeoutSeconds" (60 by default), the curator database is used for that phase.
+ */
+public class ReadReplica implements AutoCloseable {
+    private static final long CATCH_UP_POLL_INTERVAL_MILLIS = 1_000L;
+
+    private final MySQLAdaptor primaryDba;
+    private final MySQLAdaptor replicaDba;
+    private final long catchUpTimeoutMillis;
+
+    ReadReplica(MySQLAdaptor primaryDba, MySQLAdaptor replicaDba, long catchUpTimeoutMillis) {
+        this.primaryDba = primaryDba;
+        this.replicaDba = replicaDba;
+        this.catchUpTimeoutMillis = catchUpTimeoutMillis;
+    }
+
+    /**
+     * @param configProperties Configuration properties
+     * @param primaryDba MySQLAdaptor for the curator database
+     * @return Read replica of the configuration (which uses the curator database if no replica is configured)
+     * @throws Exception Thrown if the replica can't be connected to
+     */
+    public static ReadReplica fromConfig(Properties configProperties, MySQLAdaptor primaryDba) throws Exception {
+        String host = configProperties.getProperty("replica.database.host", "").trim();
+        long catchUpTimeoutMillis = Long.parseLong(
+            configProperties.getProperty("replica.database.catchUpTimeoutSeconds", "60").trim()) * 1000L;
+        if (host.isEmpty()) {
+            return new ReadReplica(primaryDba, null, catchUpTimeoutMillis);
+        }
+
+        MySQLAdaptor replicaDba = new MySQLAdaptor(
+            host,
+            configProperties.getProperty("replica.database.name", primaryDba.getDBName()),
+            configProperties.getProperty("replica.database.username", primaryDba.getDBUser()),
+            configProperties.getProperty("replica.database.password", primaryDba.getDBPwd()),
+            Integer.parseInt(configProperties.getProperty(
+                "replica.database.port", String.valueOf(primaryDba.getDBPort())).trim())
+        );
+        System.out.println("Using read replica " + host + " for read-only phases");
+        return new ReadReplica(primaryDba, replicaDba, catchUpTimeoutMillis);
+    }
+
+    public boolean isConfigured() {
+        return this.replicaDba != null;
+    }
+
+    /**
+     * Returns the adaptor for a read-only phase: the replica once it has caught up with the curator database or,
+     * if there is no replica or it doesn't catch up in time, the curator database.  Changes of the update must be
+     * committed before calling this for them to be seen on the replica.
+     *
+     * @param phase Name of the phase (for the log)
+     * @return MySQLAdaptor to read from
+     * @throws Exception Thrown if the watermarks can't be read
+     */
+    public MySQLAdaptor getReadAdaptor(String phase) throws Exception {
+        if (!isConfigured()) {
+            return this.primaryDba;
+        }
+
+        long deadline = System.currentTimeMillis() + this.catchUpTimeoutMillis;
+        DatabaseWatermark primaryWatermark = DatabaseWatermark.read(this.primaryDba);
+        while (!DatabaseWatermark.read(this.replicaDba).equals(primaryWatermark)) {
+            if (System.currentTimeMillis() > deadline) {
+                System.out.println("Read replica has not caught up - " + phase + " reads from the curator database");
+                return this.primaryDba;
+            }
+            Thread.sleep(CATCH_UP_POLL_INTERVAL_MILLIS);
+        }
+        System.out.println(phase + " reads from the read replica");
+        return this.replicaDba;
+    }
+
+    /**
+     * Closes the connection to the replica (if any).
+     *
+     * @throws Exception Thrown if the connection can't be closed
+     */
+    @Override
+    public void close() throws Exception {
+        if (isConfigured()) {
+            this.replicaDba.cleanUp();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package org.reactome.release.db;
+
+import org.gk.model.GKInstance;
+import org.gk.model.InstanceDisplayNameGenerator;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.collections.LongObjectHashMap;
+import org.reactome.release.profiling.DatabaseCallEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.reactome.release.db.BulkQueries.chunk;
+import static org.reactome.release.db.BulkQueries.loadAttributeValues;
+
+/**
+ * Holds the ReferenceDNASequence instances in memory so the EnsEMBL genes of human SwissProt entries can be checked
+ * and updated without a database round trip per gene.
+ *
+ * The EnsEMBL gene (ENSG) instances are fetched in chunks by {@link #preload(Map)}, from the identifier to DB_ID
+ * table loaded at start-up, and their identifier, reference database, gene names and species are loaded in bulk.
+ * Instances are keyed by the numeric part of their ENSG identifier in a primitive map (other identifiers are kept in
+ * a regular map and their instances are fetched when first requested).  Changes found by
+ * {@link #update(GKInstance, String, List, GKInstance)} are applied in memory and written, with only the changed
+ * attributes, by {@link #flush()} (e.g. at each commit).  New instances are stored when created, since the
+ * ReferenceGeneProducts referring to them need their DB_IDs.  If the transaction is rolled back,
+ * {@link #rollback()} discards the instances created and reloads the instances updated since the last commit.
+ */
+public class ReferenceDNASequenceManager {
+    private static final String ENSEMBL_GENE_PREFIX = "ENSG";
+    private static final int ENSEMBL_GENE_NUMBER_DIGITS = 11;
+
+    private final MySQLAdaptor dba;
+    private final GKInstance ensEMBLGeneReferenceDatabase;
+    private final GKInstance instanceEdit;
+
+    private final LongObjectHashMap<GKInstance> ensEMBLGeneNumberToInstance = new LongObjectHashMap<>(1 << 16);
+    private final Map<String, Long> otherIdentifierToDbId = new HashMap<>();
+    private final Map<String, GKInstance> otherIdentifierToInstance = new HashMap<>();
+    private final Map<Long, DirtyAttributes> pendingUpdates = new LinkedHashMap<>();
+    private final List<String> uncommittedCreatedIdentifiers = new ArrayList<>();
+    private final Map<Long, GKInstance> uncommittedUpdatedInstances = new LinkedHashMap<>();
+
+    /**
+     * @param dba MySQLAdaptor for the database with the ReferenceDNASequence instances
+     * @param ensEMBLGeneReferenceDatabase ReferenceDatabase for EnsEMBL genes
+     * @param instanceEdit InstanceEdit for created and modified instances
+     */
+    public ReferenceDNASequenceManager(
+        MySQLAdaptor dba, GKInstance ensEMBLGeneReferenceDatabase, GKInstance instanceEdit) {
+
+        this.dba = dba;
+        this.ensEMBLGeneReferenceDatabase = ensEMBLGeneReferenceDatabase;
+        this.instanceEdit = instanceEdit;
+    }
+
+    /**
+     * Fetches the EnsEMBL gene ReferenceDNASequence instances and loads their attributes.  Other ReferenceDNASequence
+     * instances are only fetched if they are requested.
+     *
+     * @param identifierToDbId Identifiers of all ReferenceDNASequence instances to their DB_IDs
+     * @throws Exception Thrown if the instances can't be fetched
+     */
+    @SuppressWarnings("unchecked")
+    public void preload(Map<String, Long> identifierToDbId) throws Exception {
+        List<Long> ensEMBLGeneDbIds = new ArrayList<>();
+        for (Map.Entry<String, Long> identifierAndDbId : identifierToDbId.entrySet()) {
+            if (getEnsEMBLGeneNumber(identifierAndDbId.getKey()) >= 0) {
+                ensEMBLGeneDbIds.add(identifierAndDbId.getValue());
+            } else {
+                this.otherIdentifierToDbId.put(identifierAndDbId.getKey(), identifierAndDbId.getValue());
+            }
+        }
+
+        for (List<Long> dbIdChunk : chunk(ensEMBLGeneDbIds, BulkQueries.DEFAULT_CHUNK_SIZE)) {
+            DatabaseCallEvent databaseCallEvent =
+                DatabaseCallEvent.start("fetchInstances", ReactomeJavaConstants.ReferenceDNASequence);
+            Collection<GKInstance> instances =
+                this.dba.fetchInstances(ReactomeJavaConstants.ReferenceDNASequence, dbIdChunk);
+            databaseCallEvent.end(instances.size());
+            loadAttributeValues(this.dba, instances, ReactomeJavaConstants.identifier,
+                ReactomeJavaConstants.referenceDatabase, ReactomeJavaConstants.geneName, ReactomeJavaConstants.species);
+            for (GKInstance instance : instances) {
+                put((String) instance.getAttributeValue(ReactomeJavaConstants.identifier), instance);
+            }
+        }
+    }
+
+    /**
+     * @param identifier ReferenceDNASequence identifier (e.g. ENSG00000141510)
+     * @return ReferenceDNASequence with the identifier or null if there is none
+     * @throws Exception Thrown if a ReferenceDNASequence which wasn't preloaded can't be fetched
+     */
+    public GKInstance get(String identifier) throws Exception {
+        long ensEMBLGeneNumber = getEnsEMBLGeneNumber(identifier);
+        if (ensEMBLGeneNumber >= 0) {
+            return this.ensEMBLGeneNumberToInstance.get(ensEMBLGeneNumber);
+        }
+
+        GKInstance instance = this.otherIdentifierToInstance.get(identifier);
+        Long dbId = this.otherIdentifierToDbId.get(identifier);
+        if (instance == null && dbId != null) {
+            DatabaseCallEvent databaseCallEvent =
+                DatabaseCallEvent.start("fetchInstance", ReactomeJavaConstants.ReferenceDNASequence);
+            instance = this.dba.fetchInstance(ReactomeJavaConstants.ReferenceDNASequence, dbId);
+            databaseCallEvent.end(instance != null ? 1 : 0);
+            if (instance != null) {
+                this.otherIdentifierToInstance.put(identifier, instance);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Applies the reference database, gene names, species and identifier to an existing ReferenceDNASequence in
+     * memory.  If any differ, the display name is regenerated, the instance edit is added as modified and the
+     * changed attributes are written on the next {@link #flush()}.
+     *
+     * @param referenceDNASequence Existing ReferenceDNASequence
+     * @param identifier EnsEMBL gene identifier
+     * @param geneNames Gene names from the SwissProt entry
+     * @param speciesInstance Species of the SwissProt entry
+     * @return <code>true</code> if the ReferenceDNASequence was changed;<code>false</code> otherwise
+     * @throws Exception Thrown if the attribute values can't be retrieved or set
+     */
+    public boolean update(GKInstance referenceDNASequence, String identifier, List<String> geneNames,
+                          GKInstance speciesInstance) throws Exception {
+
+        DirtyAttributes dirtyAttributes = new DirtyAttributes(referenceDNASequence);
+
+        GKInstance existingReferenceDatabase =
+            (GKInstance) referenceDNASequence.getAttributeValue(ReactomeJavaConstants.referenceDatabase);
+        if (existingReferenceDatabase == null ||
+            !existingReferenceDatabase.getDBID().equals(this.ensEMBLGeneReferenceDatabase.getDBID())) {
+            referenceDNASequence.setAttributeValue(
+                ReactomeJavaConstants.referenceDatabase, this.ensEMBLGeneReferenceDatabase);
+            dirtyAttributes.mark(ReactomeJavaConstants.referenceDatabase);
+        }
+
+        List<?> existingGeneNames = referenceDNASequence.getAttributeValuesList(ReactomeJavaConstants.geneName);
+        if (existingGeneNames == null || !existingGeneNames.equals(geneNames)) {
+            referenceDNASequence.setAttributeValue(ReactomeJavaConstants.geneName, geneNames);
+            dirtyAttributes.mark(ReactomeJavaConstants.geneName);
+        }
+
+        GKInstance existingSpeciesInstance =
+            (GKInstance) referenceDNASequence.getAttributeValue(ReactomeJavaConstants.species);
+        if (existingSpeciesInstance == null ||
+            (speciesInstance != null && !existingSpeciesInstance.getDBID().equals(speciesInstance.getDBID()))) {
+            referenceDNASequence.setAttributeValue(ReactomeJavaConstants.species, speciesInstance);
+            dirtyAttributes.mark(ReactomeJavaConstants.species);
+        }
+
+        String existingIdentifier = (String) referenceDNASequence.getAttributeValue(ReactomeJavaConstants.identifier);
+        if (!identifier.equals(existingIdentifier)) {
+            referenceDNASequence.setAttributeValue(ReactomeJavaConstants.identifier, identifier);
+            dirtyAttributes.mark(ReactomeJavaConstants.identifier);
+        }
+
+        if (dirtyAttributes.isEmpty()) {
+            return false;
+        }
+
+        InstanceDisplayNameGenerator.setDisplayName(referenceDNASequence);
+        dirtyAttributes.mark(ReactomeJavaConstants._displayName);
+        if (!hasModifiedInstanceEdit(referenceDNASequence)) {
+            referenceDNASequence.addAttributeValue(ReactomeJavaConstants.modified, this.instanceEdit);
+        }
+        dirtyAttributes.mark(ReactomeJavaConstants.modified);
+
+        this.uncommittedUpdatedInstances.put(referenceDNASequence.getDBID(), referenceDNASequence);
+        DirtyAttributes pendingUpdate = this.pendingUpdates.get(referenceDNASequence.getDBID());
+        if (pendingUpdate == null) {
+            this.pendingUpdates.put(referenceDNASequence.getDBID(), dirtyAttributes);
+        } else {
+            for (String attributeName : dirtyAttributes.getAttributeNames()) {
+                pendingUpdate.mark(attributeName);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates and stores a ReferenceDNASequence for an EnsEMBL gene.
+     *
+     * @param identifier EnsEMBL gene identifier
+     * @param geneNames Gene names from the SwissProt entry
+     * @param speciesInstance Species of the SwissProt entry
+     * @return Stored ReferenceDNASequence
+     * @throws Exception Thrown if the instance can't be created or stored
+     */
+    public GKInstance create(String identifier, List<String> geneNames, GKInstance speciesInstance)
+        throws Exception {
+
+        GKInstance referenceDNASequence = new GKInstance(
+            this.dba.getSchema().getClassByName(ReactomeJavaConstants.ReferenceDNASequence));
+        referenceDNASequence.setDbAdaptor(this.dba);
+        referenceDNASequence.setAttributeValue(
+            ReactomeJavaConstants.referenceDatabase, this.ensEMBLGeneReferenceDatabase);
+        referenceDNASequence.setAttributeValue(ReactomeJavaConstants.identifier, identifier);
+        referenceDNASequence.setAttributeValue(ReactomeJavaConstants.created, this.instanceEdit);
+        referenceDNASequence.setAttributeValue(ReactomeJavaConstants.geneName, geneNames);
+        referenceDNASequence.setAttributeValue(ReactomeJavaConstants.species, speciesInstance);
+        InstanceDisplayNameGenerator.setDisplayName(referenceDNASequence);
+
+        DatabaseCallEvent databaseCallEvent =
+            DatabaseCallEvent.start("storeInstance", ReactomeJavaConstants.ReferenceDNASequence);
+        this.dba.storeInstance(referenceDNASequence);
+        databaseCallEvent.end(1);
+        put(identifier, referenceDNASequence);
+        this.uncommittedCreatedIdentifiers.add(identifier);
+        return referenceDNASequence;
+    }
+
+    /**
+     * Writes the changed attributes of the ReferenceDNASequence instances updated since the last flush.
+     *
+     * @return Number of ReferenceDNASequence instances written
+     * @throws Exception Thrown if an instance can't be written
+     */
+    public int flush() throws Exception {
+        for (DirtyAttributes pendingUpdate : this.pendingUpdates.values()) {
+            pendingUpdate.write(this.dba);
+        }
+        int numberOfUpdates = this.pendingUpdates.size();
+        this.pendingUpdates.clear();
+        return numberOfUpdates;
+    }
+
+    /**
+     * Records that the changes since the last commit have been committed.
+     */
+    public void markCommitted() {
+        this.uncommittedCreatedIdentifiers.clear();
+        this.uncommittedUpdatedInstances.clear();
+    }
+
+    /**
+     * Reverts the in-memory state to the last commit after the transaction is rolled back: instances created since
+     * are forgotten, instances updated since are reloaded from the database and pending updates are discarded.
+     *
+     * @throws Exception Thrown if the updated instances can't be reloaded
+     */
+    public void rollback() throws Exception {
+        for (String identifier : this.uncommittedCreatedIdentifiers) {
+            long ensEMBLGeneNumber = getEnsEMBLGeneNumber(identifier);
+            if (ensEMBLGeneNumber >= 0) {
+                this.ensEMBLGeneNumberToInstance.remove(ensEMBLGeneNumber);
+            } else {
+                this.otherIdentifierToInstance.remove(identifier);
+            }
+        }
+        for (GKInstance updatedInstance : this.uncommittedUpdatedInstances.values()) {
+            this.dba.loadInstanceAttributeValues(updatedInstance);
+        }
+        this.pendingUpdates.clear();
+        markCommitted();
+    }
+
+    /**
+     * @return Number of ReferenceDNASequences with changes waiting for the next {@link #flush()}
+     */
+    public int getNumberOfPendingUpdates() {
+        return this.pendingUpdates.size();
+    }
+
+    public int size() {
+        Set<String> otherIdentifiers = new HashSet<>(this.otherIdentifierToDbId.keySet());
+        otherIdentifiers.addAll(this.otherIdentifierToInstance.keySet());
+        return this.ensEMBLGeneNumberToInstance.size() + otherIdentifiers.size();
+    }
+
+    private void put(String identifier, GKInstance referenceDNASequence) {
+        long ensEMBLGeneNumber = getEnsEMBLGeneNumber(identifier);
+        if (ensEMBLGeneNumber >= 0) {
+            this.ensEMBLGeneNumberToInstance.put(ensEMBLGeneNumber, referenceDNASequence);
+        } else {
+            this.otherIdentifierToInstance.put(identifier, referenceDNASequence);
+        }
+    }
+
+    private boolean hasModifiedInstanceEdit(GKInstance referenceDNASequence) throws Exception {
+        for (Object modifiedInstanceEdit :
+            referenceDNASequence.getAttributeValuesList(ReactomeJavaConstants.modified)) {
+            if (Objects.equals(((GKInstance) modifiedInstanceEdit).getDBID(), this.instanceEdit.getDBID())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of an EnsEMBL gene identifier (e.g. 141510 for ENSG00000141510).  Only identifiers of "ENSG"
+     * followed by eleven digits have a number, so each number maps back to exactly one identifier.
+     *
+     * @param identifier ReferenceDNASequence identifier
+     * @return Number of the EnsEMBL gene identifier or -1 if the identifier isn't of that form
+     */
+    static long getEnsEMBLGeneNumber(String identifier) {
+        int digitCount = identifier.length() - ENSEMBL_GENE_PREFIX.length();
+        if (digitCount != ENSEMBL_GENE_NUMBER_DIGITS || !identifier.startsWith(ENSEMBL_GENE_PREFIX)) {
+            return -1;
+        }
+
+        long ensEMBLGeneNumber = 0;
+        for (int i = ENSEMBL_GENE_PREFIX.length(); i < identifier.length(); i++) {
+            char currentChar = identifier.charAt(i);
+            if (currentChar < '0' || currentChar > '9') {
+                return -1;
+            }
+            ensEMBLGeneNumber = ensEMBLGeneNumber * 10 + (currentChar - '0');
+        }
+        return ensEMBLGeneNumber;
+    }
+}
@@ -0,0 +1,203 @@
+package org.reactome.release.db;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data loaded at start-up (the accession and identifier to DB_ID lookup tables and the DB_IDs of the Species and
+ * ReferenceDatabase instances used by the update), tagged with the {@link DatabaseWatermark} of the database it was
+ * loaded from.  It is saved to a local binary file after a full load so a following run against an unchanged
+ * database can memory-map the file and read the data from it instead of querying the database.
+ *
+ * The file holds a magic number and format version, the watermark and then each table as a count followed by its
+ * entries.  Strings are written as their UTF-8 length and bytes.
+ */
+public class StartupSnapshot {
+    private static final int MAGIC_NUMBER = 0x55505353;
+    private static final int FORMAT_VERSION = 1;
+
+    private final DatabaseWatermark databaseWatermark;
+    private final Map<String, Long> rgpAccessionToDbId;
+    private final Map<String, Long> isoformAccessionToDbId;
+    private final Map<String, Long> referenceDNASequenceIdentifierToDbId;
+    private final Map<String, Long> speciesNameToDbId;
+    private final Map<String, Long> referenceDatabaseNameToDbId;
+
+    public StartupSnapshot(DatabaseWatermark databaseWatermark, Map<String, Long> rgpAccessionToDbId,
+                           Map<String, Long> isoformAccessionToDbId,
+                           Map<String, Long> referenceDNASequenceIdentifierToDbId,
+                           Map<String, Long> speciesNameToDbId, Map<String, Long> referenceDatabaseNameToDbId) {
+        this.databaseWatermark = databaseWatermark;
+        this.rgpAccessionToDbId = rgpAccessionToDbId;
+        this.isoformAccessionToDbId = isoformAccessionToDbId;
+        this.referenceDNASequenceIdentifierToDbId = referenceDNASequenceIdentifierToDbId;
+        this.speciesNameToDbId = speciesNameToDbId;
+        this.referenceDatabaseNameToDbId = referenceDatabaseNameToDbId;
+    }
+
+    /**
+     * Reads the snapshot in the file if it was taken from a database with the watermark.
+     *
+     * @param snapshotFilePath Path of the snapshot file
+     * @param currentWatermark Watermark of the database now
+     * @return Snapshot or null if there is no snapshot file, it can't be read or its watermark doesn't match
+     */
+    public static StartupSnapshot readIfCurrent(Path snapshotFilePath, DatabaseWatermark currentWatermark) {
+        if (!Files.isRegularFile(snapshotFilePath)) {
+            System.out.println("No start-up snapshot at " + snapshotFilePath);
+            return null;
+        }
+
+        StartupSnapshot startupSnapshot;
+        try {
+            startupSnapshot = read(snapshotFilePath);
+        } catch (IOException | BufferUnderflowException e) {
+            System.out.println("Unable to read start-up snapshot " + snapshotFilePath + ": " + e);
+            return null;
+        }
+
+        if (!startupSnapshot.getDatabaseWatermark().equals(currentWatermark)) {
+            System.out.println("Start-up snapshot " + snapshotFilePath + " is out of date (snapshot watermark " +
+                startupSnapshot.getDatabaseWatermark() + ", database watermark " + currentWatermark + ")");
+            return null;
+        }
+        return startupSnapshot;
+    }
+
+    /**
+     * @param snapshotFilePath Path of the snapshot file
+     * @return Snapshot in the file
+     * @throws IOException Thrown if the file can't be read or isn't a snapshot in the current format
+     */
+    public static StartupSnapshot read(Path snapshotFilePath) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(snapshotFilePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+
+            if (buffer.getInt() != MAGIC_NUMBER) {
+                throw new IOException(snapshotFilePath + " is not a start-up snapshot");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported start-up snapshot format version " + formatVersion);
+            }
+
+            Map<String, DatabaseWatermark.ClassWatermark> classNameToWatermark = new LinkedHashMap<>();
+            int numberOfClasses = buffer.getInt();
+            for (int i = 0; i < numberOfClasses; i++) {
+                String className = readString(buffer);
+                classNameToWatermark.put(className,
+                    new DatabaseWatermark.ClassWatermark(buffer.getLong(), buffer.getLong()));
+            }
+
+            return new StartupSnapshot(
+                new DatabaseWatermark(classNameToWatermark),
+                readTable(buffer),
+                readTable(buffer),
+                readTable(buffer),
+                readTable(buffer),
+                readTable(buffer)
+            );
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file which then replaces the snapshot file, so an interrupted write
+     * doesn't leave a partial snapshot.
+     *
+     * @param snapshotFilePath Path of the snapshot file
+     * @throws IOException Thrown if the file can't be written
+     */
+    public void write(Path snapshotFilePath) throws IOException {
+        Path temporaryFilePath = snapshotFilePath.resolveSibling(snapshotFilePath.getFileName() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temporaryFilePath), 1 << 16))) {
+
+            outputStream.writeInt(MAGIC_NUMBER);
+            outputStream.writeInt(FORMAT_VERSION);
+
+            Map<String, DatabaseWatermark.ClassWatermark> classNameToWatermark =
+                getDatabaseWatermark().getClassNameToWatermark();
+            outputStream.writeInt(classNameToWatermark.size());
+            for (Map.Entry<String, DatabaseWatermark.ClassWatermark> classWatermark :
+                classNameToWatermark.entrySet()) {
+                writeString(outputStream, classWatermark.getKey());
+                outputStream.writeLong(classWatermark.getValue().getMaxDbId());
+                outputStream.writeLong(classWatermark.getValue().getCount());
+            }
+
+            writeTable(outputStream, getRGPAccessionToDbId());
+            writeTable(outputStream, getIsoformAccessionToDbId());
+            writeTable(outputStream, getReferenceDNASequenceIdentifierToDbId());
+            writeTable(outputStream, getSpeciesNameToDbId());
+            writeTable(outputStream, getReferenceDatabaseNameToDbId());
+        }
+        Files.move(temporaryFilePath, snapshotFilePath,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public DatabaseWatermark getDatabaseWatermark() {
+        return this.databaseWatermark;
+    }
+
+    public Map<String, Long> getRGPAccessionToDbId() {
+        return this.rgpAccessionToDbId;
+    }
+
+    public Map<String, Long> getIsoformAccessionToDbId() {
+        return this.isoformAccessionToDbId;
+    }
+
+    public Map<String, Long> getReferenceDNASequenceIdentifierToDbId() {
+        return this.referenceDNASequenceIdentifierToDbId;
+    }
+
+    public Map<String, Long> getSpeciesNameToDbId() {
+        return this.speciesNameToDbId;
+    }
+
+    public Map<String, Long> getReferenceDatabaseNameToDbId() {
+        return this.referenceDatabaseNameToDbId;
+    }
+
+    private static void writeTable(DataOutputStream outputStream, Map<String, Long> table) throws IOException {
+        outputStream.writeInt(table.size());
+        for (Map.Entry<String, Long> entry : table.entrySet()) {
+            writeString(outputStream, entry.getKey());
+            outputStream.writeLong(entry.getValue());
+        }
+    }
+
+    private static Map<String, Long> readTable(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        Map<String, Long> table = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int i = 0; i < size; i++) {
+            table.put(readString(buffer), buffer.getLong());
+        }
+        return table;
+    }
+
+    private static void writeString(DataOutputStream outputStream, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
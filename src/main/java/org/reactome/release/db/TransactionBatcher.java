@@ -0,0 +1,325 @@
+package org.reactome.release.db;
+
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.profiling.CommitEvent;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processes items (e.g. SwissProt entries) in transactions of a batch of items each, adapting the number of items
+ * per batch to how long commits take and how much time the server spends waiting for row locks.  Batches grow
+ * while commits are fast and shrink when commits or lock waits exceed the target commit time, within the configured
+ * bounds.
+ *
+ * The items of the current batch are kept until it is committed.  If processing or committing the batch fails with
+ * a deadlock, lock wait timeout or other transient SQL error, the transaction is rolled back, the processor reverts
+ * its in-memory state ({@link BatchProcessor#afterRollback()}) and the items of the batch are processed again, up to
+ * the configured number of retries.  Other failures roll the batch back and end the run.
+ */
+public class TransactionBatcher {
+    public static final int DEFAULT_MIN_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 5000;
+    public static final int DEFAULT_INITIAL_BATCH_SIZE = 1000;
+    public static final long DEFAULT_TARGET_COMMIT_MILLIS = 500L;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 1_000L;
+    private static final int MYSQL_DEADLOCK_ERROR_CODE = 1213;
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT_ERROR_CODE = 1205;
+    private static final String ROW_LOCK_TIME_SQL = "SHOW GLOBAL STATUS LIKE 'Innodb_row_lock_time'";
+
+    private final MySQLAdaptor dba;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetCommitMillis;
+    private final int maxRetries;
+    private long retryBackoffMillis = DEFAULT_RETRY_BACKOFF_MILLIS;
+
+    private int batchSize;
+    private long rowLockTimeAtBatchStart;
+    // Read by monitoring threads
+    private volatile int pendingBatchSize;
+    private volatile long numberOfCommittedItems;
+    private volatile long lastCommitMillis = System.currentTimeMillis();
+
+    private int numberOfCommits;
+    private long totalCommitNanos;
+    private long maxCommitNanos;
+    private int numberOfRetries;
+
+    public TransactionBatcher(MySQLAdaptor dba) {
+        this(dba, DEFAULT_MIN_BATCH_SIZE, DEFAULT_MAX_BATCH_SIZE, DEFAULT_INITIAL_BATCH_SIZE,
+            DEFAULT_TARGET_COMMIT_MILLIS, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * @param dba MySQLAdaptor of the transactions
+     * @param minBatchSize Smallest number of items per batch
+     * @param maxBatchSize Largest number of items per batch
+     * @param initialBatchSize Number of items in the first batch
+     * @param targetCommitMillis Commit time (and row lock wait time per batch) above which batches shrink
+     * @param maxRetries Number of times a batch is retried after a transient failure
+     */
+    public TransactionBatcher(MySQLAdaptor dba, int minBatchSize, int maxBatchSize, int initialBatchSize,
+                              long targetCommitMillis, int maxRetries) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException(
+                "Invalid batch size bounds: min " + minBatchSize + ", max " + maxBatchSize);
+        }
+
+        this.dba = dba;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, initialBatchSize));
+        this.targetCommitMillis = targetCommitMillis;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Processes all items of the source in batched transactions.  The last batch is committed and a new transaction
+     * is started for whatever follows.
+     *
+     * @param itemSource Source of the items
+     * @param batchProcessor Processor of the items
+     * @param <T> Type of the items
+     * @return Number of items processed
+     * @throws Exception Thrown if an item can't be read or processed or a batch can't be committed
+     */
+    public <T> int run(ItemSource<T> itemSource, BatchProcessor<T> batchProcessor) throws Exception {
+        int numberOfItems = 0;
+        List<T> batch = new ArrayList<>();
+
+        startBatch();
+        T item;
+        while ((item = itemSource.next()) != null) {
+            batch.add(item);
+            this.pendingBatchSize = batch.size();
+            try {
+                batchProcessor.process(item);
+            } catch (Exception e) {
+                retry(batch, batchProcessor, e, false);
+            }
+            numberOfItems += 1;
+
+            if (batch.size() >= this.batchSize) {
+                commit(batch, batchProcessor);
+                batch.clear();
+                this.pendingBatchSize = 0;
+                System.out.println(String.format("%d records processed and committed", numberOfItems));
+            }
+        }
+        commit(batch, batchProcessor);
+        this.pendingBatchSize = 0;
+
+        return numberOfItems;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * @return Number of items processed in the current, uncommitted batch
+     */
+    public int getPendingBatchSize() {
+        return this.pendingBatchSize;
+    }
+
+    /**
+     * @return Number of items whose batches have been committed
+     */
+    public long getNumberOfCommittedItems() {
+        return this.numberOfCommittedItems;
+    }
+
+    /**
+     * @return Time of the last commit (or of the creation of the batcher), in milliseconds since the epoch
+     */
+    public long getLastCommitMillis() {
+        return this.lastCommitMillis;
+    }
+
+    public int getNumberOfCommits() {
+        return this.numberOfCommits;
+    }
+
+    public int getNumberOfRetries() {
+        return this.numberOfRetries;
+    }
+
+    /**
+     * @return Mean commit time in milliseconds
+     */
+    public double getMeanCommitMillis() {
+        return this.numberOfCommits > 0 ? this.totalCommitNanos / 1_000_000.0 / this.numberOfCommits : 0.0;
+    }
+
+    public long getMaxCommitMillis() {
+        return this.maxCommitNanos / 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d commits (mean %.1f ms, max %d ms), %d batch retries, final batch size %d",
+            this.numberOfCommits, getMeanCommitMillis(), getMaxCommitMillis(), this.numberOfRetries, this.batchSize);
+    }
+
+    void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    static boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (sqlException.getErrorCode() == MYSQL_DEADLOCK_ERROR_CODE ||
+                    sqlException.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT_ERROR_CODE ||
+                    "40001".equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    int adaptBatchSize(long commitMillis, long rowLockWaitMillis) {
+        if (commitMillis > this.targetCommitMillis || rowLockWaitMillis > this.targetCommitMillis) {
+            this.batchSize = Math.max(this.minBatchSize, this.batchSize * 3 / 4);
+        } else if (commitMillis < this.targetCommitMillis / 2 && rowLockWaitMillis < this.targetCommitMillis / 2) {
+            this.batchSize = Math.min(this.maxBatchSize, this.batchSize + Math.max(1, this.batchSize / 4));
+        }
+        return this.batchSize;
+    }
+
+    private <T> void commit(List<T> batch, BatchProcessor<T> batchProcessor) throws Exception {
+        try {
+            commitBatch(batchProcessor, batch.size(), false);
+        } catch (Exception e) {
+            retry(batch, batchProcessor, e, true);
+        }
+    }
+
+    private <T> void retry(List<T> batch, BatchProcessor<T> batchProcessor, Exception failure, boolean commit)
+        throws Exception {
+
+        for (int attempt = 1; ; attempt++) {
+            rollback(batchProcessor);
+            if (!isTransient(failure) || attempt > this.maxRetries) {
+                throw failure;
+            }
+
+            this.numberOfRetries += 1;
+            this.batchSize = Math.max(this.minBatchSize, this.batchSize / 2);
+            System.out.println(String.format("Transient failure (%s) - retrying batch of %d records (attempt %d of %d)",
+                failure, batch.size(), attempt, this.maxRetries));
+            Thread.sleep(this.retryBackoffMillis * attempt);
+
+            startBatch();
+            try {
+                for (T item : batch) {
+                    batchProcessor.process(item);
+                }
+                if (commit) {
+                    commitBatch(batchProcessor, batch.size(), true);
+                }
+                return;
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+    }
+
+    private void commitBatch(BatchProcessor<?> batchProcessor, int numberOfItems, boolean retry) throws Exception {
+        batchProcessor.beforeCommit();
+        CommitEvent commitEvent = new CommitEvent();
+        commitEvent.begin();
+        long commitStart = System.nanoTime();
+        this.dba.commit();
+        long commitNanos = System.nanoTime() - commitStart;
+        commitEvent.batchSize = numberOfItems;
+        commitEvent.retry = retry;
+        commitEvent.commit();
+        batchProcessor.afterCommit();
+
+        this.numberOfCommits += 1;
+        this.numberOfCommittedItems += numberOfItems;
+        this.lastCommitMillis = System.currentTimeMillis();
+        this.totalCommitNanos += commitNanos;
+        this.maxCommitNanos = Math.max(this.maxCommitNanos, commitNanos);
+        long rowLockTime = readRowLockTime();
+        adaptBatchSize(commitNanos / 1_000_000L,
+            rowLockTime >= 0 && this.rowLockTimeAtBatchStart >= 0 ? rowLockTime - this.rowLockTimeAtBatchStart : 0);
+
+        startBatch();
+    }
+
+    private void startBatch() throws Exception {
+        this.dba.startTransaction();
+        this.rowLockTimeAtBatchStart = readRowLockTime();
+    }
+
+    private void rollback(BatchProcessor<?> batchProcessor) throws Exception {
+        try {
+            this.dba.rollback();
+        } catch (SQLException e) {
+            System.out.println("Rollback failed: " + e);
+        }
+        batchProcessor.afterRollback();
+    }
+
+    // Total time (in ms) the server has spent waiting for row locks, or -1 if it can't be read
+    private long readRowLockTime() {
+        try (Statement statement = this.dba.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(ROW_LOCK_TIME_SQL)) {
+            return resultSet.next() ? Long.parseLong(resultSet.getString(2)) : -1L;
+        } catch (SQLException | NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Source of the items to process.
+     *
+     * @param <T> Type of the items
+     */
+    public interface ItemSource<T> {
+        /**
+         * @return Next item or null if there are no more items
+         * @throws Exception Thrown if the item can't be read
+         */
+        T next() throws Exception;
+    }
+
+    /**
+     * Processes the items of a batch and keeps its in-memory state in step with the transaction of the batch.
+     *
+     * @param <T> Type of the items
+     */
+    public interface BatchProcessor<T> {
+        void process(T item) throws Exception;
+
+        /**
+         * Writes any changes of the batch still held in memory (called before the batch is committed).
+         *
+         * @throws Exception Thrown if the changes can't be written
+         */
+        void beforeCommit() throws Exception;
+
+        void afterCommit() throws Exception;
+
+        /**
+         * Reverts the in-memory state changed by the items processed since the last commit.
+         *
+         * @throws Exception Thrown if the state can't be reverted
+         */
+        void afterRollback() throws Exception;
+    }
+}
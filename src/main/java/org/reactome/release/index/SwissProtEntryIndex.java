@@ -0,0 +1,222 @@
+package org.reactome.release.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped, binary-searchable index of the entries in the SwissProt XML file.  Each record of the index holds
+ * a primary or secondary UniProt accession with the byte offset and length of the entry in which it appears, so an
+ * entry can be read directly from the SwissProt file without scanning it.
+ *
+ * The index file consists of a header (magic number, size and last modified time of the indexed SwissProt file and
+ * record count) followed by fixed length records sorted by accession.
+ */
+public class SwissProtEntryIndex implements Closeable {
+    public static final String INDEX_FILE_NAME = "uniprot_sprot.idx";
+
+    static final long MAGIC_NUMBER = 0x5550494458303031L; // "UPIDX001"
+    static final int ACCESSION_LENGTH = 12;
+    static final int RECORD_LENGTH = ACCESSION_LENGTH + Long.BYTES + Integer.BYTES;
+    static final int HEADER_LENGTH = Long.BYTES * 3 + Integer.BYTES;
+
+    private final Path swissProtFilePath;
+    private final FileChannel swissProtFileChannel;
+    private final MappedByteBuffer indexBuffer;
+    private final int recordCount;
+
+    private SwissProtEntryIndex(Path swissProtFilePath, MappedByteBuffer indexBuffer) throws IOException {
+        this.swissProtFilePath = swissProtFilePath;
+        this.swissProtFileChannel = FileChannel.open(swissProtFilePath, StandardOpenOption.READ);
+        this.indexBuffer = indexBuffer;
+        this.recordCount = indexBuffer.getInt(Long.BYTES * 3);
+    }
+
+    /**
+     * Opens the index for the SwissProt file, building (or re-building) it first if the index file does not exist
+     * or was built from a different version of the SwissProt file.
+     *
+     * @param swissProtFilePath Path to the uncompressed SwissProt XML file
+     * @return Index of the entries in the SwissProt file
+     * @throws IOException Thrown if the index can't be built or read
+     */
+    public static SwissProtEntryIndex openOrBuild(Path swissProtFilePath) throws IOException {
+        Path indexFilePath = getIndexFilePath(swissProtFilePath);
+        if (!isCurrent(indexFilePath, swissProtFilePath)) {
+            System.out.println("Building accession offset index " + indexFilePath + " for " + swissProtFilePath);
+            int recordCount = SwissProtEntryIndexBuilder.build(swissProtFilePath, indexFilePath);
+            System.out.println("Indexed " + recordCount + " accessions");
+        }
+        return open(indexFilePath, swissProtFilePath);
+    }
+
+    /**
+     * Opens an existing index file for the SwissProt file.
+     *
+     * @param indexFilePath Path to the index file
+     * @param swissProtFilePath Path to the uncompressed SwissProt XML file which was indexed
+     * @return Index of the entries in the SwissProt file
+     * @throws IOException Thrown if the index file can't be read or is not an index file
+     */
+    public static SwissProtEntryIndex open(Path indexFilePath, Path swissProtFilePath) throws IOException {
+        try (FileChannel indexFileChannel = FileChannel.open(indexFilePath, StandardOpenOption.READ)) {
+            MappedByteBuffer indexBuffer =
+                indexFileChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexFileChannel.size());
+            if (indexBuffer.capacity() < HEADER_LENGTH || indexBuffer.getLong(0) != MAGIC_NUMBER) {
+                throw new IOException(indexFilePath + " is not a SwissProt entry index file");
+            }
+            return new SwissProtEntryIndex(swissProtFilePath, indexBuffer);
+        }
+    }
+
+    public static Path getIndexFilePath(Path swissProtFilePath) {
+        return swissProtFilePath.resolveSibling(INDEX_FILE_NAME);
+    }
+
+    /**
+     * Finds the location of the entry in the SwissProt file with the accession as either its primary or one of its
+     * secondary accessions.
+     *
+     * @param accession UniProt accession to find
+     * @return Location of the entry or <code>null</code> if no entry has the accession
+     */
+    public EntryLocation find(String accession) {
+        byte[] accessionKey = toAccessionKey(accession);
+        if (accessionKey == null) {
+            return null;
+        }
+
+        int low = 0;
+        int high = this.recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareAccessionKey(middle, accessionKey);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                int recordPosition = getRecordPosition(middle) + ACCESSION_LENGTH;
+                return new EntryLocation(
+                    this.indexBuffer.getLong(recordPosition),
+                    this.indexBuffer.getInt(recordPosition + Long.BYTES)
+                );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the entry at the location from the SwissProt file.  As with reading the file line by line, line
+     * terminators are dropped so the entry text is the same as when processing the full file.
+     *
+     * @param entryLocation Location of the entry, as returned by {@link #find(String)}
+     * @return Entry text
+     * @throws IOException Thrown if the SwissProt file can't be read
+     */
+    public String readEntry(EntryLocation entryLocation) throws IOException {
+        ByteBuffer entryBuffer = ByteBuffer.allocate(entryLocation.getLength());
+        long position = entryLocation.getOffset();
+        while (entryBuffer.hasRemaining()) {
+            int bytesRead = this.swissProtFileChannel.read(entryBuffer, position);
+            if (bytesRead < 0) {
+                throw new IOException("Unexpected end of " + this.swissProtFilePath + " reading entry at " +
+                    entryLocation.getOffset() + " - index may be out of date");
+            }
+            position += bytesRead;
+        }
+
+        byte[] entryBytes = entryBuffer.array();
+        int entryLength = 0;
+        for (byte entryByte : entryBytes) {
+            if (entryByte != '\n' && entryByte != '\r') {
+                entryBytes[entryLength++] = entryByte;
+            }
+        }
+        return new String(entryBytes, 0, entryLength, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return this.recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.swissProtFileChannel.close();
+    }
+
+    static boolean isCurrent(Path indexFilePath, Path swissProtFilePath) throws IOException {
+        if (!Files.exists(indexFilePath) || Files.size(indexFilePath) < HEADER_LENGTH) {
+            return false;
+        }
+
+        try (FileChannel indexFileChannel = FileChannel.open(indexFilePath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining()) {
+                if (indexFileChannel.read(header) < 0) {
+                    return false;
+                }
+            }
+            header.flip();
+            return header.getLong() == MAGIC_NUMBER &&
+                header.getLong() == Files.size(swissProtFilePath) &&
+                header.getLong() == Files.getLastModifiedTime(swissProtFilePath).toMillis();
+        }
+    }
+
+    static byte[] toAccessionKey(String accession) {
+        byte[] accessionBytes = accession.getBytes(StandardCharsets.US_ASCII);
+        if (accessionBytes.length > ACCESSION_LENGTH) {
+            return null;
+        }
+
+        byte[] accessionKey = new byte[ACCESSION_LENGTH];
+        System.arraycopy(accessionBytes, 0, accessionKey, 0, accessionBytes.length);
+        return accessionKey;
+    }
+
+    private int compareAccessionKey(int recordIndex, byte[] accessionKey) {
+        int recordPosition = getRecordPosition(recordIndex);
+        for (int i = 0; i < ACCESSION_LENGTH; i++) {
+            int comparison = Integer.compare(
+                Byte.toUnsignedInt(this.indexBuffer.get(recordPosition + i)),
+                Byte.toUnsignedInt(accessionKey[i])
+            );
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private int getRecordPosition(int recordIndex) {
+        return HEADER_LENGTH + recordIndex * RECORD_LENGTH;
+    }
+
+    /**
+     * Byte offset and length of an entry in the SwissProt file.
+     */
+    public static class EntryLocation {
+        private final long offset;
+        private final int length;
+
+        public EntryLocation(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public long getOffset() {
+            return this.offset;
+        }
+
+        public int getLength() {
+            return this.length;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.reactome.release.index;
+
+import org.reactome.release.parsing.EntryFramer;
+import org.reactome.release.parsing.EntrySlice;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.reactome.release.index.SwissProtEntryIndex.ACCESSION_LENGTH;
+import static org.reactome.release.index.SwissProtEntryIndex.HEADER_LENGTH;
+import static org.reactome.release.index.SwissProtEntryIndex.MAGIC_NUMBER;
+import static org.reactome.release.index.SwissProtEntryIndex.RECORD_LENGTH;
+
+/**
+ * Builds the accession offset index ({@link SwissProtEntryIndex}) of a SwissProt XML file by recording, for every
+ * entry, its primary and secondary accessions with the byte offset and length of the entry.
+ *
+ * Entries are framed by {@link EntryFramer}, so the offset and length of an entry span from the start of the line
+ * with its opening <code>&lt;entry</code> tag to the end of the line with its closing tag.
+ */
+public class SwissProtEntryIndexBuilder {
+    private static final byte[] ACCESSION_START_TAG = "<accession>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ACCESSION_END_TAG = "</accession>".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<IndexRecord> indexRecords = new ArrayList<>();
+
+    private SwissProtEntryIndexBuilder() {}
+
+    /**
+     * Builds the index of the SwissProt file and writes it to the index file path.
+     *
+     * @param swissProtFilePath Path to the uncompressed SwissProt XML file
+     * @param indexFilePath Path to which to write the index
+     * @return Number of accessions indexed
+     * @throws IOException Thrown if the SwissProt file can't be read or the index file can't be written
+     */
+    public static int build(Path swissProtFilePath, Path indexFilePath) throws IOException {
+        SwissProtEntryIndexBuilder swissProtEntryIndexBuilder = new SwissProtEntryIndexBuilder();
+        swissProtEntryIndexBuilder.scan(swissProtFilePath);
+        swissProtEntryIndexBuilder.write(swissProtFilePath, indexFilePath);
+        return swissProtEntryIndexBuilder.indexRecords.size();
+    }
+
+    private void scan(Path swissProtFilePath) throws IOException {
+        try (EntryFramer entryFramer = new EntryFramer(swissProtFilePath)) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                addEntry(entrySlice);
+            }
+        }
+    }
+
+    private void addEntry(EntrySlice entrySlice) {
+        int accessionStart = entrySlice.indexOf(ACCESSION_START_TAG, 0);
+        while (accessionStart >= 0) {
+            int valueStart = accessionStart + ACCESSION_START_TAG.length;
+            int valueEnd = entrySlice.indexOf(ACCESSION_END_TAG, valueStart);
+            if (valueEnd < 0) {
+                break;
+            }
+
+            String accession = entrySlice.decodeAscii(valueStart, valueEnd);
+            byte[] accessionKey = SwissProtEntryIndex.toAccessionKey(accession);
+            if (accessionKey != null) {
+                this.indexRecords.add(
+                    new IndexRecord(accessionKey, entrySlice.getFileOffset(), entrySlice.length()));
+            } else {
+                System.err.println("Accession " + accession + " is too long to index - skipping");
+            }
+            accessionStart = entrySlice.indexOf(ACCESSION_START_TAG, valueEnd);
+        }
+    }
+
+    private void write(Path swissProtFilePath, Path indexFilePath) throws IOException {
+        this.indexRecords.sort(Comparator.comparing(indexRecord -> indexRecord.accessionKey, Arrays::compareUnsigned));
+
+        Path temporaryIndexFilePath = indexFilePath.resolveSibling(indexFilePath.getFileName() + ".tmp");
+        try (FileChannel indexFileChannel = FileChannel.open(temporaryIndexFilePath,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.putLong(MAGIC_NUMBER);
+            header.putLong(Files.size(swissProtFilePath));
+            header.putLong(Files.getLastModifiedTime(swissProtFilePath).toMillis());
+            header.putInt(this.indexRecords.size());
+            header.flip();
+            writeFully(indexFileChannel, header);
+
+            ByteBuffer records = ByteBuffer.allocate(RECORD_LENGTH * 4096);
+            for (IndexRecord indexRecord : this.indexRecords) {
+                if (records.remaining() < RECORD_LENGTH) {
+                    records.flip();
+                    writeFully(indexFileChannel, records);
+                    records.clear();
+                }
+                records.put(indexRecord.accessionKey, 0, ACCESSION_LENGTH);
+                records.putLong(indexRecord.entryOffset);
+                records.putInt(indexRecord.entryLength);
+            }
+            records.flip();
+            writeFully(indexFileChannel, records);
+        }
+        Files.move(temporaryIndexFilePath, indexFilePath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining()) {
+            fileChannel.write(byteBuffer);
+        }
+    }
+
+    private static class IndexRecord {
+        private final byte[] accessionKey;
+        private final long entryOffset;
+        private final int entryLength;
+
+        IndexRecord(byte[] accessionKey, long entryOffset, int entryLength) {
+            this.accessionKey = accessionKey;
+            this.entryOffset = entryOffset;
+            this.entryLength = entryLength;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.reactome.release.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Levelled log of the update, written asynchronously so the thread processing the entries only queues its messages.
+ * Messages are templates with "{}" placeholders which are filled in with their arguments on the writer thread, so
+ * the arguments must not change after they are logged (e.g. pass a DB_ID or display name rather than an instance).
+ *
+ * Every message is written, with its time and level, to a buffered change log file.  Messages at or above the
+ * console level are also printed to the console, so per-instance detail (logged at DEBUG) can be kept in the change
+ * log while the console only shows progress.  Repetitive warnings are rate-limited on the console: a warning
+ * template is printed at most a configured number of times per minute and the number of warnings suppressed is
+ * reported with the next one printed and in a summary when the log is closed.
+ */
+public class UpdateLog implements AutoCloseable {
+    public static final int DEFAULT_CONSOLE_WARNINGS_PER_MINUTE = 10;
+
+    private static final int QUEUE_CAPACITY = 16_384;
+    private static final long IDLE_FLUSH_MILLIS = 1_000L;
+    private static final long RATE_LIMIT_WINDOW_MILLIS = 60_000L;
+    private static final DateTimeFormatter TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final LogRecord END_OF_LOG = new LogRecord(Level.INFO, "", new Object[0], null);
+
+    private final BlockingQueue<LogRecord> queuedRecords = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BufferedWriter changeLogWriter;
+    private final PrintStream console;
+    private final Level consoleLevel;
+    private final int consoleWarningsPerMinute;
+    private final Thread writerThread;
+
+    // Only used by the writer thread
+    private final Map<String, WarningRate> warningTemplateToRate = new LinkedHashMap<>();
+    private IOException writeFailure;
+
+    /**
+     * Severity of a message.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    /**
+     * @param changeLogFilePath Path of the change log file (replaced if it exists)
+     * @param console Stream for the messages printed to the console
+     * @param consoleLevel Lowest level printed to the console
+     * @param consoleWarningsPerMinute Maximum number of warnings of the same template printed to the console per
+     * minute
+     * @throws IOException Thrown if the change log file can't be created
+     */
+    public UpdateLog(Path changeLogFilePath, PrintStream console, Level consoleLevel, int consoleWarningsPerMinute)
+        throws IOException {
+
+        this.changeLogWriter = Files.newBufferedWriter(changeLogFilePath);
+        this.console = console;
+        this.consoleLevel = consoleLevel;
+        this.consoleWarningsPerMinute = consoleWarningsPerMinute;
+        this.writerThread = new Thread(this::writeRecords, "update-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void debug(String template, Object... args) {
+        log(Level.DEBUG, template, args);
+    }
+
+    public void info(String template, Object... args) {
+        log(Level.INFO, template, args);
+    }
+
+    public void warn(String template, Object... args) {
+        log(Level.WARN, template, args);
+    }
+
+    public void error(String template, Object... args) {
+        log(Level.ERROR, template, args);
+    }
+
+    /**
+     * Queues a message for the writer thread, waiting for space in the queue if the writer has fallen behind.
+     *
+     * @param level Level of the message
+     * @param template Message with a "{}" placeholder for each argument
+     * @param args Arguments of the message
+     */
+    public void log(Level level, String template, Object... args) {
+        enqueue(new LogRecord(level, template, args, null));
+    }
+
+    /**
+     * @return Number of messages waiting to be written
+     */
+    public int getQueueDepth() {
+        return this.queuedRecords.size();
+    }
+
+    /**
+     * Waits until all messages logged so far have been written and flushes the change log.
+     *
+     * @throws IOException Thrown if the messages couldn't be written
+     */
+    public void flush() throws IOException {
+        LogRecord flushRecord = new LogRecord(Level.INFO, "", new Object[0], new CountDownLatch(1));
+        enqueue(flushRecord);
+        try {
+            flushRecord.written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing the update log", e);
+        }
+        throwWriteFailure();
+    }
+
+    /**
+     * Writes the remaining messages and the summary of suppressed warnings, then closes the change log.
+     *
+     * @throws IOException Thrown if the messages or summary couldn't be written or the change log can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        enqueue(END_OF_LOG);
+        try {
+            this.writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the update log", e);
+        }
+        this.changeLogWriter.close();
+        throwWriteFailure();
+    }
+
+    /**
+     * Fills in the "{}" placeholders of the template with the arguments, in order.  Placeholders without an
+     * argument are left as they are and arguments without a placeholder are ignored.
+     *
+     * @param template Message template
+     * @param args Arguments of the template
+     * @return Message
+     */
+    static String format(String template, Object[] args) {
+        if (args.length == 0) {
+            return template;
+        }
+
+        StringBuilder message = new StringBuilder(template.length() + args.length * 16);
+        int argIndex = 0;
+        int start = 0;
+        int placeholderIndex;
+        while (argIndex < args.length && (placeholderIndex = template.indexOf("{}", start)) >= 0) {
+            message.append(template, start, placeholderIndex).append(args[argIndex++]);
+            start = placeholderIndex + 2;
+        }
+        return message.append(template, start, template.length()).toString();
+    }
+
+    private void enqueue(LogRecord logRecord) {
+        try {
+            this.queuedRecords.put(logRecord);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while logging: " + logRecord.template, e);
+        }
+    }
+
+    private void writeRecords() {
+        try {
+            while (true) {
+                LogRecord logRecord = this.queuedRecords.poll(IDLE_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (logRecord == null) {
+                    flushChangeLog();
+                } else if (logRecord == END_OF_LOG) {
+                    writeSuppressedWarningSummary();
+                    flushChangeLog();
+                    return;
+                } else if (logRecord.written != null) {
+                    flushChangeLog();
+                    logRecord.written.countDown();
+                } else {
+                    write(logRecord);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(LogRecord logRecord) {
+        String message = format(logRecord.template, logRecord.args);
+        writeToChangeLog(TIME_FORMATTER.format(Instant.ofEpochMilli(logRecord.timeMillis)) + " " +
+            String.format("%-5s", logRecord.level) + " " + message);
+
+        if (logRecord.level.compareTo(this.consoleLevel) < 0) {
+            return;
+        }
+        if (logRecord.level == Level.WARN) {
+            int numberOfSuppressedWarnings = getNumberOfSuppressedWarnings(logRecord);
+            if (numberOfSuppressedWarnings < 0) {
+                return;
+            }
+            if (numberOfSuppressedWarnings > 0) {
+                message += " (" + numberOfSuppressedWarnings + " similar warnings suppressed)";
+            }
+        }
+        this.console.println(getConsolePrefix(logRecord.level) + message);
+    }
+
+    // Number of warnings of the template suppressed since the last one printed, or -1 if this one is suppressed
+    private int getNumberOfSuppressedWarnings(LogRecord logRecord) {
+        WarningRate warningRate =
+            this.warningTemplateToRate.computeIfAbsent(logRecord.template, k -> new WarningRate());
+        if (logRecord.timeMillis - warningRate.windowStartMillis >= RATE_LIMIT_WINDOW_MILLIS) {
+            warningRate.windowStartMillis = logRecord.timeMillis;
+            warningRate.numberOfWarningsInWindow = 0;
+        }
+
+        if (warningRate.numberOfWarningsInWindow >= this.consoleWarningsPerMinute) {
+            warningRate.numberOfSuppressedWarnings += 1;
+            warningRate.totalNumberOfSuppressedWarnings += 1;
+            return -1;
+        }
+
+        warningRate.numberOfWarningsInWindow += 1;
+        int numberOfSuppressedWarnings = warningRate.numberOfSuppressedWarnings;
+        warningRate.numberOfSuppressedWarnings = 0;
+        return numberOfSuppressedWarnings;
+    }
+
+    private void writeSuppressedWarningSummary() {
+        for (Map.Entry<String, WarningRate> warningTemplateAndRate : this.warningTemplateToRate.entrySet()) {
+            int totalNumberOfSuppressedWarnings = warningTemplateAndRate.getValue().totalNumberOfSuppressedWarnings;
+            if (totalNumberOfSuppressedWarnings > 0) {
+                this.console.println(totalNumberOfSuppressedWarnings + " warnings \"" +
+                    warningTemplateAndRate.getKey() + "\" not shown on the console (see the change log)");
+            }
+        }
+    }
+
+    private static String getConsolePrefix(Level level) {
+        switch (level) {
+            case WARN:
+                return "WARNING: ";
+            case ERROR:
+                return "ERROR: ";
+            default:
+                return "";
+        }
+    }
+
+    private void writeToChangeLog(String line) {
+        if (this.writeFailure != null) {
+            return;
+        }
+        try {
+            this.changeLogWriter.write(line);
+            this.changeLogWriter.newLine();
+        } catch (IOException e) {
+            this.writeFailure = e;
+        }
+    }
+
+    private void flushChangeLog() {
+        if (this.writeFailure != null) {
+            return;
+        }
+        try {
+            this.changeLogWriter.flush();
+        } catch (IOException e) {
+            this.writeFailure = e;
+        }
+    }
+
+    private void throwWriteFailure() throws IOException {
+        if (this.writeFailure != null) {
+            throw new IOException("Unable to write the change log", this.writeFailure);
+        }
+    }
+
+    private static class LogRecord {
+        private final Level level;
+        private final long timeMillis;
+        private final String template;
+        private final Object[] args;
+        // Set only for the records marking a flush
+        private final CountDownLatch written;
+
+        LogRecord(Level level, String template, Object[] args, CountDownLatch written) {
+            this.level = level;
+            this.timeMillis = System.currentTimeMillis();
+            this.template = template;
+            this.args = args;
+            this.written = written;
+        }
+    }
+
+    private static class WarningRate {
+        private long windowStartMillis = Long.MIN_VALUE / 2;
+        private int numberOfWarningsInWindow;
+        private int numberOfSuppressedWarnings;
+        private int totalNumberOfSuppressedWarnings;
+    }
+}
@@ -0,0 +1,68 @@
+package org.reactome.release.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide count, total and maximum time of the database calls of the update by operation (MySQLAdaptor method),
+ * as timed by {@link org.reactome.release.profiling.DatabaseCallEvent}.  Calls may be recorded from any thread.
+ */
+public class DatabaseCallTimings {
+    private static final Map<String, Timing> OPERATION_TO_TIMING = new ConcurrentHashMap<>();
+
+    private DatabaseCallTimings() {}
+
+    /**
+     * @param operation Name of the MySQLAdaptor method called
+     * @param nanos Duration of the call in nanoseconds
+     */
+    public static void record(String operation, long nanos) {
+        Timing timing = OPERATION_TO_TIMING.get(operation);
+        if (timing == null) {
+            timing = OPERATION_TO_TIMING.computeIfAbsent(operation, k -> new Timing());
+        }
+        timing.count.increment();
+        timing.totalNanos.add(nanos);
+        timing.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return Operations (in name order) to their timings so far
+     */
+    public static Map<String, Timing> getTimings() {
+        return new TreeMap<>(OPERATION_TO_TIMING);
+    }
+
+    static void clear() {
+        OPERATION_TO_TIMING.clear();
+    }
+
+    /**
+     * Count, total and maximum time of the calls of an operation.
+     */
+    public static class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        public double getTotalSeconds() {
+            return this.totalNanos.sum() / 1e9;
+        }
+
+        public double getMeanMillis() {
+            long count = getCount();
+            return count > 0 ? this.totalNanos.sum() / 1e6 / count : 0.0;
+        }
+
+        public double getMaxMillis() {
+            return this.maxNanos.get() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.reactome.release.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Histogram of latencies over fixed buckets (upper bounds from 1 ms to 10 s, plus an overflow bucket for anything
+ * longer), along with the count, total and maximum of the latencies recorded.  Percentiles are estimated as the upper
+ * bound of the bucket they fall in (or the maximum for the overflow bucket).  As the buckets are fixed, histograms
+ * recorded separately (e.g. by shard workers) can be merged exactly.  The histogram is not thread-safe.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MILLIS =
+        {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000};
+
+    private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MILLIS.length && nanos > BUCKET_UPPER_BOUNDS_MILLIS[bucket] * 1_000_000L) {
+            bucket += 1;
+        }
+        this.bucketCounts[bucket] += 1;
+        this.count += 1;
+        this.totalNanos += nanos;
+        this.maxNanos = Math.max(this.maxNanos, nanos);
+    }
+
+    /**
+     * Adds the latencies recorded by another histogram to this one.
+     *
+     * @param latencyHistogram Histogram to add
+     */
+    public void merge(LatencyHistogram latencyHistogram) {
+        for (int bucket = 0; bucket < this.bucketCounts.length; bucket++) {
+            this.bucketCounts[bucket] += latencyHistogram.bucketCounts[bucket];
+        }
+        this.count += latencyHistogram.count;
+        this.totalNanos += latencyHistogram.totalNanos;
+        this.maxNanos = Math.max(this.maxNanos, latencyHistogram.maxNanos);
+    }
+
+    /**
+     * @param output Output to which to write the bucket counts, count, total and maximum of the histogram
+     * @throws IOException Thrown if the histogram can't be written
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(this.bucketCounts.length);
+        for (long bucketCount : this.bucketCounts) {
+            output.writeLong(bucketCount);
+        }
+        output.writeLong(this.count);
+        output.writeLong(this.totalNanos);
+        output.writeLong(this.maxNanos);
+    }
+
+    /**
+     * @param input Input from which to read a histogram written by {@link #write(DataOutput)}
+     * @return Histogram read
+     * @throws IOException Thrown if the histogram can't be read or was written with different buckets
+     */
+    public static LatencyHistogram read(DataInput input) throws IOException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        int numberOfBuckets = input.readInt();
+        if (numberOfBuckets != latencyHistogram.bucketCounts.length) {
+            throw new IOException("Expected a histogram with " + latencyHistogram.bucketCounts.length +
+                " buckets but got " + numberOfBuckets);
+        }
+        for (int bucket = 0; bucket < numberOfBuckets; bucket++) {
+            latencyHistogram.bucketCounts[bucket] = input.readLong();
+        }
+        latencyHistogram.count = input.readLong();
+        latencyHistogram.totalNanos = input.readLong();
+        latencyHistogram.maxNanos = input.readLong();
+        return latencyHistogram;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public double getMeanMillis() {
+        return this.count > 0 ? this.totalNanos / 1e6 / this.count : 0.0;
+    }
+
+    public double getMaxMillis() {
+        return this.maxNanos / 1e6;
+    }
+
+    /**
+     * @param percentile Percentile to estimate (between 0 and 100)
+     * @return Upper bound in milliseconds of the bucket holding the percentile (0 if nothing has been recorded)
+     */
+    public double getPercentileMillis(double percentile) {
+        long rank = (long) Math.ceil(this.count * percentile / 100);
+        long cumulativeCount = 0;
+        for (int bucket = 0; bucket < BUCKET_UPPER_BOUNDS_MILLIS.length; bucket++) {
+            cumulativeCount += this.bucketCounts[bucket];
+            if (cumulativeCount >= rank) {
+                return this.count > 0 ? Math.min(BUCKET_UPPER_BOUNDS_MILLIS[bucket], getMaxMillis()) : 0.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return Number of latencies in each bucket, in the order of {@link #getBucketLabels()}
+     */
+    public long[] getBucketCounts() {
+        return this.bucketCounts.clone();
+    }
+
+    /**
+     * @return Labels of the buckets (e.g. "<=5ms", ">10000ms")
+     */
+    public static String[] getBucketLabels() {
+        String[] bucketLabels = new String[BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+        for (int bucket = 0; bucket < BUCKET_UPPER_BOUNDS_MILLIS.length; bucket++) {
+            bucketLabels[bucket] = "<=" + BUCKET_UPPER_BOUNDS_MILLIS[bucket] + "ms";
+        }
+        bucketLabels[BUCKET_UPPER_BOUNDS_MILLIS.length] =
+            ">" + BUCKET_UPPER_BOUNDS_MILLIS[BUCKET_UPPER_BOUNDS_MILLIS.length - 1] + "ms";
+        return bucketLabels;
+    }
+}
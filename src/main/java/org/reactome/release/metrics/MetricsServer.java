@@ -0,0 +1,80 @@
+package org.reactome.release.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Optional HTTP endpoint serving the {@link UpdateProgress} of the update in the Prometheus text format at
+ * "/metrics", for monitoring to scrape.
+ *
+ * The endpoint is started when the "metricsPort" property is set.  It listens on the address of "metricsHost"
+ * ("localhost" by default; set it to "0.0.0.0" to scrape from outside a container).
+ */
+public class MetricsServer implements AutoCloseable {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer httpServer;
+
+    private MetricsServer(HttpServer httpServer) {
+        this.httpServer = httpServer;
+    }
+
+    /**
+     * Starts the endpoint of the configuration, if a port is configured.
+     *
+     * @param configProperties Configuration properties
+     * @param updateProgress Progress to serve
+     * @return Started endpoint, or an endpoint which does nothing if no port is configured
+     * @throws IOException Thrown if the endpoint can't listen on the configured address
+     */
+    public static MetricsServer fromConfig(Properties configProperties, UpdateProgress updateProgress)
+        throws IOException {
+
+        String port = configProperties.getProperty("metricsPort", "").trim();
+        if (port.isEmpty()) {
+            return new MetricsServer(null);
+        }
+
+        InetSocketAddress address = new InetSocketAddress(
+            configProperties.getProperty("metricsHost", "localhost").trim(), Integer.parseInt(port));
+        HttpServer httpServer = HttpServer.create(address, 0);
+        httpServer.createContext("/metrics", exchange -> {
+            byte[] response = updateProgress.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(response);
+            }
+        });
+        httpServer.start();
+        System.out.println("Serving metrics at http://" + address.getHostString() + ":" +
+            httpServer.getAddress().getPort() + "/metrics");
+        return new MetricsServer(httpServer);
+    }
+
+    public boolean isServing() {
+        return this.httpServer != null;
+    }
+
+    /**
+     * @return Port the endpoint listens on, or -1 if it isn't serving
+     */
+    public int getPort() {
+        return isServing() ? this.httpServer.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Stops the endpoint (if serving).
+     */
+    @Override
+    public void close() {
+        if (isServing()) {
+            this.httpServer.stop(0);
+        }
+    }
+}
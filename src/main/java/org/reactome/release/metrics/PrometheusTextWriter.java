@@ -0,0 +1,66 @@
+package org.reactome.release.metrics;
+
+/**
+ * Writes metrics in the Prometheus text exposition format (version 0.0.4).
+ */
+class PrometheusTextWriter {
+    private final String prefix;
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * @param prefix Prefix of the names of the metrics
+     */
+    PrometheusTextWriter(String prefix) {
+        this.prefix = prefix;
+    }
+
+    void counter(String name, String help, double value) {
+        header(name, help, "counter");
+        sample(name, "", value);
+    }
+
+    void gauge(String name, String help, double value) {
+        header(name, help, "gauge");
+        sample(name, "", value);
+    }
+
+    void gauge(String name, String help, String labelName, String labelValue, double value) {
+        header(name, help, "gauge");
+        sample(name, label(labelName, labelValue), value);
+    }
+
+    void summaryHeader(String name, String help) {
+        header(name, help, "summary");
+    }
+
+    void summaryValues(String name, String labelName, String labelValue, long count, double sum) {
+        sample(name + "_count", label(labelName, labelValue), count);
+        sample(name + "_sum", label(labelName, labelValue), sum);
+    }
+
+    @Override
+    public String toString() {
+        return this.text.toString();
+    }
+
+    private void header(String name, String help, String type) {
+        this.text.append("# HELP ").append(this.prefix).append(name).append(' ').append(help).append('\n');
+        this.text.append("# TYPE ").append(this.prefix).append(name).append(' ').append(type).append('\n');
+    }
+
+    private void sample(String name, String labels, double value) {
+        this.text.append(this.prefix).append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+
+    private static String label(String labelName, String labelValue) {
+        String escapedLabelValue = labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{" + labelName + "=\"" + escapedLabelValue + "\"}";
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,209 @@
+package org.reactome.release.metrics;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live progress of a running update for monitoring, read through JMX ({@link UpdateProgressMXBean}) or the
+ * Prometheus endpoint of {@link MetricsServer}.  The values of the update are read from a {@link Source} when they
+ * are requested, from the thread of the request, so they are approximate while the update is changing them.
+ */
+public class UpdateProgress implements UpdateProgressMXBean {
+    public static final String OBJECT_NAME = "org.reactome.release:type=UpdateProgress";
+
+    // Entries per second are computed over at least this interval, so frequent scrapes don't give noisy rates
+    private static final long MINIMUM_RATE_INTERVAL_MILLIS = 10_000L;
+
+    private final Source source;
+
+    private long rateSampleMillis;
+    private long rateSampleRecordsProcessed;
+    private double entriesPerSecond;
+
+    /**
+     * Values of the update exposed by the progress.
+     */
+    public interface Source {
+        String getPhase();
+
+        /**
+         * @return Number of entries processed and committed
+         */
+        long getRecordsProcessed();
+
+        /**
+         * @return Time of the last commit (or of the start of the current phase), in milliseconds since the epoch
+         */
+        long getLastProgressMillis();
+
+        int getPrefetchQueueDepth();
+
+        int getLogQueueDepth();
+
+        /**
+         * @return Number of entries processed in the current, uncommitted transaction batch
+         */
+        int getPendingBatchEntries();
+
+        int getBatchSize();
+
+        int getPendingReferenceDNASequenceUpdates();
+
+        double getPrefetchHitRate();
+
+        double getValueDictionaryHitRate();
+    }
+
+    public UpdateProgress(Source source) {
+        this.source = source;
+        this.rateSampleMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Registers the progress with the platform MBean server.
+     *
+     * @throws Exception Thrown if the progress can't be registered (e.g. it is already registered)
+     */
+    public void register() throws Exception {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * Unregisters the progress from the platform MBean server, if registered.
+     *
+     * @throws Exception Thrown if the progress can't be unregistered
+     */
+    public void unregister() throws Exception {
+        ObjectName objectName = new ObjectName(OBJECT_NAME);
+        if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+    }
+
+    @Override
+    public String getPhase() {
+        return this.source.getPhase();
+    }
+
+    @Override
+    public long getRecordsProcessed() {
+        return this.source.getRecordsProcessed();
+    }
+
+    @Override
+    public synchronized double getEntriesPerSecond() {
+        long now = System.currentTimeMillis();
+        long recordsProcessed = getRecordsProcessed();
+        if (now - this.rateSampleMillis >= MINIMUM_RATE_INTERVAL_MILLIS) {
+            this.entriesPerSecond =
+                (recordsProcessed - this.rateSampleRecordsProcessed) * 1000.0 / (now - this.rateSampleMillis);
+            this.rateSampleMillis = now;
+            this.rateSampleRecordsProcessed = recordsProcessed;
+        }
+        return this.entriesPerSecond;
+    }
+
+    @Override
+    public long getSecondsSinceLastProgress() {
+        return (System.currentTimeMillis() - this.source.getLastProgressMillis()) / 1000L;
+    }
+
+    @Override
+    public int getPrefetchQueueDepth() {
+        return this.source.getPrefetchQueueDepth();
+    }
+
+    @Override
+    public int getLogQueueDepth() {
+        return this.source.getLogQueueDepth();
+    }
+
+    @Override
+    public int getPendingBatchEntries() {
+        return this.source.getPendingBatchEntries();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return this.source.getBatchSize();
+    }
+
+    @Override
+    public int getPendingReferenceDNASequenceUpdates() {
+        return this.source.getPendingReferenceDNASequenceUpdates();
+    }
+
+    @Override
+    public double getPrefetchHitRate() {
+        return this.source.getPrefetchHitRate();
+    }
+
+    @Override
+    public double getValueDictionaryHitRate() {
+        return this.source.getValueDictionaryHitRate();
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public long getHeapMaxBytes() {
+        return getHeapMemoryUsage().getMax();
+    }
+
+    @Override
+    public Map<String, Double> getDatabaseCallMeanMillis() {
+        Map<String, Double> operationToMeanMillis = new LinkedHashMap<>();
+        for (Map.Entry<String, DatabaseCallTimings.Timing> operationAndTiming :
+            DatabaseCallTimings.getTimings().entrySet()) {
+            operationToMeanMillis.put(operationAndTiming.getKey(), operationAndTiming.getValue().getMeanMillis());
+        }
+        return operationToMeanMillis;
+    }
+
+    /**
+     * @return Progress in the Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        PrometheusTextWriter prometheusTextWriter = new PrometheusTextWriter("uniprot_update_");
+        prometheusTextWriter.gauge("phase_info", "Current phase of the update", "phase", getPhase(), 1);
+        prometheusTextWriter.counter("records_processed_total", "Entries processed and committed",
+            getRecordsProcessed());
+        prometheusTextWriter.gauge("entries_per_second", "Entries processed per second", getEntriesPerSecond());
+        prometheusTextWriter.gauge("seconds_since_last_progress",
+            "Seconds since the last commit or the start of the current phase", getSecondsSinceLastProgress());
+        prometheusTextWriter.gauge("prefetch_queue_depth", "Entries prefetched or being prefetched",
+            getPrefetchQueueDepth());
+        prometheusTextWriter.gauge("log_queue_depth", "Log messages waiting to be written", getLogQueueDepth());
+        prometheusTextWriter.gauge("pending_batch_entries", "Entries in the uncommitted transaction batch",
+            getPendingBatchEntries());
+        prometheusTextWriter.gauge("batch_size", "Target number of entries per transaction batch", getBatchSize());
+        prometheusTextWriter.gauge("pending_reference_dna_sequence_updates",
+            "ReferenceDNASequence updates waiting to be written", getPendingReferenceDNASequenceUpdates());
+        prometheusTextWriter.gauge("prefetch_hit_ratio", "Fraction of entries whose instances were prefetched",
+            getPrefetchHitRate());
+        prometheusTextWriter.gauge("value_dictionary_hit_ratio",
+            "Fraction of keyword, comment type and feature type lookups sharing an existing string",
+            getValueDictionaryHitRate());
+        MemoryUsage heapMemoryUsage = getHeapMemoryUsage();
+        prometheusTextWriter.gauge("heap_used_bytes", "Heap in use", heapMemoryUsage.getUsed());
+        prometheusTextWriter.gauge("heap_max_bytes", "Maximum heap", heapMemoryUsage.getMax());
+
+        Map<String, DatabaseCallTimings.Timing> operationToTiming = DatabaseCallTimings.getTimings();
+        prometheusTextWriter.summaryHeader("database_call_seconds", "Time spent in database calls by operation");
+        for (Map.Entry<String, DatabaseCallTimings.Timing> operationAndTiming : operationToTiming.entrySet()) {
+            prometheusTextWriter.summaryValues("database_call_seconds", "operation", operationAndTiming.getKey(),
+                operationAndTiming.getValue().getCount(), operationAndTiming.getValue().getTotalSeconds());
+        }
+        return prometheusTextWriter.toString();
+    }
+
+    private static MemoryUsage getHeapMemoryUsage() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    }
+}
@@ -0,0 +1,37 @@
+package org.reactome.release.metrics;
+
+import java.util.Map;
+
+/**
+ * Live progress of a running update, registered with the platform MBean server as
+ * "org.reactome.release:type=UpdateProgress".
+ */
+public interface UpdateProgressMXBean {
+    String getPhase();
+
+    long getRecordsProcessed();
+
+    double getEntriesPerSecond();
+
+    long getSecondsSinceLastProgress();
+
+    int getPrefetchQueueDepth();
+
+    int getLogQueueDepth();
+
+    int getPendingBatchEntries();
+
+    int getBatchSize();
+
+    int getPendingReferenceDNASequenceUpdates();
+
+    double getPrefetchHitRate();
+
+    double getValueDictionaryHitRate();
+
+    long getHeapUsedBytes();
+
+    long getHeapMaxBytes();
+
+    Map<String, Double> getDatabaseCallMeanMillis();
+}
@@ -0,0 +1,55 @@
+package org.reactome.release.obsolete;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Obsolete UniProt accession (or isoform variant identifier) with its labels and instances.
+ */
+public class ObsoleteAccession {
+    private final String accession;
+    private final boolean isoform;
+    private final Set<ObsoleteLabel> labels;
+    private final List<String> replacementAccessions;
+    private final List<ObsoleteInstance> instances;
+
+    /**
+     * @param accession Obsolete accession
+     * @param isoform <code>true</code> if the accession is an isoform variant identifier
+     * @param labels Labels for the accession
+     * @param replacementAccessions Primary accessions of the SwissProt entries with the accession as a secondary
+     * accession (empty unless labelled HAS_REPLACEMENT)
+     * @param instances Instances for the accession (ReferenceGeneProducts which are not isoforms or, for an isoform
+     * variant identifier, ReferenceIsoforms)
+     */
+    public ObsoleteAccession(String accession, boolean isoform, Set<ObsoleteLabel> labels,
+                             List<String> replacementAccessions, List<ObsoleteInstance> instances) {
+        this.accession = accession;
+        this.isoform = isoform;
+        this.labels = labels.isEmpty() ? EnumSet.noneOf(ObsoleteLabel.class) : EnumSet.copyOf(labels);
+        this.replacementAccessions = Collections.unmodifiableList(replacementAccessions);
+        this.instances = Collections.unmodifiableList(instances);
+    }
+
+    public String getAccession() {
+        return this.accession;
+    }
+
+    public boolean isIsoform() {
+        return this.isoform;
+    }
+
+    public boolean hasLabel(ObsoleteLabel label) {
+        return this.labels.contains(label);
+    }
+
+    public List<String> getReplacementAccessions() {
+        return this.replacementAccessions;
+    }
+
+    public List<ObsoleteInstance> getInstances() {
+        return this.instances;
+    }
+}
@@ -0,0 +1,69 @@
+package org.reactome.release.obsolete;
+
+import org.reactome.release.collections.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link ObsoleteClassifier#classify}: the labelled obsolete accessions, in the order they were given,
+ * and the DB_IDs of obsolete isoforms which must not be deleted.
+ */
+public class ObsoleteClassification {
+    private final List<ObsoleteAccession> obsoleteAccessions;
+    private final LongHashSet dbIdsToSkip;
+
+    public ObsoleteClassification(List<ObsoleteAccession> obsoleteAccessions, LongHashSet dbIdsToSkip) {
+        this.obsoleteAccessions = Collections.unmodifiableList(obsoleteAccessions);
+        this.dbIdsToSkip = dbIdsToSkip;
+    }
+
+    public List<ObsoleteAccession> getObsoleteAccessions() {
+        return this.obsoleteAccessions;
+    }
+
+    /**
+     * @param label Label to match
+     * @param isoform <code>true</code> for isoform variant identifiers;<code>false</code> for UniProt accessions
+     * @return Obsolete accessions with the label
+     */
+    public List<ObsoleteAccession> getObsoleteAccessions(ObsoleteLabel label, boolean isoform) {
+        List<ObsoleteAccession> labelledAccessions = new ArrayList<>();
+        for (ObsoleteAccession obsoleteAccession : this.obsoleteAccessions) {
+            if (obsoleteAccession.hasLabel(label) && obsoleteAccession.isIsoform() == isoform) {
+                labelledAccessions.add(obsoleteAccession);
+            }
+        }
+        return labelledAccessions;
+    }
+
+    public List<String> getTrEMBLAccessions() {
+        List<String> trEMBLAccessions = new ArrayList<>();
+        for (ObsoleteAccession obsoleteAccession : getObsoleteAccessions(ObsoleteLabel.TREMBL, false)) {
+            trEMBLAccessions.add(obsoleteAccession.getAccession());
+        }
+        return trEMBLAccessions;
+    }
+
+    /**
+     * @return Instances without referrers of the accessions labelled DELETABLE (UniProt accessions first, then
+     * isoform variant identifiers)
+     */
+    public List<ObsoleteInstance> getDeletableInstances() {
+        List<ObsoleteInstance> deletableInstances = new ArrayList<>();
+        for (boolean isoform : new boolean[] {false, true}) {
+            for (ObsoleteAccession obsoleteAccession : getObsoleteAccessions(ObsoleteLabel.DELETABLE, isoform)) {
+                deletableInstances.addAll(obsoleteAccession.getInstances());
+            }
+        }
+        return deletableInstances;
+    }
+
+    /**
+     * @return DB_IDs of obsolete isoforms without an isoform parent, which are reported but never deleted
+     */
+    public LongHashSet getDbIdsToSkip() {
+        return this.dbIdsToSkip;
+    }
+}
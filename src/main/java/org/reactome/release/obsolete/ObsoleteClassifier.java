@@ -0,0 +1,324 @@
+package org.reactome.release.obsolete;
+
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.reactome.release.collections.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.reactome.release.Utils.isTrEMBLId;
+import static org.reactome.release.db.BulkQueries.fetchInstancesByAttributeValues;
+import static org.reactome.release.db.BulkQueries.loadAttributeValues;
+
+/**
+ * Classifies the obsolete UniProt accessions and isoform variant identifiers left after processing the SwissProt
+ * file in a single pass.  The ReferenceGeneProducts and ReferenceIsoforms for all of them are fetched together, as
+ * are their referrers, and each accession is labelled (see {@link ObsoleteLabel}) with the data the deletion and
+ * report steps need, so those steps don't go back to the database.
+ *
+ * The labels follow the order in which the clean-up previously handled the accessions:
+ * <ul>
+ *     <li>UniProt accessions which are now TrEMBL accessions are labelled TREMBL</li>
+ *     <li>otherwise, if any ReferenceGeneProduct for the accession has no referrers, the accession is DELETABLE
+ *     (with those ReferenceGeneProducts as its instances)</li>
+ *     <li>otherwise, it is HAS_REPLACEMENT if it is a secondary accession in the SwissProt file or
+ *     NO_REPLACEMENT if it is not</li>
+ *     <li>an isoform variant identifier is DELETABLE if its first ReferenceIsoform has an isoform parent with an
+ *     identifier and no referrers; otherwise it is NO_REPLACEMENT.  A first ReferenceIsoform without an isoform
+ *     parent is never deleted</li>
+ * </ul>
+ */
+public class ObsoleteClassifier {
+    private final MySQLAdaptor dba;
+    private final Map<String, List<String>> secondaryAccessionToPrimaryAccessions;
+    private final Set<String> skipList;
+
+    /**
+     * @param dba MySQLAdaptor for the database with the obsolete instances
+     * @param secondaryAccessionToPrimaryAccessions Secondary accessions in the SwissProt file to the primary
+     * accessions of their entries
+     * @param skipList Accessions on the skip lists
+     */
+    public ObsoleteClassifier(MySQLAdaptor dba, Map<String, List<String>> secondaryAccessionToPrimaryAccessions,
+                              Collection<String> skipList) {
+        this.dba = dba;
+        this.secondaryAccessionToPrimaryAccessions = secondaryAccessionToPrimaryAccessions;
+        this.skipList = new HashSet<>(skipList);
+    }
+
+    /**
+     * Classifies the obsolete accessions.
+     *
+     * @param obsoleteAccessions UniProt accessions of ReferenceGeneProducts not in the SwissProt file
+     * @param obsoleteIsoformAccessions Variant identifiers of ReferenceIsoforms not in the SwissProt file
+     * @return Classification of the accessions
+     * @throws Exception Thrown if the instances or their referrers can't be fetched
+     */
+    public ObsoleteClassification classify(Collection<String> obsoleteAccessions,
+                                           Collection<String> obsoleteIsoformAccessions) throws Exception {
+        List<String> trEMBLAccessions = new ArrayList<>();
+        List<String> swissProtAccessions = new ArrayList<>();
+        for (String obsoleteAccession : obsoleteAccessions) {
+            if (isTrEMBLId(obsoleteAccession)) {
+                trEMBLAccessions.add(obsoleteAccession);
+            } else {
+                swissProtAccessions.add(obsoleteAccession);
+            }
+        }
+
+        Map<String, List<GKInstance>> accessionToRGPs = fetchReferenceGeneProducts(swissProtAccessions);
+        Map<String, List<GKInstance>> variantIdentifierToIsoforms = fetchReferenceIsoforms(obsoleteIsoformAccessions);
+
+        List<GKInstance> allInstances = new ArrayList<>();
+        accessionToRGPs.values().forEach(allInstances::addAll);
+        variantIdentifierToIsoforms.values().forEach(allInstances::addAll);
+        Referrers referrers = fetchReferrers(allInstances);
+
+        List<ObsoleteAccession> classifiedAccessions = new ArrayList<>();
+        for (String trEMBLAccession : trEMBLAccessions) {
+            classifiedAccessions.add(new ObsoleteAccession(trEMBLAccession, false,
+                EnumSet.of(ObsoleteLabel.TREMBL), Collections.emptyList(), Collections.emptyList()));
+        }
+        for (String swissProtAccession : swissProtAccessions) {
+            classifiedAccessions.add(classifyAccession(
+                swissProtAccession, accessionToRGPs.getOrDefault(swissProtAccession, Collections.emptyList()),
+                referrers));
+        }
+
+        LongHashSet dbIdsToSkip = new LongHashSet();
+        for (String isoformAccession : obsoleteIsoformAccessions) {
+            List<GKInstance> isoforms = variantIdentifierToIsoforms.get(isoformAccession);
+            if (isoforms == null || isoforms.isEmpty()) {
+                System.out.println(isoformAccession + " is not a variant identifier for any ReferenceIsoform");
+                continue;
+            }
+            classifiedAccessions.add(classifyIsoformAccession(isoformAccession, isoforms, referrers, dbIdsToSkip));
+        }
+        return new ObsoleteClassification(classifiedAccessions, dbIdsToSkip);
+    }
+
+    private ObsoleteAccession classifyAccession(String accession, List<GKInstance> rgps, Referrers referrers)
+        throws Exception {
+
+        List<ObsoleteInstance> obsoleteInstances = new ArrayList<>();
+        List<ObsoleteInstance> deletableInstances = new ArrayList<>();
+        for (GKInstance rgp : rgps) {
+            ObsoleteInstance obsoleteInstance = toObsoleteInstance(rgp, referrers);
+            obsoleteInstances.add(obsoleteInstance);
+            if (!obsoleteInstance.hasReferrers()) {
+                deletableInstances.add(obsoleteInstance);
+            }
+        }
+
+        if (!deletableInstances.isEmpty()) {
+            return new ObsoleteAccession(accession, false, getLabels(ObsoleteLabel.DELETABLE, accession,
+                deletableInstances), Collections.emptyList(), deletableInstances);
+        }
+
+        List<String> replacementAccessions = this.secondaryAccessionToPrimaryAccessions.get(accession);
+        if (replacementAccessions == null && this.secondaryAccessionToPrimaryAccessions.containsKey(accession)) {
+            System.err.println("Zero alternate accessions for " + accession + ": " + replacementAccessions);
+        } else if (replacementAccessions != null) {
+            return new ObsoleteAccession(accession, false, getLabels(ObsoleteLabel.HAS_REPLACEMENT, accession,
+                obsoleteInstances), replacementAccessions, obsoleteInstances);
+        }
+        return new ObsoleteAccession(accession, false, getLabels(ObsoleteLabel.NO_REPLACEMENT, accession,
+            obsoleteInstances), Collections.emptyList(), obsoleteInstances);
+    }
+
+    private ObsoleteAccession classifyIsoformAccession(String isoformAccession, List<GKInstance> isoforms,
+                                                       Referrers referrers, LongHashSet dbIdsToSkip) throws Exception {
+        List<ObsoleteInstance> obsoleteInstances = new ArrayList<>();
+        for (GKInstance isoform : isoforms) {
+            obsoleteInstances.add(toObsoleteInstance(isoform, referrers));
+        }
+
+        GKInstance firstIsoform = isoforms.get(0);
+        GKInstance isoformParent = (GKInstance) firstIsoform.getAttributeValue(ReactomeJavaConstants.isoformParent);
+        if (isoformParent == null) {
+            System.out.println(firstIsoform.getDBID());
+            dbIdsToSkip.add(firstIsoform.getDBID());
+        } else {
+            String isoformParentIdentifier =
+                (String) isoformParent.getAttributeValue(ReactomeJavaConstants.identifier);
+            ObsoleteInstance firstObsoleteInstance = obsoleteInstances.get(0);
+            if (isoformParentIdentifier != null && !isoformParentIdentifier.isEmpty() &&
+                !firstObsoleteInstance.hasReferrers()) {
+                List<ObsoleteInstance> deletableInstances = Collections.singletonList(firstObsoleteInstance);
+                return new ObsoleteAccession(isoformAccession, true, getLabels(ObsoleteLabel.DELETABLE,
+                    isoformAccession, deletableInstances), Collections.emptyList(), deletableInstances);
+            }
+        }
+        return new ObsoleteAccession(isoformAccession, true, getLabels(ObsoleteLabel.NO_REPLACEMENT,
+            isoformAccession, obsoleteInstances), Collections.emptyList(), obsoleteInstances);
+    }
+
+    private Set<ObsoleteLabel> getLabels(ObsoleteLabel label, String accession,
+                                         List<ObsoleteInstance> obsoleteInstances) {
+        Set<ObsoleteLabel> labels = EnumSet.of(label);
+        if (this.skipList.contains(accession)) {
+            labels.add(ObsoleteLabel.SKIP_LIST);
+        }
+        for (ObsoleteInstance obsoleteInstance : obsoleteInstances) {
+            if (obsoleteInstance.isPlantSpecies()) {
+                labels.add(ObsoleteLabel.PLANT);
+            }
+        }
+        return labels;
+    }
+
+    private ObsoleteInstance toObsoleteInstance(GKInstance instance, Referrers referrers) throws Exception {
+        List<Long> ewasReferrerDbIds = new ArrayList<>();
+        List<String> ewasReferrerIds = new ArrayList<>();
+        for (GKInstance ewas : referrers.getEwasReferrers(instance.getDBID())) {
+            ewasReferrerDbIds.add(ewas.getDBID());
+
+            GKInstance stableIdentifier = (GKInstance) ewas.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
+            ewasReferrerIds.add(stableIdentifier != null ?
+                (String) stableIdentifier.getAttributeValue(ReactomeJavaConstants.identifier) :
+                ewas.getDBID().toString());
+        }
+
+        GKInstance species = (GKInstance) instance.getAttributeValue(ReactomeJavaConstants.species);
+        return new ObsoleteInstance(instance.getDBID(), species != null ? species.getDisplayName() : "",
+            referrers.hasReferrers(instance.getDBID()), ewasReferrerDbIds, ewasReferrerIds);
+    }
+
+    /**
+     * Fetches the ReferenceGeneProducts, excluding ReferenceIsoforms with a variant identifier, for the accessions.
+     */
+    private Map<String, List<GKInstance>> fetchReferenceGeneProducts(List<String> accessions) throws Exception {
+        List<GKInstance> rgps = fetchInstancesByAttributeValues(
+            this.dba, ReactomeJavaConstants.ReferenceGeneProduct, ReactomeJavaConstants.identifier, accessions);
+        loadAttributeValues(this.dba, rgps, ReactomeJavaConstants.identifier, ReactomeJavaConstants.species);
+
+        List<GKInstance> isoforms = new ArrayList<>();
+        for (GKInstance rgp : rgps) {
+            if (rgp.getSchemClass().isa(ReactomeJavaConstants.ReferenceIsoform)) {
+                isoforms.add(rgp);
+            }
+        }
+        loadAttributeValues(this.dba, isoforms, ReactomeJavaConstants.variantIdentifier);
+
+        Map<String, List<GKInstance>> accessionToRGPs = new HashMap<>();
+        for (GKInstance rgp : rgps) {
+            if (rgp.getSchemClass().isa(ReactomeJavaConstants.ReferenceIsoform) &&
+                rgp.getAttributeValue(ReactomeJavaConstants.variantIdentifier) != null) {
+                continue;
+            }
+            String accession = (String) rgp.getAttributeValue(ReactomeJavaConstants.identifier);
+            accessionToRGPs.computeIfAbsent(accession, k -> new ArrayList<>()).add(rgp);
+        }
+        return accessionToRGPs;
+    }
+
+    private Map<String, List<GKInstance>> fetchReferenceIsoforms(Collection<String> variantIdentifiers)
+        throws Exception {
+
+        List<GKInstance> isoforms = fetchInstancesByAttributeValues(this.dba,
+            ReactomeJavaConstants.ReferenceIsoform, ReactomeJavaConstants.variantIdentifier, variantIdentifiers);
+        loadAttributeValues(this.dba, isoforms, ReactomeJavaConstants.variantIdentifier,
+            ReactomeJavaConstants.isoformParent, ReactomeJavaConstants.species);
+
+        Map<Long, GKInstance> dbIdToIsoformParent = new HashMap<>();
+        Map<String, List<GKInstance>> variantIdentifierToIsoforms = new HashMap<>();
+        for (GKInstance isoform : isoforms) {
+            String variantIdentifier = (String) isoform.getAttributeValue(ReactomeJavaConstants.variantIdentifier);
+            variantIdentifierToIsoforms.computeIfAbsent(variantIdentifier, k -> new ArrayList<>()).add(isoform);
+
+            GKInstance isoformParent = (GKInstance) isoform.getAttributeValue(ReactomeJavaConstants.isoformParent);
+            if (isoformParent != null) {
+                dbIdToIsoformParent.putIfAbsent(isoformParent.getDBID(), isoformParent);
+            }
+        }
+        loadAttributeValues(this.dba, dbIdToIsoformParent.values(), ReactomeJavaConstants.identifier);
+        return variantIdentifierToIsoforms;
+    }
+
+    private Referrers fetchReferrers(List<GKInstance> instances) throws Exception {
+        Set<Long> dbIds = new HashSet<>();
+        for (GKInstance instance : instances) {
+            dbIds.add(instance.getDBID());
+        }
+        Referrers referrers = new Referrers();
+
+        List<GKInstance> ewasInstances = fetchInstancesByAttributeValues(this.dba,
+            ReactomeJavaConstants.EntityWithAccessionedSequence, ReactomeJavaConstants.referenceEntity, dbIds);
+        loadAttributeValues(this.dba, ewasInstances,
+            ReactomeJavaConstants.referenceEntity, ReactomeJavaConstants.stableIdentifier);
+        Map<Long, GKInstance> dbIdToStableIdentifier = new HashMap<>();
+        for (GKInstance ewas : ewasInstances) {
+            for (Long referencedDbId : getReferencedDbIds(ewas, ReactomeJavaConstants.referenceEntity, dbIds)) {
+                referrers.addEwasReferrer(referencedDbId, ewas);
+            }
+            GKInstance stableIdentifier = (GKInstance) ewas.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
+            if (stableIdentifier != null) {
+                dbIdToStableIdentifier.putIfAbsent(stableIdentifier.getDBID(), stableIdentifier);
+            }
+        }
+        loadAttributeValues(this.dba, dbIdToStableIdentifier.values(), ReactomeJavaConstants.identifier);
+
+        String[][] otherReferrerClassAndAttributes = {
+            {ReactomeJavaConstants.AbstractModifiedResidue, ReactomeJavaConstants.referenceSequence},
+            {ReactomeJavaConstants.InterChainCrosslinkedResidue, ReactomeJavaConstants.secondReferenceSequence},
+            {ReactomeJavaConstants.ReferenceIsoform, ReactomeJavaConstants.isoformParent}
+        };
+        for (String[] referrerClassAndAttribute : otherReferrerClassAndAttributes) {
+            String attributeName = referrerClassAndAttribute[1];
+            List<GKInstance> otherReferrers =
+                fetchInstancesByAttributeValues(this.dba, referrerClassAndAttribute[0], attributeName, dbIds);
+            loadAttributeValues(this.dba, otherReferrers, attributeName);
+            for (GKInstance otherReferrer : otherReferrers) {
+                referrers.addOtherReferrers(getReferencedDbIds(otherReferrer, attributeName, dbIds));
+            }
+        }
+        return referrers;
+    }
+
+    private static List<Long> getReferencedDbIds(GKInstance referrer, String attributeName, Set<Long> dbIds)
+        throws Exception {
+
+        List<Long> referencedDbIds = new ArrayList<>();
+        for (Object referencedInstance : referrer.getAttributeValuesList(attributeName)) {
+            Long referencedDbId = ((GKInstance) referencedInstance).getDBID();
+            if (dbIds.contains(referencedDbId)) {
+                referencedDbIds.add(referencedDbId);
+            }
+        }
+        return referencedDbIds;
+    }
+
+    /**
+     * Referrers of the obsolete instances: the EWAS instances referring to each as their reference entity and the
+     * DB_IDs of those referred to in any other way.
+     */
+    private static class Referrers {
+        private final Map<Long, List<GKInstance>> dbIdToEwasReferrers = new HashMap<>();
+        private final Set<Long> dbIdsWithOtherReferrers = new HashSet<>();
+
+        void addEwasReferrer(Long dbId, GKInstance ewas) {
+            this.dbIdToEwasReferrers.computeIfAbsent(dbId, k -> new ArrayList<>()).add(ewas);
+        }
+
+        void addOtherReferrers(Collection<Long> dbIds) {
+            this.dbIdsWithOtherReferrers.addAll(dbIds);
+        }
+
+        List<GKInstance> getEwasReferrers(Long dbId) {
+            return this.dbIdToEwasReferrers.getOrDefault(dbId, Collections.emptyList());
+        }
+
+        boolean hasReferrers(Long dbId) {
+            return this.dbIdToEwasReferrers.containsKey(dbId) || this.dbIdsWithOtherReferrers.contains(dbId);
+        }
+    }
+}
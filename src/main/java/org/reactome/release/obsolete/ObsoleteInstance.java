@@ -0,0 +1,64 @@
+package org.reactome.release.obsolete;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ReferenceGeneProduct or ReferenceIsoform for an obsolete accession, with the data the deletion and report steps
+ * of the clean-up need about it.
+ */
+public class ObsoleteInstance {
+    private static final List<String> PLANT_SPECIES_NAMES = Arrays.asList("Arabidopsis thaliana", "Oryza sativa");
+
+    private final long dbId;
+    private final String speciesName;
+    private final boolean hasReferrers;
+    private final List<Long> ewasReferrerDbIds;
+    private final List<String> ewasReferrerIds;
+
+    /**
+     * @param dbId DB_ID of the instance
+     * @param speciesName Display name of the species of the instance (empty if it has none)
+     * @param hasReferrers <code>true</code> if any instance refers to it as a reference entity, (second) reference
+     * sequence or isoform parent
+     * @param ewasReferrerDbIds DB_IDs of the EWAS instances referring to it as their reference entity
+     * @param ewasReferrerIds Stable identifiers (or DB_IDs, for those without one) of the same EWAS instances
+     */
+    public ObsoleteInstance(long dbId, String speciesName, boolean hasReferrers, List<Long> ewasReferrerDbIds,
+                            List<String> ewasReferrerIds) {
+        this.dbId = dbId;
+        this.speciesName = speciesName;
+        this.hasReferrers = hasReferrers;
+        this.ewasReferrerDbIds = Collections.unmodifiableList(ewasReferrerDbIds);
+        this.ewasReferrerIds = Collections.unmodifiableList(ewasReferrerIds);
+    }
+
+    public long getDbId() {
+        return this.dbId;
+    }
+
+    public String getSpeciesName() {
+        return this.speciesName;
+    }
+
+    /**
+     * @return <code>true</code> if the species of the instance is a plant species (its report lines go to the plant
+     * sections of the report);<code>false</code> otherwise
+     */
+    public boolean isPlantSpecies() {
+        return PLANT_SPECIES_NAMES.stream().anyMatch(this.speciesName::contains);
+    }
+
+    public boolean hasReferrers() {
+        return this.hasReferrers;
+    }
+
+    public List<Long> getEwasReferrerDbIds() {
+        return this.ewasReferrerDbIds;
+    }
+
+    public List<String> getEwasReferrerIds() {
+        return this.ewasReferrerIds;
+    }
+}
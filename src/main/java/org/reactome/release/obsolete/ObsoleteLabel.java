@@ -0,0 +1,25 @@
+package org.reactome.release.obsolete;
+
+/**
+ * Labels given to the obsolete UniProt accessions (those in the database but not in the SwissProt file) by
+ * {@link ObsoleteClassifier}.  An accession has one of TREMBL, DELETABLE, HAS_REPLACEMENT or NO_REPLACEMENT and
+ * may also have SKIP_LIST and PLANT.
+ */
+public enum ObsoleteLabel {
+    /** The accession is now a TrEMBL (unreviewed) accession */
+    TREMBL,
+    /** Instances for the accession have no referrers and can be deleted */
+    DELETABLE,
+    /** The accession is a secondary accession of one or more SwissProt entries */
+    HAS_REPLACEMENT,
+    /** The accession is not in the SwissProt file at all */
+    NO_REPLACEMENT,
+    /** The accession is on one of the skip lists */
+    SKIP_LIST,
+    /**
+     * An instance for the accession is for a plant species.  Report lines for single instances are put in the plant
+     * sections by the species of their own instance (see {@link ObsoleteInstance#isPlantSpecies()}); the label
+     * decides only for lines summarizing all instances of the accession
+     */
+    PLANT
+}
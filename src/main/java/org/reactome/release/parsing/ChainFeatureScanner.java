@@ -0,0 +1,210 @@
+package org.reactome.release.parsing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts the chains of a SwissProt entry (its initiator methionine, chain, peptide, propeptide, signal peptide and
+ * transit peptide features) as "type:begin-end" values, or "initiator methionine:position" for the initiator
+ * methionine, e.g. "chain:2-393".  The entry text is walked once with index-based scanning and each value is built
+ * in a buffer reused across entries.
+ *
+ * The output is the same as that of the regular expressions this replaces:
+ * <ul>
+ *     <li><code>&lt;feature.*?type="(<i>chain types</i>)"(.*?)&lt;/feature&gt;</code> finds the features, so a
+ *     feature is the first chain type attribute after a "&lt;feature" (which need not be its own) up to the next
+ *     "&lt;/feature&gt;", and neither part can span a line terminator</li>
+ *     <li><code>&lt;begin position="(\d+)"</code> and <code>&lt;end position="(\d+)</code> give the begin and end
+ *     of a chain, either being empty when it isn't given as a position (e.g. <code>&lt;end status="unknown"/&gt;
+ *     </code>)</li>
+ *     <li><code>&lt;location.*?&gt;\s+&lt;position position="(\d+)"</code> gives the position of an initiator
+ *     methionine, so the position must be preceded by whitespace</li>
+ * </ul>
+ * The scanner is not thread-safe.
+ */
+public class ChainFeatureScanner {
+    public static final String INITIATOR_METHIONINE = "initiator methionine";
+    private static final String[] CHAIN_FEATURE_TYPES = {
+        INITIATOR_METHIONINE,
+        "chain",
+        "peptide",
+        "propeptide",
+        "signal peptide",
+        "transit peptide"
+    };
+
+    private static final String FEATURE_START = "<feature";
+    private static final String FEATURE_END = "</feature>";
+    private static final String TYPE_ATTRIBUTE_START = "type=\"";
+    private static final String BEGIN_POSITION_START = "<begin position=\"";
+    private static final String END_POSITION_START = "<end position=\"";
+    private static final String LOCATION_START = "<location";
+    private static final String POSITION_START = "<position position=\"";
+
+    private final StringBuilder chainBuilder = new StringBuilder();
+    private int lineTerminatorIndex;
+
+    /**
+     * @param entry Text of the SwissProt entry
+     * @return Chains of the entry in the order they appear
+     */
+    public List<String> scan(String entry) {
+        List<String> chains = new ArrayList<>();
+        this.lineTerminatorIndex = -1;
+
+        int searchStart = 0;
+        int featureStart;
+        while ((featureStart = entry.indexOf(FEATURE_START, searchStart)) >= 0) {
+            int lineEnd = getLineEnd(entry, featureStart + FEATURE_START.length());
+
+            String featureType = null;
+            int typeAttributeStart = entry.indexOf(TYPE_ATTRIBUTE_START, featureStart + FEATURE_START.length());
+            while (typeAttributeStart >= 0 && typeAttributeStart < lineEnd) {
+                featureType = getChainFeatureType(entry, typeAttributeStart + TYPE_ATTRIBUTE_START.length());
+                if (featureType != null) {
+                    break;
+                }
+                typeAttributeStart = entry.indexOf(TYPE_ATTRIBUTE_START, typeAttributeStart + 1);
+            }
+            if (featureType == null) {
+                if (lineEnd == entry.length()) {
+                    break;
+                }
+                searchStart = featureStart + 1;
+                continue;
+            }
+
+            int contentStart = typeAttributeStart + TYPE_ATTRIBUTE_START.length() + featureType.length() + 1;
+            int contentEnd = entry.indexOf(FEATURE_END, contentStart);
+            if (contentEnd < 0) {
+                break;
+            }
+            if (contentEnd > lineEnd) {
+                searchStart = featureStart + 1;
+                continue;
+            }
+
+            chains.add(getChain(entry, featureType, contentStart, contentEnd));
+            searchStart = contentEnd + FEATURE_END.length();
+        }
+        return chains;
+    }
+
+    private String getChain(String entry, String featureType, int contentStart, int contentEnd) {
+        this.chainBuilder.setLength(0);
+        this.chainBuilder.append(featureType).append(':');
+        if (featureType.equals(INITIATOR_METHIONINE)) {
+            appendInitiatorMethioninePosition(entry, contentStart, contentEnd);
+        } else {
+            appendPosition(entry, BEGIN_POSITION_START, true, contentStart, contentEnd);
+            this.chainBuilder.append('-');
+            appendPosition(entry, END_POSITION_START, false, contentStart, contentEnd);
+        }
+        return this.chainBuilder.toString();
+    }
+
+    /**
+     * Appends the digits following the first occurrence of the position start within the range which is followed by
+     * digits (and a closing quote, if required).
+     */
+    private void appendPosition(String entry, String positionStart, boolean closingQuoteRequired, int from, int to) {
+        for (int index = indexOf(entry, positionStart, from, to); index >= 0;
+             index = indexOf(entry, positionStart, index + 1, to)) {
+
+            int digitsStart = index + positionStart.length();
+            int digitsEnd = getDigitsEnd(entry, digitsStart, to);
+            if (digitsEnd > digitsStart && (!closingQuoteRequired || isQuote(entry, digitsEnd, to))) {
+                this.chainBuilder.append(entry, digitsStart, digitsEnd);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends the digits of the first "&lt;position position=" attribute within the range which follows whitespace
+     * after a '&gt;' at or after the start of a "&lt;location" element.
+     */
+    private void appendInitiatorMethioninePosition(String entry, int from, int to) {
+        for (int locationStart = indexOf(entry, LOCATION_START, from, to); locationStart >= 0;
+             locationStart = indexOf(entry, LOCATION_START, locationStart + 1, to)) {
+
+            for (int tagEnd = indexOf(entry, ">", locationStart + LOCATION_START.length(), to); tagEnd >= 0;
+                 tagEnd = indexOf(entry, ">", tagEnd + 1, to)) {
+
+                int positionStart = tagEnd + 1;
+                while (positionStart < to && isWhitespace(entry.charAt(positionStart))) {
+                    positionStart += 1;
+                }
+                if (positionStart == tagEnd + 1 || !startsWith(entry, POSITION_START, positionStart, to)) {
+                    continue;
+                }
+
+                int digitsStart = positionStart + POSITION_START.length();
+                int digitsEnd = getDigitsEnd(entry, digitsStart, to);
+                if (digitsEnd > digitsStart && isQuote(entry, digitsEnd, to)) {
+                    this.chainBuilder.append(entry, digitsStart, digitsEnd);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String getChainFeatureType(String entry, int valueStart) {
+        for (String chainFeatureType : CHAIN_FEATURE_TYPES) {
+            if (entry.startsWith(chainFeatureType, valueStart) &&
+                isQuote(entry, valueStart + chainFeatureType.length(), entry.length())) {
+                return chainFeatureType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Index of the first line terminator (as excluded by '.' in a regular expression) at or after the index,
+     * or the length of the entry if there is none
+     */
+    private int getLineEnd(String entry, int index) {
+        if (this.lineTerminatorIndex < index) {
+            this.lineTerminatorIndex = index;
+            while (this.lineTerminatorIndex < entry.length() &&
+                !isLineTerminator(entry.charAt(this.lineTerminatorIndex))) {
+                this.lineTerminatorIndex += 1;
+            }
+        }
+        return this.lineTerminatorIndex;
+    }
+
+    private static int indexOf(String entry, String value, int from, int to) {
+        for (int index = from; index + value.length() <= to; index++) {
+            if (entry.charAt(index) == value.charAt(0) && entry.startsWith(value, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(String entry, String value, int index, int to) {
+        return index + value.length() <= to && entry.startsWith(value, index);
+    }
+
+    private static int getDigitsEnd(String entry, int index, int to) {
+        while (index < to && entry.charAt(index) >= '0' && entry.charAt(index) <= '9') {
+            index += 1;
+        }
+        return index;
+    }
+
+    private static boolean isQuote(String entry, int index, int to) {
+        return index < to && entry.charAt(index) == '"';
+    }
+
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' ||
+            character == '\f' || character == '\r';
+    }
+
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' ||
+            character == '\u2029';
+    }
+}
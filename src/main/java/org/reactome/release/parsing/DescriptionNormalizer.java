@@ -0,0 +1,186 @@
+package org.reactome.release.parsing;
+
+/**
+ * Produces the ReferenceGeneProduct description from the contents of the <code>&lt;protein&gt;</code> block of a
+ * SwissProt entry in a single pass, e.g. "recommendedName: Cellular tumor antigen p53 alternativeName: Antigen
+ * NY-CO-13 shortName: p53".
+ *
+ * The output is the same as that of the chain of String.replaceAll calls this replaces, applied in order:
+ * <ol>
+ *     <li>the name tags in {@link #TAG_REPLACEMENTS} are removed or replaced by their labels and the opening of a
+ *     referenced recommended name (<code>&lt;recommendedName ref="1"</code>) is removed</li>
+ *     <li>runs of spaces are collapsed to a single space and then tabs and new lines are replaced by spaces</li>
+ *     <li>the remaining '&lt;' and '&gt;' characters are removed (so other tags are left as their text, e.g.
+ *     <code>fullName evidence="1"</code>)</li>
+ *     <li><code>type="fragment"</code> and <code>type="fragments"</code> are removed</li>
+ *     <li>leading and trailing whitespace is removed</li>
+ * </ol>
+ * Since tags are replaced where they are found, the output is only guaranteed to be the same for well-formed XML
+ * (i.e. '&lt;' only appears as the start of a tag), which SwissProt always is.
+ */
+public class DescriptionNormalizer {
+    private static final String[][] TAG_REPLACEMENTS = {
+        {"</fullName>", ""},
+        {"<fullName>", ""},
+        {"</recommendedName>", ""},
+        {"<recommendedName>", " recommendedName: "},
+        {"</alternativeName>", ""},
+        {"</shortName>", ""},
+        {"<alternativeName>", " alternativeName: "},
+        {"<shortName>", " shortName: "},
+        {"<ecNumber>", " ecNumber: "},
+        {"</ecNumber>", ""}
+    };
+    private static final String RECOMMENDED_NAME_REFERENCE_START = "<recommendedName ref=\"";
+    private static final String[] FRAGMENT_TYPES = {"type=\"fragment\"", "type=\"fragments\""};
+
+    /**
+     * Normalizes the contents of a <code>&lt;protein&gt;</code> block to the ReferenceGeneProduct description.
+     *
+     * @param proteinBlock Text between "&lt;protein" and "&lt;/protein&gt;" in the SwissProt entry
+     * @return Description for the protein
+     */
+    public static String normalize(String proteinBlock) {
+        Output output = new Output(proteinBlock.length());
+
+        int index = 0;
+        while (index < proteinBlock.length()) {
+            char currentChar = proteinBlock.charAt(index);
+            if (currentChar == '<') {
+                int tagEnd = appendTagReplacement(proteinBlock, index, output);
+                if (tagEnd > index) {
+                    index = tagEnd;
+                    continue;
+                }
+            }
+            output.append(currentChar);
+            index += 1;
+        }
+        return output.trimmed();
+    }
+
+    /**
+     * Appends the replacement for the tag starting at the index if it is one of the replaced tags.
+     *
+     * @return Index after the replaced tag or the index itself if the tag is not replaced
+     */
+    private static int appendTagReplacement(String proteinBlock, int index, Output output) {
+        for (String[] tagReplacement : TAG_REPLACEMENTS) {
+            if (proteinBlock.startsWith(tagReplacement[0], index)) {
+                output.append(tagReplacement[1]);
+                return index + tagReplacement[0].length();
+            }
+        }
+
+        if (proteinBlock.startsWith(RECOMMENDED_NAME_REFERENCE_START, index)) {
+            int digitsStart = index + RECOMMENDED_NAME_REFERENCE_START.length();
+            int digitsEnd = digitsStart;
+            while (digitsEnd < proteinBlock.length() && isDigit(proteinBlock.charAt(digitsEnd))) {
+                digitsEnd += 1;
+            }
+            if (digitsEnd > digitsStart && digitsEnd < proteinBlock.length() &&
+                proteinBlock.charAt(digitsEnd) == '"') {
+                return digitsEnd + 1;
+            }
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' ||
+            character == '\u000B' || character == '\f' || character == '\r';
+    }
+
+    private static boolean isNonWhitespaceLineTerminator(char character) {
+        return character == '\u0085' || character == '\u2028' || character == '\u2029';
+    }
+
+    /**
+     * Description being built.  Characters are appended after tag replacement and the space collapsing, character
+     * removal and fragment type removal are applied as they are appended.
+     */
+    private static class Output {
+        private final StringBuilder description;
+        private boolean previousCharacterWasSpace;
+        private int fragmentSearchStart;
+
+        Output(int capacity) {
+            this.description = new StringBuilder(capacity);
+        }
+
+        void append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+        }
+
+        void append(char character) {
+            if (character == ' ') {
+                if (!this.previousCharacterWasSpace) {
+                    this.description.append(' ');
+                }
+                this.previousCharacterWasSpace = true;
+                return;
+            }
+
+            this.previousCharacterWasSpace = false;
+            if (character == '\n' || character == '\t') {
+                this.description.append(' ');
+            } else if (character != '<' && character != '>') {
+                this.description.append(character);
+                if (character == '"') {
+                    removeFragmentType();
+                }
+            }
+        }
+
+        private void removeFragmentType() {
+            for (String fragmentType : FRAGMENT_TYPES) {
+                int fragmentTypeStart = this.description.length() - fragmentType.length();
+                if (fragmentTypeStart >= this.fragmentSearchStart && endsWith(fragmentType)) {
+                    this.description.setLength(fragmentTypeStart);
+                    this.fragmentSearchStart = fragmentTypeStart;
+                    return;
+                }
+            }
+        }
+
+        private boolean endsWith(String suffix) {
+            int offset = this.description.length() - suffix.length();
+            for (int i = 0; i < suffix.length(); i++) {
+                if (this.description.charAt(offset + i) != suffix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String trimmed() {
+            int start = 0;
+            int end = this.description.length();
+            while (start < end && isWhitespace(this.description.charAt(start))) {
+                start += 1;
+            }
+
+            // As with the "\s+$" pattern, trailing whitespace before a final line terminator is also removed
+            if (end > start && isNonWhitespaceLineTerminator(this.description.charAt(end - 1))) {
+                int whitespaceEnd = end - 1;
+                int whitespaceStart = whitespaceEnd;
+                while (whitespaceStart > start && isWhitespace(this.description.charAt(whitespaceStart - 1))) {
+                    whitespaceStart -= 1;
+                }
+                return this.description.substring(start, whitespaceStart) +
+                    this.description.substring(whitespaceEnd, end);
+            }
+
+            while (end > start && isWhitespace(this.description.charAt(end - 1))) {
+                end -= 1;
+            }
+            return this.description.substring(start, end);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.reactome.release.parsing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Frames the entries of the SwissProt XML file by scanning the raw bytes of a memory-mapped view of the file for
+ * <code>&lt;entry</code> and <code>&lt;/entry&gt;</code> boundaries.  The file is mapped in windows (the SwissProt
+ * file is larger than a single mapping can be) and each entry is handed out as an {@link EntrySlice} over the
+ * mapped bytes, so nothing is copied or decoded until the entry text is actually needed.
+ *
+ * An entry spans from the start of the line with its opening tag to the end (excluding the line terminator) of the
+ * line with its closing tag.  The returned slice is reused and is only valid until the next call to
+ * {@link #next()}.
+ *
+ * A framer can be limited to a byte range of the file, in which case it frames only the entries whose first line
+ * starts within the range.  Adjacent ranges therefore frame every entry of the file exactly once, which is how the
+ * file is split between shards.
+ */
+public class EntryFramer implements Closeable {
+    static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private static final byte[] ENTRY_START_TAG = "<entry".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENTRY_END_TAG = "</entry>".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path swissProtFilePath;
+    private final FileChannel swissProtFileChannel;
+    private final long fileSize;
+    private final int windowSize;
+    private final long endOffset;
+    private final EntrySlice entrySlice = new EntrySlice();
+
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private int position;
+    private boolean pastEndOffset;
+
+    public EntryFramer(Path swissProtFilePath) throws IOException {
+        this(swissProtFilePath, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param swissProtFilePath Path of the SwissProt XML file
+     * @param startOffset Offset of the start of the byte range (inclusive)
+     * @param endOffset Offset of the end of the byte range (exclusive)
+     * @throws IOException Thrown if the file can't be opened or mapped
+     */
+    public EntryFramer(Path swissProtFilePath, long startOffset, long endOffset) throws IOException {
+        this(swissProtFilePath, DEFAULT_WINDOW_SIZE, startOffset, endOffset);
+    }
+
+    EntryFramer(Path swissProtFilePath, int windowSize) throws IOException {
+        this(swissProtFilePath, windowSize, 0, Long.MAX_VALUE);
+    }
+
+    EntryFramer(Path swissProtFilePath, int windowSize, long startOffset, long endOffset) throws IOException {
+        this.swissProtFilePath = swissProtFilePath;
+        this.swissProtFileChannel = FileChannel.open(swissProtFilePath, StandardOpenOption.READ);
+        this.fileSize = this.swissProtFileChannel.size();
+        this.windowSize = windowSize;
+        this.endOffset = endOffset;
+        if (startOffset <= 0) {
+            mapWindow(0);
+        } else {
+            // Starts from the first line starting at or after the start offset, so an entry whose first line starts
+            // before the range is left to the framer of the preceding range
+            mapWindow(Math.min(startOffset - 1, this.fileSize));
+            this.position = Math.min(lineEnd(0, this.window.limit()) + 1, this.window.limit());
+        }
+    }
+
+    /**
+     * Finds the next entry in the SwissProt file.
+     *
+     * @return Slice over the bytes of the next entry or <code>null</code> if there are no more entries
+     * @throws IOException Thrown if the file can't be mapped or an entry is larger than the mapping window
+     */
+    public EntrySlice next() throws IOException {
+        if (this.pastEndOffset) {
+            return null;
+        }
+
+        while (true) {
+            int limit = this.window.limit();
+            int entryTagIndex = indexOfEntryStartTag(this.position, limit);
+            if (entryTagIndex < 0) {
+                if (isLastWindow()) {
+                    this.position = limit;
+                    return null;
+                }
+                remapFrom(lastLineStart(this.position, limit));
+                continue;
+            }
+
+            int entryStart = lineStart(entryTagIndex);
+            if (this.windowOffset + entryStart >= this.endOffset) {
+                this.pastEndOffset = true;
+                return null;
+            }
+            int entryEndTagIndex = indexOf(ENTRY_END_TAG, entryTagIndex + ENTRY_START_TAG.length, limit);
+            int entryEnd = entryEndTagIndex >= 0 ? lineEnd(entryEndTagIndex + ENTRY_END_TAG.length, limit) : -1;
+            if (entryEnd < 0 || (entryEnd == limit && !isLastWindow())) {
+                if (isLastWindow()) {
+                    System.err.println("Incomplete entry at end of " + this.swissProtFilePath + " - ignoring");
+                    this.position = limit;
+                    return null;
+                }
+                if (entryStart == 0) {
+                    throw new IOException("Entry at offset " + this.windowOffset + " of " + this.swissProtFilePath +
+                        " is larger than the " + this.windowSize + " byte mapping window");
+                }
+                remapFrom(entryStart);
+                continue;
+            }
+
+            this.position = entryEnd;
+            this.entrySlice.set(this.window, entryStart, entryEnd, this.windowOffset + entryStart);
+            return this.entrySlice;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.swissProtFileChannel.close();
+    }
+
+    private void mapWindow(long offset) throws IOException {
+        this.windowOffset = offset;
+        long length = Math.min(this.windowSize, this.fileSize - offset);
+        this.window = this.swissProtFileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        this.position = 0;
+    }
+
+    private void remapFrom(int windowIndex) throws IOException {
+        mapWindow(this.windowOffset + windowIndex);
+    }
+
+    private boolean isLastWindow() {
+        return this.windowOffset + this.window.limit() >= this.fileSize;
+    }
+
+    private int indexOfEntryStartTag(int fromIndex, int limit) {
+        int tagIndex = indexOf(ENTRY_START_TAG, fromIndex, limit);
+        while (tagIndex >= 0) {
+            int nextIndex = tagIndex + ENTRY_START_TAG.length;
+            if (nextIndex >= limit) {
+                return -1;
+            }
+            byte nextByte = this.window.get(nextIndex);
+            if (nextByte == ' ' || nextByte == '>' || nextByte == '\n' || nextByte == '\r' || nextByte == '\t') {
+                return tagIndex;
+            }
+            tagIndex = indexOf(ENTRY_START_TAG, nextIndex, limit);
+        }
+        return -1;
+    }
+
+    private int indexOf(byte[] target, int fromIndex, int limit) {
+        byte firstByte = target[0];
+        int lastStart = limit - target.length;
+        NEXT:for (int i = fromIndex; i <= lastStart; i++) {
+            if (this.window.get(i) != firstByte) {
+                continue;
+            }
+            for (int j = 1; j < target.length; j++) {
+                if (this.window.get(i + j) != target[j]) {
+                    continue NEXT;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private int lineStart(int index) {
+        int lineStart = index;
+        while (lineStart > 0 && this.window.get(lineStart - 1) != '\n' && this.window.get(lineStart - 1) != '\r') {
+            lineStart--;
+        }
+        return lineStart;
+    }
+
+    private int lineEnd(int fromIndex, int limit) {
+        for (int i = fromIndex; i < limit; i++) {
+            byte currentByte = this.window.get(i);
+            if (currentByte == '\n' || currentByte == '\r') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private int lastLineStart(int fromIndex, int limit) {
+        for (int i = limit - 1; i >= fromIndex; i--) {
+            if (this.window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return Math.max(fromIndex, limit - ENTRY_START_TAG.length);
+    }
+}
@@ -0,0 +1,142 @@
+package org.reactome.release.parsing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * View over the bytes of a single SwissProt entry in a mapped window of the SwissProt file, as framed by
+ * {@link EntryFramer}.  Values can be located in the raw bytes with {@link #indexOf(byte[], int)} and read with
+ * {@link #decodeAscii(int, int)} without decoding the whole entry; {@link #decode()} produces the entry text.
+ */
+public class EntrySlice {
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+    private long fileOffset;
+
+    private byte[] decodeBuffer = new byte[64 * 1024];
+
+    EntrySlice() {}
+
+    void set(ByteBuffer buffer, int start, int end, long fileOffset) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.fileOffset = fileOffset;
+    }
+
+    /**
+     * @return Byte offset of the entry in the SwissProt file
+     */
+    public long getFileOffset() {
+        return this.fileOffset;
+    }
+
+    /**
+     * @return Number of bytes in the entry
+     */
+    public int length() {
+        return this.end - this.start;
+    }
+
+    public byte byteAt(int index) {
+        return this.buffer.get(this.start + index);
+    }
+
+    /**
+     * Finds the first occurrence of the target bytes in the entry at or after the index.
+     *
+     * @param target Bytes to find
+     * @param fromIndex Index within the entry from which to search
+     * @return Index within the entry of the first occurrence or -1 if the target bytes do not occur
+     */
+    public int indexOf(byte[] target, int fromIndex) {
+        byte firstByte = target[0];
+        int lastStart = this.end - target.length;
+        NEXT:for (int i = this.start + Math.max(fromIndex, 0); i <= lastStart; i++) {
+            if (this.buffer.get(i) != firstByte) {
+                continue;
+            }
+            for (int j = 1; j < target.length; j++) {
+                if (this.buffer.get(i + j) != target[j]) {
+                    continue NEXT;
+                }
+            }
+            return i - this.start;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first occurrence of the byte in the entry at or after the index.
+     *
+     * @param target Byte to find
+     * @param fromIndex Index within the entry from which to search
+     * @return Index within the entry of the first occurrence or -1 if the byte does not occur
+     */
+    public int indexOf(byte target, int fromIndex) {
+        for (int i = this.start + Math.max(fromIndex, 0); i < this.end; i++) {
+            if (this.buffer.get(i) == target) {
+                return i - this.start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a range of the entry known to hold only ASCII characters (e.g. an accession or attribute value).
+     *
+     * @param fromIndex Index within the entry of the first byte (inclusive)
+     * @param toIndex Index within the entry of the last byte (exclusive)
+     * @return Decoded range of the entry
+     */
+    public String decodeAscii(int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        byte[] bytes = getDecodeBuffer(length);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(this.start + fromIndex + i);
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes a range of the entry, within a single line, as UTF-8 text.
+     *
+     * @param fromIndex Index within the entry of the first byte (inclusive)
+     * @param toIndex Index within the entry of the last byte (exclusive)
+     * @return Decoded range of the entry
+     */
+    public String decode(int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        byte[] bytes = getDecodeBuffer(length);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = this.buffer.get(this.start + fromIndex + i);
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the entry as UTF-8 text.  As with reading the file line by line, line terminators are dropped so the
+     * entry text is the lines of the entry joined together.
+     *
+     * @return Entry text
+     */
+    public String decode() {
+        byte[] bytes = getDecodeBuffer(length());
+        int decodedLength = 0;
+        for (int i = this.start; i < this.end; i++) {
+            byte currentByte = this.buffer.get(i);
+            if (currentByte != '\n' && currentByte != '\r') {
+                bytes[decodedLength++] = currentByte;
+            }
+        }
+        return new String(bytes, 0, decodedLength, StandardCharsets.UTF_8);
+    }
+
+    private byte[] getDecodeBuffer(int length) {
+        if (this.decodeBuffer.length < length) {
+            this.decodeBuffer = new byte[Math.max(length, this.decodeBuffer.length * 2)];
+        }
+        return this.decodeBuffer;
+    }
+}
@@ -0,0 +1,117 @@
+package org.reactome.release.parsing;
+
+import org.reactome.release.collections.StringDictionary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Named, precompiled regular expression extracting a field (its first capturing group) from the text of a SwissProt
+ * entry.  Each thread reuses its own Matcher for the expression, so an extractor may be shared by parser threads
+ * without compiling the expression or creating a Matcher per call.  The known extractors are held by
+ * {@link FieldExtractors}.
+ */
+public class FieldExtractor {
+    private final String name;
+    private final Pattern pattern;
+    private final ThreadLocal<Matcher> threadMatcher;
+
+    /**
+     * @param name Name of the field
+     * @param regex Regular expression whose first capturing group is the field value
+     * @param flags Match flags of the expression (see {@link Pattern#compile(String, int)})
+     */
+    public FieldExtractor(String name, String regex, int flags) {
+        this.name = name;
+        this.pattern = Pattern.compile(regex, flags);
+        this.threadMatcher = ThreadLocal.withInitial(() -> this.pattern.matcher(""));
+    }
+
+    /**
+     * @param text Text to search
+     * @return First value of the field in the text, or an empty string if there is none
+     */
+    public String extractFirst(CharSequence text) {
+        return extractFirst(text, "");
+    }
+
+    /**
+     * @param text Text to search
+     * @param defaultValue Value to return if the field isn't found
+     * @return First value of the field in the text, or the default value if there is none
+     */
+    public String extractFirst(CharSequence text, String defaultValue) {
+        Matcher matcher = getMatcher(text);
+        String value = matcher.find() ? matcher.group(1) : defaultValue;
+        release(matcher);
+        return value;
+    }
+
+    /**
+     * @param text Text to search
+     * @return All values of the field in the text, in the order they appear
+     */
+    public List<String> extractAll(CharSequence text) {
+        return extractAll(text, new ArrayList<>());
+    }
+
+    /**
+     * Adds all values of the field in the text, in the order they appear, to the collection provided.
+     *
+     * @param text Text to search
+     * @param values Collection to which to add the values
+     * @return The collection provided
+     */
+    public <C extends Collection<? super String>> C extractAll(CharSequence text, C values) {
+        Matcher matcher = getMatcher(text);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        release(matcher);
+        return values;
+    }
+
+    /**
+     * As {@link #extractAll(CharSequence, Collection)}, with the values shared through the dictionary (which must
+     * not be used by other threads at the same time).
+     *
+     * @param text Text to search
+     * @param values Collection to which to add the values
+     * @param dictionary Dictionary of shared values
+     * @return The collection provided
+     */
+    public <C extends Collection<? super String>> C extractAll(CharSequence text, C values,
+                                                                StringDictionary dictionary) {
+        Matcher matcher = getMatcher(text);
+        while (matcher.find()) {
+            values.add(dictionary.intern(text, matcher.start(1), matcher.end(1)));
+        }
+        release(matcher);
+        return values;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Pattern getPattern() {
+        return this.pattern;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " (" + this.pattern.pattern() + ")";
+    }
+
+    private Matcher getMatcher(CharSequence text) {
+        return this.threadMatcher.get().reset(text);
+    }
+
+    // Drops the reference to the text searched so entries aren't kept reachable from the thread's Matcher
+    private static void release(Matcher matcher) {
+        matcher.reset("");
+    }
+}
@@ -0,0 +1,74 @@
+package org.reactome.release.parsing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the {@link FieldExtractor}s for the fields read from SwissProt entries, compiled once for the run.
+ */
+public class FieldExtractors {
+    private static final Map<String, FieldExtractor> NAME_TO_EXTRACTOR = new LinkedHashMap<>();
+
+    public static final FieldExtractor ACCESSION =
+        register("accession", "<accession>(.*?)</accession>");
+    public static final FieldExtractor SCIENTIFIC_NAME =
+        register("scientificName", "<name type=\"scientific\">(.*?)</name>");
+    public static final FieldExtractor ENTRY_NAME =
+        register("entryName", "<name>([A-Za-z0-9_]*)</name>");
+    public static final FieldExtractor PROTEIN =
+        register("protein", "<protein(.*)</protein>");
+    public static final FieldExtractor RECOMMENDED_FULL_NAME =
+        register("recommendedFullName", "<recommendedName>\\s+<fullName>(.*?)</fullName>");
+    public static final FieldExtractor REFERENCED_RECOMMENDED_FULL_NAME =
+        register("referencedRecommendedFullName", "<recommendedName ref=\"\\d+\">\\s+<fullName>(.*)</fullName>");
+    public static final FieldExtractor SEQUENCE_LENGTH =
+        register("sequenceLength", "<sequence.*length=\"(\\d+)\"");
+    public static final FieldExtractor SEQUENCE_CHECKSUM =
+        register("sequenceChecksum", "<sequence.*checksum=\"([0-9A-F]+)\"");
+    public static final FieldExtractor GENE =
+        register("gene", "<gene>(.*?)</gene>");
+    public static final FieldExtractor ENSEMBL_GENE_ID =
+        register("ensemblGeneId", "<property type=\"gene ID\" value=\"(ENSG.*?)\"");
+    public static final FieldExtractor KEYWORD =
+        register("keyword", "<keyword id=\".*?\">(.*?)</keyword>");
+    public static final FieldExtractor ISOFORM_ID =
+        register("isoformId", "<isoform>\\s*<id>([A-Z0-9-]*)");
+    // Identifier without its version number (e.g. ENSG00000141510 of ENSG00000141510.17)
+    public static final FieldExtractor UNVERSIONED_IDENTIFIER =
+        register("unversionedIdentifier", "(.*)\\.\\d+$", 0);
+
+    private FieldExtractors() {}
+
+    /**
+     * @param name Name of the extractor
+     * @return Extractor registered with the name
+     * @throws IllegalArgumentException Thrown if there is no extractor with the name
+     */
+    public static FieldExtractor get(String name) {
+        FieldExtractor fieldExtractor = NAME_TO_EXTRACTOR.get(name);
+        if (fieldExtractor == null) {
+            throw new IllegalArgumentException("No field extractor named " + name);
+        }
+        return fieldExtractor;
+    }
+
+    /**
+     * @return All registered extractors, in the order they were registered
+     */
+    public static Collection<FieldExtractor> getAll() {
+        return Collections.unmodifiableCollection(NAME_TO_EXTRACTOR.values());
+    }
+
+    private static FieldExtractor register(String name, String regex) {
+        return register(name, regex, Pattern.MULTILINE);
+    }
+
+    private static FieldExtractor register(String name, String regex, int flags) {
+        FieldExtractor fieldExtractor = new FieldExtractor(name, regex, flags);
+        NAME_TO_EXTRACTOR.put(name, fieldExtractor);
+        return fieldExtractor;
+    }
+}
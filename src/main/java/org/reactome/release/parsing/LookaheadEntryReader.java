@@ -0,0 +1,102 @@
+package org.reactome.release.parsing;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the entries of an {@link EntryFramer} a fixed number of entries ahead of the entry being processed, so the
+ * data needed by an entry can be requested (e.g. prefetched from the database) before the entry is processed.
+ * Entries are filtered with a {@link TaxonPrefilter} as they are read; entries which pass are decoded and passed,
+ * with their primary accession, to a listener.  Entries are returned in file order.  There is no reader thread: the
+ * entries are read ahead, and the listener called, on the thread calling {@link #next()}.
+ */
+public class LookaheadEntryReader {
+    private final EntryFramer entryFramer;
+    private final TaxonPrefilter taxonPrefilter;
+    private final int lookahead;
+    private final BiConsumer<String, String> acceptedEntryListener;
+
+    private final Deque<LookaheadEntry> lookaheadEntries = new ArrayDeque<>();
+    private boolean endOfEntries;
+
+    /**
+     * @param entryFramer Framer of the entries to read
+     * @param taxonPrefilter Filter for the entries to decode
+     * @param lookahead Number of entries to read ahead of the entry returned
+     * @param acceptedEntryListener Called with the primary accession and text of each accepted entry, when it is
+     * read ahead
+     */
+    public LookaheadEntryReader(EntryFramer entryFramer, TaxonPrefilter taxonPrefilter, int lookahead,
+                                BiConsumer<String, String> acceptedEntryListener) {
+        this.entryFramer = entryFramer;
+        this.taxonPrefilter = taxonPrefilter;
+        this.lookahead = Math.max(lookahead, 0);
+        this.acceptedEntryListener = acceptedEntryListener;
+    }
+
+    /**
+     * @return Next entry or null if there are no more entries
+     * @throws IOException Thrown if the entries can't be read
+     */
+    public LookaheadEntry next() throws IOException {
+        while (!this.endOfEntries && this.lookaheadEntries.size() <= this.lookahead) {
+            EntrySlice entrySlice = this.entryFramer.next();
+            if (entrySlice == null) {
+                this.endOfEntries = true;
+                break;
+            }
+
+            boolean accepted = this.taxonPrefilter.accept(entrySlice);
+            List<String> accessions = new ArrayList<>(this.taxonPrefilter.getAccessions());
+            if (!accepted) {
+                this.lookaheadEntries.add(new LookaheadEntry(accessions, null));
+                continue;
+            }
+
+            String entry = entrySlice.decode();
+            if (!accessions.isEmpty()) {
+                this.acceptedEntryListener.accept(accessions.get(0), entry);
+            }
+            this.lookaheadEntries.add(new LookaheadEntry(accessions, entry));
+        }
+        return this.lookaheadEntries.poll();
+    }
+
+    /**
+     * Entry read ahead: its accessions and, if it was accepted by the filter, its text.
+     */
+    public static class LookaheadEntry {
+        private final List<String> accessions;
+        private final String entry;
+
+        LookaheadEntry(List<String> accessions, String entry) {
+            this.accessions = accessions;
+            this.entry = entry;
+        }
+
+        /**
+         * @return Accessions of the entry (primary accession first)
+         */
+        public List<String> getAccessions() {
+            return this.accessions;
+        }
+
+        /**
+         * @return <code>true</code> if the entry was accepted by the filter and decoded;<code>false</code> otherwise
+         */
+        public boolean isAccepted() {
+            return this.entry != null;
+        }
+
+        /**
+         * @return Text of the entry or null if it wasn't accepted
+         */
+        public String getEntry() {
+            return this.entry;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.reactome.release.parsing;
+
+import org.reactome.release.collections.IntHashSet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cheap check, on the raw bytes of a SwissProt entry, of whether the entry needs to be decoded and fully processed.
+ * An entry is processed if its primary accession is already known (i.e. it has a ReferenceGeneProduct) or if its
+ * organism is one of the tracked species.  All other entries would be discarded after full extraction, so they are
+ * skipped before it.
+ *
+ * The organism is identified by the NCBI Taxonomy id of the entry.  Tracked species are matched by scientific
+ * name (SwissProt entries are often for a strain with its own taxonomy id, e.g. yeast S288c), so the first time a
+ * taxonomy id is seen, the scientific name of the entry is compared against the tracked species names and the
+ * result is remembered for the taxonomy id.  Subsequent entries for that taxonomy id need only a primitive int set
+ * lookup.
+ */
+public class TaxonPrefilter {
+    private static final byte[] ACCESSION_START_TAG = "<accession>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ACCESSION_END_TAG = "</accession>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAXONOMY_REFERENCE =
+        "<dbReference type=\"NCBI Taxonomy\" id=\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SCIENTIFIC_NAME_START_TAG =
+        "<name type=\"scientific\">".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_END_TAG = "</name>".getBytes(StandardCharsets.US_ASCII);
+
+    private final Collection<String> trackedSpeciesNames;
+    private final Set<String> knownAccessions;
+    private final IntHashSet trackedTaxonIds;
+    private final IntHashSet untrackedTaxonIds = new IntHashSet(4096);
+    private final List<String> accessions = new ArrayList<>();
+
+    /**
+     * @param taxonIdToSpeciesName Taxonomy ids and scientific names of the tracked species
+     * @param knownAccessions Accessions of existing ReferenceGeneProducts - this is read as entries are filtered
+     * so it may be a live view of a set which changes during processing
+     */
+    public TaxonPrefilter(Map<Integer, String> taxonIdToSpeciesName, Set<String> knownAccessions) {
+        this.trackedSpeciesNames = taxonIdToSpeciesName.values();
+        this.knownAccessions = knownAccessions;
+        this.trackedTaxonIds = new IntHashSet(taxonIdToSpeciesName.size() * 4);
+        for (int taxonId : taxonIdToSpeciesName.keySet()) {
+            this.trackedTaxonIds.add(taxonId);
+        }
+    }
+
+    /**
+     * Checks if the entry is for a known accession or a tracked species.  The accessions of the entry are read in
+     * the process and are available from {@link #getAccessions()} until the next entry is checked.
+     *
+     * @param entrySlice Entry to check
+     * @return <code>true</code> if the entry should be decoded and processed;<code>false</code> otherwise
+     */
+    public boolean accept(EntrySlice entrySlice) {
+        readAccessions(entrySlice);
+        if (this.accessions.isEmpty() || this.knownAccessions.contains(this.accessions.get(0))) {
+            return true;
+        }
+
+        int taxonId = readTaxonId(entrySlice);
+        if (taxonId < 0) {
+            return isTrackedSpecies(readScientificName(entrySlice));
+        }
+        if (this.trackedTaxonIds.contains(taxonId)) {
+            return true;
+        }
+        if (this.untrackedTaxonIds.contains(taxonId)) {
+            return false;
+        }
+
+        if (isTrackedSpecies(readScientificName(entrySlice))) {
+            this.trackedTaxonIds.add(taxonId);
+            return true;
+        } else {
+            this.untrackedTaxonIds.add(taxonId);
+            return false;
+        }
+    }
+
+    /**
+     * @return Accessions (primary accession first) of the entry last checked with {@link #accept(EntrySlice)}
+     */
+    public List<String> getAccessions() {
+        return this.accessions;
+    }
+
+    private void readAccessions(EntrySlice entrySlice) {
+        this.accessions.clear();
+        int accessionStart = entrySlice.indexOf(ACCESSION_START_TAG, 0);
+        while (accessionStart >= 0) {
+            int valueStart = accessionStart + ACCESSION_START_TAG.length;
+            int valueEnd = entrySlice.indexOf(ACCESSION_END_TAG, valueStart);
+            if (valueEnd < 0) {
+                return;
+            }
+            this.accessions.add(entrySlice.decodeAscii(valueStart, valueEnd));
+            accessionStart = entrySlice.indexOf(ACCESSION_START_TAG, valueEnd);
+        }
+    }
+
+    private int readTaxonId(EntrySlice entrySlice) {
+        int taxonomyReferenceIndex = entrySlice.indexOf(TAXONOMY_REFERENCE, 0);
+        if (taxonomyReferenceIndex < 0) {
+            return -1;
+        }
+
+        int taxonId = 0;
+        int digitCount = 0;
+        for (int i = taxonomyReferenceIndex + TAXONOMY_REFERENCE.length; i < entrySlice.length(); i++) {
+            byte currentByte = entrySlice.byteAt(i);
+            if (currentByte < '0' || currentByte > '9' || digitCount == 9) {
+                break;
+            }
+            taxonId = taxonId * 10 + (currentByte - '0');
+            digitCount += 1;
+        }
+        return digitCount > 0 ? taxonId : -1;
+    }
+
+    private String readScientificName(EntrySlice entrySlice) {
+        int nameStart = entrySlice.indexOf(SCIENTIFIC_NAME_START_TAG, 0);
+        if (nameStart < 0) {
+            return "";
+        }
+        int valueStart = nameStart + SCIENTIFIC_NAME_START_TAG.length;
+        int valueEnd = entrySlice.indexOf(NAME_END_TAG, valueStart);
+        return valueEnd >= 0 ? entrySlice.decode(valueStart, valueEnd) : "";
+    }
+
+    private boolean isTrackedSpecies(String organismName) {
+        for (String trackedSpeciesName : this.trackedSpeciesNames) {
+            if (organismName.contains(trackedSpeciesName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for committing a transaction batch of entries.
+ */
+@Name("org.reactome.release.Commit")
+@Label("Commit")
+@Description("Commit of a transaction batch")
+@Category({"Reactome", "UniProt Update"})
+public class CommitEvent extends Event {
+    @Label("Batch Size")
+    @Description("Number of entries in the batch")
+    public int batchSize;
+
+    @Label("Retry")
+    @Description("Whether the batch was replayed after a transient failure")
+    public boolean retry;
+}
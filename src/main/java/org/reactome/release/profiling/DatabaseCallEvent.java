@@ -0,0 +1,56 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.reactome.release.metrics.DatabaseCallTimings;
+
+/**
+ * Flight Recorder event for a call to the MySQLAdaptor, e.g. storing an instance or fetching instances by attribute.
+ * The duration of every call is also added to the {@link DatabaseCallTimings}, whether or not it is recorded.
+ */
+@Name("org.reactome.release.DatabaseCall")
+@Label("Database Call")
+@Description("Call to the MySQLAdaptor")
+@Category({"Reactome", "UniProt Update"})
+public class DatabaseCallEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Schema Class")
+    public String schemaClass;
+
+    @Label("Instances")
+    public int numberOfInstances;
+
+    private transient long startNanos;
+
+    /**
+     * Starts timing a call.
+     *
+     * @param operation Name of the MySQLAdaptor method called
+     * @param schemaClass Schema class of the instances of the call
+     * @return Started event, to be ended with {@link #end(int)} once the call returns
+     */
+    public static DatabaseCallEvent start(String operation, String schemaClass) {
+        DatabaseCallEvent databaseCallEvent = new DatabaseCallEvent();
+        databaseCallEvent.operation = operation;
+        databaseCallEvent.schemaClass = schemaClass;
+        databaseCallEvent.startNanos = System.nanoTime();
+        databaseCallEvent.begin();
+        return databaseCallEvent;
+    }
+
+    /**
+     * Ends timing the call and records the event (if recording).
+     *
+     * @param numberOfInstances Number of instances stored, updated or fetched by the call
+     */
+    public void end(int numberOfInstances) {
+        DatabaseCallTimings.record(this.operation, System.nanoTime() - this.startNanos);
+        this.numberOfInstances = numberOfInstances;
+        commit();
+    }
+}
@@ -0,0 +1,32 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for applying the values of a SwissProt entry to its ReferenceGeneProduct and
+ * ReferenceIsoforms (and the ReferenceDNASequences of human entries).
+ */
+@Name("org.reactome.release.EntryApply")
+@Label("Entry Apply")
+@Description("Creation or update of the instances of a SwissProt entry")
+@Category({"Reactome", "UniProt Update"})
+public class EntryApplyEvent extends Event {
+    @Label("Accession")
+    public String accession;
+
+    @Label("Species")
+    public String species;
+
+    @Label("Attributes Changed")
+    public int attributesChanged;
+
+    @Label("Instances Created")
+    public int instancesCreated;
+
+    @Label("Instances Updated")
+    public int instancesUpdated;
+}
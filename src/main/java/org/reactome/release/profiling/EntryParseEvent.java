@@ -0,0 +1,23 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for extracting the values of a SwissProt entry (before any instance is created or updated).
+ */
+@Name("org.reactome.release.EntryParse")
+@Label("Entry Parse")
+@Description("Extraction of the values of a SwissProt entry")
+@Category({"Reactome", "UniProt Update"})
+public class EntryParseEvent extends Event {
+    @Label("Accession")
+    public String accession;
+
+    @Label("Entry Length")
+    @Description("Number of characters in the entry")
+    public int entryLength;
+}
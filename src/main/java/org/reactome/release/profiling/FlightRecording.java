@@ -0,0 +1,83 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Optional Java Flight Recorder recording of the update, holding the events of the update (entry parse and apply,
+ * database calls, commits, remote lookups and report writes) along with the JVM events of the chosen settings.
+ *
+ * Recording is switched on with the "flightRecording" property.  The recording is written to the file named by
+ * "flightRecordingFile" ("uniprot_update.jfr" by default) in the given directory when it is closed, using the JFR
+ * settings named by "flightRecordingSettings" ("default", or "profile" for more detail at a higher overhead).  The
+ * events of the update are also recorded by recordings started from the command line (-XX:StartFlightRecording).
+ */
+public class FlightRecording implements AutoCloseable {
+    private static final List<Class<? extends Event>> UPDATE_EVENT_CLASSES = Arrays.asList(
+        EntryParseEvent.class,
+        EntryApplyEvent.class,
+        DatabaseCallEvent.class,
+        CommitEvent.class,
+        RemoteLookupEvent.class,
+        ReportWriteEvent.class
+    );
+
+    private final Recording recording;
+    private final Path recordingFilePath;
+
+    private FlightRecording(Recording recording, Path recordingFilePath) {
+        this.recording = recording;
+        this.recordingFilePath = recordingFilePath;
+    }
+
+    /**
+     * Starts the recording of the configuration, if it is switched on.
+     *
+     * @param configProperties Configuration properties
+     * @param recordingDirectoryPath Directory in which to write the recording
+     * @return Started recording, or a recording which does nothing if recording is switched off
+     * @throws Exception Thrown if the settings can't be read or the recording can't be started
+     */
+    public static FlightRecording fromConfig(Properties configProperties, Path recordingDirectoryPath)
+        throws Exception {
+
+        if (!Boolean.parseBoolean(configProperties.getProperty("flightRecording", "false").trim())) {
+            return new FlightRecording(null, null);
+        }
+
+        Recording recording = new Recording(Configuration.getConfiguration(
+            configProperties.getProperty("flightRecordingSettings", "default").trim()));
+        for (Class<? extends Event> updateEventClass : UPDATE_EVENT_CLASSES) {
+            recording.enable(updateEventClass).withoutThreshold();
+        }
+        Path recordingFilePath = recordingDirectoryPath.resolve(
+            configProperties.getProperty("flightRecordingFile", "uniprot_update.jfr").trim());
+        recording.setName("UniProt Update");
+        recording.setDestination(recordingFilePath);
+        recording.start();
+        System.out.println("Flight recording started (written to " + recordingFilePath + " on completion)");
+        return new FlightRecording(recording, recordingFilePath);
+    }
+
+    public boolean isRecording() {
+        return this.recording != null;
+    }
+
+    /**
+     * Stops the recording (if any) and writes it to its file.
+     */
+    @Override
+    public void close() {
+        if (isRecording()) {
+            this.recording.stop();
+            this.recording.close();
+            System.out.println("Flight recording written to " + this.recordingFilePath);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a request to a REST service (the Ensembl lookup of a gene or the UniProt lookup of an
+ * accession).
+ */
+@Name("org.reactome.release.RemoteLookup")
+@Label("Remote Lookup")
+@Description("Request to the Ensembl or UniProt REST service")
+@Category({"Reactome", "UniProt Update"})
+public class RemoteLookupEvent extends Event {
+    public static final String ENSEMBL = "Ensembl";
+    public static final String UNIPROT = "UniProt";
+
+    @Label("Service")
+    public String service;
+
+    @Label("Identifier")
+    public String identifier;
+
+    @Label("Response Code")
+    public int responseCode;
+
+    @Label("Response Size")
+    @Description("Size of the response body, or -1 if the service didn't send its length")
+    @DataAmount(DataAmount.BYTES)
+    public long responseSize;
+}
@@ -0,0 +1,24 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for writing the buffered lines of a report to its file.
+ */
+@Name("org.reactome.release.ReportWrite")
+@Label("Report Write")
+@Description("Write of buffered report lines to the report file")
+@Category({"Reactome", "UniProt Update"})
+public class ReportWriteEvent extends Event {
+    @Label("Report")
+    public String report;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    public long size;
+}
@@ -0,0 +1,78 @@
+package org.reactome.release.reports;
+
+import org.reactome.release.profiling.ReportWriteEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writer for a report whose lines describe database changes made in transactions.  Text written since the last
+ * {@link #commitBatch()} is held in memory and only appended to the report file when its transaction is committed,
+ * or dropped by {@link #discardBatch()} if the transaction is rolled back (and retried), so the report doesn't
+ * repeat or describe changes which weren't made.
+ */
+public class BatchedReportWriter extends Writer {
+    private final String reportFileName;
+    private final Writer reportWriter;
+    private final StringBuilder batchText = new StringBuilder();
+
+    /**
+     * @param reportFilePath Path of the report file (replaced if it exists)
+     * @throws IOException Thrown if the report file can't be created
+     */
+    public BatchedReportWriter(Path reportFilePath) throws IOException {
+        this.reportFileName = reportFilePath.getFileName().toString();
+        this.reportWriter = Files.newBufferedWriter(reportFilePath, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(char[] characters, int offset, int length) {
+        this.batchText.append(characters, offset, length);
+    }
+
+    @Override
+    public void write(String text) {
+        this.batchText.append(text);
+    }
+
+    /**
+     * Appends the text written since the last commit to the report file.
+     *
+     * @throws IOException Thrown if the text can't be written
+     */
+    public void commitBatch() throws IOException {
+        ReportWriteEvent reportWriteEvent = new ReportWriteEvent();
+        reportWriteEvent.begin();
+        this.reportWriter.write(this.batchText.toString());
+        reportWriteEvent.report = this.reportFileName;
+        reportWriteEvent.size = this.batchText.length();
+        reportWriteEvent.commit();
+        this.batchText.setLength(0);
+    }
+
+    /**
+     * Drops the text written since the last commit.
+     */
+    public void discardBatch() {
+        this.batchText.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.reportWriter.flush();
+    }
+
+    /**
+     * Commits the text of the current batch and closes the report file.
+     *
+     * @throws IOException Thrown if the text can't be written or the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        commitBatch();
+        this.reportWriter.close();
+    }
+}
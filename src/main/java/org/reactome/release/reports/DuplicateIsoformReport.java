@@ -0,0 +1,45 @@
+package org.reactome.release.reports;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class DuplicateIsoformReport implements Reportable {
+    private Path outputDirectoryPath;
+    private Map<String, List<Long>> variantIdentifierToDbIds;
+
+    public DuplicateIsoformReport(Path outputDirectoryPath, Map<String, List<Long>> variantIdentifierToDbIds) {
+        this.outputDirectoryPath = outputDirectoryPath;
+        this.variantIdentifierToDbIds = variantIdentifierToDbIds;
+    }
+
+    @Override
+    public void writeBody() throws IOException {
+        List<String> reportLines = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> variantIdentifierAndDbIds : getVariantIdentifierToDbIds().entrySet()) {
+            for (long dbId : variantIdentifierAndDbIds.getValue()) {
+                reportLines.add(String.format("%s\t%d", variantIdentifierAndDbIds.getKey(), dbId));
+            }
+        }
+        Files.write(getFilePath(), reportLines, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public Path getFilePath() {
+        return this.outputDirectoryPath.resolve("duplicate_isoforms.txt");
+    }
+
+    @Override
+    public String getHeader() {
+        final String[] headerColumns = {"Variant_Identifier", "ReferenceIsoform_Db_Id"};
+        return String.join("\t", headerColumns).concat(System.lineSeparator());
+    }
+
+    public Map<String, List<Long>> getVariantIdentifierToDbIds() {
+        return this.variantIdentifierToDbIds;
+    }
+}
@@ -0,0 +1,323 @@
+package org.reactome.release.reports;
+
+import org.reactome.release.metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Report of the time taken to process the SwissProt entries of the update, end-to-end and by stage (parsing the
+ * entry, handling its Ensembl genes as ReferenceDNASequences and creating or updating its ReferenceGeneProduct and
+ * isoform instances).  The latencies are kept as fixed-bucket histograms (see {@link LatencyHistogram}) along with
+ * the slowest entries and their breakdown by stage, so the report shows which entries and which stages to look at
+ * when the update slows down.  Only the given number of slowest entries is retained (in a heap).
+ *
+ * Entries are recorded as they are processed but only counted when their transaction is committed
+ * ({@link #commitBatch()}), so entries processed again after a rollback are counted once.  Shard workers also save
+ * the committed latencies as a data file which the coordinator merges ({@link #mergeData(Path)}) into a single
+ * report, with the slowest entries ranked across all shards.  The report is not thread-safe.
+ */
+public class EntryLatencyReport implements Reportable {
+    public static final String FILE_NAME = "entry_latency_report.txt";
+    public static final String DATA_FILE_NAME = "entry_latency.bin";
+    public static final int DEFAULT_NUMBER_OF_SLOWEST_ENTRIES = 100;
+
+    private final Path outputDirectoryPath;
+    private final int numberOfSlowestEntries;
+
+    private final LatencyHistogram entryHistogram = new LatencyHistogram();
+    private final LatencyHistogram[] stageHistograms = new LatencyHistogram[Stage.values().length];
+    private final PriorityQueue<EntryLatency> slowestEntries =
+        new PriorityQueue<>(Comparator.comparingLong(EntryLatency::getTotalNanos));
+    private final List<EntryLatency> pendingEntryLatencies = new ArrayList<>();
+
+    /**
+     * @param outputDirectoryPath Directory in which to write the report
+     * @param numberOfSlowestEntries Number of slowest entries to list in the report
+     */
+    public EntryLatencyReport(Path outputDirectoryPath, int numberOfSlowestEntries) {
+        this.outputDirectoryPath = outputDirectoryPath;
+        this.numberOfSlowestEntries = numberOfSlowestEntries;
+        for (Stage stage : Stage.values()) {
+            this.stageHistograms[stage.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time taken to process an entry, to be counted at the next {@link #commitBatch()}.
+     *
+     * @param accession Primary accession of the entry
+     * @param entryLength Length of the entry text
+     * @param stageNanos Time taken by each stage of the entry in nanoseconds, in the order of {@link Stage}
+     */
+    public void record(String accession, int entryLength, long... stageNanos) {
+        if (stageNanos.length != Stage.values().length) {
+            throw new IllegalArgumentException(
+                "Expected " + Stage.values().length + " stage times but got " + stageNanos.length);
+        }
+
+        long totalNanos = 0;
+        for (long nanos : stageNanos) {
+            totalNanos += nanos;
+        }
+        this.pendingEntryLatencies.add(new EntryLatency(accession, entryLength, totalNanos, stageNanos.clone()));
+    }
+
+    /**
+     * Counts the entries recorded since the last commit.
+     */
+    public void commitBatch() {
+        for (EntryLatency entryLatency : this.pendingEntryLatencies) {
+            for (Stage stage : Stage.values()) {
+                this.stageHistograms[stage.ordinal()].record(entryLatency.getStageNanos(stage));
+            }
+            this.entryHistogram.record(entryLatency.getTotalNanos());
+            addToSlowestEntries(entryLatency);
+        }
+        this.pendingEntryLatencies.clear();
+    }
+
+    /**
+     * Drops the entries recorded since the last commit.
+     */
+    public void discardBatch() {
+        this.pendingEntryLatencies.clear();
+    }
+
+    /**
+     * Writes the committed latencies to the data file in the output directory so they can be merged into another
+     * report.
+     *
+     * @throws IOException Thrown if the data file can't be written
+     */
+    public void writeData() throws IOException {
+        try (DataOutputStream outputStream = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(this.outputDirectoryPath.resolve(DATA_FILE_NAME))))) {
+
+            this.entryHistogram.write(outputStream);
+            for (LatencyHistogram stageHistogram : this.stageHistograms) {
+                stageHistogram.write(outputStream);
+            }
+            outputStream.writeInt(this.slowestEntries.size());
+            for (EntryLatency entryLatency : this.slowestEntries) {
+                outputStream.writeUTF(entryLatency.getAccession());
+                outputStream.writeInt(entryLatency.getEntryLength());
+                for (Stage stage : Stage.values()) {
+                    outputStream.writeLong(entryLatency.getStageNanos(stage));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the latencies in the data file written by another report (see {@link #writeData()}) to this report.  The
+     * histograms are summed and the slowest entries of both reports are ranked together.
+     *
+     * @param dataDirectoryPath Directory of the data file
+     * @throws IOException Thrown if the data file can't be read
+     */
+    public void mergeData(Path dataDirectoryPath) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(dataDirectoryPath.resolve(DATA_FILE_NAME))))) {
+
+            this.entryHistogram.merge(LatencyHistogram.read(inputStream));
+            for (LatencyHistogram stageHistogram : this.stageHistograms) {
+                stageHistogram.merge(LatencyHistogram.read(inputStream));
+            }
+            int numberOfEntries = inputStream.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String accession = inputStream.readUTF();
+                int entryLength = inputStream.readInt();
+                long totalNanos = 0;
+                long[] stageNanos = new long[Stage.values().length];
+                for (Stage stage : Stage.values()) {
+                    stageNanos[stage.ordinal()] = inputStream.readLong();
+                    totalNanos += stageNanos[stage.ordinal()];
+                }
+                addToSlowestEntries(new EntryLatency(accession, entryLength, totalNanos, stageNanos));
+            }
+        }
+    }
+
+    /**
+     * @return Slowest entries recorded, slowest first
+     */
+    public List<EntryLatency> getSlowestEntries() {
+        List<EntryLatency> slowestEntries = new ArrayList<>(this.slowestEntries);
+        slowestEntries.sort(Comparator.comparingLong(EntryLatency::getTotalNanos).reversed());
+        return slowestEntries;
+    }
+
+    public LatencyHistogram getEntryHistogram() {
+        return this.entryHistogram;
+    }
+
+    public LatencyHistogram getStageHistogram(Stage stage) {
+        return this.stageHistograms[stage.ordinal()];
+    }
+
+    /**
+     * Commits the entries of the current batch and writes the report, replacing the report of an earlier run in the
+     * same directory.
+     *
+     * @throws IOException Thrown if the report can't be written
+     */
+    @Override
+    public void writeReport() throws IOException {
+        commitBatch();
+        Files.deleteIfExists(getFilePath());
+        Reportable.super.writeReport();
+    }
+
+    @Override
+    public void writeBody() throws IOException {
+        try (BufferedWriter entryLatencyWriter =
+                 Files.newBufferedWriter(getFilePath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+
+            entryLatencyWriter.write(String.join("\t",
+                "Stage", "Entries", "Mean_ms", "p50_ms", "p90_ms", "p99_ms", "Max_ms") + System.lineSeparator());
+            writeSummaryLine(entryLatencyWriter, "entry", this.entryHistogram);
+            for (Stage stage : Stage.values()) {
+                writeSummaryLine(entryLatencyWriter, stage.getLabel(), getStageHistogram(stage));
+            }
+
+            entryLatencyWriter.write(System.lineSeparator() + "Stage\t" +
+                String.join("\t", LatencyHistogram.getBucketLabels()) + System.lineSeparator());
+            writeHistogramLine(entryLatencyWriter, "entry", this.entryHistogram);
+            for (Stage stage : Stage.values()) {
+                writeHistogramLine(entryLatencyWriter, stage.getLabel(), getStageHistogram(stage));
+            }
+
+            List<String> slowestEntryHeaderColumns = new ArrayList<>();
+            slowestEntryHeaderColumns.add("Accession");
+            slowestEntryHeaderColumns.add("Entry_Length");
+            slowestEntryHeaderColumns.add("entry_ms");
+            for (Stage stage : Stage.values()) {
+                slowestEntryHeaderColumns.add(stage.getLabel() + "_ms");
+            }
+            entryLatencyWriter.write(System.lineSeparator() + "Slowest " + this.slowestEntries.size() + " entries" +
+                System.lineSeparator() + String.join("\t", slowestEntryHeaderColumns) + System.lineSeparator());
+            for (EntryLatency entryLatency : getSlowestEntries()) {
+                StringBuilder slowestEntryLine = new StringBuilder()
+                    .append(entryLatency.getAccession()).append('\t')
+                    .append(entryLatency.getEntryLength()).append('\t')
+                    .append(formatMillis(entryLatency.getTotalNanos() / 1e6));
+                for (Stage stage : Stage.values()) {
+                    slowestEntryLine.append('\t').append(formatMillis(entryLatency.getStageNanos(stage) / 1e6));
+                }
+                entryLatencyWriter.write(slowestEntryLine.append(System.lineSeparator()).toString());
+            }
+        }
+    }
+
+    @Override
+    public Path getFilePath() {
+        return this.outputDirectoryPath.resolve(FILE_NAME);
+    }
+
+    @Override
+    public String getHeader() {
+        return "Entry latency of " + this.entryHistogram.getCount() + " entries" + System.lineSeparator();
+    }
+
+    private void addToSlowestEntries(EntryLatency entryLatency) {
+        if (this.slowestEntries.size() < this.numberOfSlowestEntries) {
+            this.slowestEntries.add(entryLatency);
+        } else if (this.numberOfSlowestEntries > 0 &&
+            entryLatency.getTotalNanos() > this.slowestEntries.peek().getTotalNanos()) {
+            this.slowestEntries.poll();
+            this.slowestEntries.add(entryLatency);
+        }
+    }
+
+    private static void writeSummaryLine(BufferedWriter entryLatencyWriter, String label, LatencyHistogram histogram)
+        throws IOException {
+
+        entryLatencyWriter.write(String.join("\t",
+            label,
+            String.valueOf(histogram.getCount()),
+            formatMillis(histogram.getMeanMillis()),
+            formatMillis(histogram.getPercentileMillis(50)),
+            formatMillis(histogram.getPercentileMillis(90)),
+            formatMillis(histogram.getPercentileMillis(99)),
+            formatMillis(histogram.getMaxMillis())
+        ) + System.lineSeparator());
+    }
+
+    private static void writeHistogramLine(BufferedWriter entryLatencyWriter, String label, LatencyHistogram histogram)
+        throws IOException {
+
+        StringBuilder histogramLine = new StringBuilder(label);
+        for (long bucketCount : histogram.getBucketCounts()) {
+            histogramLine.append('\t').append(bucketCount);
+        }
+        entryLatencyWriter.write(histogramLine.append(System.lineSeparator()).toString());
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%.3f", millis);
+    }
+
+    /**
+     * Stages of processing an entry, in the order they are run.
+     */
+    public enum Stage {
+        PARSE("parse"),
+        REFERENCE_DNA_SEQUENCES("reference_dna_sequences"),
+        INSTANCE_UPDATES("instance_updates");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return this.label;
+        }
+    }
+
+    /**
+     * Time taken by one entry, in total and by stage.
+     */
+    public static class EntryLatency {
+        private final String accession;
+        private final int entryLength;
+        private final long totalNanos;
+        private final long[] stageNanos;
+
+        private EntryLatency(String accession, int entryLength, long totalNanos, long[] stageNanos) {
+            this.accession = accession;
+            this.entryLength = entryLength;
+            this.totalNanos = totalNanos;
+            this.stageNanos = stageNanos;
+        }
+
+        public String getAccession() {
+            return this.accession;
+        }
+
+        public int getEntryLength() {
+            return this.entryLength;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getStageNanos(Stage stage) {
+            return this.stageNanos[stage.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.reactome.release.sharding;
+
+import org.reactome.release.Main;
+import org.reactome.release.db.StartupSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the processing of the SwissProt file as several worker processes, each processing the entries of one
+ * {@link ShardRange} of the file with its own database connection, and collects their results.
+ *
+ * The coordinator writes its start-up snapshot to the "shards" directory of the update directory so the workers
+ * don't reload the lookup tables.  Each worker writes its reports, log and {@link ShardResult} to its own
+ * "shard-&lt;index&gt;" directory.  Instances shared by the entries of several shards are created and updated by
+ * the coordinator before the workers are started, with the report lines for them written to the "coordinator"
+ * directory.  Workers are either launched as local processes (with the class path of the coordinator) or, when they
+ * are run on other nodes sharing the update directory, started externally with the commands printed by
+ * {@link #awaitExternalWorkers(long)}.  While they run, each worker writes its {@link ShardProgress} to its
+ * directory.
+ */
+public class ShardCoordinator {
+    public static final String WORKER_MODE = "worker";
+
+    private static final String SHARDS_DIRECTORY_NAME = "shards";
+    private static final String COORDINATOR_DIRECTORY_NAME = "coordinator";
+    private static final String SNAPSHOT_FILE_NAME = "startup_snapshot.bin";
+    private static final String WORKER_LOG_FILE_NAME = "worker.log";
+    private static final long EXTERNAL_WORKER_POLL_INTERVAL_MILLIS = 10_000L;
+
+    private final Path updateDirectoryPath;
+    private final int numberOfShards;
+    private final String configFilePath;
+    private final long instanceEditDbId;
+
+    public ShardCoordinator(Path updateDirectoryPath, int numberOfShards, String configFilePath,
+                            long instanceEditDbId) {
+        this.updateDirectoryPath = updateDirectoryPath;
+        this.numberOfShards = numberOfShards;
+        this.configFilePath = configFilePath;
+        this.instanceEditDbId = instanceEditDbId;
+    }
+
+    public static Path getSnapshotFilePath(Path updateDirectoryPath) {
+        return updateDirectoryPath.resolve(SHARDS_DIRECTORY_NAME).resolve(SNAPSHOT_FILE_NAME);
+    }
+
+    public static Path getCoordinatorDirectoryPath(Path updateDirectoryPath) {
+        return updateDirectoryPath.resolve(SHARDS_DIRECTORY_NAME).resolve(COORDINATOR_DIRECTORY_NAME);
+    }
+
+    public static Path getShardDirectoryPath(Path updateDirectoryPath, int shardIndex) {
+        return updateDirectoryPath.resolve(SHARDS_DIRECTORY_NAME).resolve("shard-" + shardIndex);
+    }
+
+    /**
+     * Creates the shard directories, removes the results, reports and logs of previous runs from them (some reports
+     * are appended to by the workers and all are merged by {@link #mergeReport(String)}, so a file left by a previous
+     * run would be included in the merged report) and writes the snapshot for the workers.
+     *
+     * @param startupSnapshot Start-up data for the workers
+     * @throws IOException Thrown if the directories can't be created or cleared or the snapshot can't be written
+     */
+    public void prepare(StartupSnapshot startupSnapshot) throws IOException {
+        for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+            Path shardDirectoryPath = getShardDirectoryPath(this.updateDirectoryPath, shardIndex);
+            Files.createDirectories(shardDirectoryPath);
+            List<Path> shardFilePaths;
+            try (Stream<Path> shardDirectoryEntries = Files.list(shardDirectoryPath)) {
+                shardFilePaths = shardDirectoryEntries.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path shardFilePath : shardFilePaths) {
+                Files.delete(shardFilePath);
+            }
+        }
+        startupSnapshot.write(getSnapshotFilePath(this.updateDirectoryPath));
+    }
+
+    /**
+     * Launches one worker process per shard on this machine and waits for all of them to finish.
+     *
+     * @param jvmOptions Options for the JVMs of the workers (e.g. maximum heap size)
+     * @return Results of the shards in shard order
+     * @throws Exception Thrown if a worker can't be launched, fails or leaves no result
+     */
+    public List<ShardResult> runLocalWorkers(List<String> jvmOptions) throws Exception {
+        List<Process> workerProcesses = new ArrayList<>();
+        try {
+            for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+                Path workerLogFilePath =
+                    getShardDirectoryPath(this.updateDirectoryPath, shardIndex).resolve(WORKER_LOG_FILE_NAME);
+                ProcessBuilder processBuilder = new ProcessBuilder(getWorkerCommand(shardIndex, jvmOptions))
+                    .redirectErrorStream(true)
+                    .redirectOutput(workerLogFilePath.toFile());
+                workerProcesses.add(processBuilder.start());
+                System.out.println("Started worker for shard " + shardIndex + " (log: " + workerLogFilePath + ")");
+            }
+
+            for (int shardIndex = 0; shardIndex < workerProcesses.size(); shardIndex++) {
+                int exitCode = workerProcesses.get(shardIndex).waitFor();
+                if (exitCode != 0) {
+                    throw new RuntimeException("Worker for shard " + shardIndex + " exited with code " + exitCode +
+                        " - see " + getShardDirectoryPath(this.updateDirectoryPath, shardIndex)
+                        .resolve(WORKER_LOG_FILE_NAME));
+                }
+                System.out.println("Worker for shard " + shardIndex + " completed");
+            }
+        } finally {
+            for (Process workerProcess : workerProcesses) {
+                workerProcess.destroy();
+            }
+        }
+        return readResults();
+    }
+
+    /**
+     * Prints the commands to start the workers and waits until every shard has written its result.  The workers
+     * must be run with the same configuration and see the same update directory as the coordinator.
+     *
+     * @param timeoutMillis Maximum time to wait for all results
+     * @return Results of the shards in shard order
+     * @throws Exception Thrown if the results are not all written in time or can't be read
+     */
+    public List<ShardResult> awaitExternalWorkers(long timeoutMillis) throws Exception {
+        System.out.println("Waiting for " + this.numberOfShards + " external workers, started with:");
+        for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+            System.out.println(String.join(" ", getWorkerCommand(shardIndex, new ArrayList<>())));
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        int numberOfCompletedShards;
+        while ((numberOfCompletedShards = getNumberOfCompletedShards()) < this.numberOfShards) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new RuntimeException("Only " + numberOfCompletedShards + " of " + this.numberOfShards +
+                    " shards completed within " + timeoutMillis + " ms");
+            }
+            Thread.sleep(EXTERNAL_WORKER_POLL_INTERVAL_MILLIS);
+        }
+        return readResults();
+    }
+
+    /**
+     * @return Progress of all shards: the entries processed and committed by the workers so far and the time of
+     * the last commit of any worker (0 if no worker has written its progress yet)
+     * @throws IOException Thrown if the progress of a shard can't be read
+     */
+    public ShardProgress getProgress() throws IOException {
+        long recordsProcessed = 0;
+        long lastProgressMillis = 0;
+        for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+            ShardProgress shardProgress = ShardProgress.read(getShardDirectoryPath(this.updateDirectoryPath, shardIndex));
+            if (shardProgress != null) {
+                recordsProcessed += shardProgress.getRecordsProcessed();
+                lastProgressMillis = Math.max(lastProgressMillis, shardProgress.getLastProgressMillis());
+            }
+        }
+        return new ShardProgress(recordsProcessed, lastProgressMillis);
+    }
+
+    /**
+     * Concatenates the report written by the coordinator and then by every shard, in shard order, into the report of
+     * the same name in the update directory.  Shards which didn't write the report are skipped.
+     *
+     * @param reportFileName Name of the report file
+     * @throws IOException Thrown if a report can't be read or written
+     */
+    public void mergeReport(String reportFileName) throws IOException {
+        Path mergedReportFilePath = this.updateDirectoryPath.resolve(reportFileName);
+        try (OutputStream mergedReportOutputStream = Files.newOutputStream(mergedReportFilePath,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            List<Path> reportDirectoryPaths = new ArrayList<>();
+            reportDirectoryPaths.add(getCoordinatorDirectoryPath(this.updateDirectoryPath));
+            for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+                reportDirectoryPaths.add(getShardDirectoryPath(this.updateDirectoryPath, shardIndex));
+            }
+            for (Path reportDirectoryPath : reportDirectoryPaths) {
+                Path reportFilePath = reportDirectoryPath.resolve(reportFileName);
+                if (Files.exists(reportFilePath)) {
+                    Files.copy(reportFilePath, mergedReportOutputStream);
+                }
+            }
+        }
+    }
+
+    List<String> getWorkerCommand(int shardIndex, List<String> jvmOptions) {
+        List<String> workerCommand = new ArrayList<>();
+        workerCommand.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        workerCommand.addAll(jvmOptions);
+        workerCommand.add("-cp");
+        workerCommand.add(System.getProperty("java.class.path"));
+        workerCommand.add(Main.class.getName());
+        workerCommand.add(this.configFilePath);
+        workerCommand.add(WORKER_MODE);
+        workerCommand.add(String.valueOf(shardIndex));
+        workerCommand.add(String.valueOf(this.numberOfShards));
+        workerCommand.add(String.valueOf(this.instanceEditDbId));
+        return workerCommand;
+    }
+
+    private int getNumberOfCompletedShards() {
+        int numberOfCompletedShards = 0;
+        for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+            Path shardDirectoryPath = getShardDirectoryPath(this.updateDirectoryPath, shardIndex);
+            if (Files.exists(ShardResult.getResultFilePath(shardDirectoryPath))) {
+                numberOfCompletedShards += 1;
+            }
+        }
+        return numberOfCompletedShards;
+    }
+
+    private List<ShardResult> readResults() throws IOException {
+        List<ShardResult> shardResults = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < this.numberOfShards; shardIndex++) {
+            Path shardDirectoryPath = getShardDirectoryPath(this.updateDirectoryPath, shardIndex);
+            if (!Files.exists(ShardResult.getResultFilePath(shardDirectoryPath))) {
+                throw new RuntimeException("No result written for shard " + shardIndex + " in " + shardDirectoryPath);
+            }
+            shardResults.add(ShardResult.read(shardDirectoryPath));
+        }
+        return shardResults;
+    }
+}
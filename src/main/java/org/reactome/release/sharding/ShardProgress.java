@@ -0,0 +1,127 @@
+package org.reactome.release.sharding;
+
+import org.reactome.release.metrics.UpdateProgress;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Progress of a shard worker, written periodically to the directory of its shard so the coordinator can report the
+ * progress of all shards while it waits for them (see {@link ShardCoordinator#getProgress()}).
+ *
+ * The file holds the number of entries processed and committed and the time of the last commit, on one line each.
+ */
+public class ShardProgress {
+    public static final String PROGRESS_FILE_NAME = "shard_progress.txt";
+
+    static final long WRITE_INTERVAL_MILLIS = 10_000L;
+
+    private final long recordsProcessed;
+    private final long lastProgressMillis;
+
+    public ShardProgress(long recordsProcessed, long lastProgressMillis) {
+        this.recordsProcessed = recordsProcessed;
+        this.lastProgressMillis = lastProgressMillis;
+    }
+
+    public static Path getProgressFilePath(Path shardDirectoryPath) {
+        return shardDirectoryPath.resolve(PROGRESS_FILE_NAME);
+    }
+
+    public long getRecordsProcessed() {
+        return this.recordsProcessed;
+    }
+
+    public long getLastProgressMillis() {
+        return this.lastProgressMillis;
+    }
+
+    /**
+     * Writes the progress to the shard directory, through a temporary file so the coordinator never reads a partial
+     * file.
+     *
+     * @param shardDirectoryPath Directory of the shard
+     * @throws IOException Thrown if the file can't be written
+     */
+    public void write(Path shardDirectoryPath) throws IOException {
+        Path progressFilePath = getProgressFilePath(shardDirectoryPath);
+        Path temporaryFilePath = progressFilePath.resolveSibling(PROGRESS_FILE_NAME + ".tmp");
+        Files.write(temporaryFilePath,
+            (this.recordsProcessed + "\n" + this.lastProgressMillis + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryFilePath, progressFilePath,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param shardDirectoryPath Directory of the shard
+     * @return Progress last written by the worker of the shard, or null if the worker hasn't written any yet
+     * @throws IOException Thrown if the progress file can't be read or is malformed
+     */
+    public static ShardProgress read(Path shardDirectoryPath) throws IOException {
+        Path progressFilePath = getProgressFilePath(shardDirectoryPath);
+        if (!Files.exists(progressFilePath)) {
+            return null;
+        }
+
+        List<String> lines = Files.readAllLines(progressFilePath, StandardCharsets.UTF_8);
+        if (lines.size() < 2) {
+            throw new IOException("Malformed shard progress file " + progressFilePath);
+        }
+        return new ShardProgress(Long.parseLong(lines.get(0).trim()), Long.parseLong(lines.get(1).trim()));
+    }
+
+    /**
+     * Writes the progress of a worker to its shard directory every {@link #WRITE_INTERVAL_MILLIS} ms from a daemon
+     * thread, and once more when closed.
+     */
+    public static class Writer implements AutoCloseable {
+        private final Path shardDirectoryPath;
+        private final UpdateProgress.Source source;
+        private final Thread writerThread;
+
+        public Writer(Path shardDirectoryPath, UpdateProgress.Source source) {
+            this.shardDirectoryPath = shardDirectoryPath;
+            this.source = source;
+            this.writerThread = new Thread(this::writeProgress, "shard-progress-writer");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writerThread.interrupt();
+            try {
+                this.writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while closing the shard progress writer", e);
+            }
+            write();
+        }
+
+        private void writeProgress() {
+            while (true) {
+                try {
+                    write();
+                } catch (IOException e) {
+                    // Only the monitoring of the coordinator misses the progress; the next write may succeed
+                    System.err.println("Could not write the progress of " + this.shardDirectoryPath + ": " + e);
+                }
+                try {
+                    Thread.sleep(WRITE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void write() throws IOException {
+            new ShardProgress(this.source.getRecordsProcessed(), this.source.getLastProgressMillis())
+                .write(this.shardDirectoryPath);
+        }
+    }
+}
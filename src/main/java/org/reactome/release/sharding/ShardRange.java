@@ -0,0 +1,63 @@
+package org.reactome.release.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte range of the SwissProt file processed by one shard.  The ranges of a split cover the file without
+ * overlapping and an entry belongs to the range in which its first line starts (see
+ * {@link org.reactome.release.parsing.EntryFramer}).
+ */
+public class ShardRange {
+    private final int shardIndex;
+    private final long startOffset;
+    private final long endOffset;
+
+    public ShardRange(int shardIndex, long startOffset, long endOffset) {
+        this.shardIndex = shardIndex;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Splits a file into ranges of (nearly) equal size.
+     *
+     * @param fileSize Size of the file in bytes
+     * @param numberOfShards Number of ranges
+     * @return Ranges in file order
+     */
+    public static List<ShardRange> split(long fileSize, int numberOfShards) {
+        if (numberOfShards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive: " + numberOfShards);
+        }
+
+        List<ShardRange> shardRanges = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < numberOfShards; shardIndex++) {
+            shardRanges.add(new ShardRange(shardIndex,
+                getBoundary(fileSize, numberOfShards, shardIndex), getBoundary(fileSize, numberOfShards, shardIndex + 1)));
+        }
+        return shardRanges;
+    }
+
+    public int getShardIndex() {
+        return this.shardIndex;
+    }
+
+    public long getStartOffset() {
+        return this.startOffset;
+    }
+
+    public long getEndOffset() {
+        return this.endOffset;
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + this.shardIndex + " [" + this.startOffset + ", " + this.endOffset + ")";
+    }
+
+    private static long getBoundary(long fileSize, int numberOfShards, int shardIndex) {
+        return shardIndex == numberOfShards ? fileSize : fileSize / numberOfShards * shardIndex +
+            fileSize % numberOfShards * shardIndex / numberOfShards;
+    }
+}
@@ -0,0 +1,206 @@
+package org.reactome.release.sharding;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a shard worker found while processing its range of the SwissProt file that the clean-up after all shards
+ * need: the accessions of existing instances it processed (so the remaining ones can be treated as obsolete), the
+ * secondary accessions, the mis-matched isoforms, the duplicate accessions and its counters.
+ *
+ * The result is written to a binary file as the last step of the worker, so the file only exists if the worker
+ * completed.
+ */
+public class ShardResult {
+    public static final String RESULT_FILE_NAME = "shard_result.bin";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final int shardIndex;
+    private final int numberOfRecords;
+    private final int numberOfInstancesInSwissProtFile;
+    private final int numberOfNewSwissProtInstances;
+    private final Set<String> processedRGPAccessions;
+    private final Set<String> processedIsoformAccessions;
+    private final Map<String, List<String>> secondaryAccessionToPrimaryAccessions;
+    private final Map<String, String> misMatchedIsoformAccessionToRGPAccession;
+    private final Map<Long, String> duplicateDbIdToReferenceGeneProductAccession;
+
+    public ShardResult(int shardIndex, int numberOfRecords, int numberOfInstancesInSwissProtFile,
+                       int numberOfNewSwissProtInstances, Set<String> processedRGPAccessions,
+                       Set<String> processedIsoformAccessions,
+                       Map<String, List<String>> secondaryAccessionToPrimaryAccessions,
+                       Map<String, String> misMatchedIsoformAccessionToRGPAccession,
+                       Map<Long, String> duplicateDbIdToReferenceGeneProductAccession) {
+        this.shardIndex = shardIndex;
+        this.numberOfRecords = numberOfRecords;
+        this.numberOfInstancesInSwissProtFile = numberOfInstancesInSwissProtFile;
+        this.numberOfNewSwissProtInstances = numberOfNewSwissProtInstances;
+        this.processedRGPAccessions = processedRGPAccessions;
+        this.processedIsoformAccessions = processedIsoformAccessions;
+        this.secondaryAccessionToPrimaryAccessions = secondaryAccessionToPrimaryAccessions;
+        this.misMatchedIsoformAccessionToRGPAccession = misMatchedIsoformAccessionToRGPAccession;
+        this.duplicateDbIdToReferenceGeneProductAccession = duplicateDbIdToReferenceGeneProductAccession;
+    }
+
+    public static Path getResultFilePath(Path shardDirectoryPath) {
+        return shardDirectoryPath.resolve(RESULT_FILE_NAME);
+    }
+
+    /**
+     * Writes the result to the shard directory, through a temporary file so a partial result is never seen.
+     *
+     * @param shardDirectoryPath Directory of the shard
+     * @throws IOException Thrown if the file can't be written
+     */
+    public void write(Path shardDirectoryPath) throws IOException {
+        Path resultFilePath = getResultFilePath(shardDirectoryPath);
+        Path temporaryFilePath = resultFilePath.resolveSibling(RESULT_FILE_NAME + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temporaryFilePath), 1 << 16))) {
+
+            outputStream.writeInt(FORMAT_VERSION);
+            outputStream.writeInt(this.shardIndex);
+            outputStream.writeInt(this.numberOfRecords);
+            outputStream.writeInt(this.numberOfInstancesInSwissProtFile);
+            outputStream.writeInt(this.numberOfNewSwissProtInstances);
+            writeStrings(outputStream, this.processedRGPAccessions);
+            writeStrings(outputStream, this.processedIsoformAccessions);
+
+            outputStream.writeInt(this.secondaryAccessionToPrimaryAccessions.size());
+            for (Map.Entry<String, List<String>> secondaryAccessionAndPrimaryAccessions :
+                this.secondaryAccessionToPrimaryAccessions.entrySet()) {
+                outputStream.writeUTF(secondaryAccessionAndPrimaryAccessions.getKey());
+                writeStrings(outputStream, secondaryAccessionAndPrimaryAccessions.getValue());
+            }
+
+            outputStream.writeInt(this.misMatchedIsoformAccessionToRGPAccession.size());
+            for (Map.Entry<String, String> isoformAndRGPAccession :
+                this.misMatchedIsoformAccessionToRGPAccession.entrySet()) {
+                outputStream.writeUTF(isoformAndRGPAccession.getKey());
+                outputStream.writeUTF(isoformAndRGPAccession.getValue());
+            }
+
+            outputStream.writeInt(this.duplicateDbIdToReferenceGeneProductAccession.size());
+            for (Map.Entry<Long, String> dbIdAndAccession :
+                this.duplicateDbIdToReferenceGeneProductAccession.entrySet()) {
+                outputStream.writeLong(dbIdAndAccession.getKey());
+                outputStream.writeUTF(dbIdAndAccession.getValue());
+            }
+        }
+        Files.move(temporaryFilePath, resultFilePath,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param shardDirectoryPath Directory of the shard
+     * @return Result written by the worker of the shard
+     * @throws IOException Thrown if the result file can't be read
+     */
+    public static ShardResult read(Path shardDirectoryPath) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(getResultFilePath(shardDirectoryPath)), 1 << 16))) {
+
+            int formatVersion = inputStream.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported shard result format version " + formatVersion + " in " +
+                    shardDirectoryPath);
+            }
+
+            int shardIndex = inputStream.readInt();
+            int numberOfRecords = inputStream.readInt();
+            int numberOfInstancesInSwissProtFile = inputStream.readInt();
+            int numberOfNewSwissProtInstances = inputStream.readInt();
+            Set<String> processedRGPAccessions = new LinkedHashSet<>(readStrings(inputStream));
+            Set<String> processedIsoformAccessions = new LinkedHashSet<>(readStrings(inputStream));
+
+            Map<String, List<String>> secondaryAccessionToPrimaryAccessions = new LinkedHashMap<>();
+            int numberOfSecondaryAccessions = inputStream.readInt();
+            for (int i = 0; i < numberOfSecondaryAccessions; i++) {
+                secondaryAccessionToPrimaryAccessions.put(inputStream.readUTF(), readStrings(inputStream));
+            }
+
+            Map<String, String> misMatchedIsoformAccessionToRGPAccession = new LinkedHashMap<>();
+            int numberOfMisMatchedIsoforms = inputStream.readInt();
+            for (int i = 0; i < numberOfMisMatchedIsoforms; i++) {
+                misMatchedIsoformAccessionToRGPAccession.put(inputStream.readUTF(), inputStream.readUTF());
+            }
+
+            Map<Long, String> duplicateDbIdToReferenceGeneProductAccession = new LinkedHashMap<>();
+            int numberOfDuplicates = inputStream.readInt();
+            for (int i = 0; i < numberOfDuplicates; i++) {
+                duplicateDbIdToReferenceGeneProductAccession.put(inputStream.readLong(), inputStream.readUTF());
+            }
+
+            return new ShardResult(shardIndex, numberOfRecords, numberOfInstancesInSwissProtFile,
+                numberOfNewSwissProtInstances, processedRGPAccessions, processedIsoformAccessions,
+                secondaryAccessionToPrimaryAccessions, misMatchedIsoformAccessionToRGPAccession,
+                duplicateDbIdToReferenceGeneProductAccession);
+        }
+    }
+
+    public int getShardIndex() {
+        return this.shardIndex;
+    }
+
+    public int getNumberOfRecords() {
+        return this.numberOfRecords;
+    }
+
+    public int getNumberOfInstancesInSwissProtFile() {
+        return this.numberOfInstancesInSwissProtFile;
+    }
+
+    public int getNumberOfNewSwissProtInstances() {
+        return this.numberOfNewSwissProtInstances;
+    }
+
+    public Set<String> getProcessedRGPAccessions() {
+        return this.processedRGPAccessions;
+    }
+
+    public Set<String> getProcessedIsoformAccessions() {
+        return this.processedIsoformAccessions;
+    }
+
+    public Map<String, List<String>> getSecondaryAccessionToPrimaryAccessions() {
+        return this.secondaryAccessionToPrimaryAccessions;
+    }
+
+    public Map<String, String> getMisMatchedIsoformAccessionToRGPAccession() {
+        return this.misMatchedIsoformAccessionToRGPAccession;
+    }
+
+    public Map<Long, String> getDuplicateDbIdToReferenceGeneProductAccession() {
+        return this.duplicateDbIdToReferenceGeneProductAccession;
+    }
+
+    private static void writeStrings(DataOutputStream outputStream, Collection<String> strings) throws IOException {
+        outputStream.writeInt(strings.size());
+        for (String string : strings) {
+            outputStream.writeUTF(string);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream inputStream) throws IOException {
+        int size = inputStream.readInt();
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(inputStream.readUTF());
+        }
+        return strings;
+    }
+}
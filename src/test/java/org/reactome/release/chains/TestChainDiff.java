@@ -0,0 +1,42 @@
+package org.reactome.release.chains;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+
+public class TestChainDiff {
+
+    @Test
+    public void removedAndAddedChainsAreInOrderOfTheirLists() {
+        ChainDiff chainDiff = ChainDiff.compute(
+            Arrays.asList("chain:1-393", "propeptide:380-", "signal peptide:1-20"),
+            Arrays.asList("chain:2-390", "chain:1-393", "chain:21-363")
+        );
+
+        assertThat(chainDiff.getRemovedChains(), contains("propeptide:380-", "signal peptide:1-20"));
+        assertThat(chainDiff.getAddedChains(), contains("chain:2-390", "chain:21-363"));
+        assertThat(chainDiff.isEmpty(), is(false));
+    }
+
+    @Test
+    public void reorderedChainsAreNotChanges() {
+        ChainDiff chainDiff = ChainDiff.compute(
+            Arrays.asList("chain:1-393", "chain:2-390"), Arrays.asList("chain:2-390", "chain:1-393"));
+
+        assertThat(chainDiff.isEmpty(), is(true));
+    }
+
+    @Test
+    public void allChainsAreAddedWhenThereWereNone() {
+        ChainDiff chainDiff = ChainDiff.compute(Collections.emptyList(), Collections.singletonList("chain:1-393"));
+
+        assertThat(chainDiff.getRemovedChains(), is(empty()));
+        assertThat(chainDiff.getAddedChains(), contains("chain:1-393"));
+    }
+}
@@ -0,0 +1,25 @@
+package org.reactome.release.collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestLongHashSet {
+
+    @Test
+    public void valuesAreContainedAfterRehashing() {
+        LongHashSet set = new LongHashSet();
+        for (long value = -500; value < 500; value++) {
+            assertThat(set.add(value * 9606), is(true));
+        }
+
+        assertThat(set.size(), is(equalTo(1000)));
+        assertThat(set.contains(0), is(true));
+        assertThat(set.contains(-500 * 9606L), is(true));
+        assertThat(set.contains(1), is(false));
+        assertThat(set.add(9606), is(false));
+        assertThat(set.size(), is(equalTo(1000)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.reactome.release.collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class TestLongObjectHashMap {
+
+    @Test
+    public void valuesAreRetrievedAfterRehashing() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long key = -500; key < 500; key++) {
+            map.put(key * 141510, "ENSG" + key);
+        }
+
+        assertThat(map.size(), is(equalTo(1000)));
+        assertThat(map.get(0), is(equalTo("ENSG0")));
+        assertThat(map.get(-500 * 141510L), is(equalTo("ENSG-500")));
+        assertThat(map.get(499 * 141510L), is(equalTo("ENSG499")));
+        assertThat(map.get(1), is(nullValue()));
+    }
+
+    @Test
+    public void puttingAnExistingKeyReplacesItsValue() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(141510L, "TP53");
+
+        assertThat(map.put(141510L, "P53"), is(equalTo("TP53")));
+        assertThat(map.get(141510L), is(equalTo("P53")));
+        assertThat(map.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void remainingValuesAreRetrievedAfterRemovals() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long key = 0; key < 1000; key++) {
+            map.put(key * 141510, "ENSG" + key);
+        }
+        for (long key = 0; key < 1000; key += 2) {
+            assertThat(map.remove(key * 141510), is(equalTo("ENSG" + key)));
+        }
+
+        assertThat(map.size(), is(equalTo(500)));
+        assertThat(map.remove(0), is(nullValue()));
+        for (long key = 0; key < 1000; key++) {
+            assertThat(map.get(key * 141510), is(key % 2 == 0 ? nullValue() : equalTo("ENSG" + key)));
+        }
+    }
+}
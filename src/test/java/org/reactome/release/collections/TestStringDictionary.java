@@ -0,0 +1,53 @@
+package org.reactome.release.collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+public class TestStringDictionary {
+
+    @Test
+    public void rangesOfTextShareTheInstanceOfEqualValues() {
+        StringDictionary dictionary = new StringDictionary();
+        String firstEntry = "<keyword id=\"KW-0418\">Kinase</keyword>";
+        String secondEntry = "<keyword id=\"KW-0067\">ATP-binding</keyword><keyword id=\"KW-0418\">Kinase</keyword>";
+
+        int firstStart = firstEntry.indexOf("Kinase");
+        String kinase = dictionary.intern(firstEntry, firstStart, firstStart + 6);
+        assertThat(kinase, is(equalTo("Kinase")));
+        int secondStart = secondEntry.indexOf("Kinase");
+        assertThat(dictionary.intern(secondEntry, secondStart, secondStart + 6), is(sameInstance(kinase)));
+        assertThat(dictionary.intern(new String("Kinase")), is(sameInstance(kinase)));
+        assertThat(dictionary.intern(secondEntry, 22, 33), is(equalTo("ATP-binding")));
+        assertThat(dictionary.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void valuesAreRetainedAfterRehashing() {
+        StringDictionary dictionary = new StringDictionary();
+        String[] geneNames = new String[5000];
+        for (int i = 0; i < geneNames.length; i++) {
+            geneNames[i] = dictionary.intern("GENE" + i);
+        }
+
+        assertThat(dictionary.size(), is(equalTo(5000)));
+        for (int i = 0; i < geneNames.length; i++) {
+            assertThat(dictionary.intern("GENE" + i), is(sameInstance(geneNames[i])));
+        }
+    }
+
+    @Test
+    public void valuesAreNotAddedBeyondMaximumSize() {
+        StringDictionary dictionary = new StringDictionary(1);
+        String tp53 = dictionary.intern("TP53");
+        String mdm2 = dictionary.intern("MDM2");
+
+        assertThat(dictionary.intern(new String("TP53")), is(sameInstance(tp53)));
+        assertThat(dictionary.intern(new String("MDM2")), is(not(sameInstance(mdm2))));
+        assertThat(dictionary.size(), is(equalTo(1)));
+    }
+}
@@ -0,0 +1,42 @@
+package org.reactome.release.db;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.reactome.release.db.AttributeDiffer.SCALAR_COMPARATOR;
+import static org.reactome.release.db.AttributeDiffer.sameOrderedValues;
+import static org.reactome.release.db.AttributeDiffer.sameUnorderedValues;
+
+public class TestAttributeDiffer {
+
+    @Test
+    public void scalarValuesAreComparedByStringForm() {
+        assertThat(sameOrderedValues(
+            Collections.singletonList(393L), Collections.singletonList(393), SCALAR_COMPARATOR), is(true));
+        assertThat(sameOrderedValues(
+            Collections.singletonList("393"), Collections.singletonList(394), SCALAR_COMPARATOR), is(false));
+    }
+
+    @Test
+    public void reorderedValuesDifferOnlyWhenOrdered() {
+        assertThat(sameOrderedValues(
+            Arrays.asList("Kinase", "ATP-binding"), Arrays.asList("ATP-binding", "Kinase"), SCALAR_COMPARATOR),
+            is(false));
+        assertThat(sameUnorderedValues(
+            Arrays.asList("Kinase", "ATP-binding"), Arrays.asList("ATP-binding", "Kinase"), SCALAR_COMPARATOR),
+            is(true));
+    }
+
+    @Test
+    public void unorderedValuesWithDifferentMultiplicitiesDiffer() {
+        assertThat(sameUnorderedValues(
+            Arrays.asList("Kinase", "Kinase", "ATP-binding"), Arrays.asList("ATP-binding", "Kinase", "ATP-binding"),
+            SCALAR_COMPARATOR), is(false));
+        assertThat(sameUnorderedValues(
+            Collections.singletonList("Kinase"), Arrays.asList("Kinase", "Kinase"), SCALAR_COMPARATOR), is(false));
+    }
+}
@@ -0,0 +1,32 @@
+package org.reactome.release.db;
+
+import org.junit.Test;
+import org.reactome.release.collections.LongHashSet;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class TestDeletionExecutor {
+
+    @Test
+    public void allCandidatesAreDeletedWhenThereAreNoDbIdsToSkip() {
+        assertThat(
+            DeletionExecutor.getDbIdsToDelete(Arrays.asList(3L, 1L, 2L), new LongHashSet(), new LongHashSet()),
+            contains(3L, 1L, 2L)
+        );
+    }
+
+    @Test
+    public void skippedRepeatedAndDeletedDbIdsAreDropped() {
+        LongHashSet dbIdsToSkip = LongHashSet.of(Collections.singletonList(2L));
+        LongHashSet deletedDbIds = LongHashSet.of(Collections.singletonList(4L));
+
+        assertThat(
+            DeletionExecutor.getDbIdsToDelete(Arrays.asList(1L, 2L, 3L, 1L, 4L, 5L), dbIdsToSkip, deletedDbIds),
+            contains(1L, 3L, 5L)
+        );
+    }
+}
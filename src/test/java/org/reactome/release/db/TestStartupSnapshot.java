@@ -0,0 +1,64 @@
+package org.reactome.release.db;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class TestStartupSnapshot {
+
+    private Path snapshotFilePath;
+
+    @Before
+    public void createSnapshotDirectory() throws Exception {
+        this.snapshotFilePath = Files.createTempDirectory("uniprot_update").resolve("startup_snapshot.bin");
+    }
+
+    @Test
+    public void snapshotIsReadBackWhenTheWatermarkMatches() throws Exception {
+        Map<String, Long> rgpAccessionToDbId = new HashMap<>();
+        rgpAccessionToDbId.put("P04637", 69488L);
+        rgpAccessionToDbId.put("Q9Y6K9", 1234567L);
+
+        new StartupSnapshot(getWatermark(9000000L), rgpAccessionToDbId,
+            Collections.singletonMap("P04637-2", 69489L), Collections.singletonMap("ENSG00000141510", 69490L),
+            Collections.singletonMap("Homo sapiens", 48887L), Collections.singletonMap("UniProt", 2L)
+        ).write(snapshotFilePath);
+
+        StartupSnapshot startupSnapshot = StartupSnapshot.readIfCurrent(snapshotFilePath, getWatermark(9000000L));
+
+        assertThat(startupSnapshot.getRGPAccessionToDbId(), is(equalTo(rgpAccessionToDbId)));
+        assertThat(startupSnapshot.getIsoformAccessionToDbId().get("P04637-2"), is(equalTo(69489L)));
+        assertThat(
+            startupSnapshot.getReferenceDNASequenceIdentifierToDbId().get("ENSG00000141510"), is(equalTo(69490L)));
+        assertThat(startupSnapshot.getSpeciesNameToDbId().get("Homo sapiens"), is(equalTo(48887L)));
+        assertThat(startupSnapshot.getReferenceDatabaseNameToDbId().get("UniProt"), is(equalTo(2L)));
+    }
+
+    @Test
+    public void snapshotIsNotUsedWhenTheWatermarkDiffers() throws Exception {
+        new StartupSnapshot(getWatermark(9000000L), Collections.emptyMap(), Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()
+        ).write(snapshotFilePath);
+
+        assertThat(StartupSnapshot.readIfCurrent(snapshotFilePath, getWatermark(9000001L)), is(nullValue()));
+    }
+
+    private static DatabaseWatermark getWatermark(long maxReferenceGeneProductDbId) {
+        Map<String, DatabaseWatermark.ClassWatermark> classNameToWatermark = new LinkedHashMap<>();
+        classNameToWatermark.put("ReferenceGeneProduct",
+            new DatabaseWatermark.ClassWatermark(maxReferenceGeneProductDbId, 120000L));
+        classNameToWatermark.put("Species", new DatabaseWatermark.ClassWatermark(48887L, 1L));
+        return new DatabaseWatermark(classNameToWatermark);
+    }
+}
@@ -0,0 +1,192 @@
+package org.reactome.release.db;
+
+import org.gk.persistence.MySQLAdaptor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestTransactionBatcher {
+    private MySQLAdaptor dba;
+
+    @Before
+    public void mockAdaptor() throws Exception {
+        this.dba = mock(MySQLAdaptor.class);
+        // Row lock times can't be read from the mocked connection, so batch sizes only adapt to commit times
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenThrow(new SQLException("No server status"));
+        when(this.dba.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    public void deadlocksAndLockWaitTimeoutsAreTransient() {
+        assertThat(TransactionBatcher.isTransient(new SQLException("Deadlock found", "40001", 1213)), is(true));
+        assertThat(TransactionBatcher.isTransient(
+            new RuntimeException(new SQLException("Lock wait timeout exceeded", "HY000", 1205))), is(true));
+        assertThat(TransactionBatcher.isTransient(new SQLTransactionRollbackException("Rolled back")), is(true));
+        assertThat(TransactionBatcher.isTransient(new SQLException("Unknown column", "42S22", 1054)), is(false));
+        assertThat(TransactionBatcher.isTransient(new IllegalStateException("No species")), is(false));
+    }
+
+    @Test
+    public void batchSizeAdaptsToCommitTimeWithinBounds() {
+        TransactionBatcher transactionBatcher = new TransactionBatcher(null, 100, 1000, 800, 500L, 3);
+
+        assertThat(transactionBatcher.adaptBatchSize(100L, 0L), is(equalTo(1000)));
+        assertThat(transactionBatcher.adaptBatchSize(300L, 0L), is(equalTo(1000)));
+        assertThat(transactionBatcher.adaptBatchSize(600L, 0L), is(equalTo(750)));
+        assertThat(transactionBatcher.adaptBatchSize(100L, 900L), is(equalTo(562)));
+        for (int commit = 0; commit < 20; commit++) {
+            transactionBatcher.adaptBatchSize(2000L, 0L);
+        }
+        assertThat(transactionBatcher.getBatchSize(), is(equalTo(100)));
+    }
+
+    @Test
+    public void batchIsReplayedAndCommittedAfterTransientCommitFailure() throws Exception {
+        doThrow(new SQLException("Deadlock found", "40001", 1213)).doNothing().when(dba).commit();
+        TransactionBatcher transactionBatcher = getTransactionBatcher(3, 2);
+        RecordingBatchProcessor batchProcessor = new RecordingBatchProcessor(null);
+
+        int numberOfItems = transactionBatcher.run(getItemSource("a", "b", "c"), batchProcessor);
+
+        assertThat(numberOfItems, is(equalTo(3)));
+        assertThat(batchProcessor.getCalls(), contains(
+            "process a", "process b", "process c", "beforeCommit", "afterRollback",
+            "process a", "process b", "process c", "beforeCommit", "afterCommit",
+            "beforeCommit", "afterCommit"
+        ));
+        verify(dba).rollback();
+        assertThat(transactionBatcher.getNumberOfRetries(), is(equalTo(1)));
+        assertThat(transactionBatcher.getNumberOfCommittedItems(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void batchIsReplayedAfterTransientProcessingFailure() throws Exception {
+        doNothing().when(dba).commit();
+        TransactionBatcher transactionBatcher = getTransactionBatcher(3, 2);
+        RecordingBatchProcessor batchProcessor =
+            new RecordingBatchProcessor(new SQLException("Lock wait timeout exceeded", "HY000", 1205));
+
+        transactionBatcher.run(getItemSource("a", "fail", "c"), batchProcessor);
+
+        // The retried batch is committed at the halved batch size
+        assertThat(batchProcessor.getCalls(), contains(
+            "process a", "process fail", "afterRollback", "process a", "process fail", "beforeCommit", "afterCommit",
+            "process c", "beforeCommit", "afterCommit"
+        ));
+        assertThat(transactionBatcher.getNumberOfCommittedItems(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void batchIsGivenUpAfterMaximumRetries() throws Exception {
+        SQLException deadlock = new SQLException("Deadlock found", "40001", 1213);
+        doThrow(deadlock).when(dba).commit();
+        TransactionBatcher transactionBatcher = getTransactionBatcher(2, 2);
+        RecordingBatchProcessor batchProcessor = new RecordingBatchProcessor(null);
+
+        try {
+            transactionBatcher.run(getItemSource("a", "b"), batchProcessor);
+            fail("Expected the batch to fail after 2 retries");
+        } catch (SQLException e) {
+            assertThat(e, is(deadlock));
+        }
+
+        assertThat(batchProcessor.getCalls(), contains(
+            "process a", "process b", "beforeCommit", "afterRollback",
+            "process a", "process b", "beforeCommit", "afterRollback",
+            "process a", "process b", "beforeCommit", "afterRollback"
+        ));
+        verify(dba, times(3)).rollback();
+        assertThat(transactionBatcher.getNumberOfRetries(), is(equalTo(2)));
+        assertThat(transactionBatcher.getNumberOfCommittedItems(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void batchIsNotRetriedAfterOtherFailure() throws Exception {
+        TransactionBatcher transactionBatcher = getTransactionBatcher(3, 2);
+        IllegalStateException failure = new IllegalStateException("No species");
+        RecordingBatchProcessor batchProcessor = new RecordingBatchProcessor(failure);
+
+        try {
+            transactionBatcher.run(getItemSource("a", "fail", "c"), batchProcessor);
+            fail("Expected the batch to fail");
+        } catch (IllegalStateException e) {
+            assertThat(e, is(failure));
+        }
+
+        assertThat(batchProcessor.getCalls(), contains("process a", "process fail", "afterRollback"));
+        verify(dba).rollback();
+        assertThat(transactionBatcher.getNumberOfRetries(), is(equalTo(0)));
+    }
+
+    private TransactionBatcher getTransactionBatcher(int batchSize, int maxRetries) {
+        TransactionBatcher transactionBatcher = new TransactionBatcher(dba, 1, 10, batchSize, 60_000L, maxRetries);
+        transactionBatcher.setRetryBackoffMillis(0L);
+        return transactionBatcher;
+    }
+
+    private static TransactionBatcher.ItemSource<String> getItemSource(String... items) {
+        Iterator<String> itemIterator = Arrays.asList(items).iterator();
+        return () -> itemIterator.hasNext() ? itemIterator.next() : null;
+    }
+
+    /**
+     * Records the calls made to it.  The item "fail" fails with the given exception the first time it is processed.
+     */
+    private static class RecordingBatchProcessor implements TransactionBatcher.BatchProcessor<String> {
+        private final Exception failure;
+        private final List<String> calls = new ArrayList<>();
+        private boolean failed;
+
+        RecordingBatchProcessor(Exception failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void process(String item) throws Exception {
+            this.calls.add("process " + item);
+            if (item.equals("fail") && this.failure != null && !this.failed) {
+                this.failed = true;
+                throw this.failure;
+            }
+        }
+
+        @Override
+        public void beforeCommit() {
+            this.calls.add("beforeCommit");
+        }
+
+        @Override
+        public void afterCommit() {
+            this.calls.add("afterCommit");
+        }
+
+        @Override
+        public void afterRollback() {
+            this.calls.add("afterRollback");
+        }
+
+        List<String> getCalls() {
+            return this.calls;
+        }
+    }
+}
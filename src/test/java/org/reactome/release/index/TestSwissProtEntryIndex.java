@@ -0,0 +1,97 @@
+package org.reactome.release.index;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class TestSwissProtEntryIndex {
+    private Path swissProtFilePath;
+
+    @Before
+    public void copySampleSwissProtFile() throws Exception {
+        Path updateDirectoryPath = Files.createTempDirectory("uniprot_update");
+        this.swissProtFilePath = updateDirectoryPath.resolve("uniprot_sprot.xml");
+        Files.copy(
+            Paths.get(getClass().getClassLoader().getResource("uniprot_sprot_sample.xml").toURI()),
+            this.swissProtFilePath
+        );
+    }
+
+    @Test
+    public void primaryAndSecondaryAccessionsFindTheSameEntry() throws Exception {
+        try (SwissProtEntryIndex swissProtEntryIndex = SwissProtEntryIndex.openOrBuild(this.swissProtFilePath)) {
+            SwissProtEntryIndex.EntryLocation primaryLocation = swissProtEntryIndex.find("P04637");
+            SwissProtEntryIndex.EntryLocation secondaryLocation = swissProtEntryIndex.find("Q15087");
+
+            assertThat(primaryLocation, is(notNullValue()));
+            assertThat(secondaryLocation.getOffset(), is(equalTo(primaryLocation.getOffset())));
+            assertThat(secondaryLocation.getLength(), is(equalTo(primaryLocation.getLength())));
+            assertThat(swissProtEntryIndex.size(), is(equalTo(7)));
+        }
+    }
+
+    @Test
+    public void unknownAccessionIsNotFound() throws Exception {
+        try (SwissProtEntryIndex swissProtEntryIndex = SwissProtEntryIndex.openOrBuild(this.swissProtFilePath)) {
+            assertThat(swissProtEntryIndex.find("A0A024QZQ1"), is(nullValue()));
+            assertThat(swissProtEntryIndex.find("P04636"), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void readEntryMatchesEntryBuiltFromFileLines() throws Exception {
+        List<String> entriesFromLines = getEntriesFromLines();
+
+        try (SwissProtEntryIndex swissProtEntryIndex = SwissProtEntryIndex.openOrBuild(this.swissProtFilePath)) {
+            String mouseEntry = swissProtEntryIndex.readEntry(swissProtEntryIndex.find("P02340"));
+            String yeastEntry = swissProtEntryIndex.readEntry(swissProtEntryIndex.find("P00546"));
+
+            assertThat(mouseEntry, is(equalTo(entriesFromLines.get(1))));
+            assertThat(yeastEntry, is(equalTo(entriesFromLines.get(3))));
+        }
+    }
+
+    @Test
+    public void existingIndexIsReusedUntilSwissProtFileChanges() throws Exception {
+        SwissProtEntryIndex.openOrBuild(this.swissProtFilePath).close();
+        Path indexFilePath = SwissProtEntryIndex.getIndexFilePath(this.swissProtFilePath);
+
+        assertThat(SwissProtEntryIndex.isCurrent(indexFilePath, this.swissProtFilePath), is(equalTo(true)));
+
+        Files.write(this.swissProtFilePath, "\n".getBytes(), StandardOpenOption.APPEND);
+
+        assertThat(SwissProtEntryIndex.isCurrent(indexFilePath, this.swissProtFilePath), is(equalTo(false)));
+    }
+
+    private List<String> getEntriesFromLines() throws Exception {
+        List<String> entries = new ArrayList<>();
+        StringBuilder entryBuilder = new StringBuilder();
+        try (BufferedReader swissProtFileReader = Files.newBufferedReader(this.swissProtFilePath)) {
+            String line;
+            while ((line = swissProtFileReader.readLine()) != null) {
+                if (entryBuilder.length() == 0 && !line.contains("<entry")) {
+                    continue;
+                }
+                entryBuilder.append(line);
+                if (line.contains("</entry>")) {
+                    entries.add(entryBuilder.toString());
+                    entryBuilder = new StringBuilder();
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,73 @@
+package org.reactome.release.logging;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestUpdateLog {
+
+    private Path changeLogFilePath;
+
+    @Before
+    public void createChangeLogFilePath() throws Exception {
+        this.changeLogFilePath = Files.createTempDirectory("update-log").resolve("changes.log");
+    }
+
+    @Test
+    public void placeholdersAreFilledInOrder() {
+        assertThat(UpdateLog.format("New isoform: {}\t{}\tMaster: {}", new Object[] {"P04637-2", 123L, 456L}),
+            is(equalTo("New isoform: P04637-2\t123\tMaster: 456")));
+        assertThat(UpdateLog.format("{} and {}", new Object[] {"one"}), is(equalTo("one and {}")));
+        assertThat(UpdateLog.format("No placeholders", new Object[] {"unused"}), is(equalTo("No placeholders")));
+    }
+
+    @Test
+    public void detailIsOnlyWrittenToChangeLog() throws Exception {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        try (UpdateLog updateLog = new UpdateLog(
+            this.changeLogFilePath, new PrintStream(console, true, "UTF-8"), UpdateLog.Level.INFO, 10)) {
+
+            updateLog.debug("New UniProt:{}\t{}", "P04637", 123L);
+            updateLog.info("{} records processed", 1000);
+        }
+
+        assertThat(console.toString("UTF-8"), is(equalTo("1000 records processed" + System.lineSeparator())));
+        List<String> changeLogLines = Files.readAllLines(this.changeLogFilePath, StandardCharsets.UTF_8);
+        assertThat(changeLogLines.size(), is(equalTo(2)));
+        assertThat(changeLogLines.get(0), endsWith("DEBUG New UniProt:P04637\t123"));
+        assertThat(changeLogLines.get(1), endsWith("INFO  1000 records processed"));
+    }
+
+    @Test
+    public void repetitiveWarningsAreRateLimitedOnConsole() throws Exception {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        try (UpdateLog updateLog = new UpdateLog(
+            this.changeLogFilePath, new PrintStream(console, true, "UTF-8"), UpdateLog.Level.INFO, 2)) {
+
+            for (long dbId = 1; dbId <= 5; dbId++) {
+                updateLog.warn("No new values for {} on {} skipping attribute update", "keyword", dbId);
+            }
+        }
+
+        List<String> consoleLines = Arrays.asList(console.toString("UTF-8").split(System.lineSeparator()));
+        assertThat(consoleLines, is(equalTo(Arrays.asList(
+            "WARNING: No new values for keyword on 1 skipping attribute update",
+            "WARNING: No new values for keyword on 2 skipping attribute update",
+            "3 warnings \"No new values for {} on {} skipping attribute update\" not shown on the console " +
+                "(see the change log)"
+        ))));
+        assertThat(Files.readAllLines(this.changeLogFilePath, StandardCharsets.UTF_8).size(), is(equalTo(5)));
+    }
+}
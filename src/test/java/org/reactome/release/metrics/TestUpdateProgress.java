@@ -0,0 +1,123 @@
+package org.reactome.release.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.core.Is.is;
+
+public class TestUpdateProgress {
+
+    private UpdateProgress updateProgress;
+
+    @Before
+    public void createUpdateProgress() {
+        DatabaseCallTimings.clear();
+        this.updateProgress = new UpdateProgress(new FixedSource());
+    }
+
+    @Test
+    public void progressIsWrittenInPrometheusTextFormat() {
+        DatabaseCallTimings.record("storeInstance", 2_000_000L);
+        DatabaseCallTimings.record("storeInstance", 4_000_000L);
+
+        List<String> lines = Arrays.asList(this.updateProgress.toPrometheusText().split("\n"));
+
+        assertThat(lines, hasItem("# TYPE uniprot_update_records_processed_total counter"));
+        assertThat(lines, hasItem("uniprot_update_records_processed_total 12000"));
+        assertThat(lines, hasItem("uniprot_update_phase_info{phase=\"processing \\\"entries\\\"\"} 1"));
+        assertThat(lines, hasItem("uniprot_update_pending_batch_entries 250"));
+        assertThat(lines, hasItem("uniprot_update_prefetch_hit_ratio 0.75"));
+        assertThat(lines, hasItem("# TYPE uniprot_update_database_call_seconds summary"));
+        assertThat(lines, hasItem("uniprot_update_database_call_seconds_count{operation=\"storeInstance\"} 2"));
+        assertThat(lines, hasItem("uniprot_update_database_call_seconds_sum{operation=\"storeInstance\"} 0.006"));
+        assertThat(this.updateProgress.getDatabaseCallMeanMillis().get("storeInstance"), is(equalTo(3.0)));
+    }
+
+    @Test
+    public void metricsAreServedOverHttp() throws Exception {
+        Properties configProperties = new Properties();
+        configProperties.setProperty("metricsPort", "0");
+
+        try (MetricsServer metricsServer = MetricsServer.fromConfig(configProperties, this.updateProgress)) {
+            HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://localhost:" + metricsServer.getPort() + "/metrics").openConnection();
+            assertThat(connection.getResponseCode(), is(equalTo(200)));
+            assertThat(connection.getContentType(), containsString("version=0.0.4"));
+            try (InputStream response = connection.getInputStream()) {
+                assertThat(new String(response.readAllBytes(), StandardCharsets.UTF_8),
+                    containsString("uniprot_update_batch_size 1000\n"));
+            }
+        }
+    }
+
+    @Test
+    public void metricsAreNotServedWithoutPort() throws Exception {
+        try (MetricsServer metricsServer = MetricsServer.fromConfig(new Properties(), this.updateProgress)) {
+            assertThat(metricsServer.isServing(), is(false));
+        }
+    }
+
+    private static class FixedSource implements UpdateProgress.Source {
+        @Override
+        public String getPhase() {
+            return "processing \"entries\"";
+        }
+
+        @Override
+        public long getRecordsProcessed() {
+            return 12000L;
+        }
+
+        @Override
+        public long getLastProgressMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public int getPrefetchQueueDepth() {
+            return 400;
+        }
+
+        @Override
+        public int getLogQueueDepth() {
+            return 0;
+        }
+
+        @Override
+        public int getPendingBatchEntries() {
+            return 250;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 1000;
+        }
+
+        @Override
+        public int getPendingReferenceDNASequenceUpdates() {
+            return 3;
+        }
+
+        @Override
+        public double getPrefetchHitRate() {
+            return 0.75;
+        }
+
+        @Override
+        public double getValueDictionaryHitRate() {
+            return 0.5;
+        }
+    }
+}
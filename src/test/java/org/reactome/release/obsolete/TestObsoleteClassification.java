@@ -0,0 +1,51 @@
+package org.reactome.release.obsolete;
+
+import org.junit.Test;
+import org.reactome.release.collections.LongHashSet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class TestObsoleteClassification {
+
+    @Test
+    public void deletableInstancesAreThoseOfDeletableUniProtAccessionsThenIsoforms() {
+        ObsoleteClassification obsoleteClassification = new ObsoleteClassification(Arrays.asList(
+            getObsoleteAccession("P12345-2", true, EnumSet.of(ObsoleteLabel.DELETABLE), 3L),
+            getObsoleteAccession("Q9XYZ1", false, EnumSet.of(ObsoleteLabel.NO_REPLACEMENT), 2L),
+            getObsoleteAccession("P12345", false, EnumSet.of(ObsoleteLabel.DELETABLE, ObsoleteLabel.PLANT), 1L)
+        ), new LongHashSet());
+
+        assertThat(getDbIds(obsoleteClassification.getDeletableInstances()), contains(1L, 3L));
+    }
+
+    @Test
+    public void trEMBLAccessionsExcludeOtherLabels() {
+        ObsoleteClassification obsoleteClassification = new ObsoleteClassification(Arrays.asList(
+            getObsoleteAccession("A0A024R161", false, EnumSet.of(ObsoleteLabel.TREMBL)),
+            getObsoleteAccession("P12345", false, EnumSet.of(ObsoleteLabel.HAS_REPLACEMENT), 1L)
+        ), new LongHashSet());
+
+        assertThat(obsoleteClassification.getTrEMBLAccessions(), contains("A0A024R161"));
+    }
+
+    private static ObsoleteAccession getObsoleteAccession(
+        String accession, boolean isoform, EnumSet<ObsoleteLabel> labels, Long... dbIds) {
+
+        ObsoleteInstance[] obsoleteInstances = Arrays.stream(dbIds)
+            .map(dbId -> new ObsoleteInstance(dbId, "Homo sapiens", false,
+                Collections.emptyList(), Collections.emptyList()))
+            .toArray(ObsoleteInstance[]::new);
+        return new ObsoleteAccession(
+            accession, isoform, labels, Collections.emptyList(), Arrays.asList(obsoleteInstances));
+    }
+
+    private static List<Long> getDbIds(List<ObsoleteInstance> obsoleteInstances) {
+        return Arrays.asList(obsoleteInstances.stream().map(ObsoleteInstance::getDbId).toArray(Long[]::new));
+    }
+}
@@ -0,0 +1,60 @@
+package org.reactome.release.parsing;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compares the time to produce descriptions for the golden corpus protein blocks with the original chain of
+ * String.replaceAll calls and with {@link DescriptionNormalizer}.  Run with the test classpath, e.g.
+ * <code>java -cp target/classes:target/test-classes org.reactome.release.parsing.DescriptionNormalizerBenchmark</code>
+ */
+public class DescriptionNormalizerBenchmark {
+    private static final int WARM_UP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    public static void main(String[] args) throws Exception {
+        ClassLoader classLoader = DescriptionNormalizerBenchmark.class.getClassLoader();
+        List<String> goldenLines = Files.readAllLines(
+            Paths.get(classLoader.getResource("description_golden.txt").toURI()), StandardCharsets.UTF_8);
+        List<String> proteinBlocks = new ArrayList<>();
+        for (int i = 0; i < goldenLines.size(); i += 2) {
+            proteinBlocks.add(goldenLines.get(i));
+        }
+
+        double replaceAllNanosPerBlock =
+            measure(proteinBlocks, TestDescriptionNormalizer::replaceAllChain);
+        double normalizerNanosPerBlock =
+            measure(proteinBlocks, DescriptionNormalizer::normalize);
+
+        System.out.println(String.format("replaceAll chain:       %10.1f ns/protein block", replaceAllNanosPerBlock));
+        System.out.println(String.format("DescriptionNormalizer:  %10.1f ns/protein block", normalizerNanosPerBlock));
+        System.out.println(String.format("Speed-up:               %10.1fx",
+            replaceAllNanosPerBlock / normalizerNanosPerBlock));
+    }
+
+    private static double measure(List<String> proteinBlocks, UnaryOperator<String> normalizer) {
+        long checksum = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            for (String proteinBlock : proteinBlocks) {
+                checksum += normalizer.apply(proteinBlock).length();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            for (String proteinBlock : proteinBlocks) {
+                checksum += normalizer.apply(proteinBlock).length();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum == 0) {
+            System.out.println("No descriptions produced");
+        }
+        return (double) elapsed / ((long) MEASURED_ITERATIONS * proteinBlocks.size());
+    }
+}
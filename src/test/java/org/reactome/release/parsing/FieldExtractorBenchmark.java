@@ -0,0 +1,61 @@
+package org.reactome.release.parsing;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Compares the time to extract every entry field from the sample SwissProt entries by compiling the regular
+ * expression on each call (as the update used to) and with the precompiled {@link FieldExtractors}.  Run with the
+ * test classpath, e.g.
+ * <code>java -cp target/classes:target/test-classes org.reactome.release.parsing.FieldExtractorBenchmark</code>
+ */
+public class FieldExtractorBenchmark {
+    private static final int WARM_UP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    public static void main(String[] args) throws Exception {
+        List<String> entries = TestFieldExtractor.getSampleEntries();
+
+        double compilePerCallNanosPerEntry =
+            measure(entries, (fieldExtractor, entry) ->
+                TestFieldExtractor.extractWithPatternCompiledPerCall(fieldExtractor, entry));
+        double precompiledNanosPerEntry =
+            measure(entries, FieldExtractor::extractAll);
+
+        System.out.println(String.format("Compiled per call:  %10.1f ns/entry", compilePerCallNanosPerEntry));
+        System.out.println(String.format("Precompiled:        %10.1f ns/entry", precompiledNanosPerEntry));
+        System.out.println(String.format("Speed-up:           %10.1fx",
+            compilePerCallNanosPerEntry / precompiledNanosPerEntry));
+    }
+
+    private static double measure(List<String> entries,
+                                  BiFunction<FieldExtractor, String, List<String>> extraction) {
+        long checksum = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            checksum += extractAllFields(entries, extraction);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            checksum += extractAllFields(entries, extraction);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum == 0) {
+            System.out.println("No fields extracted");
+        }
+        return (double) elapsed / ((long) MEASURED_ITERATIONS * entries.size());
+    }
+
+    private static long extractAllFields(List<String> entries,
+                                         BiFunction<FieldExtractor, String, List<String>> extraction) {
+        List<FieldExtractor> fieldExtractors = TestFieldExtractor.getEntryFieldExtractors();
+        long numberOfValues = 0;
+        for (String entry : entries) {
+            for (FieldExtractor fieldExtractor : fieldExtractors) {
+                numberOfValues += extraction.apply(fieldExtractor, entry).size();
+            }
+        }
+        return numberOfValues;
+    }
+}
@@ -0,0 +1,102 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestChainFeatureScanner {
+    private static final String[] ENTRY_TOKENS = {
+        "<feature type=\"chain\" id=\"PRO_0000185703\" description=\"Cellular tumor antigen p53\">",
+        "<feature type=\"initiator methionine\" description=\"Removed\" evidence=\"3\">",
+        "<feature type=\"propeptide\" id=\"PRO_0000000001\">", "<feature type=\"signal peptide\">",
+        "<feature type=\"transit peptide\" description=\"Mitochondrion\">", "<feature type=\"peptide\">",
+        "<feature type=\"region of interest\" description=\"Interaction with CCAR2\">",
+        "<feature type=\"chains\">", "<feature", " type=\"chain\"", " subtype=\"peptide\"", "</feature>",
+        "<location>", "<location sequence=\"P04637-2\">", "</location>", "<begin position=\"1\"/>",
+        "<begin position=\"21\"/>", "<begin status=\"unknown\"/>", "<begin position=\"x\"/>", "<end position=\"393\"/>",
+        "<end position=\"20\"/>", "<end status=\"unknown\"/>", "<end position=\"", "<position position=\"1\"/>",
+        "<position position=\"\"/>", "<dbReference type=\"PDB\" id=\"1A1U\"/>", "<sequence length=\"393\"/>",
+        "    ", " ", "\t", ">", "\"", "12", "\u2028", "\u0085", "\r"
+    };
+
+    @Test
+    public void chainsOfSampleEntriesMatchRegularExpressions() throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(
+            Paths.get(getClass().getClassLoader().getResource("uniprot_sprot_sample.xml").toURI()))) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                entries.add(entrySlice.decode());
+            }
+        }
+
+        ChainFeatureScanner chainFeatureScanner = new ChainFeatureScanner();
+        List<List<String>> entryChains = new ArrayList<>();
+        for (String entry : entries) {
+            List<String> chains = chainFeatureScanner.scan(entry);
+            assertThat(chains, is(equalTo(parseChainsWithRegularExpressions(entry))));
+            entryChains.add(chains);
+        }
+        assertThat(entryChains, is(equalTo(Arrays.asList(
+            Collections.singletonList("chain:1-393"),
+            Arrays.asList("initiator methionine:1", "chain:2-390", "propeptide:380-"),
+            Arrays.asList("signal peptide:1-20", "chain:21-363"),
+            Collections.emptyList()
+        ))));
+    }
+
+    @Test
+    public void chainsMatchRegularExpressionsForGeneratedEntries() {
+        ChainFeatureScanner chainFeatureScanner = new ChainFeatureScanner();
+        Random random = new Random(20261019L);
+        for (int i = 0; i < 50000; i++) {
+            StringBuilder entry = new StringBuilder();
+            int tokenCount = random.nextInt(40);
+            for (int j = 0; j < tokenCount; j++) {
+                entry.append(ENTRY_TOKENS[random.nextInt(ENTRY_TOKENS.length)]);
+            }
+
+            assertThat(entry.toString(),
+                chainFeatureScanner.scan(entry.toString()),
+                is(equalTo(parseChainsWithRegularExpressions(entry.toString())))
+            );
+        }
+    }
+
+    static List<String> parseChainsWithRegularExpressions(String entry) {
+        Pattern chainsPattern = Pattern.compile("<feature.*?type=\"(initiator methionine|chain|peptide|propeptide|" +
+            "signal peptide|transit peptide)\"(.*?)</feature>");
+        Matcher chainsMatcher = chainsPattern.matcher(entry);
+
+        List<String> chains = new ArrayList<>();
+        while (chainsMatcher.find()) {
+            String featureType = chainsMatcher.group(1);
+            String featureContent = chainsMatcher.group(2);
+
+            if (featureType.equals("initiator methionine")) {
+                chains.add("initiator methionine:" +
+                    matchFirstValue(featureContent, "<location.*?>\\s+<position position=\"(\\d+)\""));
+            } else {
+                chains.add(featureType + ":" + matchFirstValue(featureContent, "<begin position=\"(\\d+)\"") + "-" +
+                    matchFirstValue(featureContent, "<end position=\"(\\d+)"));
+            }
+        }
+        return chains;
+    }
+
+    private static String matchFirstValue(String text, String patternString) {
+        Matcher matcher = Pattern.compile(patternString, Pattern.MULTILINE).matcher(text);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+}
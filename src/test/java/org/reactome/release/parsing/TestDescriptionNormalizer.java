@@ -0,0 +1,81 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestDescriptionNormalizer {
+    private static final String[] PROTEIN_BLOCK_TOKENS = {
+        "<recommendedName>", "</recommendedName>", "<recommendedName ref=\"1\">", "<recommendedName ref=\"\">",
+        "<alternativeName>", "</alternativeName>", "<fullName>", "</fullName>", "<fullName evidence=\"3\">",
+        "<shortName>", "</shortName>", "<shortName evidence=\"1 2\">", "<ecNumber>", "</ecNumber>",
+        "<ecNumber evidence=\"5\">", "<component>", "</component>", "<cdAntigenName>", "</cdAntigenName>",
+        " type=\"fragment\">", " type=\"fragments\">", "type=\"fragment", "\"", ">", " ", "   ", "\t", "\n",
+        "Cellular", "tumor antigen", "p53", "2.7.11.1", "&amp;", "&gt;", "\u000B", "\f", "\r", "\u2028"
+    };
+
+    @Test
+    public void normalizedDescriptionsMatchGoldenCorpus() throws Exception {
+        // The golden corpus alternates between protein blocks (as extracted from SwissProt entries) and the
+        // description produced for them by the original chain of String.replaceAll calls
+        List<String> goldenLines = Files.readAllLines(
+            Paths.get(getClass().getClassLoader().getResource("description_golden.txt").toURI()),
+            StandardCharsets.UTF_8
+        );
+
+        for (int i = 0; i < goldenLines.size(); i += 2) {
+            String proteinBlock = goldenLines.get(i);
+            String expectedDescription = goldenLines.get(i + 1);
+
+            assertThat(proteinBlock, DescriptionNormalizer.normalize(proteinBlock), is(equalTo(expectedDescription)));
+        }
+    }
+
+    @Test
+    public void normalizedDescriptionsMatchReplaceAllChainForGeneratedProteinBlocks() {
+        Random random = new Random(20261019L);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder proteinBlock = new StringBuilder();
+            int tokenCount = random.nextInt(24);
+            for (int j = 0; j < tokenCount; j++) {
+                proteinBlock.append(PROTEIN_BLOCK_TOKENS[random.nextInt(PROTEIN_BLOCK_TOKENS.length)]);
+            }
+
+            assertThat(proteinBlock.toString(),
+                DescriptionNormalizer.normalize(proteinBlock.toString()),
+                is(equalTo(replaceAllChain(proteinBlock.toString())))
+            );
+        }
+    }
+
+    static String replaceAllChain(String description) {
+        return description
+            .replaceAll("</fullName>","")
+            .replaceAll("<fullName>","")
+            .replaceAll("</recommendedName>","")
+            .replaceAll("<recommendedName>"," recommendedName: ")
+            .replaceAll("</alternativeName>","")
+            .replaceAll("</shortName>","")
+            .replaceAll("<alternativeName>"," alternativeName: ")
+            .replaceAll("<shortName>"," shortName: ")
+            .replaceAll("<recommendedName ref=\"\\d+\"","")
+            .replaceAll("<ecNumber>", " ecNumber: ")
+            .replaceAll("</ecNumber>", "")
+            .replaceAll(" +"," ")
+            .replaceAll("\\n","\t")
+            .replaceAll("\\t"," ")
+            .replaceAll(">","")
+            .replaceAll("<","")
+            .replaceAll("type=\"fragments?\"","")
+            .replaceAll("^\\s+","")
+            .replaceAll("\\s+$","");
+    }
+}
@@ -0,0 +1,103 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestEntryFramer {
+
+    @Test
+    public void framedEntriesMatchEntriesBuiltFromFileLines() throws Exception {
+        assertThat(getFramedEntries(EntryFramer.DEFAULT_WINDOW_SIZE), is(equalTo(getEntriesFromLines())));
+    }
+
+    @Test
+    public void entriesSpanningMappingWindowsAreRemapped() throws Exception {
+        assertThat(getFramedEntries(4096), is(equalTo(getEntriesFromLines())));
+    }
+
+    @Test(expected = IOException.class)
+    public void entryLargerThanMappingWindowThrowsIOException() throws Exception {
+        getFramedEntries(1024);
+    }
+
+    @Test
+    public void entrySliceLocatesValuesWithoutDecodingEntry() throws Exception {
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath())) {
+            EntrySlice entrySlice = entryFramer.next();
+
+            byte[] accessionTag = "<accession>".getBytes();
+            int valueStart = entrySlice.indexOf(accessionTag, 0) + accessionTag.length;
+            int valueEnd = entrySlice.indexOf((byte) '<', valueStart);
+
+            assertThat(entrySlice.decodeAscii(valueStart, valueEnd), is(equalTo("P04637")));
+        }
+    }
+
+    @Test
+    public void adjacentRangesFrameEachEntryOnce() throws Exception {
+        long fileSize = Files.size(getSampleSwissProtFilePath());
+        List<String> entriesFromLines = getEntriesFromLines();
+        for (long splitOffset = 0; splitOffset <= fileSize; splitOffset += 97) {
+            List<String> entries = getFramedEntries(0, splitOffset);
+            entries.addAll(getFramedEntries(splitOffset, fileSize));
+
+            assertThat("Split at " + splitOffset, entries, is(equalTo(entriesFromLines)));
+        }
+    }
+
+    private List<String> getFramedEntries(long startOffset, long endOffset) throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath(), 4096, startOffset, endOffset)) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                entries.add(entrySlice.decode());
+            }
+        }
+        return entries;
+    }
+
+    private List<String> getFramedEntries(int windowSize) throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath(), windowSize)) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                entries.add(entrySlice.decode());
+            }
+        }
+        return entries;
+    }
+
+    private List<String> getEntriesFromLines() throws Exception {
+        List<String> entries = new ArrayList<>();
+        StringBuilder entryBuilder = new StringBuilder();
+        try (BufferedReader swissProtFileReader = Files.newBufferedReader(getSampleSwissProtFilePath())) {
+            String line;
+            while ((line = swissProtFileReader.readLine()) != null) {
+                if (entryBuilder.length() == 0 && !line.contains("<entry")) {
+                    continue;
+                }
+                entryBuilder.append(line);
+                if (line.contains("</entry>")) {
+                    entries.add(entryBuilder.toString());
+                    entryBuilder = new StringBuilder();
+                }
+            }
+        }
+        return entries;
+    }
+
+    private Path getSampleSwissProtFilePath() throws Exception {
+        return Paths.get(getClass().getClassLoader().getResource("uniprot_sprot_sample.xml").toURI());
+    }
+}
@@ -0,0 +1,123 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+import org.reactome.release.collections.StringDictionary;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+public class TestFieldExtractor {
+
+    @Test
+    public void extractedValuesMatchPatternsCompiledPerCall() throws Exception {
+        for (String entry : getSampleEntries()) {
+            for (FieldExtractor fieldExtractor : getEntryFieldExtractors()) {
+                List<String> expectedValues = extractWithPatternCompiledPerCall(fieldExtractor, entry);
+
+                assertThat(fieldExtractor.toString(), fieldExtractor.extractAll(entry), is(equalTo(expectedValues)));
+                assertThat(fieldExtractor.toString(), fieldExtractor.extractFirst(entry),
+                    is(equalTo(!expectedValues.isEmpty() ? expectedValues.get(0) : "")));
+            }
+        }
+    }
+
+    @Test
+    public void valuesAreAddedToCollectionProvided() {
+        String entry = "<accession>P04637</accession><accession>Q15086</accession><accession>P04637</accession>";
+        Set<String> accessions = new LinkedHashSet<>(Arrays.asList("P00546"));
+
+        assertThat(FieldExtractors.ACCESSION.extractAll(entry, accessions), is(sameInstance(accessions)));
+        assertThat(accessions, contains("P00546", "P04637", "Q15086"));
+
+        StringDictionary dictionary = new StringDictionary();
+        String kinase = dictionary.intern("Kinase");
+        List<String> keywords = FieldExtractors.KEYWORD.extractAll(
+            "<keyword id=\"KW-0418\">Kinase</keyword>", new ArrayList<>(), dictionary);
+        assertThat(keywords.get(0), is(sameInstance(kinase)));
+    }
+
+    @Test
+    public void versionNumberIsRemovedOrIdentifierKept() {
+        assertThat(FieldExtractors.UNVERSIONED_IDENTIFIER.extractFirst("ENSG00000141510.17", "ENSG00000141510.17"),
+            is(equalTo("ENSG00000141510")));
+        assertThat(FieldExtractors.UNVERSIONED_IDENTIFIER.extractFirst("ENSG00000141510", "ENSG00000141510"),
+            is(equalTo("ENSG00000141510")));
+    }
+
+    @Test
+    public void extractorsCanBeSharedByThreads() throws Exception {
+        List<String> entries = getSampleEntries();
+        List<List<String>> expectedAccessions = new ArrayList<>();
+        for (String entry : entries) {
+            expectedAccessions.add(extractWithPatternCompiledPerCall(FieldExtractors.ACCESSION, entry));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    for (int iteration = 0; iteration < 2000; iteration++) {
+                        int entryIndex = iteration % entries.size();
+                        List<String> accessions = FieldExtractors.ACCESSION.extractAll(entries.get(entryIndex));
+                        if (!accessions.equals(expectedAccessions.get(entryIndex))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<Boolean> result : executorService.invokeAll(tasks)) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    static List<String> extractWithPatternCompiledPerCall(FieldExtractor fieldExtractor, String entry) {
+        Pattern pattern = Pattern.compile(fieldExtractor.getPattern().pattern(), fieldExtractor.getPattern().flags());
+        Matcher matcher = pattern.matcher(entry);
+
+        List<String> values = new ArrayList<>();
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    // Extractors applied to the entry text (the identifier version number is removed from Ensembl gene ids only)
+    static List<FieldExtractor> getEntryFieldExtractors() {
+        List<FieldExtractor> entryFieldExtractors = new ArrayList<>(FieldExtractors.getAll());
+        entryFieldExtractors.remove(FieldExtractors.UNVERSIONED_IDENTIFIER);
+        return entryFieldExtractors;
+    }
+
+    static List<String> getSampleEntries() throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(Paths.get(
+            TestFieldExtractor.class.getClassLoader().getResource("uniprot_sprot_sample.xml").toURI()))) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                entries.add(entrySlice.decode());
+            }
+        }
+        return entries;
+    }
+}
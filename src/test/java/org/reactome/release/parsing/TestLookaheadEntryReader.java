@@ -0,0 +1,64 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestLookaheadEntryReader {
+
+    @Test
+    public void acceptedEntriesAreSeenBeforeTheyAreReturned() throws Exception {
+        List<String> seenAccessions = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath())) {
+            LookaheadEntryReader lookaheadEntryReader = new LookaheadEntryReader(entryFramer, getTaxonPrefilter(), 2,
+                (primaryAccession, entry) -> seenAccessions.add(primaryAccession));
+
+            LookaheadEntryReader.LookaheadEntry firstEntry = lookaheadEntryReader.next();
+
+            assertThat(firstEntry.getAccessions().get(0), is(equalTo("P04637")));
+            assertThat(seenAccessions, contains("P04637", "P02340"));
+        }
+    }
+
+    @Test
+    public void entriesAreReturnedInFileOrder() throws Exception {
+        List<String> primaryAccessions = new ArrayList<>();
+        List<Boolean> accepted = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath())) {
+            LookaheadEntryReader lookaheadEntryReader =
+                new LookaheadEntryReader(entryFramer, getTaxonPrefilter(), 2, (primaryAccession, entry) -> {});
+
+            LookaheadEntryReader.LookaheadEntry lookaheadEntry;
+            while ((lookaheadEntry = lookaheadEntryReader.next()) != null) {
+                primaryAccessions.add(lookaheadEntry.getAccessions().get(0));
+                accepted.add(lookaheadEntry.isAccepted());
+            }
+        }
+
+        assertThat(primaryAccessions, contains("P04637", "P02340", "Q9YGQ9", "P00546"));
+        assertThat(accepted, is(equalTo(Arrays.asList(true, true, false, false))));
+    }
+
+    private TaxonPrefilter getTaxonPrefilter() {
+        Map<Integer, String> trackedTaxa = new HashMap<>();
+        trackedTaxa.put(9606, "Homo sapiens");
+        trackedTaxa.put(10090, "Mus musculus");
+        return new TaxonPrefilter(trackedTaxa, Collections.emptySet());
+    }
+
+    private Path getSampleSwissProtFilePath() throws Exception {
+        return Paths.get(getClass().getClassLoader().getResource("uniprot_sprot_sample.xml").toURI());
+    }
+}
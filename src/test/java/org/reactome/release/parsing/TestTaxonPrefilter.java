@@ -0,0 +1,81 @@
+package org.reactome.release.parsing;
+
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestTaxonPrefilter {
+
+    @Test
+    public void entriesForTrackedSpeciesAreAccepted() throws Exception {
+        List<Boolean> accepted = acceptEntries(new TaxonPrefilter(getTrackedTaxa(), Collections.emptySet()));
+
+        assertThat(accepted, is(equalTo(Arrays.asList(true, true, false, true))));
+    }
+
+    @Test
+    public void entryForUntrackedSpeciesWithKnownAccessionIsAccepted() throws Exception {
+        Set<String> knownAccessions = new HashSet<>(Collections.singletonList("Q9YGQ9"));
+
+        List<Boolean> accepted = acceptEntries(new TaxonPrefilter(getTrackedTaxa(), knownAccessions));
+
+        assertThat(accepted, is(equalTo(Arrays.asList(true, true, true, true))));
+    }
+
+    @Test
+    public void strainTaxonIsAcceptedByTrackedSpeciesName() throws Exception {
+        Map<Integer, String> trackedTaxa = new HashMap<>();
+        trackedTaxa.put(4932, "Saccharomyces cerevisiae");
+
+        List<Boolean> accepted = acceptEntries(new TaxonPrefilter(trackedTaxa, Collections.emptySet()));
+
+        assertThat(accepted, is(equalTo(Arrays.asList(false, false, false, true))));
+    }
+
+    @Test
+    public void accessionsOfCheckedEntryAreAvailable() throws Exception {
+        TaxonPrefilter taxonPrefilter = new TaxonPrefilter(getTrackedTaxa(), Collections.emptySet());
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath())) {
+            taxonPrefilter.accept(entryFramer.next());
+
+            assertThat(taxonPrefilter.getAccessions(), contains("P04637", "Q15086", "Q15087"));
+        }
+    }
+
+    private List<Boolean> acceptEntries(TaxonPrefilter taxonPrefilter) throws Exception {
+        List<Boolean> accepted = new ArrayList<>();
+        try (EntryFramer entryFramer = new EntryFramer(getSampleSwissProtFilePath())) {
+            EntrySlice entrySlice;
+            while ((entrySlice = entryFramer.next()) != null) {
+                accepted.add(taxonPrefilter.accept(entrySlice));
+            }
+        }
+        return accepted;
+    }
+
+    private Map<Integer, String> getTrackedTaxa() {
+        Map<Integer, String> trackedTaxa = new HashMap<>();
+        trackedTaxa.put(9606, "Homo sapiens");
+        trackedTaxa.put(10090, "Mus musculus");
+        trackedTaxa.put(4932, "Saccharomyces cerevisiae");
+        return trackedTaxa;
+    }
+
+    private Path getSampleSwissProtFilePath() throws Exception {
+        return Paths.get(getClass().getClassLoader().getResource("uniprot_sprot_sample.xml").toURI());
+    }
+}
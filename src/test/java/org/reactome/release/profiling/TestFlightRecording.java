@@ -0,0 +1,54 @@
+package org.reactome.release.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestFlightRecording {
+
+    private Path recordingDirectoryPath;
+
+    @Before
+    public void createRecordingDirectory() throws Exception {
+        this.recordingDirectoryPath = Files.createTempDirectory("flight-recording");
+    }
+
+    @Test
+    public void nothingIsRecordedUnlessSwitchedOn() throws Exception {
+        try (FlightRecording flightRecording = FlightRecording.fromConfig(new Properties(), recordingDirectoryPath)) {
+            assertThat(flightRecording.isRecording(), is(false));
+        }
+        assertThat(Files.exists(recordingDirectoryPath.resolve("uniprot_update.jfr")), is(false));
+    }
+
+    @Test
+    public void updateEventsAreWrittenToRecordingFile() throws Exception {
+        Properties configProperties = new Properties();
+        configProperties.setProperty("flightRecording", "true");
+
+        try (FlightRecording flightRecording = FlightRecording.fromConfig(configProperties, recordingDirectoryPath)) {
+            assertThat(flightRecording.isRecording(), is(true));
+            DatabaseCallEvent.start("storeInstance", "ReferenceGeneProduct").end(1);
+        }
+
+        List<RecordedEvent> databaseCallEvents =
+            RecordingFile.readAllEvents(recordingDirectoryPath.resolve("uniprot_update.jfr"))
+                .stream()
+                .filter(event -> event.getEventType().getName().equals("org.reactome.release.DatabaseCall"))
+                .collect(Collectors.toList());
+        assertThat(databaseCallEvents.size(), is(equalTo(1)));
+        assertThat(databaseCallEvents.get(0).getString("operation"), is(equalTo("storeInstance")));
+        assertThat(databaseCallEvents.get(0).getInt("numberOfInstances"), is(equalTo(1)));
+    }
+}
@@ -0,0 +1,119 @@
+package org.reactome.release.reports;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.reactome.release.metrics.LatencyHistogram;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.core.Is.is;
+
+public class TestEntryLatencyReport {
+    private static final long MILLIS = 1_000_000L;
+
+    private Path reportDirectoryPath;
+
+    @Before
+    public void createReportDirectory() throws Exception {
+        this.reportDirectoryPath = Files.createTempDirectory("entry-latency");
+    }
+
+    @Test
+    public void onlySlowestEntriesAreKept() {
+        EntryLatencyReport entryLatencyReport = new EntryLatencyReport(reportDirectoryPath, 2);
+        entryLatencyReport.record("P04637", 50_000, 3 * MILLIS, 0, 4 * MILLIS);
+        entryLatencyReport.record("Q00987", 20_000, 1 * MILLIS, 0, 1 * MILLIS);
+        entryLatencyReport.record("P38398", 90_000, 10 * MILLIS, 400 * MILLIS, 30 * MILLIS);
+        entryLatencyReport.record("O15151", 10_000, 1 * MILLIS, 0, 2 * MILLIS);
+        entryLatencyReport.commitBatch();
+
+        List<String> slowestAccessions = entryLatencyReport.getSlowestEntries()
+            .stream()
+            .map(EntryLatencyReport.EntryLatency::getAccession)
+            .collect(Collectors.toList());
+        assertThat(slowestAccessions, contains("P38398", "P04637"));
+        assertThat(entryLatencyReport.getSlowestEntries().get(0)
+            .getStageNanos(EntryLatencyReport.Stage.REFERENCE_DNA_SEQUENCES), is(equalTo(400 * MILLIS)));
+        assertThat(entryLatencyReport.getEntryHistogram().getCount(), is(equalTo(4L)));
+    }
+
+    @Test
+    public void discardedEntriesAreNotCounted() {
+        EntryLatencyReport entryLatencyReport = new EntryLatencyReport(reportDirectoryPath, 10);
+        entryLatencyReport.record("P04637", 50_000, 3 * MILLIS, 0, 4 * MILLIS);
+        entryLatencyReport.discardBatch();
+        entryLatencyReport.record("P04637", 50_000, 3 * MILLIS, 0, 4 * MILLIS);
+        assertThat(entryLatencyReport.getEntryHistogram().getCount(), is(equalTo(0L)));
+
+        entryLatencyReport.commitBatch();
+        assertThat(entryLatencyReport.getEntryHistogram().getCount(), is(equalTo(1L)));
+        assertThat(entryLatencyReport.getSlowestEntries().size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void mergedReportRanksSlowestEntriesOfAllShards() throws Exception {
+        Path shard0DirectoryPath = Files.createDirectory(reportDirectoryPath.resolve("shard-0"));
+        EntryLatencyReport shard0Report = new EntryLatencyReport(shard0DirectoryPath, 2);
+        shard0Report.record("P04637", 50_000, 3 * MILLIS, 0, 4 * MILLIS);
+        shard0Report.record("Q00987", 20_000, 1 * MILLIS, 0, 1 * MILLIS);
+        shard0Report.commitBatch();
+        shard0Report.writeData();
+
+        Path shard1DirectoryPath = Files.createDirectory(reportDirectoryPath.resolve("shard-1"));
+        EntryLatencyReport shard1Report = new EntryLatencyReport(shard1DirectoryPath, 2);
+        shard1Report.record("P38398", 90_000, 10 * MILLIS, 400 * MILLIS, 30 * MILLIS);
+        shard1Report.record("O15151", 10_000, 1 * MILLIS, 0, 2 * MILLIS);
+        shard1Report.commitBatch();
+        shard1Report.writeData();
+
+        EntryLatencyReport mergedReport = new EntryLatencyReport(reportDirectoryPath, 2);
+        mergedReport.mergeData(shard0DirectoryPath);
+        mergedReport.mergeData(shard1DirectoryPath);
+
+        List<String> slowestAccessions = mergedReport.getSlowestEntries()
+            .stream()
+            .map(EntryLatencyReport.EntryLatency::getAccession)
+            .collect(Collectors.toList());
+        assertThat(slowestAccessions, contains("P38398", "P04637"));
+        assertThat(mergedReport.getEntryHistogram().getCount(), is(equalTo(4L)));
+        assertThat(mergedReport.getStageHistogram(EntryLatencyReport.Stage.REFERENCE_DNA_SEQUENCES).getMaxMillis(),
+            is(equalTo(400.0)));
+        assertThat(mergedReport.getEntryHistogram().getBucketCounts()[1], is(equalTo(1L)));
+    }
+
+    @Test
+    public void percentilesAreUpperBoundsOfTheirBuckets() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            latencyHistogram.record(3 * MILLIS);
+        }
+        latencyHistogram.record(150 * MILLIS);
+        latencyHistogram.record(12_000 * MILLIS);
+
+        assertThat(latencyHistogram.getPercentileMillis(50), is(equalTo(5.0)));
+        assertThat(latencyHistogram.getPercentileMillis(99), is(equalTo(200.0)));
+        assertThat(latencyHistogram.getPercentileMillis(100), is(equalTo(12_000.0)));
+        assertThat(latencyHistogram.getBucketCounts()[2], is(equalTo(98L)));
+        assertThat(latencyHistogram.getBucketCounts()[13], is(equalTo(1L)));
+    }
+
+    @Test
+    public void reportReplacesEarlierReport() throws Exception {
+        EntryLatencyReport entryLatencyReport = new EntryLatencyReport(reportDirectoryPath, 10);
+        entryLatencyReport.record("P04637", 50_000, 3 * MILLIS, 0, 4 * MILLIS);
+        entryLatencyReport.writeReport();
+        entryLatencyReport.writeReport();
+
+        List<String> reportLines = Files.readAllLines(reportDirectoryPath.resolve(EntryLatencyReport.FILE_NAME));
+        assertThat(reportLines.get(0), is(equalTo("Entry latency of 1 entries")));
+        assertThat(reportLines.stream().filter(line -> line.startsWith("Entry latency")).count(), is(equalTo(1L)));
+        assertThat(reportLines, hasItem("P04637\t50000\t7.000\t3.000\t0.000\t4.000"));
+    }
+}
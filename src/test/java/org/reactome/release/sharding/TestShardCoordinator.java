@@ -0,0 +1,91 @@
+package org.reactome.release.sharding;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.reactome.release.db.DatabaseWatermark;
+import org.reactome.release.db.StartupSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+
+public class TestShardCoordinator {
+    private static final String REPORT_FILE_NAME = "ewasCoordinatesReport.txt";
+
+    private Path updateDirectoryPath;
+
+    @Before
+    public void createUpdateDirectory() throws Exception {
+        this.updateDirectoryPath = Files.createTempDirectory("uniprot-update");
+    }
+
+    @Test
+    public void reportsOfPreviousRunsAreNotMerged() throws Exception {
+        ShardCoordinator shardCoordinator = new ShardCoordinator(updateDirectoryPath, 2, "config.properties", 1L);
+        shardCoordinator.prepare(getStartupSnapshot());
+        writeShardReport(0, "stale row\n");
+        writeShardReport(1, "stale row\n");
+
+        shardCoordinator.prepare(getStartupSnapshot());
+        writeShardReport(1, "shard 1 row\n");
+        shardCoordinator.mergeReport(REPORT_FILE_NAME);
+
+        assertThat(Files.readAllLines(updateDirectoryPath.resolve(REPORT_FILE_NAME)), contains("shard 1 row"));
+        assertThat(Files.exists(ShardCoordinator.getSnapshotFilePath(updateDirectoryPath)), is(true));
+    }
+
+    @Test
+    public void coordinatorReportIsMergedFirst() throws Exception {
+        ShardCoordinator shardCoordinator = new ShardCoordinator(updateDirectoryPath, 2, "config.properties", 1L);
+        shardCoordinator.prepare(getStartupSnapshot());
+        writeShardReport(0, "shard 0 row\n");
+        Path coordinatorDirectoryPath = ShardCoordinator.getCoordinatorDirectoryPath(updateDirectoryPath);
+        Files.createDirectories(coordinatorDirectoryPath);
+        Files.write(coordinatorDirectoryPath.resolve(REPORT_FILE_NAME),
+            "coordinator row\n".getBytes(StandardCharsets.UTF_8));
+        shardCoordinator.mergeReport(REPORT_FILE_NAME);
+
+        assertThat(Files.readAllLines(updateDirectoryPath.resolve(REPORT_FILE_NAME)),
+            contains("coordinator row", "shard 0 row"));
+    }
+
+    @Test
+    public void progressOfShardsIsCombined() throws Exception {
+        ShardCoordinator shardCoordinator = new ShardCoordinator(updateDirectoryPath, 3, "config.properties", 1L);
+        shardCoordinator.prepare(getStartupSnapshot());
+        new ShardProgress(100L, 2_000L).write(ShardCoordinator.getShardDirectoryPath(updateDirectoryPath, 0));
+        new ShardProgress(50L, 3_000L).write(ShardCoordinator.getShardDirectoryPath(updateDirectoryPath, 2));
+
+        ShardProgress progress = shardCoordinator.getProgress();
+
+        assertThat(progress.getRecordsProcessed(), is(150L));
+        assertThat(progress.getLastProgressMillis(), is(3_000L));
+    }
+
+    @Test
+    public void progressOfPreviousRunsIsRemoved() throws Exception {
+        ShardCoordinator shardCoordinator = new ShardCoordinator(updateDirectoryPath, 1, "config.properties", 1L);
+        shardCoordinator.prepare(getStartupSnapshot());
+        new ShardProgress(100L, 2_000L).write(ShardCoordinator.getShardDirectoryPath(updateDirectoryPath, 0));
+
+        shardCoordinator.prepare(getStartupSnapshot());
+
+        assertThat(shardCoordinator.getProgress().getRecordsProcessed(), is(0L));
+    }
+
+    private void writeShardReport(int shardIndex, String text) throws Exception {
+        Files.write(ShardCoordinator.getShardDirectoryPath(updateDirectoryPath, shardIndex).resolve(REPORT_FILE_NAME),
+            text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static StartupSnapshot getStartupSnapshot() {
+        return new StartupSnapshot(new DatabaseWatermark(Collections.emptyMap()), new HashMap<>(), new HashMap<>(),
+            new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+}
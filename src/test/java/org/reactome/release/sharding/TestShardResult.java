@@ -0,0 +1,63 @@
+package org.reactome.release.sharding;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TestShardResult {
+
+    private Path shardDirectoryPath;
+
+    @Before
+    public void createShardDirectory() throws Exception {
+        this.shardDirectoryPath = Files.createTempDirectory("shard-0");
+    }
+
+    @Test
+    public void shardResultIsReadBackAsWritten() throws Exception {
+        Map<String, List<String>> secondaryAccessionToPrimaryAccessions = new LinkedHashMap<>();
+        secondaryAccessionToPrimaryAccessions.put("Q15086", Arrays.asList("P04637", "P02340"));
+        Map<Long, String> duplicateDbIdToAccession = Collections.singletonMap(1234567L, "P04637");
+
+        new ShardResult(0, 1000, 250, 3, new LinkedHashSet<>(Arrays.asList("P04637", "Q9Y6K9")),
+            new LinkedHashSet<>(Collections.singletonList("P04637-2")), secondaryAccessionToPrimaryAccessions,
+            Collections.singletonMap("Q9Y6K9-2", "P04637"), duplicateDbIdToAccession
+        ).write(shardDirectoryPath);
+
+        ShardResult shardResult = ShardResult.read(shardDirectoryPath);
+
+        assertThat(shardResult.getNumberOfRecords(), is(equalTo(1000)));
+        assertThat(shardResult.getNumberOfInstancesInSwissProtFile(), is(equalTo(250)));
+        assertThat(shardResult.getNumberOfNewSwissProtInstances(), is(equalTo(3)));
+        assertThat(shardResult.getProcessedRGPAccessions(),
+            is(equalTo(new LinkedHashSet<>(Arrays.asList("P04637", "Q9Y6K9")))));
+        assertThat(shardResult.getSecondaryAccessionToPrimaryAccessions(),
+            is(equalTo(secondaryAccessionToPrimaryAccessions)));
+        assertThat(shardResult.getMisMatchedIsoformAccessionToRGPAccession().get("Q9Y6K9-2"), is(equalTo("P04637")));
+        assertThat(shardResult.getDuplicateDbIdToReferenceGeneProductAccession(), is(equalTo(duplicateDbIdToAccession)));
+    }
+
+    @Test
+    public void shardRangesCoverTheFileWithoutOverlapping() {
+        List<ShardRange> shardRanges = ShardRange.split(1003L, 4);
+
+        assertThat(shardRanges.size(), is(equalTo(4)));
+        assertThat(shardRanges.get(0).getStartOffset(), is(equalTo(0L)));
+        for (int i = 1; i < shardRanges.size(); i++) {
+            assertThat(shardRanges.get(i).getStartOffset(), is(equalTo(shardRanges.get(i - 1).getEndOffset())));
+        }
+        assertThat(shardRanges.get(3).getEndOffset(), is(equalTo(1003L)));
+    }
+}